@@ -50,9 +50,11 @@ import org.slf4j.Logger;
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.Event;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.EventManager;
+import org.apache.qpid.server.store.LatencyRecordingTransaction;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageHandle;
 import org.apache.qpid.server.store.MessageStore;
@@ -91,6 +93,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     private final AtomicBoolean _messageStoreOpen = new AtomicBoolean();
 
     private final EventManager _eventManager = new EventManager();
+    private volatile LatencyHistogram _commitLatencyHistogram;
 
     private final DatabaseEntry MESSAGE_METADATA_SEQ_KEY = new DatabaseEntry("MESSAGE_METADATA_SEQ_KEY".getBytes(
             StandardCharsets.UTF_8));
@@ -261,7 +264,13 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     {
         checkMessageStoreOpen();
 
-        return new BDBTransaction();
+        return LatencyRecordingTransaction.wrap(new BDBTransaction(), _commitLatencyHistogram);
+    }
+
+    @Override
+    public void setTransactionCommitLatencyHistogram(final LatencyHistogram histogram)
+    {
+        _commitLatencyHistogram = histogram;
     }
 
     @Override
@@ -53,5 +53,11 @@ public interface BDBEnvironmentContainer<X extends ConfiguredObject<X>> extends
             changesConfiguredObjectState = false)
     Map<String, Object> databaseStatistics(@Param(name="database", description = "database table for which to retrieve statistics", mandatory = true)String database, @Param(name="reset", defaultValue = "false", description = "If true, reset the statistics") boolean reset);
 
+    @ManagedOperation(description = "Get the commit coalescing statistics, including histograms of the number of"
+                                    + " transactions per log flush and of the log flush latency",
+            nonModifying = true,
+            changesConfiguredObjectState = false)
+    Map<String, Object> committerStatistics(@Param(name="reset", defaultValue = "false", description = "If true, reset the statistics") boolean reset);
+
     EnvironmentFacade getEnvironmentFacade();
 }
@@ -21,7 +21,9 @@
 package org.apache.qpid.server.store.berkeleydb;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
@@ -29,6 +31,10 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -36,13 +42,27 @@ import com.sleepycat.je.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.qpid.server.stats.FlightRecorder;
+
 public class CoalescingCommiter implements Committer
 {
     private final CommitThread _commitThread;
 
     public CoalescingCommiter(String name, EnvironmentFacade environmentFacade)
     {
-        _commitThread = new CommitThread("Commit-Thread-" + name, environmentFacade);
+        this(name, EnvironmentFacade.DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS, environmentFacade);
+    }
+
+    /**
+     * @param maxCoalescingDelayMicros upper bound on the time the commit thread may hold back a log flush waiting
+     *                                 for further commits to join the batch. A value of zero disables the delay so
+     *                                 that each flush takes only those commits that queued during the previous one.
+     */
+    public CoalescingCommiter(String name, long maxCoalescingDelayMicros, EnvironmentFacade environmentFacade)
+    {
+        _commitThread = new CommitThread("Commit-Thread-" + name,
+                                         TimeUnit.MICROSECONDS.toNanos(Math.max(0L, maxCoalescingDelayMicros)),
+                                         environmentFacade);
     }
 
     @Override
@@ -90,6 +110,12 @@ public class CoalescingCommiter implements Committer
         return future;
     }
 
+    @Override
+    public Map<String, Object> getStatistics(final boolean reset)
+    {
+        return _commitThread.getStatistics(reset);
+    }
+
 
     private static final class BDBCommitFutureResult<X> implements CommitThreadJob
     {
@@ -128,6 +154,12 @@ public class CoalescingCommiter implements Committer
      * themselves are responsible for adding themselves to the queue and waiting for the commit to happen before
      * continuing, but it is the responsibility of this thread to tell the commit operations when they have been
      * completed by calling back on their {@link org.apache.qpid.server.store.berkeleydb.CoalescingCommiter.BDBCommitFutureResult#complete()} and {@link org.apache.qpid.server.store.berkeleydb.CoalescingCommiter.BDBCommitFutureResult#abort} methods.
+     * <p/>
+     * Before each flush the thread may wait a short coalescing delay so that more commits can join the batch. The delay
+     * adapts to the observed commit arrival interval and flush latency: it is only applied when at least one further
+     * commit is expected to arrive within half a flush, and it never exceeds the configured maximum.  Synchronous and
+     * asynchronous commits are treated alike: the delay is only cut short once the expected batch size is queued.
+     * Under low concurrency no delay is applied and each commit pays for its own flush as before.
      *
      * <p/><table id="crc"><caption>CRC Card</caption> <tr><th> Responsibilities <th> Collaborations </table>
      */
@@ -135,17 +167,30 @@ public class CoalescingCommiter implements Committer
     {
         private static final Logger LOGGER = LoggerFactory.getLogger(CommitThread.class);
         private static final int JOB_QUEUE_NOTIFY_THRESHOLD = 8;
+        private static final int EWMA_WEIGHT_SHIFT = 3;
 
         private final AtomicBoolean _stopped = new AtomicBoolean(false);
         private final Queue<CommitThreadJob> _jobQueue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger _queuedJobs = new AtomicInteger();
         private final Object _lock = new Object();
         private final EnvironmentFacade _environmentFacade;
+        private final long _maxCoalescingDelayNanos;
+        private final CommitStatistics _statistics = new CommitStatistics();
 
         private final List<CommitThreadJob> _inProcessJobs = new ArrayList<>(256);
 
-        public CommitThread(String name, EnvironmentFacade environmentFacade)
+        // The following are only accessed by the commit thread itself
+        private long _flushLatencyEstimateNanos;
+        private long _arrivalIntervalEstimateNanos = Long.MAX_VALUE;
+        private long _lastBatchTime = System.nanoTime();
+
+        private volatile long _coalescingDelayNanos;
+        private volatile int _coalescingTargetSize;
+
+        public CommitThread(String name, long maxCoalescingDelayNanos, EnvironmentFacade environmentFacade)
         {
             super(name);
+            _maxCoalescingDelayNanos = maxCoalescingDelayNanos;
             _environmentFacade = environmentFacade;
         }
 
@@ -177,34 +222,49 @@ public class CoalescingCommiter implements Committer
                         }
                     }
                 }
+                awaitCoalescingDelay();
                 processJobs();
             }
         }
 
+        private void awaitCoalescingDelay()
+        {
+            final long delay = _coalescingDelayNanos;
+            if (delay > 0L)
+            {
+                final long deadline = System.nanoTime() + delay;
+                long remaining = delay;
+                while (remaining > 0L && !_stopped.get() && _queuedJobs.get() < _coalescingTargetSize)
+                {
+                    LockSupport.parkNanos(this, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            }
+        }
+
         private void processJobs()
         {
             CommitThreadJob job;
             while((job = _jobQueue.poll()) != null)
             {
+                _queuedJobs.decrementAndGet();
                 _inProcessJobs.add(job);
             }
 
+            final long batchTime = System.nanoTime();
+            final int batchSize = _inProcessJobs.size();
             int completedJobsIndex = 0;
             try
             {
-                long startTime = 0;
-                if(LOGGER.isDebugEnabled())
-                {
-                    startTime = System.currentTimeMillis();
-                }
-
                 _environmentFacade.flushLog();
 
-                if(LOGGER.isDebugEnabled())
-                {
-                    long duration = System.currentTimeMillis() - startTime;
-                    LOGGER.debug("flushLog completed in " + duration  + " ms");
-                }
+                final long duration = System.nanoTime() - batchTime;
+                LOGGER.debug("flushLog of {} commit(s) completed in {} us",
+                             batchSize, TimeUnit.NANOSECONDS.toMicros(duration));
+
+                _statistics.recordBatch(batchSize, duration);
+                FlightRecorder.getInstance().record(FlightRecorder.EventType.COMMIT_BATCH, getName(), batchSize);
+                adaptCoalescingDelay(batchTime, batchSize, duration);
 
                 while(completedJobsIndex < _inProcessJobs.size())
                 {
@@ -236,11 +296,53 @@ public class CoalescingCommiter implements Committer
             }
         }
 
+        private void adaptCoalescingDelay(final long batchTime, final int batchSize, final long flushDuration)
+        {
+            final long interval = batchTime - _lastBatchTime;
+            _lastBatchTime = batchTime;
+            if (_maxCoalescingDelayNanos == 0L || batchSize == 0)
+            {
+                return;
+            }
+
+            _flushLatencyEstimateNanos = ewma(_flushLatencyEstimateNanos, flushDuration);
+            final long arrivalInterval = Math.max(1L, interval / batchSize);
+            _arrivalIntervalEstimateNanos = _arrivalIntervalEstimateNanos == Long.MAX_VALUE
+                    ? arrivalInterval
+                    : ewma(_arrivalIntervalEstimateNanos, arrivalInterval);
+
+            // Holding back a flush is only worthwhile if further commits are expected to arrive within
+            // the delay, and the delay is kept well below the cost of the flush it is trying to save.
+            final long window = Math.min(_maxCoalescingDelayNanos, _flushLatencyEstimateNanos / 2);
+            if (_arrivalIntervalEstimateNanos < window)
+            {
+                _coalescingTargetSize = (int) Math.min(1L + window / _arrivalIntervalEstimateNanos, Integer.MAX_VALUE);
+                _coalescingDelayNanos = window;
+            }
+            else
+            {
+                _coalescingDelayNanos = 0L;
+            }
+        }
+
+        private long ewma(final long estimate, final long sample)
+        {
+            return estimate + ((sample - estimate) >> EWMA_WEIGHT_SHIFT);
+        }
+
         private boolean hasJobs()
         {
             return !_jobQueue.isEmpty();
         }
 
+        Map<String, Object> getStatistics(final boolean reset)
+        {
+            Map<String, Object> statistics = _statistics.toMap(reset);
+            statistics.put("maxCoalescingDelayMicros", TimeUnit.NANOSECONDS.toMicros(_maxCoalescingDelayNanos));
+            statistics.put("coalescingDelayMicros", TimeUnit.NANOSECONDS.toMicros(_coalescingDelayNanos));
+            return statistics;
+        }
+
         public void addJob(CommitThreadJob commit, final boolean sync)
         {
             if (_stopped.get())
@@ -248,13 +350,19 @@ public class CoalescingCommiter implements Committer
                 throw new IllegalStateException("Commit thread is stopped");
             }
             _jobQueue.add(commit);
-            if(sync || _jobQueue.size() >= JOB_QUEUE_NOTIFY_THRESHOLD)
+            final int queuedJobs = _queuedJobs.incrementAndGet();
+            if (sync || queuedJobs >= JOB_QUEUE_NOTIFY_THRESHOLD)
             {
                 synchronized (_lock)
                 {
                     _lock.notifyAll();
                 }
             }
+            // synchronous commits wait out the delay too, otherwise they would never be coalesced
+            if (_coalescingDelayNanos > 0L && queuedJobs >= _coalescingTargetSize)
+            {
+                LockSupport.unpark(this);
+            }
         }
 
         public void close()
@@ -269,6 +377,7 @@ public class CoalescingCommiter implements Committer
                     _environmentFacade.flushLog();
                     while ((commit = _jobQueue.poll()) != null)
                     {
+                        _queuedJobs.decrementAndGet();
                         commit.complete();
                     }
                 }
@@ -278,6 +387,7 @@ public class CoalescingCommiter implements Committer
                     int abortedCommits = 0;
                     while ((commit = _jobQueue.poll()) != null)
                     {
+                        _queuedJobs.decrementAndGet();
                         abortedCommits++;
                         commit.abort(e);
                     }
@@ -289,6 +399,75 @@ public class CoalescingCommiter implements Committer
 
                 _lock.notifyAll();
             }
+            LockSupport.unpark(this);
+        }
+    }
+
+    /**
+     * Power-of-two histograms of the number of commits coalesced into each log flush and of the flush latency.
+     * Written only by the commit thread; may be read and reset concurrently by management.
+     */
+    private static final class CommitStatistics
+    {
+        private static final int BATCH_SIZE_BUCKETS = 12;
+        private static final int LATENCY_BUCKETS = 21;
+
+        private final AtomicLongArray _batchSizes = new AtomicLongArray(BATCH_SIZE_BUCKETS + 1);
+        private final AtomicLongArray _flushLatencies = new AtomicLongArray(LATENCY_BUCKETS + 1);
+        private final AtomicLong _flushCount = new AtomicLong();
+        private final AtomicLong _commitCount = new AtomicLong();
+        private final AtomicLong _totalFlushLatencyMicros = new AtomicLong();
+        private final AtomicLong _maxBatchSize = new AtomicLong();
+
+        void recordBatch(final int batchSize, final long flushDurationNanos)
+        {
+            final long latencyMicros = TimeUnit.NANOSECONDS.toMicros(flushDurationNanos);
+            _batchSizes.incrementAndGet(bucket(batchSize, BATCH_SIZE_BUCKETS));
+            _flushLatencies.incrementAndGet(bucket(latencyMicros, LATENCY_BUCKETS));
+            _flushCount.incrementAndGet();
+            _commitCount.addAndGet(batchSize);
+            _totalFlushLatencyMicros.addAndGet(latencyMicros);
+            if (batchSize > _maxBatchSize.get())
+            {
+                _maxBatchSize.set(batchSize);
+            }
+        }
+
+        Map<String, Object> toMap(final boolean reset)
+        {
+            final long flushCount = reset ? _flushCount.getAndSet(0L) : _flushCount.get();
+            final long commitCount = reset ? _commitCount.getAndSet(0L) : _commitCount.get();
+            final long totalLatency = reset ? _totalFlushLatencyMicros.getAndSet(0L) : _totalFlushLatencyMicros.get();
+
+            final Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("flushCount", flushCount);
+            statistics.put("commitCount", commitCount);
+            statistics.put("maxBatchSize", reset ? _maxBatchSize.getAndSet(0L) : _maxBatchSize.get());
+            statistics.put("averageBatchSize", flushCount == 0L ? 0.0 : (double) commitCount / flushCount);
+            statistics.put("averageFlushLatencyMicros", flushCount == 0L ? 0L : totalLatency / flushCount);
+            statistics.put("batchSizeHistogram", toHistogram(_batchSizes, BATCH_SIZE_BUCKETS, reset));
+            statistics.put("flushLatencyMicrosHistogram", toHistogram(_flushLatencies, LATENCY_BUCKETS, reset));
+            return statistics;
+        }
+
+        private static int bucket(final long value, final int buckets)
+        {
+            if (value <= 1L)
+            {
+                return 0;
+            }
+            return Math.min(64 - Long.numberOfLeadingZeros(value - 1L), buckets);
+        }
+
+        private static Map<String, Long> toHistogram(final AtomicLongArray counts, final int buckets, final boolean reset)
+        {
+            final Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i <= buckets; i++)
+            {
+                final long count = reset ? counts.getAndSet(i, 0L) : counts.get(i);
+                histogram.put(i < buckets ? "<=" + (1L << i) : ">" + (1L << (buckets - 1)), count);
+            }
+            return histogram;
         }
     }
 
@@ -55,6 +55,8 @@ public interface EnvironmentFacade
     String LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME = "qpid.bdb.je.cleaner_protected_files_limit";
     int DEFAULT_LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT = 10;
     String JUL_LOGGER_LEVEL_OVERRIDE = "qpid.bdb.je.jul_logger_level_override";
+    String COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME = "qpid.bdb.committer.max_coalescing_delay_micros";
+    long DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS = 1000L;
 
 
     void upgradeIfNecessary(ConfiguredObject<?> parent);
@@ -97,5 +99,7 @@ public interface EnvironmentFacade
 
     Map<String,Object> getDatabaseStatistics(String database, boolean reset);
 
+    Map<String, Object> getCommitterStatistics(boolean reset);
+
     void deleteDatabase(String databaseName);
 }
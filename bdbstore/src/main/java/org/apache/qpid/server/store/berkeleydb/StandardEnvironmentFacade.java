@@ -154,7 +154,11 @@ public class StandardEnvironmentFacade implements EnvironmentFacade
             }
         }
 
-        _committer =  new CoalescingCommiter(name, this);
+        _committer =  new CoalescingCommiter(name,
+                                             configuration.getFacadeParameter(Long.class,
+                                                                              COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME,
+                                                                              DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS),
+                                             this);
         _committer.start();
     }
 
@@ -319,6 +323,12 @@ public class StandardEnvironmentFacade implements EnvironmentFacade
         return EnvironmentUtils.getTransactionStatistics(getEnvironment(), reset);
     }
 
+    @Override
+    public Map<String, Object> getCommitterStatistics(final boolean reset)
+    {
+        return _committer.getStatistics(reset);
+    }
+
     private void closeSequences()
     {
         RuntimeException firstThrownException = null;
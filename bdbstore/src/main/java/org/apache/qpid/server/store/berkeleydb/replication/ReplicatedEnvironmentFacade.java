@@ -136,6 +136,7 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
     private final int _executorShutdownTimeout;
 
     private final int _logHandlerCleanerProtectedFilesLimit;
+    private final long _committerMaxCoalescingDelay;
 
     static final SyncPolicy LOCAL_TRANSACTION_SYNCHRONIZATION_POLICY = SyncPolicy.SYNC;
     static final SyncPolicy REMOTE_TRANSACTION_SYNCHRONIZATION_POLICY = SyncPolicy.NO_SYNC;
@@ -271,6 +272,9 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
         _logHandlerCleanerProtectedFilesLimit = _configuration.getFacadeParameter(Integer.class,
                                                                                   LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME,
                                                                                   DEFAULT_LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT);
+        _committerMaxCoalescingDelay = _configuration.getFacadeParameter(Long.class,
+                                                                         COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME,
+                                                                         DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS);
 
         _defaultDurability = new Durability(LOCAL_TRANSACTION_SYNCHRONIZATION_POLICY, REMOTE_TRANSACTION_SYNCHRONIZATION_POLICY, REPLICA_REPLICA_ACKNOWLEDGMENT_POLICY);
         _prettyGroupNodeName = _configuration.getGroupName() + ":" + _configuration.getName();
@@ -866,6 +870,17 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
         return submitEnvironmentTask(timeout, task, "get transaction statistics");
     }
 
+    @Override
+    public Map<String, Object> getCommitterStatistics(final boolean reset)
+    {
+        final CoalescingCommiter coalescingCommiter = _coalescingCommiter;
+        if (coalescingCommiter != null)
+        {
+            return coalescingCommiter.getStatistics(reset);
+        }
+        return Collections.emptyMap();
+    }
+
     @Override
     public Map<String,Object> getDatabaseStatistics(final String database, final boolean reset)
     {
@@ -1683,7 +1698,9 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
             if (localTransactionSynchronizationPolicy == LOCAL_TRANSACTION_SYNCHRONIZATION_POLICY)
             {
                 localTransactionSynchronizationPolicy = SyncPolicy.NO_SYNC;
-                _coalescingCommiter = new CoalescingCommiter(_configuration.getGroupName(), this);
+                _coalescingCommiter = new CoalescingCommiter(_configuration.getGroupName(),
+                                                             _committerMaxCoalescingDelay,
+                                                             this);
                 _coalescingCommiter.start();
             }
             _realMessageStoreDurability = new Durability(localTransactionSynchronizationPolicy, remoteTransactionSynchronizationPolicy, replicaAcknowledgmentPolicy);
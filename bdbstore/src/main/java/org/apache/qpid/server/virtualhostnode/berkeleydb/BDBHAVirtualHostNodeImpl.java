@@ -1449,6 +1449,20 @@ public class BDBHAVirtualHostNodeImpl extends AbstractVirtualHostNode<BDBHAVirtu
             return Collections.emptyMap();
         }
     }
+
+    @Override
+    public Map<String, Object> committerStatistics(final boolean reset)
+    {
+        ReplicatedEnvironmentFacade environmentFacade = getReplicatedEnvironmentFacade();
+        if (environmentFacade != null)
+        {
+            return environmentFacade.getCommitterStatistics(reset);
+        }
+        else
+        {
+            return Collections.emptyMap();
+        }
+    }
     @Override
     public Map<String, Object> databaseStatistics(String database, final boolean reset)
     {
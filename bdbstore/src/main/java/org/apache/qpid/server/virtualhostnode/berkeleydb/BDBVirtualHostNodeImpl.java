@@ -184,6 +184,21 @@ public class BDBVirtualHostNodeImpl extends AbstractStandardVirtualHostNode<BDBV
         return Collections.emptyMap();
     }
 
+    @Override
+    public Map<String, Object> committerStatistics(final boolean reset)
+    {
+        BDBConfigurationStore bdbConfigurationStore = (BDBConfigurationStore) getConfigurationStore();
+        if (bdbConfigurationStore != null)
+        {
+            EnvironmentFacade environmentFacade = bdbConfigurationStore.getEnvironmentFacade();
+            if (environmentFacade != null)
+            {
+                return environmentFacade.getCommitterStatistics(reset);
+            }
+        }
+        return Collections.emptyMap();
+    }
+
     @Override
     public EnvironmentFacade getEnvironmentFacade()
     {
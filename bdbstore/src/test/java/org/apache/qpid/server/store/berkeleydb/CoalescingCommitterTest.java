@@ -23,6 +23,7 @@ package org.apache.qpid.server.store.berkeleydb;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
 import static org.mockito.Mockito.doNothing;
@@ -31,6 +32,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -119,4 +123,37 @@ public class CoalescingCommitterTest extends UnitTestBase
         verify(_environmentFacade, times(2)).flushLog();
         verify(_environmentFacade, times(1)).flushLogFailed(testFailure);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCommitterStatistics() throws Exception
+    {
+        final List<ListenableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            futures.add(_coalescingCommitter.commitAsync(null, i));
+        }
+        for (ListenableFuture<?> future : futures)
+        {
+            future.get(1000, TimeUnit.MILLISECONDS);
+        }
+
+        Map<String, Object> statistics = _coalescingCommitter.getStatistics(false);
+        assertEquals("Unexpected commit count", 10L, statistics.get("commitCount"));
+        final long flushCount = (Long) statistics.get("flushCount");
+        assertTrue("Unexpected flush count " + flushCount, flushCount >= 1 && flushCount <= 10);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> batchSizes = (Map<String, Long>) statistics.get("batchSizeHistogram");
+        long batches = 0;
+        for (Long count : batchSizes.values())
+        {
+            batches += count;
+        }
+        assertEquals("Unexpected number of batches in histogram", flushCount, batches);
+
+        statistics = _coalescingCommitter.getStatistics(true);
+        assertEquals("Unexpected commit count before reset", 10L, statistics.get("commitCount"));
+        statistics = _coalescingCommitter.getStatistics(false);
+        assertEquals("Unexpected commit count after reset", 0L, statistics.get("commitCount"));
+    }
+}
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.store.berkeleydb;
 
+import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME;
+import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS;
 import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.JUL_LOGGER_LEVEL_OVERRIDE;
 import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade
         .LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME;
@@ -32,6 +34,7 @@ import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -170,6 +173,9 @@ public class StandardEnvironmentFacadeTest extends UnitTestBase
         when(sec.getFacadeParameter(eq(Integer.class),
                                     eq(LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME),
                                     anyInt())).thenReturn(0);
+        when(sec.getFacadeParameter(eq(Long.class),
+                                    eq(COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME),
+                                    anyLong())).thenReturn(DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS);
         when(sec.getFacadeParameter(eq(Map.class),
                                     any(),
                                     eq(JUL_LOGGER_LEVEL_OVERRIDE),
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.store.berkeleydb.replication;
 
+import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME;
+import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS;
 import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade.JUL_LOGGER_LEVEL_OVERRIDE;
 import static org.apache.qpid.server.store.berkeleydb.EnvironmentFacade
         .LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME;
@@ -50,6 +52,7 @@ import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.mock;
@@ -1320,6 +1323,9 @@ public class ReplicatedEnvironmentFacadeTest extends UnitTestBase
         when(node.getFacadeParameter(eq(Integer.class),
                                      eq(LOG_HANDLER_CLEANER_PROTECTED_FILES_LIMIT_PROPERTY_NAME),
                                      anyInt())).thenReturn(0);
+        when(node.getFacadeParameter(eq(Long.class),
+                                     eq(COMMITTER_MAX_COALESCING_DELAY_PROPERTY_NAME),
+                                     anyLong())).thenReturn(DEFAULT_COMMITTER_MAX_COALESCING_DELAY_MICROS);
         when(node.getFacadeParameter(eq(Map.class), any(), eq(JUL_LOGGER_LEVEL_OVERRIDE), any())).thenReturn(Collections.emptyMap());
 
         Map<String, String> repConfig = new HashMap<>();
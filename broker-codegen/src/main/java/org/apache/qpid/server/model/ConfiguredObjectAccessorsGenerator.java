@@ -0,0 +1,173 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import org.apache.qpid.server.License;
+
+/**
+ * Generates, for each interface declaring managed attributes or statistics, a class named after the interface with
+ * the suffix {@value #ACCESSORS_SUFFIX} which calls each annotated getter directly.  The type registry uses the
+ * generated class, where present, in place of invoking the getter reflectively.
+ */
+public class ConfiguredObjectAccessorsGenerator extends AbstractProcessor
+{
+    public static final String ACCESSORS_SUFFIX = "Accessors";
+
+    private static final String MANAGED_ATTRIBUTE_CLASS_NAME = "org.apache.qpid.server.model.ManagedAttribute";
+    private static final String DERIVED_ATTRIBUTE_CLASS_NAME = "org.apache.qpid.server.model.DerivedAttribute";
+    private static final String MANAGED_STATISTIC_CLASS_NAME = "org.apache.qpid.server.model.ManagedStatistic";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes()
+    {
+        return new HashSet<>(Arrays.asList(MANAGED_ATTRIBUTE_CLASS_NAME,
+                                           DERIVED_ATTRIBUTE_CLASS_NAME,
+                                           MANAGED_STATISTIC_CLASS_NAME));
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+    {
+        if(roundEnv.processingOver())
+        {
+            return false;
+        }
+
+        final Map<TypeElement, Set<String>> gettersByType = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations)
+        {
+            for (Element e : roundEnv.getElementsAnnotatedWith(annotation))
+            {
+                if (e.getKind() == ElementKind.METHOD
+                    && ((ExecutableElement) e).getParameters().isEmpty()
+                    && isTopLevelInterface(e.getEnclosingElement()))
+                {
+                    gettersByType.computeIfAbsent((TypeElement) e.getEnclosingElement(), t -> new LinkedHashSet<>())
+                                 .add(e.getSimpleName().toString());
+                }
+            }
+        }
+
+        final Filer filer = processingEnv.getFiler();
+        for (Map.Entry<TypeElement, Set<String>> entry : gettersByType.entrySet())
+        {
+            generateAccessors(filer, entry.getKey(), entry.getValue());
+        }
+
+        // other processors validate and act upon these annotations too
+        return false;
+    }
+
+    private boolean isTopLevelInterface(final Element element)
+    {
+        return element.getKind() == ElementKind.INTERFACE
+               && element.getEnclosingElement().getKind() == ElementKind.PACKAGE;
+    }
+
+    private void generateAccessors(final Filer filer, final TypeElement typeElement, final Set<String> getters)
+    {
+        final String typeName = typeElement.getQualifiedName().toString();
+        final String accessorsName = typeName + ACCESSORS_SUFFIX;
+        final String accessorsSimpleName = typeElement.getSimpleName().toString() + ACCESSORS_SUFFIX;
+        final PackageElement packageElement = (PackageElement) typeElement.getEnclosingElement();
+
+        try
+        {
+            JavaFileObject accessorsFile = filer.createSourceFile(accessorsName, typeElement);
+            try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(accessorsFile.openOutputStream(), "UTF-8")))
+            {
+                pw.println("/*");
+                for (String headerLine : License.LICENSE)
+                {
+                    pw.println(" *" + headerLine);
+                }
+                pw.println(" */");
+                pw.println();
+                pw.print("package ");
+                pw.print(packageElement.getQualifiedName());
+                pw.println(";");
+                pw.println();
+                pw.println("import java.util.HashMap;");
+                pw.println("import java.util.Map;");
+                pw.println("import java.util.function.Function;");
+                pw.println();
+                pw.println("import org.apache.qpid.server.model.ConfiguredObject;");
+                pw.println("import org.apache.qpid.server.model.ConfiguredObjectGetters;");
+                pw.println();
+                pw.println("@SuppressWarnings(\"rawtypes\")");
+                pw.println("public final class " + accessorsSimpleName + " implements ConfiguredObjectGetters");
+                pw.println("{");
+                pw.println("    private static final Map<String, Function<ConfiguredObject<?>, Object>> GETTERS = new HashMap<>();");
+                pw.println();
+                pw.println("    static");
+                pw.println("    {");
+                for (String getter : getters)
+                {
+                    pw.println("        GETTERS.put(\"" + getter + "\", object -> ((" + typeName + ") object)." + getter + "());");
+                }
+                pw.println("    }");
+                pw.println();
+                pw.println("    @Override");
+                pw.println("    public Function<ConfiguredObject<?>, Object> getGetter(final String methodName)");
+                pw.println("    {");
+                pw.println("        return GETTERS.get(methodName);");
+                pw.println("    }");
+                pw.println("}");
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     "Failed to write accessors file: "
+                                                     + accessorsName
+                                                     + " - "
+                                                     + e.getLocalizedMessage());
+        }
+    }
+}
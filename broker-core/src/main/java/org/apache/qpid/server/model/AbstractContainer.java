@@ -33,6 +33,7 @@ import java.lang.management.ThreadMXBean;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
@@ -53,6 +54,7 @@ import org.apache.qpid.server.logging.messages.BrokerMessages;
 import org.apache.qpid.server.plugin.ConfigurationSecretEncrypterFactory;
 import org.apache.qpid.server.plugin.PluggableFactoryLoader;
 import org.apache.qpid.server.plugin.QpidServiceLoader;
+import org.apache.qpid.server.stats.FlightRecorder;
 import org.apache.qpid.server.util.HousekeepingExecutor;
 import org.apache.qpid.server.util.ServerScopedRuntimeException;
 import org.apache.qpid.server.util.SystemUtils;
@@ -407,6 +409,17 @@ public abstract class AbstractContainer<X extends AbstractContainer<X>> extends
         return new ThreadStackContent(threadDump.toString());
     }
 
+    public Content dumpFlightRecording(int minutes)
+    {
+        if (minutes <= 0)
+        {
+            throw new IllegalArgumentException("The number of minutes must be positive: " + minutes);
+        }
+        getEventLogger().message(BrokerMessages.OPERATION("dumpFlightRecording"));
+        long since = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(minutes);
+        return new FlightRecordingContent(FlightRecorder.getInstance().dump(since));
+    }
+
     private String getThreadStackTraces(final ThreadInfo threadInfo)
     {
         String lineSeparator = System.lineSeparator();
@@ -520,4 +533,38 @@ public abstract class AbstractContainer<X extends AbstractContainer<X>> extends
             return "text/plain;charset=utf-8";
         }
     }
+
+    public static class FlightRecordingContent implements Content, CustomRestHeaders
+    {
+        private final String _recording;
+
+        public FlightRecordingContent(final String recording)
+        {
+            _recording = recording;
+        }
+
+        @Override
+        public void write(final OutputStream outputStream) throws IOException
+        {
+            outputStream.write(_recording.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void release()
+        {
+            // noop; nothing to release
+        }
+
+        @RestContentHeader("Content-Type")
+        public String getContentType()
+        {
+            return "text/plain;charset=utf-8";
+        }
+
+        @RestContentHeader("Content-Disposition")
+        public String getContentDisposition()
+        {
+            return "attachment; filename=\"flight-recording.txt\"";
+        }
+    }
 }
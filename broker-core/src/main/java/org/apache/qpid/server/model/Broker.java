@@ -329,6 +329,16 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
                                         description = "Regular expression to find threads with names containing matching characters")
                                  String threadNameFindExpression);
 
+    @ManagedOperation(nonModifying = true,
+            description = "Dumps the events of the Broker's internals, such as connection scheduling delays, selector"
+                          + " wakeups, store commit batches, flows to disk and housekeeping task durations, recorded"
+                          + " during the given number of minutes",
+            changesConfiguredObjectState = false)
+    Content dumpFlightRecording(@Param(name="minutes",
+                                       defaultValue = "5",
+                                       description = "The number of minutes of recorded events to dump")
+                                int minutes);
+
     @ManagedOperation(nonModifying = true,
             description = "Returns the principal of the currently authenticated user",
             changesConfiguredObjectState = false,
@@ -42,6 +42,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
 import javax.security.auth.Subject;
@@ -115,12 +116,12 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
 
     private AuthenticationProvider<?> _managementModeAuthenticationProvider;
 
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _maximumMessageSize = new AtomicLong();
 
     @ManagedAttributeField
@@ -854,27 +855,27 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
     }
 
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
     }
 
     @Override
     public void registerMessageReceived(long messageSize)
     {
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         long hwm;
         while((hwm = _maximumMessageSize.get()) < messageSize)
         {
@@ -911,37 +912,37 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     @Override
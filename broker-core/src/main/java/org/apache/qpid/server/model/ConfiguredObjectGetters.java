@@ -0,0 +1,37 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import java.util.function.Function;
+
+/**
+ * Direct accessors for the managed attribute and statistic getters declared by a configured object interface.
+ * Implementations are generated at build time, one per interface, and named after the interface with the suffix
+ * {@code Accessors}.
+ */
+public interface ConfiguredObjectGetters
+{
+    /**
+     * @return a function calling the named getter on a configured object implementing the interface, or null if
+     * the getter is not known
+     */
+    Function<ConfiguredObject<?>, Object> getGetter(String methodName);
+}
@@ -23,16 +23,34 @@ package org.apache.qpid.server.model;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.util.ServerScopedRuntimeException;
 
 abstract class ConfiguredObjectMethodAttributeOrStatistic<C extends ConfiguredObject, T>
         implements ConfiguredObjectAttributeOrStatistic<C,T>
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfiguredObjectMethodAttributeOrStatistic.class);
+
+    private static final ConfiguredObjectGetters NO_GETTERS = methodName -> null;
+
+    private static final ClassValue<ConfiguredObjectGetters> GENERATED_GETTERS =
+            new ClassValue<ConfiguredObjectGetters>()
+            {
+                @Override
+                protected ConfiguredObjectGetters computeValue(final Class<?> type)
+                {
+                    return loadGeneratedGetters(type);
+                }
+            };
 
     private final String _name;
     private final Class<T> _type;
     private final Method _getter;
+    private final Function<ConfiguredObject<?>, Object> _generatedGetter;
 
     ConfiguredObjectMethodAttributeOrStatistic(final Method getter)
     {
@@ -40,6 +58,9 @@ abstract class ConfiguredObjectMethodAttributeOrStatistic<C extends ConfiguredOb
         _getter = getter;
         _type = (Class<T>) AttributeValueConverter.getTypeFromMethod(getter);
         _name = AttributeValueConverter.getNameFromMethod(getter, getType());
+        _generatedGetter = getter.getParameterTypes().length == 0
+                ? GENERATED_GETTERS.get(getter.getDeclaringClass()).getGetter(getter.getName())
+                : null;
     }
 
     @Override
@@ -63,6 +84,11 @@ abstract class ConfiguredObjectMethodAttributeOrStatistic<C extends ConfiguredOb
     @Override
     public T getValue(C configuredObject)
     {
+        if (_generatedGetter != null)
+        {
+            return (T) _generatedGetter.apply(configuredObject);
+        }
+
         try
         {
             return (T) getGetter().invoke(configuredObject);
@@ -101,4 +127,31 @@ abstract class ConfiguredObjectMethodAttributeOrStatistic<C extends ConfiguredOb
         return _getter;
     }
 
+    boolean hasGeneratedGetter()
+    {
+        return _generatedGetter != null;
+    }
+
+    private static ConfiguredObjectGetters loadGeneratedGetters(final Class<?> type)
+    {
+        try
+        {
+            final Class<?> accessorsClass = Class.forName(type.getName() + "Accessors", true, type.getClassLoader());
+            if (ConfiguredObjectGetters.class.isAssignableFrom(accessorsClass))
+            {
+                return (ConfiguredObjectGetters) accessorsClass.getDeclaredConstructor().newInstance();
+            }
+        }
+        catch (ClassNotFoundException e)
+        {
+            // no accessors were generated for this type, getters will be invoked reflectively
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            LOGGER.debug("Unable to use the generated accessors of {}, getters will be invoked reflectively",
+                         type.getName(), e);
+        }
+        return NO_GETTERS;
+    }
+
 }
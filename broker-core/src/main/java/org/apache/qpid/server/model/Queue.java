@@ -31,6 +31,7 @@ import org.apache.qpid.server.exchange.DestinationReferrer;
 import org.apache.qpid.server.logging.LogSubject;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageInfo;
+import org.apache.qpid.server.message.MessageInfoPage;
 import org.apache.qpid.server.message.MessageSource;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.queue.BaseQueue;
@@ -41,6 +42,7 @@ import org.apache.qpid.server.queue.QueueConsumer;
 import org.apache.qpid.server.queue.QueueEntry;
 import org.apache.qpid.server.queue.QueueEntryIterator;
 import org.apache.qpid.server.queue.QueueEntryVisitor;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.util.Deletable;
@@ -512,6 +514,67 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
             description = "Total number of enqueued malformed messages.")
     long getTotalMalformedMessages();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Enqueue Latency (Median)",
+                      description = "The median of the time from arrival at the broker to enqueue of messages on this queue over the last one to two minutes.")
+    long getEnqueueLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Enqueue Latency (99th Percentile)",
+                      description = "The 99th percentile of the time from arrival at the broker to enqueue of messages on this queue over the last one to two minutes.")
+    long getEnqueueLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Enqueue Latency (Maximum)",
+                      description = "The maximum of the time from arrival at the broker to enqueue of messages on this queue over the last one to two minutes.")
+    long getEnqueueLatencyMaximum();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Delivery Latency (Median)",
+                      description = "The median of the time from arrival at the broker to delivery to a consumer of messages on this queue over the last one to two minutes.")
+    long getDeliveryLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Delivery Latency (99th Percentile)",
+                      description = "The 99th percentile of the time from arrival at the broker to delivery to a consumer of messages on this queue over the last one to two minutes.")
+    long getDeliveryLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Delivery Latency (Maximum)",
+                      description = "The maximum of the time from arrival at the broker to delivery to a consumer of messages on this queue over the last one to two minutes.")
+    long getDeliveryLatencyMaximum();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Acknowledgement Latency (Median)",
+                      description = "The median of the time from arrival at the broker to acknowledgement by a consumer of messages on this queue over the last one to two minutes.")
+    long getAcknowledgeLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Acknowledgement Latency (99th Percentile)",
+                      description = "The 99th percentile of the time from arrival at the broker to acknowledgement by a consumer of messages on this queue over the last one to two minutes.")
+    long getAcknowledgeLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION, label = "Acknowledgement Latency (Maximum)",
+                      description = "The maximum of the time from arrival at the broker to acknowledgement by a consumer of messages on this queue over the last one to two minutes.")
+    long getAcknowledgeLatencyMaximum();
+
+    /**
+     * @return histogram of the time in milliseconds from the arrival of a message at the broker to its enqueue
+     */
+    LatencyHistogram getEnqueueLatencyHistogram();
+
+    /**
+     * @return histogram of the time in milliseconds from the arrival of a message to its acquisition by a consumer
+     */
+    LatencyHistogram getDeliveryLatencyHistogram();
+
+    /**
+     * @return histogram of the time in milliseconds from the arrival of a message to its acknowledgement by a
+     * consumer
+     */
+    LatencyHistogram getAcknowledgeLatencyHistogram();
+
     @ManagedOperation(description = "move messages from this queue to another", changesConfiguredObjectState = false)
     List<Long> moveMessages(@Param(name = "destination", description = "The queue to which the messages should be moved", mandatory = true) Queue<?> destination,
                             @Param(name = "messageIds", description = "If provided, only messages in the queue whose (internal) message-id is supplied will be considered for moving") List<Long> messageIds,
@@ -556,6 +619,20 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                                      @Param(name = "last",  defaultValue = "-1") int last,
                                      @Param(name = "includeHeaders", defaultValue = "false") boolean includeHeaders);
 
+    @ManagedOperation(description = "get information about a page of messages, starting after the given cursor."
+                                    + " Each page returns the cursor from which the following page may be read,"
+                                    + " so that reading a page costs only the page size however deep into the"
+                                    + " queue it lies",
+            nonModifying = true,
+            paramRequiringSecure = "includeHeaders",
+            changesConfiguredObjectState = false)
+    MessageInfoPage getMessageInfoPage(@Param(name = "cursor",
+                                              description = "The cursor returned with the previous page. If not"
+                                                            + " provided, the first page is returned") String cursor,
+                                       @Param(name = "count", defaultValue = "100",
+                                               description = "The maximum number of messages to return") int count,
+                                       @Param(name = "includeHeaders", defaultValue = "false") boolean includeHeaders);
+
     @ManagedOperation(description = "get information about the message with the given Id",
             nonModifying = true,
             paramRequiringSecure = "includeHeaders",
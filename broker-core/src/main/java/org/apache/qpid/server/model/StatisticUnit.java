@@ -26,7 +26,8 @@ public enum StatisticUnit
     BYTES("byte"),
     MESSAGES("message"),
     ABSOLUTE_TIME("time"),
-    TIME_DURATION("time duration");
+    TIME_DURATION("time duration"),
+    TIME_DURATION_MICROSECONDS("time duration in microseconds");
 
 
     private String _name;
@@ -91,6 +91,8 @@ import org.apache.qpid.server.message.MessageDeletedException;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageInfo;
 import org.apache.qpid.server.message.MessageInfoImpl;
+import org.apache.qpid.server.message.MessageInfoPage;
+import org.apache.qpid.server.message.MessageInfoPageImpl;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.MessageSender;
@@ -109,6 +111,7 @@ import org.apache.qpid.server.security.SecurityToken;
 import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.StorableMessageMetaData;
@@ -151,6 +154,8 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
     private static final String UTF8 = StandardCharsets.UTF_8.name();
     private static final Operation PUBLISH_ACTION = Operation.PERFORM_ACTION("publish");
+    private static final int BROWSED_ENTRY_CACHE_CAPACITY = 4096;
+    private static final int PAGE_CURSOR_CACHE_CAPACITY = 64;
 
     private final QueueManagingVirtualHost<?> _virtualHost;
     private final DeletedChildListener _deletedChildListener = new DeletedChildListener();
@@ -165,6 +170,9 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private final AtomicInteger _activeSubscriberCount = new AtomicInteger();
 
     private final QueueStatistics _queueStatistics = new QueueStatistics();
+    private final BrowsedEntryCache _browsedEntries = new BrowsedEntryCache(BROWSED_ENTRY_CACHE_CAPACITY);
+    // kept apart from the listed entries so that listing pages of many rows does not evict the cursors
+    private final BrowsedEntryCache _pageCursors = new BrowsedEntryCache(PAGE_CURSOR_CACHE_CAPACITY);
 
     /** max allowed size(KB) of a single message */
     @ManagedAttributeField( afterSet = "updateAlertChecks" )
@@ -1246,6 +1254,12 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     @Override
     public final void enqueue(ServerMessage message, Action<? super MessageInstance> action, MessageEnqueueRecord enqueueRecord)
     {
+        final long arrivalTime = message.getArrivalTime();
+        if (arrivalTime > 0L)
+        {
+            _queueStatistics.getEnqueueLatency().record(System.currentTimeMillis() - arrivalTime);
+        }
+
         final QueueEntry entry;
         if(_recovering.get() != RECOVERED)
         {
@@ -1636,6 +1650,78 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return oldestMessageArrivalTime == 0 ? 0 : System.currentTimeMillis() - oldestMessageArrivalTime;
     }
 
+    @Override
+    public long getEnqueueLatencyMedian()
+    {
+        return _queueStatistics.getEnqueueLatency().getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getEnqueueLatency99thPercentile()
+    {
+        return _queueStatistics.getEnqueueLatency().getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getEnqueueLatencyMaximum()
+    {
+        return _queueStatistics.getEnqueueLatency().getMaximum();
+    }
+
+    @Override
+    public long getDeliveryLatencyMedian()
+    {
+        return _queueStatistics.getDeliveryLatency().getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getDeliveryLatency99thPercentile()
+    {
+        return _queueStatistics.getDeliveryLatency().getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getDeliveryLatencyMaximum()
+    {
+        return _queueStatistics.getDeliveryLatency().getMaximum();
+    }
+
+    @Override
+    public long getAcknowledgeLatencyMedian()
+    {
+        return _queueStatistics.getAcknowledgeLatency().getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getAcknowledgeLatency99thPercentile()
+    {
+        return _queueStatistics.getAcknowledgeLatency().getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getAcknowledgeLatencyMaximum()
+    {
+        return _queueStatistics.getAcknowledgeLatency().getMaximum();
+    }
+
+    @Override
+    public LatencyHistogram getEnqueueLatencyHistogram()
+    {
+        return _queueStatistics.getEnqueueLatency();
+    }
+
+    @Override
+    public LatencyHistogram getDeliveryLatencyHistogram()
+    {
+        return _queueStatistics.getDeliveryLatency();
+    }
+
+    @Override
+    public LatencyHistogram getAcknowledgeLatencyHistogram()
+    {
+        return _queueStatistics.getAcknowledgeLatency();
+    }
+
     @Override
     public boolean isDeleted()
     {
@@ -3508,6 +3594,11 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     @Override
     public Content getMessageContent(final long messageId, final long limit, boolean returnJson, boolean decompressBeforeLimiting)
     {
+        final MessageReference<?> browsedReference = newBrowsedMessageReference(_browsedEntries.get(messageId));
+        if (browsedReference != null)
+        {
+            return createMessageContent(browsedReference, returnJson, limit, decompressBeforeLimiting);
+        }
         final MessageContentFinder messageFinder = new MessageContentFinder(messageId);
         visit(messageFinder);
         if (messageFinder.isFound())
@@ -3575,9 +3666,124 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
     }
 
+    @Override
+    public MessageInfoPage getMessageInfoPage(final String cursor, final int count, final boolean includeHeaders)
+    {
+        if (count <= 0)
+        {
+            throw new IllegalArgumentException("The number of messages must be positive: " + count);
+        }
+        final QueueEntryList entries = getEntries();
+        QueueEntry node = cursor == null || cursor.isEmpty() ? entries.getHead() : findCursorEntry(cursor);
+        final List<MessageInfo> messages = new ArrayList<>(Math.min(count, 1024));
+        QueueEntry last = null;
+        long lastMessageNumber = 0;
+        while (messages.size() < count && (node = entries.next(node)) != null)
+        {
+            final MessageReference<?> reference = node.newMessageReference();
+            if (reference != null)
+            {
+                try
+                {
+                    final ServerMessage<?> message = reference.getMessage();
+                    if (!node.isDeleted() && message.checkValid())
+                    {
+                        messages.add(new MessageInfoImpl(node, includeHeaders));
+                        lastMessageNumber = message.getMessageNumber();
+                        last = node;
+                        _browsedEntries.put(lastMessageNumber, node);
+                    }
+                }
+                finally
+                {
+                    reference.release();
+                }
+            }
+        }
+        final String nextCursor;
+        if (last != null && entries.next(last) != null)
+        {
+            nextCursor = Long.toString(lastMessageNumber, Character.MAX_RADIX);
+            _pageCursors.put(lastMessageNumber, last);
+        }
+        else
+        {
+            nextCursor = null;
+        }
+        return new MessageInfoPageImpl(messages, nextCursor);
+    }
+
+    private QueueEntry findCursorEntry(final String cursor)
+    {
+        final long messageNumber;
+        try
+        {
+            messageNumber = Long.parseLong(cursor, Character.MAX_RADIX);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid cursor '" + cursor + "'");
+        }
+
+        final QueueEntry cursorEntry = _pageCursors.get(messageNumber);
+        if (cursorEntry != null)
+        {
+            return cursorEntry;
+        }
+
+        // The cursor has been forgotten or its message has since been consumed, so resume the walk before the
+        // first entry whose message number is greater than the cursor's.  Message numbers follow the entry order
+        // of standard queues; on priority and sorted queues they do not, so a resumed page may skip or repeat
+        // messages there.
+        final QueueEntryList entries = getEntries();
+        QueueEntry previous = entries.getHead();
+        final QueueEntryIterator iterator = entries.iterator();
+        while (iterator.advance())
+        {
+            final QueueEntry node = iterator.getNode();
+            final ServerMessage<?> message = node.getMessage();
+            if (message != null && message.getMessageNumber() > messageNumber)
+            {
+                break;
+            }
+            previous = node;
+        }
+        return previous;
+    }
+
+    private MessageReference<?> newBrowsedMessageReference(final QueueEntry entry)
+    {
+        if (entry != null && !entry.isDeleted())
+        {
+            final MessageReference<?> reference = entry.newMessageReference();
+            if (reference != null)
+            {
+                if (reference.getMessage().checkValid())
+                {
+                    return reference;
+                }
+                reference.release();
+            }
+        }
+        return null;
+    }
+
     @Override
     public MessageInfo getMessageInfoById(final long messageId, boolean includeHeaders)
     {
+        final QueueEntry browsedEntry = _browsedEntries.get(messageId);
+        final MessageReference<?> browsedReference = newBrowsedMessageReference(browsedEntry);
+        if (browsedReference != null)
+        {
+            try
+            {
+                return new MessageInfoImpl(browsedEntry, includeHeaders);
+            }
+            finally
+            {
+                browsedReference.release();
+            }
+        }
         final MessageFinder messageFinder = new MessageFinder(messageId, includeHeaders);
         visit(messageFinder);
         return messageFinder.getMessageInfo();
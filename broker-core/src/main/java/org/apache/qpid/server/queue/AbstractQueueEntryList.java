@@ -21,7 +21,9 @@
 package org.apache.qpid.server.queue;
 
 import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.MessageDurability;
 
 abstract class AbstractQueueEntryList implements QueueEntryList
@@ -86,6 +88,13 @@ abstract class AbstractQueueEntryList implements QueueEntryList
                 if(isConsumerAcquired && !wasConsumerAcquired)
                 {
                     queueStatistics.addToUnacknowledged(sizeWithHeader);
+                    recordLatency(queueStatistics.getDeliveryLatency(), entry);
+                }
+                break;
+            case DEQUEUED:
+                if(wasConsumerAcquired)
+                {
+                    recordLatency(queueStatistics.getAcknowledgeLatency(), entry);
                 }
                 break;
             case DELETED:
@@ -100,4 +109,14 @@ abstract class AbstractQueueEntryList implements QueueEntryList
         }
     }
 
+    private static void recordLatency(final LatencyHistogram histogram, final QueueEntry entry)
+    {
+        final ServerMessage message = entry.getMessage();
+        final long arrivalTime = message == null ? 0L : message.getArrivalTime();
+        if (arrivalTime > 0L)
+        {
+            histogram.record(System.currentTimeMillis() - arrivalTime);
+        }
+    }
+
 }
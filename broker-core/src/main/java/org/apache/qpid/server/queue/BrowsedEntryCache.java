@@ -0,0 +1,67 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers, by message number, the queue entries most recently returned to management browsing a queue, so that
+ * the next page of a listing, or the content of a listed message, can be found without walking the queue from its
+ * head.
+ * <p>
+ * Entries are held weakly and the least recently used are forgotten once the capacity is reached, so the cache
+ * neither keeps consumed entries alive nor grows with the depth of the queue.  A miss only means that the caller
+ * must fall back to walking the queue.
+ */
+final class BrowsedEntryCache
+{
+    private final Map<Long, WeakReference<QueueEntry>> _entries;
+
+    BrowsedEntryCache(final int capacity)
+    {
+        _entries = new LinkedHashMap<Long, WeakReference<QueueEntry>>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, WeakReference<QueueEntry>> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized void put(final long messageNumber, final QueueEntry entry)
+    {
+        _entries.put(messageNumber, new WeakReference<>(entry));
+    }
+
+    synchronized QueueEntry get(final long messageNumber)
+    {
+        final WeakReference<QueueEntry> reference = _entries.get(messageNumber);
+        final QueueEntry entry = reference == null ? null : reference.get();
+        if (reference != null && entry == null)
+        {
+            _entries.remove(messageNumber);
+        }
+        return entry;
+    }
+}
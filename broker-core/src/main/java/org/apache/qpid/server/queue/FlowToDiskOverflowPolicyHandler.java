@@ -23,6 +23,7 @@ import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.OverflowPolicy;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.stats.FlightRecorder;
 
 public class FlowToDiskOverflowPolicyHandler implements OverflowPolicyHandler
 {
@@ -130,7 +131,13 @@ public class FlowToDiskOverflowPolicyHandler implements OverflowPolicyHandler
             {
                 if (node.getQueue().checkValid(node))
                 {
-                    messageReference.getMessage().getStoredMessage().flowToDisk();
+                    final ServerMessage<?> message = messageReference.getMessage();
+                    if (message.getStoredMessage().flowToDisk())
+                    {
+                        FlightRecorder.getInstance().record(FlightRecorder.EventType.FLOW_TO_DISK,
+                                                            _queue.getName(),
+                                                            message.getSizeIncludingHeader());
+                    }
                 }
             }
             catch (MessageDeletedException mde)
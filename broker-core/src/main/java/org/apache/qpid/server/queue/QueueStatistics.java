@@ -22,7 +22,26 @@ package org.apache.qpid.server.queue;
 
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.qpid.server.stats.LatencyHistogram;
+
+/**
+ * Statistics of a queue, updated by every thread enqueuing to, delivering from or acknowledging messages of it.
+ * <p>
+ * Cumulative counters are held in striped {@link LongAdder}s so that concurrent updates from many threads do not
+ * contend on a single cache line.  Reading one sums its stripes without locking: the value is exact when the queue
+ * is quiescent and otherwise includes every update completed before the read began.  As the stripes of a cumulative
+ * counter only grow, successive reads of it never go backwards.
+ * <p>
+ * Gauges, which go down as well as up, remain atomics: a sum of stripes read while an increment and the matching
+ * decrement land on different stripes could be transiently negative.  These are the queue depth, available and
+ * unacknowledged counters; the first two are also read on every enqueue by the overflow policies, and their high
+ * watermarks must be compared with the exact value produced by each update.
+ * <p>
+ * The count and size of each pair are separate counters, so a pair read while the queue is being updated may
+ * reflect a message in one but not yet the other.
+ */
 final class QueueStatistics
 {
     private final AtomicInteger _queueCount = new AtomicInteger();
@@ -34,17 +53,17 @@ final class QueueStatistics
     private final AtomicInteger _availableCount = new AtomicInteger();
     private final AtomicLong _availableSize = new AtomicLong();
 
-    private final AtomicLong _dequeueCount = new AtomicLong();
-    private final AtomicLong _dequeueSize = new AtomicLong();
+    private final LongAdder _dequeueCount = new LongAdder();
+    private final LongAdder _dequeueSize = new LongAdder();
 
-    private final AtomicLong _enqueueCount = new AtomicLong();
-    private final AtomicLong _enqueueSize = new AtomicLong();
+    private final LongAdder _enqueueCount = new LongAdder();
+    private final LongAdder _enqueueSize = new LongAdder();
 
-    private final AtomicLong _persistentEnqueueCount = new AtomicLong();
-    private final AtomicLong _persistentEnqueueSize = new AtomicLong();
+    private final LongAdder _persistentEnqueueCount = new LongAdder();
+    private final LongAdder _persistentEnqueueSize = new LongAdder();
 
-    private final AtomicLong _persistentDequeueCount = new AtomicLong();
-    private final AtomicLong _persistentDequeueSize = new AtomicLong();
+    private final LongAdder _persistentDequeueCount = new LongAdder();
+    private final LongAdder _persistentDequeueSize = new LongAdder();
 
     private final AtomicInteger _queueCountHwm = new AtomicInteger();
     private final AtomicLong _queueSizeHwm = new AtomicLong();
@@ -52,10 +71,14 @@ final class QueueStatistics
     private final AtomicInteger _availableCountHwm = new AtomicInteger();
     private final AtomicLong _availableSizeHwm = new AtomicLong();
 
-    private final AtomicInteger _expiredCount = new AtomicInteger();
-    private final AtomicLong _expiredSize = new AtomicLong();
-    private final AtomicInteger _malformedCount = new AtomicInteger();
-    private final AtomicLong _malformedSize = new AtomicLong();
+    private final LongAdder _expiredCount = new LongAdder();
+    private final LongAdder _expiredSize = new LongAdder();
+    private final LongAdder _malformedCount = new LongAdder();
+    private final LongAdder _malformedSize = new LongAdder();
+
+    private final LatencyHistogram _enqueueLatency = new LatencyHistogram();
+    private final LatencyHistogram _deliveryLatency = new LatencyHistogram();
+    private final LatencyHistogram _acknowledgeLatency = new LatencyHistogram();
 
     public final int getQueueCount()
     {
@@ -89,42 +112,42 @@ final class QueueStatistics
 
     public final long getEnqueueCount()
     {
-        return _enqueueCount.get();
+        return _enqueueCount.sum();
     }
 
     public final long getEnqueueSize()
     {
-        return _enqueueSize.get();
+        return _enqueueSize.sum();
     }
 
     public final long getDequeueCount()
     {
-        return _dequeueCount.get();
+        return _dequeueCount.sum();
     }
 
     public final long getDequeueSize()
     {
-        return _dequeueSize.get();
+        return _dequeueSize.sum();
     }
 
     public final long getPersistentEnqueueCount()
     {
-        return _persistentEnqueueCount.get();
+        return _persistentEnqueueCount.sum();
     }
 
     public final long getPersistentEnqueueSize()
     {
-        return _persistentEnqueueSize.get();
+        return _persistentEnqueueSize.sum();
     }
 
     public final long getPersistentDequeueCount()
     {
-        return _persistentDequeueCount.get();
+        return _persistentDequeueCount.sum();
     }
 
     public final long getPersistentDequeueSize()
     {
-        return _persistentDequeueSize.get();
+        return _persistentDequeueSize.sum();
     }
 
     public final int getQueueCountHwm()
@@ -149,22 +172,48 @@ final class QueueStatistics
 
     public int getExpiredCount()
     {
-        return _expiredCount.get();
+        return _expiredCount.intValue();
     }
 
     public long getExpiredSize()
     {
-        return _expiredSize.get();
+        return _expiredSize.sum();
     }
 
     public int getMalformedCount()
     {
-        return _malformedCount.get();
+        return _malformedCount.intValue();
     }
 
     public long getMalformedSize()
     {
-        return _malformedSize.get();
+        return _malformedSize.sum();
+    }
+
+    /**
+     * @return the histogram of the time in milliseconds from the arrival of a message at the broker to its enqueue
+     */
+    public LatencyHistogram getEnqueueLatency()
+    {
+        return _enqueueLatency;
+    }
+
+    /**
+     * @return the histogram of the time in milliseconds from the arrival of a message to its acquisition by a
+     * consumer
+     */
+    public LatencyHistogram getDeliveryLatency()
+    {
+        return _deliveryLatency;
+    }
+
+    /**
+     * @return the histogram of the time in milliseconds from the arrival of a message to its acknowledgement by
+     * a consumer
+     */
+    public LatencyHistogram getAcknowledgeLatency()
+    {
+        return _acknowledgeLatency;
     }
 
     void addToQueue(long size)
@@ -225,37 +274,37 @@ final class QueueStatistics
 
     void addToEnqueued(long size)
     {
-        _enqueueCount.incrementAndGet();
-        _enqueueSize.addAndGet(size);
+        _enqueueCount.increment();
+        _enqueueSize.add(size);
     }
 
     void addToDequeued(long size)
     {
-        _dequeueCount.incrementAndGet();
-        _dequeueSize.addAndGet(size);
+        _dequeueCount.increment();
+        _dequeueSize.add(size);
     }
 
     void addToPersistentEnqueued(long size)
     {
-        _persistentEnqueueCount.incrementAndGet();
-        _persistentEnqueueSize.addAndGet(size);
+        _persistentEnqueueCount.increment();
+        _persistentEnqueueSize.add(size);
     }
 
     void addToPersistentDequeued(long size)
     {
-        _persistentDequeueCount.incrementAndGet();
-        _persistentDequeueSize.addAndGet(size);
+        _persistentDequeueCount.increment();
+        _persistentDequeueSize.add(size);
     }
 
     void addToExpired(final long size)
     {
-        _expiredCount.incrementAndGet();
-        _expiredSize.addAndGet(size);
+        _expiredCount.increment();
+        _expiredSize.add(size);
     }
 
     void addToMalformed(final long size)
     {
-        _malformedCount.incrementAndGet();
-        _malformedSize.addAndGet(size);
+        _malformedCount.increment();
+        _malformedSize.add(size);
     }
 }
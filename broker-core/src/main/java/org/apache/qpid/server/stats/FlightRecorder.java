@@ -0,0 +1,244 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Continuously records a bounded history of events from the broker's internals, such as connection scheduling
+ * delays, selector wakeups and store commit batches, so that what the broker was doing around a latency spike can
+ * be examined after the fact.
+ * <p>
+ * Each type of event is held in its own fixed size ring buffer, so that frequent events such as selector wakeups
+ * cannot evict rarer ones such as flows to disk; once a ring is full each new event overwrites its oldest.
+ * Recording an event claims a slot with a single atomic increment and publishes the event without locking, so the
+ * recorder can be left running in production.  The capacity of each ring of the broker wide recorder is given by
+ * the system property {@value #CAPACITY_PROPERTY_NAME}; a capacity of zero disables recording.
+ */
+public final class FlightRecorder
+{
+    public static final String CAPACITY_PROPERTY_NAME = "qpid.broker.flightRecorder.capacity";
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final FlightRecorder INSTANCE =
+            new FlightRecorder(Integer.getInteger(CAPACITY_PROPERTY_NAME, DEFAULT_CAPACITY));
+
+    public enum EventType
+    {
+        CONNECTION_SCHEDULING_DELAY("ms"),
+        SELECTOR_WAKEUP("connections"),
+        COMMIT_BATCH("commits"),
+        FLOW_TO_DISK("bytes"),
+        HOUSEKEEPING_TASK("us");
+
+        private final String _unit;
+
+        EventType(final String unit)
+        {
+            _unit = unit;
+        }
+
+        public String getUnit()
+        {
+            return _unit;
+        }
+    }
+
+    private final Ring[] _rings;
+    private final int _capacity;
+
+    public FlightRecorder(final int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("Flight recorder capacity must not be negative: " + capacity);
+        }
+        _capacity = capacity == 0 ? 0 : Integer.highestOneBit(Math.max(1, capacity - 1) << 1);
+        _rings = new Ring[EventType.values().length];
+        for (int i = 0; i < _rings.length; i++)
+        {
+            _rings[i] = new Ring(_capacity);
+        }
+    }
+
+    public static FlightRecorder getInstance()
+    {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled()
+    {
+        return _capacity > 0;
+    }
+
+    /**
+     * @return the number of events of each type retained
+     */
+    public int getCapacity()
+    {
+        return _capacity;
+    }
+
+    public void record(final EventType type, final String source, final long value)
+    {
+        if (isEnabled())
+        {
+            _rings[type.ordinal()].add(type, source, value);
+        }
+    }
+
+    /**
+     * Returns the retained events recorded at or after the given time, oldest first.
+     */
+    public List<Event> getEvents(final long sinceMillis)
+    {
+        final List<Event> events = new ArrayList<>();
+        for (Ring ring : _rings)
+        {
+            ring.addEvents(events, sinceMillis);
+        }
+        events.sort(Comparator.comparingLong(Event::getNanoTime));
+        return events;
+    }
+
+    /**
+     * Formats the retained events recorded at or after the given time, one per line, oldest first.
+     */
+    public String dump(final long sinceMillis)
+    {
+        final List<Event> events = getEvents(sinceMillis);
+        final StringBuilder dump = new StringBuilder();
+        dump.append(String.format("Flight recording of %d event(s) since %s captured %s",
+                                  events.size(),
+                                  Instant.ofEpochMilli(sinceMillis),
+                                  Instant.now()))
+            .append(System.lineSeparator());
+        for (Event event : events)
+        {
+            dump.append(event).append(System.lineSeparator());
+        }
+        return dump.toString();
+    }
+
+    private static final class Ring
+    {
+        private final AtomicReferenceArray<Event> _events;
+        private final AtomicLong _sequence = new AtomicLong();
+        private final int _mask;
+
+        private Ring(final int size)
+        {
+            _events = new AtomicReferenceArray<>(size);
+            _mask = size - 1;
+        }
+
+        private void add(final EventType type, final String source, final long value)
+        {
+            final long sequence = _sequence.getAndIncrement();
+            _events.lazySet((int) (sequence & _mask),
+                            new Event(System.nanoTime(),
+                                      System.currentTimeMillis(),
+                                      type,
+                                      Thread.currentThread().getName(),
+                                      source,
+                                      value));
+        }
+
+        private void addEvents(final List<Event> events, final long sinceMillis)
+        {
+            for (int i = 0; i < _events.length(); i++)
+            {
+                final Event event = _events.get(i);
+                if (event != null && event.getTimestamp() >= sinceMillis)
+                {
+                    events.add(event);
+                }
+            }
+        }
+    }
+
+    public static final class Event
+    {
+        private final long _nanoTime;
+        private final long _timestamp;
+        private final EventType _type;
+        private final String _threadName;
+        private final String _source;
+        private final long _value;
+
+        private Event(final long nanoTime,
+                      final long timestamp,
+                      final EventType type,
+                      final String threadName,
+                      final String source,
+                      final long value)
+        {
+            _nanoTime = nanoTime;
+            _timestamp = timestamp;
+            _type = type;
+            _threadName = threadName;
+            _source = source;
+            _value = value;
+        }
+
+        long getNanoTime()
+        {
+            return _nanoTime;
+        }
+
+        public long getTimestamp()
+        {
+            return _timestamp;
+        }
+
+        public EventType getType()
+        {
+            return _type;
+        }
+
+        public String getThreadName()
+        {
+            return _threadName;
+        }
+
+        public String getSource()
+        {
+            return _source;
+        }
+
+        public long getValue()
+        {
+            return _value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return Instant.ofEpochMilli(_timestamp) + " " + _type + " " + _value + " " + _type.getUnit()
+                   + " source=\"" + _source + "\" thread=\"" + _threadName + "\"";
+        }
+    }
+}
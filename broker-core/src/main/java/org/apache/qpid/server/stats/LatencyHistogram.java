@@ -0,0 +1,308 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free histogram of non-negative values, such as latencies, from which percentiles can be read.
+ * <p>
+ * In the manner of an HDR histogram, values are counted in buckets whose width grows with the magnitude of the
+ * value: values below 16 are counted exactly and larger values in sixteen equal sub-buckets per power of two, so a
+ * percentile is accurate to within about 6%.  Recording a value costs a few arithmetic operations, a read of the
+ * clock and an atomic increment of its bucket; the buckets are only allocated when the first value is recorded so
+ * that idle histograms, such as those of unused queues, cost next to nothing.
+ * <p>
+ * Values are counted in intervals one window long and aligned to the start of the histogram, so that the histogram
+ * reflects recent values rather than every value ever recorded.  A read covers the current interval and the one
+ * before it, that is between one and two windows of values however often the histogram is recorded to or read.
+ * <p>
+ * Reading the histogram itself allocates nothing.  Histograms are combined, for instance those of the queues of a
+ * virtual host, by adding them to a {@link Snapshot}.  Values are not in any particular unit; that is chosen by the
+ * owner.
+ */
+public final class LatencyHistogram
+{
+    public static final long DEFAULT_WINDOW_MILLIS = 60000L;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final long _windowMillis;
+    private final LongSupplier _clock;
+    private volatile Intervals _intervals;
+
+    public LatencyHistogram()
+    {
+        this(DEFAULT_WINDOW_MILLIS);
+    }
+
+    public LatencyHistogram(final long windowMillis)
+    {
+        this(windowMillis, System::currentTimeMillis);
+    }
+
+    LatencyHistogram(final long windowMillis, final LongSupplier clock)
+    {
+        _windowMillis = windowMillis;
+        _clock = clock;
+        _intervals = new Intervals(new Interval(clock.getAsLong()), new Interval(Long.MIN_VALUE));
+    }
+
+    public void record(final long value)
+    {
+        getIntervals()._current.record(Math.min(Math.max(value, 0L), MAX_TRACKABLE_VALUE));
+    }
+
+    public long getCount()
+    {
+        final Intervals intervals = getIntervals();
+        return intervals._previous.getCount() + intervals._current.getCount();
+    }
+
+    public long getMaximum()
+    {
+        final Intervals intervals = getIntervals();
+        return Math.max(intervals._previous.getMaximum(), intervals._current.getMaximum());
+    }
+
+    /**
+     * Returns the smallest value such that the given percentage of the values are no greater than it, to the
+     * precision of the buckets, or zero if there are no values.
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        final Intervals intervals = getIntervals();
+        final long total = intervals._previous.getCount() + intervals._current.getCount();
+        if (total == 0)
+        {
+            return 0L;
+        }
+
+        final long maximum = Math.max(intervals._previous.getMaximum(), intervals._current.getMaximum());
+        final long rank = rankOf(percentile, total);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            cumulative += intervals._previous.getCount(i) + intervals._current.getCount(i);
+            if (cumulative >= rank)
+            {
+                return Math.min(highestValueOf(i), maximum);
+            }
+        }
+        return maximum;
+    }
+
+    private Intervals getIntervals()
+    {
+        final Intervals intervals = _intervals;
+        final long now = _clock.getAsLong();
+        return now - intervals._current._start < _windowMillis ? intervals : rotate(now);
+    }
+
+    private synchronized Intervals rotate(final long now)
+    {
+        final Intervals intervals = _intervals;
+        final long elapsed = now - intervals._current._start;
+        if (elapsed < _windowMillis)
+        {
+            return intervals;
+        }
+        final long windows = elapsed / _windowMillis;
+        final Interval current = new Interval(intervals._current._start + windows * _windowMillis);
+        // an interval that ended more than a window ago holds nothing that a read may cover
+        final Interval previous = windows == 1 ? intervals._current : new Interval(Long.MIN_VALUE);
+        final Intervals rotated = new Intervals(current, previous);
+        _intervals = rotated;
+        return rotated;
+    }
+
+    private static long rankOf(final double percentile, final long total)
+    {
+        final double boundedPercentile = Math.min(Math.max(percentile, 0d), 100d);
+        return Math.max(1L, (long) Math.ceil(boundedPercentile / 100d * total));
+    }
+
+    static int indexOf(final long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueOf(final int index)
+    {
+        final int bucket = index >> SUB_BUCKET_BITS;
+        final int subBucket = index & (SUB_BUCKET_COUNT - 1);
+        if (bucket == 0)
+        {
+            return subBucket;
+        }
+        final int shift = bucket - 1;
+        return (((long) (SUB_BUCKET_COUNT + subBucket + 1)) << shift) - 1;
+    }
+
+    /**
+     * Values read from one or more histograms.  A snapshot is not thread safe.
+     */
+    public static final class Snapshot
+    {
+        private final long[] _counts = new long[BUCKET_COUNT];
+        private long _total;
+        private long _maximum;
+
+        public void add(final LatencyHistogram histogram)
+        {
+            final Intervals intervals = histogram.getIntervals();
+            intervals._previous.addTo(this);
+            intervals._current.addTo(this);
+        }
+
+        public long getCount()
+        {
+            return _total;
+        }
+
+        public long getMaximum()
+        {
+            return _maximum;
+        }
+
+        /**
+         * Returns the smallest value such that the given percentage of the values are no greater than it, to the
+         * precision of the buckets, or zero if there are no values.
+         */
+        public long getValueAtPercentile(final double percentile)
+        {
+            if (_total == 0)
+            {
+                return 0L;
+            }
+
+            final long rank = rankOf(percentile, _total);
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++)
+            {
+                cumulative += _counts[i];
+                if (cumulative >= rank)
+                {
+                    return Math.min(highestValueOf(i), _maximum);
+                }
+            }
+            return _maximum;
+        }
+    }
+
+    private static final class Intervals
+    {
+        private final Interval _current;
+        private final Interval _previous;
+
+        private Intervals(final Interval current, final Interval previous)
+        {
+            _current = current;
+            _previous = previous;
+        }
+    }
+
+    private static final class Interval
+    {
+        private static final AtomicReferenceFieldUpdater<Interval, AtomicLongArray> COUNTS_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(Interval.class, AtomicLongArray.class, "_counts");
+
+        private final long _start;
+        private final AtomicLong _maximum = new AtomicLong();
+        private volatile AtomicLongArray _counts;
+
+        private Interval(final long start)
+        {
+            _start = start;
+        }
+
+        private void record(final long value)
+        {
+            AtomicLongArray counts = _counts;
+            if (counts == null)
+            {
+                COUNTS_UPDATER.compareAndSet(this, null, new AtomicLongArray(BUCKET_COUNT));
+                counts = _counts;
+            }
+            counts.incrementAndGet(indexOf(value));
+
+            long maximum;
+            while (value > (maximum = _maximum.get()) && !_maximum.compareAndSet(maximum, value))
+            {
+                // retry
+            }
+        }
+
+        private long getCount()
+        {
+            final AtomicLongArray counts = _counts;
+            long total = 0L;
+            if (counts != null)
+            {
+                for (int i = 0; i < BUCKET_COUNT; i++)
+                {
+                    total += counts.get(i);
+                }
+            }
+            return total;
+        }
+
+        private long getCount(final int index)
+        {
+            final AtomicLongArray counts = _counts;
+            return counts == null ? 0L : counts.get(index);
+        }
+
+        private long getMaximum()
+        {
+            return _maximum.get();
+        }
+
+        private void addTo(final Snapshot snapshot)
+        {
+            final AtomicLongArray counts = _counts;
+            if (counts != null)
+            {
+                for (int i = 0; i < BUCKET_COUNT; i++)
+                {
+                    final long count = counts.get(i);
+                    snapshot._counts[i] += count;
+                    snapshot._total += count;
+                }
+                snapshot._maximum = Math.max(snapshot._maximum, _maximum.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import org.apache.qpid.server.message.EnqueueableMessage;
+import org.apache.qpid.server.stats.LatencyHistogram;
+
+/**
+ * Transaction decorator recording the time, in microseconds, taken to commit the underlying store transaction.
+ * An asynchronous commit is timed until its future completes.
+ */
+public final class LatencyRecordingTransaction implements Transaction
+{
+    private final Transaction _delegate;
+    private final LatencyHistogram _commitLatency;
+
+    private LatencyRecordingTransaction(final Transaction delegate, final LatencyHistogram commitLatency)
+    {
+        _delegate = delegate;
+        _commitLatency = commitLatency;
+    }
+
+    /**
+     * @return the given transaction, decorated to record its commit latency if a histogram is given
+     */
+    public static Transaction wrap(final Transaction transaction, final LatencyHistogram commitLatency)
+    {
+        return commitLatency == null ? transaction : new LatencyRecordingTransaction(transaction, commitLatency);
+    }
+
+    @Override
+    public MessageEnqueueRecord enqueueMessage(final TransactionLogResource queue, final EnqueueableMessage message)
+    {
+        return _delegate.enqueueMessage(queue, message);
+    }
+
+    @Override
+    public void dequeueMessage(final MessageEnqueueRecord enqueueRecord)
+    {
+        _delegate.dequeueMessage(enqueueRecord);
+    }
+
+    @Override
+    public void commitTran()
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            _delegate.commitTran();
+        }
+        finally
+        {
+            recordSince(start);
+        }
+    }
+
+    @Override
+    public <X> ListenableFuture<X> commitTranAsync(final X val)
+    {
+        final long start = System.nanoTime();
+        final ListenableFuture<X> future = _delegate.commitTranAsync(val);
+        if (future.isDone())
+        {
+            recordSince(start);
+        }
+        else
+        {
+            future.addListener(() -> recordSince(start), MoreExecutors.directExecutor());
+        }
+        return future;
+    }
+
+    @Override
+    public void abortTran()
+    {
+        _delegate.abortTran();
+    }
+
+    @Override
+    public void removeXid(final StoredXidRecord record)
+    {
+        _delegate.removeXid(record);
+    }
+
+    @Override
+    public StoredXidRecord recordXid(final long format,
+                                     final byte[] globalId,
+                                     final byte[] branchId,
+                                     final EnqueueRecord[] enqueues,
+                                     final DequeueRecord[] dequeues)
+    {
+        return _delegate.recordXid(format, globalId, branchId, enqueues, dequeues);
+    }
+
+    private void recordSince(final long start)
+    {
+        _commitLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+}
@@ -37,6 +37,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 
 import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
 import org.apache.qpid.server.store.handler.MessageHandler;
 import org.apache.qpid.server.store.handler.MessageInstanceHandler;
@@ -54,6 +55,7 @@ public class MemoryMessageStore implements MessageStore
     private final Map<UUID, Set<Long>> _messageInstances = new HashMap<UUID, Set<Long>>();
     private final Map<Xid, DistributedTransactionRecords> _distributedTransactions = new HashMap<Xid, DistributedTransactionRecords>();
     private final AtomicLong _inMemorySize = new AtomicLong();
+    private volatile LatencyHistogram _commitLatencyHistogram;
     private final Set<MessageDeleteListener> _messageDeleteListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
 
@@ -356,7 +358,13 @@ public class MemoryMessageStore implements MessageStore
     @Override
     public Transaction newTransaction()
     {
-        return new MemoryMessageStoreTransaction();
+        return LatencyRecordingTransaction.wrap(new MemoryMessageStoreTransaction(), _commitLatencyHistogram);
+    }
+
+    @Override
+    public void setTransactionCommitLatencyHistogram(final LatencyHistogram histogram)
+    {
+        _commitLatencyHistogram = histogram;
     }
 
     @Override
@@ -470,7 +478,14 @@ public class MemoryMessageStore implements MessageStore
                 Set<Long> ids = _messageInstances.get(queue.getId());
                 if(ids != null)
                 {
+                    final long[] sortedIds = new long[ids.size()];
+                    int i = 0;
                     for (long id : ids)
+                    {
+                        sortedIds[i++] = id;
+                    }
+                    Arrays.sort(sortedIds);
+                    for (long id : sortedIds)
                     {
                         if (!handler.handle(new MemoryEnqueueRecord(queue.getId(), id)))
                         {
@@ -24,6 +24,7 @@ package org.apache.qpid.server.store;
 import java.io.File;
 
 import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
 import org.apache.qpid.server.store.handler.MessageHandler;
 import org.apache.qpid.server.store.handler.MessageInstanceHandler;
@@ -74,6 +75,16 @@ public interface MessageStore
 
     Transaction newTransaction();
 
+    /**
+     * Sets the histogram into which the store records the time, in microseconds, taken to commit each
+     * transaction.  Stores which do not measure their commit latency ignore it.
+     *
+     * @param histogram histogram or null to stop recording
+     */
+    default void setTransactionCommitLatencyHistogram(LatencyHistogram histogram)
+    {
+    }
+
     /**
      * Called to close and cleanup any resources used by the message store.
      */
@@ -92,6 +103,10 @@ public interface MessageStore
         void visitMessages(MessageHandler handler) throws StoreException;
 
         void visitMessageInstances(MessageInstanceHandler handler) throws StoreException;
+
+        /**
+         * Visits the message instances of the given queue in ascending message id order.
+         */
         void visitMessageInstances(TransactionLogResource queue, MessageInstanceHandler handler) throws StoreException;
 
         void visitDistributedTransactions(DistributedTransactionHandler handler) throws StoreException;
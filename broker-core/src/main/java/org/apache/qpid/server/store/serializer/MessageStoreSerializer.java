@@ -21,6 +21,7 @@
 package org.apache.qpid.server.store.serializer;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -33,12 +34,30 @@ import org.apache.qpid.server.store.serializer.v1.MessageStoreSerializer_v1;
 
 public interface MessageStoreSerializer extends Pluggable
 {
+    // v2 extracts cannot be imported by brokers which predate it, so it is only used when asked for
     String LATEST = MessageStoreSerializer_v1.VERSION;
     void serialize(final Map<UUID, String> queueMap,
                    final MessageStore.MessageStoreReader storeReader,
                    OutputStream outputStream) throws IOException;
     void deserialize(final Map<String, UUID> queueMap, MessageStore store, InputStream inputStream) throws IOException;
 
+    /**
+     * Imports the stream, recording its progress in the given checkpoint file.  If resume is true the checkpoint
+     * left by an earlier, failed import of the same stream is used to skip the work that import completed.
+     */
+    default void deserialize(final Map<String, UUID> queueMap,
+                             MessageStore store,
+                             InputStream inputStream,
+                             File checkpointFile,
+                             boolean resume) throws IOException
+    {
+        if (resume)
+        {
+            throw new IllegalArgumentException("Message store format '" + getType() + "' does not support resuming an import");
+        }
+        deserialize(queueMap, store, inputStream);
+    }
+
     interface Factory
     {
         MessageStoreSerializer newInstance();
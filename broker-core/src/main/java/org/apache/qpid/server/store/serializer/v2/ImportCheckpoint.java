@@ -0,0 +1,142 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records, in a file, the messages an import has added to the store so that a failed import can be resumed.
+ * <p>
+ * The file starts with the id of the extract being imported (two longs) so that a checkpoint is only ever resumed
+ * against the extract it was written for.  Each record maps the message id from the export to the id the message was given in the store.  Records are
+ * written as each message is added and forced to disk as each segment completes; a record left incomplete by a
+ * crash is ignored when the file is read back.
+ */
+class ImportCheckpoint implements AutoCloseable
+{
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+    private static final int RECORD_SIZE = 2 * Long.BYTES;
+
+    private final Map<Long, Long> _importedMessages;
+    private final FileOutputStream _fileOutputStream;
+    private final DataOutputStream _output;
+
+    private ImportCheckpoint(final File file, final Map<Long, Long> importedMessages, final boolean append)
+            throws IOException
+    {
+        _importedMessages = importedMessages;
+        _fileOutputStream = new FileOutputStream(file, append);
+        _output = new DataOutputStream(new BufferedOutputStream(_fileOutputStream));
+    }
+
+    /**
+     * Starts a new checkpoint for the given extract, discarding any existing one.
+     */
+    static ImportCheckpoint create(final File file, final UUID exportId) throws IOException
+    {
+        final ImportCheckpoint checkpoint = new ImportCheckpoint(file, Collections.emptyMap(), false);
+        checkpoint._output.writeLong(exportId.getMostSignificantBits());
+        checkpoint._output.writeLong(exportId.getLeastSignificantBits());
+        checkpoint.sync();
+        return checkpoint;
+    }
+
+    /**
+     * Opens the checkpoint of an earlier, failed import so that it can be continued.
+     */
+    static ImportCheckpoint resume(final File file, final UUID exportId) throws IOException
+    {
+        if (!file.exists())
+        {
+            throw new IllegalArgumentException("No checkpoint of an earlier import found at '" + file + "'");
+        }
+        if (file.length() < HEADER_SIZE)
+        {
+            throw new IllegalArgumentException("Checkpoint '" + file + "' does not identify the extract it belongs to");
+        }
+
+        final long completeLength = file.length() - (file.length() - HEADER_SIZE) % RECORD_SIZE;
+        final Map<Long, Long> importedMessages = new HashMap<>();
+        try (InputStream fileInput = new FileInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(fileInput)))
+        {
+            if (!exportId.equals(new UUID(input.readLong(), input.readLong())))
+            {
+                throw new IllegalArgumentException("Checkpoint '" + file
+                                                   + "' belongs to an import of a different extract");
+            }
+            for (long read = HEADER_SIZE; read < completeLength; read += RECORD_SIZE)
+            {
+                importedMessages.put(input.readLong(), input.readLong());
+            }
+        }
+        catch (EOFException e)
+        {
+            throw new IOException("Checkpoint '" + file + "' was truncated while being read", e);
+        }
+
+        if (completeLength != file.length())
+        {
+            // drop the incomplete trailing record so that new records are appended on a record boundary
+            try (FileOutputStream output = new FileOutputStream(file, true))
+            {
+                output.getChannel().truncate(completeLength);
+            }
+        }
+        return new ImportCheckpoint(file, importedMessages, true);
+    }
+
+    Map<Long, Long> getImportedMessages()
+    {
+        return Collections.unmodifiableMap(_importedMessages);
+    }
+
+    synchronized void messageImported(final long originalMessageId, final long messageId) throws IOException
+    {
+        _output.writeLong(originalMessageId);
+        _output.writeLong(messageId);
+    }
+
+    synchronized void sync() throws IOException
+    {
+        _output.flush();
+        _fileOutputStream.getFD().sync();
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        _output.close();
+    }
+}
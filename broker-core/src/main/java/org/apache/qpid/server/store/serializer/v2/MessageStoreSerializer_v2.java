@@ -0,0 +1,881 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.EnqueueableMessage;
+import org.apache.qpid.server.plugin.MessageMetaDataType;
+import org.apache.qpid.server.plugin.PluggableService;
+import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+import org.apache.qpid.server.store.MessageHandle;
+import org.apache.qpid.server.store.MessageMetaDataTypeRegistry;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.StorableMessageMetaData;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.serializer.MessageStoreSerializer;
+import org.apache.qpid.server.txn.Xid;
+import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
+import org.apache.qpid.server.util.ServerScopedRuntimeException;
+
+/**
+ * Serializes the message store as a stream of independently compressed and checksummed segments.
+ * <p>
+ * On export the messages are read by a single store cursor, while the message instances of each queue are read
+ * in parallel; segments are compressed concurrently and streamed as they complete, so the export is never held in
+ * memory.  On import each segment is validated and applied by a pool of threads, with all segments of one type
+ * (messages, then message instances, then distributed transactions) applied before the first of the next.
+ */
+@PluggableService
+public class MessageStoreSerializer_v2 implements MessageStoreSerializer
+{
+    public static final String VERSION = "v2.0";
+
+    static final int SEGMENT_SIZE = 1024 * 1024;
+    private static final int INITIAL_SEGMENT_CAPACITY = 64 * 1024;
+
+    private final int _threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    @Override
+    public String getType()
+    {
+        return VERSION;
+    }
+
+    @Override
+    public void serialize(final Map<UUID, String> queueMap,
+                          final MessageStore.MessageStoreReader storeReader,
+                          final OutputStream outputStream) throws IOException
+    {
+        final ExecutorService encoder = Executors.newFixedThreadPool(_threads, newThreadFactory("Export Encoder"));
+        final ExecutorService visitor = Executors.newFixedThreadPool(_threads, newThreadFactory("Export Reader"));
+        try
+        {
+            final SegmentWriter writer = new SegmentWriter(outputStream, encoder, _threads * 2);
+
+            serializeQueueMappings(queueMap, writer);
+            serializeMessages(storeReader, writer);
+            serializeMessageInstances(queueMap, storeReader, writer, visitor);
+            serializeDistributedTransactions(storeReader, writer);
+
+            writer.complete();
+        }
+        finally
+        {
+            visitor.shutdownNow();
+            encoder.shutdownNow();
+        }
+    }
+
+    private void serializeQueueMappings(final Map<UUID, String> queueMap, final SegmentWriter writer)
+            throws IOException
+    {
+        final SegmentBuffer segment = new SegmentBuffer(SegmentType.QUEUE_MAPPING, 1024);
+        segment.writeInt(queueMap.size());
+        for (Map.Entry<UUID, String> entry : queueMap.entrySet())
+        {
+            segment.writeUUID(entry.getKey());
+            segment.writeString(entry.getValue());
+        }
+        writer.submit(segment);
+    }
+
+    private void serializeMessages(final MessageStore.MessageStoreReader storeReader, final SegmentWriter writer)
+            throws IOException
+    {
+        final SegmentingHandler handler = new SegmentingHandler(SegmentType.MESSAGE, writer);
+        storeReader.visitMessages(storedMessage -> handler.add(segment -> writeMessage(storedMessage, segment)));
+        handler.complete();
+    }
+
+    private void writeMessage(final StoredMessage<?> storedMessage, final SegmentBuffer segment) throws IOException
+    {
+        final StorableMessageMetaData metaData = storedMessage.getMetaData();
+        final byte[] metaDataBytes = new byte[1 + storedMessage.getMetadataSize()];
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(metaDataBytes))
+        {
+            buf.put((byte) metaData.getType().ordinal());
+            metaData.writeToBuffer(buf);
+        }
+
+        segment.writeLong(storedMessage.getMessageNumber());
+        segment.writeBytes(metaDataBytes);
+        try (QpidByteBuffer content = storedMessage.getContent(0, storedMessage.getContentSize()))
+        {
+            segment.writeContent(content);
+        }
+    }
+
+    private void serializeMessageInstances(final Map<UUID, String> queueMap,
+                                           final MessageStore.MessageStoreReader storeReader,
+                                           final SegmentWriter writer,
+                                           final ExecutorService visitor) throws IOException
+    {
+        final List<Future<Void>> futures = new ArrayList<>(queueMap.size());
+        for (final Map.Entry<UUID, String> entry : queueMap.entrySet())
+        {
+            final TransactionLogResource queue = new QueueResource(entry.getKey(), entry.getValue());
+            futures.add(visitor.submit(() ->
+                                       {
+                                           final SegmentingHandler handler =
+                                                   new SegmentingHandler(SegmentType.MESSAGE_INSTANCE, writer);
+                                           storeReader.visitMessageInstances(queue,
+                                                                             record -> handler.add(segment -> writeMessageInstance(record, segment)));
+                                           handler.complete();
+                                           return null;
+                                       }));
+        }
+        awaitAll(futures);
+    }
+
+    private void writeMessageInstance(final MessageEnqueueRecord record, final SegmentBuffer segment)
+            throws IOException
+    {
+        segment.writeUUID(record.getQueueId());
+        segment.writeLong(record.getMessageNumber());
+    }
+
+    private void serializeDistributedTransactions(final MessageStore.MessageStoreReader storeReader,
+                                                  final SegmentWriter writer) throws IOException
+    {
+        final SegmentingHandler handler = new SegmentingHandler(SegmentType.DTX, writer);
+        storeReader.visitDistributedTransactions(
+                (storedXid, enqueues, dequeues) -> handler.add(segment -> writeDistributedTransaction(storedXid,
+                                                                                                      enqueues,
+                                                                                                      dequeues,
+                                                                                                      segment)));
+        handler.complete();
+    }
+
+    private void writeDistributedTransaction(final Transaction.StoredXidRecord storedXid,
+                                             final Transaction.EnqueueRecord[] enqueues,
+                                             final Transaction.DequeueRecord[] dequeues,
+                                             final SegmentBuffer segment) throws IOException
+    {
+        segment.writeLong(storedXid.getFormat());
+        segment.writeBytes(storedXid.getGlobalId());
+        segment.writeBytes(storedXid.getBranchId());
+
+        segment.writeInt(enqueues.length);
+        for (Transaction.EnqueueRecord record : enqueues)
+        {
+            segment.writeLong(record.getMessage().getMessageNumber());
+            segment.writeUUID(record.getResource().getId());
+        }
+
+        segment.writeInt(dequeues.length);
+        for (Transaction.DequeueRecord record : dequeues)
+        {
+            segment.writeLong(record.getEnqueueRecord().getMessageNumber());
+            segment.writeUUID(record.getEnqueueRecord().getQueueId());
+        }
+    }
+
+    @Override
+    public void deserialize(final Map<String, UUID> queueMap, final MessageStore store, final InputStream inputStream)
+            throws IOException
+    {
+        deserialize(queueMap, store, new SegmentReader(inputStream), null);
+    }
+
+    @Override
+    public void deserialize(final Map<String, UUID> queueMap,
+                            final MessageStore store,
+                            final InputStream inputStream,
+                            final File checkpointFile,
+                            final boolean resume) throws IOException
+    {
+        final SegmentReader reader = new SegmentReader(inputStream);
+        try (ImportCheckpoint checkpoint = resume
+                ? ImportCheckpoint.resume(checkpointFile, reader.getExportId())
+                : ImportCheckpoint.create(checkpointFile, reader.getExportId()))
+        {
+            deserialize(queueMap, store, reader, checkpoint);
+        }
+    }
+
+    private void deserialize(final Map<String, UUID> queueMap,
+                             final MessageStore store,
+                             final SegmentReader reader,
+                             final ImportCheckpoint checkpoint) throws IOException
+    {
+        final Map<UUID, UUID> queueIdMap = new HashMap<>();
+        final Map<Long, StoredMessage<?>> messageMap = new ConcurrentHashMap<>();
+        final ExistingRecords existing = new ExistingRecords();
+        if (checkpoint != null && !checkpoint.getImportedMessages().isEmpty())
+        {
+            existing.load(store, checkpoint, messageMap);
+        }
+
+        final ExecutorService applier = Executors.newFixedThreadPool(_threads, newThreadFactory("Import"));
+        try
+        {
+            final SegmentApplier segmentApplier = new SegmentApplier(applier, _threads * 2);
+            SegmentType phase = SegmentType.QUEUE_MAPPING;
+            while (true)
+            {
+                final SegmentReader.Segment segment = reader.next();
+                if (segment.getType().ordinal() < phase.ordinal())
+                {
+                    throw new IllegalArgumentException("Unexpected segment type '" + segment.getType()
+                                                       + "' after segments of type '" + phase + "'");
+                }
+                else if (segment.getType() != phase)
+                {
+                    // all segments of the previous type must be applied before those of the next
+                    segmentApplier.awaitApplied();
+                    phase = segment.getType();
+                }
+
+                switch (segment.getType())
+                {
+                    case QUEUE_MAPPING:
+                        deserializeQueueMappings(queueMap, queueIdMap, segment.decode());
+                        break;
+                    case MESSAGE:
+                        segmentApplier.apply(() -> deserializeMessages(store,
+                                                                       messageMap,
+                                                                       checkpoint,
+                                                                       segment.decode()));
+                        break;
+                    case MESSAGE_INSTANCE:
+                        segmentApplier.apply(() -> deserializeMessageInstances(store,
+                                                                               queueIdMap,
+                                                                               messageMap,
+                                                                               existing,
+                                                                               segment.decode()));
+                        break;
+                    case DTX:
+                        deserializeDistributedTransactions(store,
+                                                           queueIdMap,
+                                                           messageMap,
+                                                           existing,
+                                                           segment.decode());
+                        break;
+                    case END:
+                        final int segmentCount = segment.decode().readInt();
+                        if (segmentCount != segment.getSequence())
+                        {
+                            throw new IllegalArgumentException("Unexpected number of segments " + segment.getSequence()
+                                                               + " expecting " + segmentCount);
+                        }
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unexpected segment type: " + segment.getType());
+                }
+            }
+        }
+        finally
+        {
+            applier.shutdownNow();
+        }
+    }
+
+    private void deserializeQueueMappings(final Map<String, UUID> queueMap,
+                                          final Map<UUID, UUID> queueIdMap,
+                                          final DataInputStream input) throws IOException
+    {
+        final int count = input.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            final UUID id = readUUID(input);
+            final String name = input.readUTF();
+            if (queueMap.containsKey(name))
+            {
+                queueIdMap.put(id, queueMap.get(name));
+            }
+            else
+            {
+                throw new IllegalArgumentException("The message store expects the existence of a queue named '"
+                                                   + name + "'");
+            }
+        }
+    }
+
+    private void deserializeMessages(final MessageStore store,
+                                     final Map<Long, StoredMessage<?>> messageMap,
+                                     final ImportCheckpoint checkpoint,
+                                     final DataInputStream input) throws IOException
+    {
+        final int count = input.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            final long originalMessageNumber = input.readLong();
+            final byte[] metaData = readBytes(input);
+            final byte[] content = readBytes(input);
+
+            if (messageMap.containsKey(originalMessageNumber))
+            {
+                // added by an earlier attempt of a resumed import
+                continue;
+            }
+
+            final MessageMetaDataType metaDataType = MessageMetaDataTypeRegistry.fromOrdinal(metaData[0] & 0xff);
+            final MessageHandle<StorableMessageMetaData> handle;
+            try (QpidByteBuffer buf = QpidByteBuffer.wrap(metaData, 1, metaData.length - 1))
+            {
+                try
+                {
+                    StorableMessageMetaData storableMessageMetaData = metaDataType.createMetaData(buf);
+                    handle = store.addMessage(storableMessageMetaData);
+                }
+                catch (ConnectionScopedRuntimeException e)
+                {
+                    throw new IllegalArgumentException("Could not deserialize message metadata", e);
+                }
+            }
+
+            try (QpidByteBuffer buf = QpidByteBuffer.wrap(content))
+            {
+                handle.addContent(buf);
+            }
+            final StoredMessage<StorableMessageMetaData> storedMessage = handle.allContentAdded();
+            try
+            {
+                storedMessage.flowToDisk();
+                messageMap.put(originalMessageNumber, storedMessage);
+            }
+            catch (RuntimeException e)
+            {
+                if (e instanceof ServerScopedRuntimeException)
+                {
+                    throw e;
+                }
+                throw new IllegalArgumentException("Could not decode message metadata", e);
+            }
+            if (checkpoint != null)
+            {
+                checkpoint.messageImported(originalMessageNumber, storedMessage.getMessageNumber());
+            }
+        }
+        if (checkpoint != null)
+        {
+            checkpoint.sync();
+        }
+    }
+
+    private void deserializeMessageInstances(final MessageStore store,
+                                             final Map<UUID, UUID> queueIdMap,
+                                             final Map<Long, StoredMessage<?>> messageMap,
+                                             final ExistingRecords existing,
+                                             final DataInputStream input) throws IOException
+    {
+        final int count = input.readInt();
+        final Transaction txn = store.newTransaction();
+        for (int i = 0; i < count; i++)
+        {
+            final UUID queueId = queueIdMap.get(readUUID(input));
+            final StoredMessage<?> storedMessage = messageMap.get(input.readLong());
+            if (storedMessage != null && queueId != null
+                && !existing.hasMessageInstance(queueId, storedMessage.getMessageNumber()))
+            {
+                txn.enqueueMessage(new QueueResource(queueId, queueId.toString()), new ImportedMessage(storedMessage));
+            }
+        }
+        txn.commitTran();
+    }
+
+    private void deserializeDistributedTransactions(final MessageStore store,
+                                                    final Map<UUID, UUID> queueIdMap,
+                                                    final Map<Long, StoredMessage<?>> messageMap,
+                                                    final ExistingRecords existing,
+                                                    final DataInputStream input) throws IOException
+    {
+        final int count = input.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            final long format = input.readLong();
+            final byte[] globalId = readBytes(input);
+            final byte[] branchId = readBytes(input);
+
+            final Transaction.EnqueueRecord[] enqueues = new Transaction.EnqueueRecord[input.readInt()];
+            for (int j = 0; j < enqueues.length; j++)
+            {
+                final StoredMessage<?> storedMessage = getTransactionMessage(messageMap, input.readLong());
+                final UUID queueId = getTransactionQueueId(queueIdMap, readUUID(input));
+                enqueues[j] = new EnqueueRecordImpl(storedMessage, queueId);
+            }
+            final Transaction.DequeueRecord[] dequeues = new Transaction.DequeueRecord[input.readInt()];
+            for (int j = 0; j < dequeues.length; j++)
+            {
+                final StoredMessage<?> storedMessage = getTransactionMessage(messageMap, input.readLong());
+                final UUID queueId = getTransactionQueueId(queueIdMap, readUUID(input));
+                dequeues[j] = new DequeueRecordImpl(storedMessage.getMessageNumber(), queueId);
+            }
+
+            if (!existing.hasDistributedTransaction(new Xid(format, globalId, branchId)))
+            {
+                final Transaction txn = store.newTransaction();
+                txn.recordXid(format, globalId, branchId, enqueues, dequeues);
+                txn.commitTran();
+            }
+        }
+    }
+
+    /**
+     * A prepared transaction cannot be imported without the messages and queues it refers to, so unlike a message
+     * instance, a transaction record referring to one missing from the extract fails the import.
+     */
+    private static StoredMessage<?> getTransactionMessage(final Map<Long, StoredMessage<?>> messageMap,
+                                                          final long originalMessageNumber)
+    {
+        final StoredMessage<?> storedMessage = messageMap.get(originalMessageNumber);
+        if (storedMessage == null)
+        {
+            throw new IllegalArgumentException("Distributed transaction refers to message " + originalMessageNumber
+                                               + " which is not in the extract");
+        }
+        return storedMessage;
+    }
+
+    private static UUID getTransactionQueueId(final Map<UUID, UUID> queueIdMap, final UUID originalQueueId)
+    {
+        final UUID queueId = queueIdMap.get(originalQueueId);
+        if (queueId == null)
+        {
+            throw new IllegalArgumentException("Distributed transaction refers to queue " + originalQueueId
+                                               + " which is not in the extract");
+        }
+        return queueId;
+    }
+
+    private static UUID readUUID(final DataInputStream input) throws IOException
+    {
+        return new UUID(input.readLong(), input.readLong());
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException
+    {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static ThreadFactory newThreadFactory(final String purpose)
+    {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable ->
+        {
+            final Thread thread = new Thread(runnable, "Message Store " + purpose + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void awaitAll(final List<Future<Void>> futures) throws IOException
+    {
+        for (Future<Void> future : futures)
+        {
+            await(future);
+        }
+    }
+
+    private static void await(final Future<Void> future) throws IOException
+    {
+        try
+        {
+            future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst processing message store segments");
+        }
+        catch (ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private interface RecordWriter
+    {
+        void write(SegmentBuffer segment) throws IOException;
+    }
+
+    private interface SegmentTask
+    {
+        void apply() throws IOException;
+    }
+
+    /**
+     * Collects records into segments of about {@link #SEGMENT_SIZE} bytes, submitting each to the writer as it
+     * fills.  Used from within store visitors, which cannot throw checked exceptions, so the first failure is held
+     * and rethrown by {@link #complete()}.
+     */
+    private static final class SegmentingHandler
+    {
+        private final SegmentType _type;
+        private final SegmentWriter _writer;
+        private SegmentBuffer _segment;
+        private IOException _exception;
+
+        private SegmentingHandler(final SegmentType type, final SegmentWriter writer)
+        {
+            _type = type;
+            _writer = writer;
+        }
+
+        boolean add(final RecordWriter recordWriter)
+        {
+            try
+            {
+                if (_segment == null)
+                {
+                    _segment = new SegmentBuffer(_type, INITIAL_SEGMENT_CAPACITY);
+                    // placeholder for the record count
+                    _segment.writeInt(0);
+                }
+                recordWriter.write(_segment);
+                _segment.recordAdded();
+                if (_segment.size() >= SEGMENT_SIZE)
+                {
+                    flush();
+                }
+            }
+            catch (IOException e)
+            {
+                _exception = e;
+                return false;
+            }
+            return true;
+        }
+
+        void complete() throws IOException
+        {
+            if (_exception != null)
+            {
+                throw _exception;
+            }
+            if (_segment != null)
+            {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException
+        {
+            final int count = _segment.getRecordCount();
+            final byte[] buffer = _segment.getBuffer();
+            buffer[0] = (byte) (count >>> 24);
+            buffer[1] = (byte) (count >>> 16);
+            buffer[2] = (byte) (count >>> 8);
+            buffer[3] = (byte) count;
+            _writer.submit(_segment);
+            _segment = null;
+        }
+    }
+
+    /**
+     * Applies segments on the given executor, allowing at most {@code maxInFlight} decoded segments to be held
+     * in memory at once.
+     */
+    private static final class SegmentApplier
+    {
+        private final ExecutorService _executor;
+        private final Semaphore _permits;
+        private final List<Future<Void>> _pending = new ArrayList<>();
+
+        private SegmentApplier(final ExecutorService executor, final int maxInFlight)
+        {
+            _executor = executor;
+            _permits = new Semaphore(maxInFlight);
+        }
+
+        void apply(final SegmentTask task) throws IOException
+        {
+            try
+            {
+                _permits.acquire();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted whilst applying message store segments");
+            }
+            _pending.add(_executor.submit(() ->
+                                          {
+                                              try
+                                              {
+                                                  task.apply();
+                                              }
+                                              finally
+                                              {
+                                                  _permits.release();
+                                              }
+                                              return null;
+                                          }));
+            final Iterator<Future<Void>> iterator = _pending.iterator();
+            while (iterator.hasNext())
+            {
+                final Future<Void> future = iterator.next();
+                if (future.isDone())
+                {
+                    iterator.remove();
+                    // surfaces the failure of a segment which has already completed
+                    await(future);
+                }
+            }
+        }
+
+        void awaitApplied() throws IOException
+        {
+            try
+            {
+                awaitAll(_pending);
+            }
+            finally
+            {
+                _pending.clear();
+            }
+        }
+    }
+
+    /**
+     * The records an earlier attempt of a resumed import added to the store, which must not be added a second time.
+     * Only the instances of messages recorded in the checkpoint are retained, so the memory used is bounded by what
+     * the failed attempt imported rather than by the size of the store.
+     */
+    private static final class ExistingRecords
+    {
+        private final Map<UUID, Set<Long>> _messageInstances = new HashMap<>();
+        private final Set<Xid> _distributedTransactions = new HashSet<>();
+
+        void load(final MessageStore store,
+                  final ImportCheckpoint checkpoint,
+                  final Map<Long, StoredMessage<?>> messageMap)
+        {
+            final MessageStore.MessageStoreReader reader = store.newMessageStoreReader();
+            try
+            {
+                final Set<Long> importedMessageNumbers = new HashSet<>();
+                for (Map.Entry<Long, Long> entry : checkpoint.getImportedMessages().entrySet())
+                {
+                    final StoredMessage<?> storedMessage = reader.getMessage(entry.getValue());
+                    if (storedMessage != null)
+                    {
+                        messageMap.put(entry.getKey(), storedMessage);
+                        importedMessageNumbers.add(entry.getValue());
+                    }
+                }
+                reader.visitMessageInstances(record ->
+                                             {
+                                                 if (importedMessageNumbers.contains(record.getMessageNumber()))
+                                                 {
+                                                     _messageInstances.computeIfAbsent(record.getQueueId(),
+                                                                                       id -> new HashSet<>())
+                                                                      .add(record.getMessageNumber());
+                                                 }
+                                                 return true;
+                                             });
+                reader.visitDistributedTransactions((storedXid, enqueues, dequeues) ->
+                                                    {
+                                                        _distributedTransactions.add(new Xid(storedXid.getFormat(),
+                                                                                             storedXid.getGlobalId(),
+                                                                                             storedXid.getBranchId()));
+                                                        return true;
+                                                    });
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+
+        boolean hasMessageInstance(final UUID queueId, final long messageNumber)
+        {
+            final Set<Long> messageNumbers = _messageInstances.get(queueId);
+            return messageNumbers != null && messageNumbers.contains(messageNumber);
+        }
+
+        boolean hasDistributedTransaction(final Xid xid)
+        {
+            return _distributedTransactions.contains(xid);
+        }
+    }
+
+    private static final class QueueResource implements TransactionLogResource
+    {
+        private final UUID _id;
+        private final String _name;
+
+        private QueueResource(final UUID id, final String name)
+        {
+            _id = id;
+            _name = name;
+        }
+
+        @Override
+        public String getName()
+        {
+            return _name;
+        }
+
+        @Override
+        public UUID getId()
+        {
+            return _id;
+        }
+
+        @Override
+        public MessageDurability getMessageDurability()
+        {
+            return MessageDurability.DEFAULT;
+        }
+    }
+
+    private static final class ImportedMessage implements EnqueueableMessage
+    {
+        private final StoredMessage<?> _storedMessage;
+
+        private ImportedMessage(final StoredMessage<?> storedMessage)
+        {
+            _storedMessage = storedMessage;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _storedMessage.getMessageNumber();
+        }
+
+        @Override
+        public boolean isPersistent()
+        {
+            return true;
+        }
+
+        @Override
+        public StoredMessage getStoredMessage()
+        {
+            return _storedMessage;
+        }
+    }
+
+    private static final class EnqueueRecordImpl implements Transaction.EnqueueRecord, EnqueueableMessage
+    {
+        private final StoredMessage<?> _storedMessage;
+        private final QueueResource _queue;
+
+        private EnqueueRecordImpl(final StoredMessage<?> storedMessage, final UUID queueId)
+        {
+            _storedMessage = storedMessage;
+            _queue = new QueueResource(queueId, queueId.toString());
+        }
+
+        @Override
+        public TransactionLogResource getResource()
+        {
+            return _queue;
+        }
+
+        @Override
+        public EnqueueableMessage getMessage()
+        {
+            return this;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _storedMessage.getMessageNumber();
+        }
+
+        @Override
+        public boolean isPersistent()
+        {
+            return true;
+        }
+
+        @Override
+        public StoredMessage getStoredMessage()
+        {
+            return _storedMessage;
+        }
+    }
+
+    private static final class DequeueRecordImpl implements Transaction.DequeueRecord, MessageEnqueueRecord
+    {
+        private final long _messageNumber;
+        private final UUID _queueId;
+
+        private DequeueRecordImpl(final long messageNumber, final UUID queueId)
+        {
+            _messageNumber = messageNumber;
+            _queueId = queueId;
+        }
+
+        @Override
+        public MessageEnqueueRecord getEnqueueRecord()
+        {
+            return this;
+        }
+
+        @Override
+        public UUID getQueueId()
+        {
+            return _queueId;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _messageNumber;
+        }
+    }
+}
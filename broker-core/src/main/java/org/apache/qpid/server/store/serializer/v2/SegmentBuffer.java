@@ -0,0 +1,132 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+
+/**
+ * Accumulates the uncompressed records of a single segment.
+ */
+class SegmentBuffer
+{
+    private final SegmentType _type;
+    private final ExposedByteArrayOutputStream _bytes;
+    private final DataOutputStream _output;
+    private int _recordCount;
+
+    SegmentBuffer(final SegmentType type, final int initialCapacity)
+    {
+        _type = type;
+        _bytes = new ExposedByteArrayOutputStream(initialCapacity);
+        _output = new DataOutputStream(_bytes);
+    }
+
+    SegmentType getType()
+    {
+        return _type;
+    }
+
+    int size()
+    {
+        return _bytes.size();
+    }
+
+    int getRecordCount()
+    {
+        return _recordCount;
+    }
+
+    void recordAdded()
+    {
+        _recordCount++;
+    }
+
+    byte[] getBuffer()
+    {
+        return _bytes.getBuffer();
+    }
+
+    void writeLong(final long value) throws IOException
+    {
+        _output.writeLong(value);
+    }
+
+    void writeInt(final int value) throws IOException
+    {
+        _output.writeInt(value);
+    }
+
+    void writeUUID(final UUID uuid) throws IOException
+    {
+        _output.writeLong(uuid.getMostSignificantBits());
+        _output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    void writeString(final String value) throws IOException
+    {
+        _output.writeUTF(value);
+    }
+
+    void writeBytes(final byte[] bytes) throws IOException
+    {
+        _output.writeInt(bytes.length);
+        _output.write(bytes);
+    }
+
+    /**
+     * Writes the length prefixed content of the given buffer, copying it straight into the segment.
+     */
+    void writeContent(final QpidByteBuffer content) throws IOException
+    {
+        final int length = content.remaining();
+        _output.writeInt(length);
+        _bytes.append(content, length);
+    }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream
+    {
+        private ExposedByteArrayOutputStream(final int size)
+        {
+            super(size);
+        }
+
+        private byte[] getBuffer()
+        {
+            return buf;
+        }
+
+        private void append(final QpidByteBuffer content, final int length)
+        {
+            if (count + length > buf.length)
+            {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + length));
+            }
+            content.get(buf, count, length);
+            count += length;
+        }
+    }
+}
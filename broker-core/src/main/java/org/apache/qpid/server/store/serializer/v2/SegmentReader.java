@@ -0,0 +1,171 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the segments written by {@link SegmentWriter}.  Reading a segment only reads its compressed bytes from
+ * the stream; checksum validation and decompression are deferred to {@link Segment#decode()} so that they can be
+ * performed by whichever thread applies the segment.
+ */
+class SegmentReader
+{
+    private final DataInputStream _input;
+    private final UUID _exportId;
+    private int _expectedSequence;
+
+    SegmentReader(final InputStream input) throws IOException
+    {
+        _input = input instanceof DataInputStream ? (DataInputStream) input : new DataInputStream(input);
+
+        if (_input.read() != 0)
+        {
+            throw new IllegalArgumentException("Invalid format for upload");
+        }
+        final byte[] versionBytes = new byte[_input.readInt()];
+        _input.readFully(versionBytes);
+        final String version = new String(versionBytes, StandardCharsets.UTF_8);
+        if (!MessageStoreSerializer_v2.VERSION.equals(version))
+        {
+            throw new IllegalArgumentException("Unexpected version '" + version + "' expecting '"
+                                               + MessageStoreSerializer_v2.VERSION + "'");
+        }
+        _exportId = new UUID(_input.readLong(), _input.readLong());
+    }
+
+    /**
+     * @return the id generated for the extract when it was written
+     */
+    UUID getExportId()
+    {
+        return _exportId;
+    }
+
+    Segment next() throws IOException
+    {
+        final int typeOrdinal = _input.read();
+        if (typeOrdinal < 0 || typeOrdinal >= SegmentType.values().length)
+        {
+            throw new IllegalArgumentException("Unexpected segment type " + typeOrdinal
+                                               + " at segment " + _expectedSequence);
+        }
+        final SegmentType type = SegmentType.values()[typeOrdinal];
+        final int sequence = _input.readInt();
+        if (sequence != _expectedSequence)
+        {
+            throw new IllegalArgumentException("Unexpected segment " + sequence + " expecting segment "
+                                               + _expectedSequence);
+        }
+        _expectedSequence++;
+
+        final int length = _input.readInt();
+        final int compressedLength = _input.readInt();
+        final int checksum = _input.readInt();
+        if (length < 0 || compressedLength < 0)
+        {
+            throw new IllegalArgumentException("Invalid length for segment " + sequence);
+        }
+        final byte[] compressed = new byte[compressedLength];
+        _input.readFully(compressed);
+        return new Segment(type, sequence, length, checksum, compressed);
+    }
+
+    static final class Segment
+    {
+        private final SegmentType _type;
+        private final int _sequence;
+        private final int _length;
+        private final int _checksum;
+        private final byte[] _compressed;
+
+        private Segment(final SegmentType type,
+                        final int sequence,
+                        final int length,
+                        final int checksum,
+                        final byte[] compressed)
+        {
+            _type = type;
+            _sequence = sequence;
+            _length = length;
+            _checksum = checksum;
+            _compressed = compressed;
+        }
+
+        SegmentType getType()
+        {
+            return _type;
+        }
+
+        int getSequence()
+        {
+            return _sequence;
+        }
+
+        DataInputStream decode()
+        {
+            final CRC32 crc = new CRC32();
+            crc.update(_compressed, 0, _compressed.length);
+            if ((int) crc.getValue() != _checksum)
+            {
+                throw new IllegalArgumentException("Checksum mismatch for segment " + _sequence);
+            }
+
+            final byte[] data = new byte[_length];
+            final Inflater inflater = new Inflater();
+            try
+            {
+                inflater.setInput(_compressed);
+                int position = 0;
+                while (position < _length)
+                {
+                    final int read = inflater.inflate(data, position, _length - position);
+                    if (read == 0 && (inflater.finished() || inflater.needsInput()))
+                    {
+                        break;
+                    }
+                    position += read;
+                }
+                if (position != _length)
+                {
+                    throw new IllegalArgumentException("Unexpected length for segment " + _sequence);
+                }
+            }
+            catch (DataFormatException e)
+            {
+                throw new IllegalArgumentException("Could not decompress segment " + _sequence, e);
+            }
+            finally
+            {
+                inflater.end();
+            }
+            return new DataInputStream(new ByteArrayInputStream(data));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes segments to the output stream.  Segments are compressed and checksummed by the given executor, so that
+ * several segments may be encoded at once, but are written in the order in which they were submitted.  At most
+ * {@code maxInFlight} segments are held in memory awaiting their turn; further submissions block until the
+ * oldest has been written.
+ * <p>
+ * The segments follow a header of the version and a randomly generated id (two longs) identifying the extract.
+ * Each segment is written as: type (byte), sequence number (int), uncompressed length (int), compressed
+ * length (int), CRC32 of the compressed bytes (int), compressed bytes.
+ */
+class SegmentWriter
+{
+    private final DataOutputStream _output;
+    private final ExecutorService _encoder;
+    private final int _maxInFlight;
+    private final Deque<Future<byte[]>> _inFlight = new ArrayDeque<>();
+    private int _sequence;
+
+    SegmentWriter(final OutputStream output, final ExecutorService encoder, final int maxInFlight) throws IOException
+    {
+        _output = new DataOutputStream(output);
+        _encoder = encoder;
+        _maxInFlight = Math.max(1, maxInFlight);
+
+        // All encodings should start 0x00 << int length of the version string>> << version string in UTF-8 >>
+        final byte[] version = MessageStoreSerializer_v2.VERSION.getBytes(StandardCharsets.UTF_8);
+        _output.write(0);
+        _output.writeInt(version.length);
+        _output.write(version);
+
+        final UUID exportId = UUID.randomUUID();
+        _output.writeLong(exportId.getMostSignificantBits());
+        _output.writeLong(exportId.getLeastSignificantBits());
+    }
+
+    synchronized void submit(final SegmentBuffer segment) throws IOException
+    {
+        final int sequence = _sequence++;
+        _inFlight.add(_encoder.submit(() -> encode(segment.getType(), sequence, segment.getBuffer(), segment.size())));
+        writeCompleted(_maxInFlight);
+    }
+
+    /**
+     * Writes all outstanding segments followed by the end segment, which records the number of segments
+     * preceding it.
+     */
+    synchronized void complete() throws IOException
+    {
+        writeCompleted(0);
+
+        final SegmentBuffer end = new SegmentBuffer(SegmentType.END, 8);
+        end.writeInt(_sequence);
+        _output.write(encode(SegmentType.END, _sequence++, end.getBuffer(), end.size()));
+        _output.flush();
+    }
+
+    private void writeCompleted(final int maxRemaining) throws IOException
+    {
+        while (!_inFlight.isEmpty() && (_inFlight.size() > maxRemaining || _inFlight.peek().isDone()))
+        {
+            final Future<byte[]> head = _inFlight.poll();
+            try
+            {
+                _output.write(head.get());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted whilst writing message store segment");
+            }
+            catch (ExecutionException e)
+            {
+                throw new IOException("Failed to encode message store segment", e.getCause());
+            }
+        }
+    }
+
+    private static byte[] encode(final SegmentType type, final int sequence, final byte[] data, final int length)
+            throws IOException
+    {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 2));
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            final byte[] chunk = new byte[8192];
+            while (!deflater.finished())
+            {
+                final int written = deflater.deflate(chunk);
+                compressed.write(chunk, 0, written);
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        final CRC32 crc = new CRC32();
+        final byte[] compressedBytes = compressed.toByteArray();
+        crc.update(compressedBytes, 0, compressedBytes.length);
+
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream(compressedBytes.length + 17);
+        try (DataOutputStream output = new DataOutputStream(frame))
+        {
+            output.writeByte(type.ordinal());
+            output.writeInt(sequence);
+            output.writeInt(length);
+            output.writeInt(compressedBytes.length);
+            output.writeInt((int) crc.getValue());
+            output.write(compressedBytes);
+        }
+        return frame.toByteArray();
+    }
+}
@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.security.auth.Subject;
 import javax.security.auth.SubjectDomainCombiner;
@@ -116,12 +117,12 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     private String _clientId;
     private volatile boolean _stopped;
 
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _localTransactionBegins = new AtomicLong();
     private final AtomicLong _localTransactionRollbacks = new AtomicLong();
     private final AtomicLong _localTransactionOpens = new AtomicLong();
@@ -470,8 +471,8 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
         _statisticsGatherer.registerMessageDelivered(messageSize);
     }
 
@@ -479,22 +480,22 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     public void registerMessageReceived(long messageSize)
     {
         updateLastMessageInboundTime();
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         _statisticsGatherer.registerMessageReceived(messageSize);
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
         _statisticsGatherer.registerTransactedMessageDelivered();
     }
 
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
         _statisticsGatherer.registerTransactedMessageReceived();
     }
 
@@ -711,37 +712,37 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     public AccessControlContext getAccessControllerContext()
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.transport;
+
+import org.apache.qpid.server.stats.FlightRecorder;
+
+/**
+ * Records the scheduling delays of a connection in the {@link FlightRecorder}.  Only delays of at least
+ * {@value #THRESHOLD_PROPERTY_NAME} milliseconds (default {@value #DEFAULT_THRESHOLD}) are recorded, so that the
+ * recording of a busy broker holds the delays worth investigating rather than one event per pass of every
+ * connection.
+ */
+class FlightRecordingSchedulingDelayListener implements SchedulingDelayNotificationListener
+{
+    static final String THRESHOLD_PROPERTY_NAME = "qpid.broker.flightRecorder.schedulingDelayThreshold";
+    static final long DEFAULT_THRESHOLD = 10L;
+
+    private static final long THRESHOLD = Long.getLong(THRESHOLD_PROPERTY_NAME, DEFAULT_THRESHOLD);
+
+    private final FlightRecorder _recorder;
+    private final String _source;
+    private final long _threshold;
+
+    FlightRecordingSchedulingDelayListener(final String source)
+    {
+        this(FlightRecorder.getInstance(), source, THRESHOLD);
+    }
+
+    FlightRecordingSchedulingDelayListener(final FlightRecorder recorder, final String source, final long threshold)
+    {
+        _recorder = recorder;
+        _source = source;
+        _threshold = threshold;
+    }
+
+    @Override
+    public void notifySchedulingDelay(final long schedulingDelay)
+    {
+        if (schedulingDelay >= _threshold && schedulingDelay > 0)
+        {
+            _recorder.record(FlightRecorder.EventType.CONNECTION_SCHEDULING_DELAY, _source, schedulingDelay);
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.stats.FlightRecorder;
 import org.apache.qpid.server.transport.network.TransportEncryption;
 import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
@@ -94,6 +95,10 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         _remoteSocketAddress = _socketChannel.socket().getRemoteSocketAddress().toString();
         _port = port;
         _threadName = SelectorThread.IO_THREAD_NAME_PREFIX + _remoteSocketAddress.toString();
+        if (FlightRecorder.getInstance().isEnabled())
+        {
+            _schedulingDelayNotificationListeners.add(new FlightRecordingSchedulingDelayListener(_remoteSocketAddress));
+        }
 
         protocolEngine.setWorkListener(new Action<ProtocolEngine>()
         {
@@ -49,6 +49,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.configuration.CommonProperties;
+import org.apache.qpid.server.stats.FlightRecorder;
 
 
 class SelectorThread extends Thread
@@ -350,6 +351,7 @@ class SelectorThread extends Thread
                                     }
                                 }
                                 runTasks();
+                                recordWakeup(connections.size());
                             }
                         }
                         finally
@@ -384,6 +386,16 @@ class SelectorThread extends Thread
             }
         }
 
+        private void recordWakeup(final int scheduledConnections)
+        {
+            if (scheduledConnections > 0)
+            {
+                FlightRecorder.getInstance().record(FlightRecorder.EventType.SELECTOR_WAKEUP,
+                                                    _scheduler.getName(),
+                                                    scheduledConnections);
+            }
+        }
+
         private void closeSelector()
         {
             try
@@ -61,11 +61,15 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import javax.security.auth.Subject;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.util.concurrent.FutureCallback;
@@ -118,6 +122,7 @@ import org.apache.qpid.server.security.SubjectFixedResultAccessControl.ResultCal
 import org.apache.qpid.server.security.access.Operation;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.security.auth.SocketConnectionMetaData;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.stats.StatisticsReportingTask;
 import org.apache.qpid.server.store.ConfiguredObjectRecord;
 import org.apache.qpid.server.store.DurableConfigurationStore;
@@ -161,6 +166,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private volatile TaskExecutor _preferenceTaskExecutor;
     private volatile boolean _deleteRequested;
     private final ConcurrentMap<String, Cache> _caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ByteStringInternTable<?>> _internTables = new ConcurrentHashMap<>();
 
     private enum BlockingType { STORE, FILESYSTEM };
 
@@ -170,6 +176,8 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractVirtualHost.class);
 
     private static final int HOUSEKEEPING_SHUTDOWN_TIMEOUT = 5;
+    private static final long RECOVERY_RATE_SAMPLE_PERIOD = TimeUnit.SECONDS.toNanos(1);
+    private static final long QUEUE_LATENCY_SNAPSHOT_EXPIRY_MILLIS = 1000L;
 
     private volatile ScheduledThreadPoolExecutor _houseKeepingTaskExecutor;
     private volatile ScheduledFuture<?> _statisticsReportingFuture;
@@ -180,14 +188,23 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
     private final SystemNodeRegistry _systemNodeRegistry = new SystemNodeRegistry();
 
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _totalConnectionCount = new AtomicLong();
     private final AtomicLong _maximumMessageSize = new AtomicLong();
+    private final LatencyHistogram _storeTransactionCommitLatency = new LatencyHistogram();
+    // each statistic read would otherwise combine the histograms of every queue; the latencies of one kind share
+    // a combined snapshot, taken at most once a second
+    private final Supplier<LatencyHistogram.Snapshot> _enqueueLatencySnapshot =
+            queueLatencySnapshotSupplier(Queue::getEnqueueLatencyHistogram);
+    private final Supplier<LatencyHistogram.Snapshot> _deliveryLatencySnapshot =
+            queueLatencySnapshotSupplier(Queue::getDeliveryLatencyHistogram);
+    private final Supplier<LatencyHistogram.Snapshot> _acknowledgeLatencySnapshot =
+            queueLatencySnapshotSupplier(Queue::getAcknowledgeLatencyHistogram);
 
     private volatile LinkRegistryModel _linkRegistry;
     private AtomicBoolean _blocked = new AtomicBoolean();
@@ -275,7 +292,11 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private MessageDestination _defaultDestination;
 
     private MessageStore _messageStore;
-    private MessageStoreRecoverer _messageStoreRecoverer;
+    private volatile MessageStoreRecoverer _messageStoreRecoverer;
+    private final Object _recoveryRateLock = new Object();
+    private long _recoveryRateSampleTime;
+    private long _recoveryRateSampleCount;
+    private long _recoveryRate;
     private final FileSystemSpaceChecker _fileSystemSpaceChecker;
     private int _fileSystemMaxUsagePercent;
     private Collection<VirtualHostLogger> _virtualHostLoggersToClose;
@@ -596,6 +617,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         registerSystemNodes();
 
         _messageStore = createMessageStore();
+        _messageStore.setTransactionCommitLatencyHistogram(_storeTransactionCommitLatency);
 
         _messageStoreLogSubject = new MessageStoreLogSubject(getName(), _messageStore.getClass().getSimpleName());
 
@@ -906,13 +928,25 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     }
 
     @Override
-    public Content exportMessageStore()
+    public Content exportMessageStore(final String format)
     {
-        return new MessageStoreContent();
+        final MessageStoreSerializer serializer =
+                new QpidServiceLoader().getInstancesByType(MessageStoreSerializer.class).get(format);
+        if (serializer == null)
+        {
+            throw new IllegalArgumentException("Message store extract format '" + format + "' is not supported");
+        }
+        return new MessageStoreContent(serializer);
     }
 
     private class MessageStoreContent implements Content, CustomRestHeaders
     {
+        private final MessageStoreSerializer _serializer;
+
+        private MessageStoreContent(final MessageStoreSerializer serializer)
+        {
+            _serializer = serializer;
+        }
 
         @Override
         public void write(final OutputStream outputStream) throws IOException
@@ -943,9 +977,8 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                 }
                             }
                         });
-                        MessageStoreSerializer serializer = new QpidServiceLoader().getInstancesByType(MessageStoreSerializer.class).get(MessageStoreSerializer.LATEST);
                         MessageStore.MessageStoreReader reader = _messageStore.newMessageStoreReader();
-                        serializer.serialize(queueMap, reader, outputStream);
+                        _serializer.serialize(queueMap, reader, outputStream);
                     }
                     finally
                     {
@@ -1013,7 +1046,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     }
 
     @Override
-    public void importMessageStore(final String source)
+    public void importMessageStore(final String source, final boolean resume)
     {
         try
         {
@@ -1037,10 +1070,14 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                     "The importMessageStore operation can only be called when the virtual host is stopped");
                         }
 
+                        final File checkpointFile = getImportCheckpointFile();
                         try
                         {
                             _messageStore.openMessageStore(AbstractVirtualHost.this);
-                            checkMessageStoreEmpty();
+                            if (!resume)
+                            {
+                                checkMessageStoreEmpty();
+                            }
                             final Map<String, UUID> queueMap = new HashMap<>();
                             getDurableConfigurationStore().reload(new ConfiguredObjectRecordHandler()
                             {
@@ -1055,7 +1092,11 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                 }
                             });
 
-                            serializer.deserialize(queueMap, _messageStore, data);
+                            serializer.deserialize(queueMap, _messageStore, data, checkpointFile, resume);
+                            if (!checkpointFile.delete() && checkpointFile.exists())
+                            {
+                                LOGGER.warn("Failed to delete message store import checkpoint '{}'", checkpointFile);
+                            }
                         }
                         finally
                         {
@@ -1081,15 +1122,15 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                     {
                         if (url.getProtocol().equalsIgnoreCase("http") || url.getProtocol().equalsIgnoreCase("https") || url.getProtocol().equalsIgnoreCase("file"))
                         {
-                            return "source=" + source;
+                            return "source=" + source + ",resume=" + resume;
                         }
                         else if (url.getProtocol().equalsIgnoreCase("data"))
                         {
-                            return "source=<data stream>";
+                            return "source=<data stream>,resume=" + resume;
                         }
                         else
                         {
-                            return "source=<unknown source type>";
+                            return "source=<unknown source type>,resume=" + resume;
                         }
                     }
                 }));
@@ -1101,6 +1142,16 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }
     }
 
+    private File getImportCheckpointFile()
+    {
+        final File workDir = new File(getContextValue(String.class, VIRTUALHOST_WORK_DIR_VAR));
+        if (!workDir.isDirectory() && !workDir.mkdirs())
+        {
+            throw new IllegalConfigurationException("Cannot create work directory '" + workDir + "'");
+        }
+        return new File(workDir, IMPORT_CHECKPOINT_FILE_NAME);
+    }
+
     private void checkMessageStoreEmpty()
     {
         final MessageStore.MessageStoreReader reader = _messageStore.newMessageStoreReader();
@@ -1514,6 +1565,156 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return _maximumMessageSize.get();
     }
 
+    @Override
+    public long getRecoveredMessageInstanceCount()
+    {
+        final MessageStoreRecoverer recoverer = _messageStoreRecoverer;
+        return recoverer == null ? 0L : recoverer.getRecoveredMessageInstanceCount();
+    }
+
+    @Override
+    public int getQueuesAwaitingRecoveryCount()
+    {
+        final MessageStoreRecoverer recoverer = _messageStoreRecoverer;
+        return recoverer == null ? 0 : recoverer.getQueuesAwaitingRecoveryCount();
+    }
+
+    @Override
+    public long getRecoveryRate()
+    {
+        final MessageStoreRecoverer recoverer = _messageStoreRecoverer;
+        if (recoverer == null)
+        {
+            return 0L;
+        }
+        synchronized (_recoveryRateLock)
+        {
+            // the rate is taken over the period since the previous sample, so that it reflects current progress
+            // rather than the average since recovery started
+            final long now = System.nanoTime();
+            final long elapsed = now - _recoveryRateSampleTime;
+            if (elapsed >= RECOVERY_RATE_SAMPLE_PERIOD)
+            {
+                final long count = recoverer.getRecoveredMessageInstanceCount();
+                _recoveryRate = (count - _recoveryRateSampleCount) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+                _recoveryRateSampleTime = now;
+                _recoveryRateSampleCount = count;
+            }
+            return _recoveryRate;
+        }
+    }
+
+    @Override
+    public long getInternTableHits()
+    {
+        long hits = 0L;
+        for (ByteStringInternTable<?> internTable : _internTables.values())
+        {
+            hits += internTable.getHitCount();
+        }
+        return hits;
+    }
+
+    @Override
+    public long getInternTableMisses()
+    {
+        long misses = 0L;
+        for (ByteStringInternTable<?> internTable : _internTables.values())
+        {
+            misses += internTable.getMissCount();
+        }
+        return misses;
+    }
+
+    @Override
+    public long getEnqueueLatencyMedian()
+    {
+        return _enqueueLatencySnapshot.get().getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getEnqueueLatency99thPercentile()
+    {
+        return _enqueueLatencySnapshot.get().getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getEnqueueLatencyMaximum()
+    {
+        return _enqueueLatencySnapshot.get().getMaximum();
+    }
+
+    @Override
+    public long getDeliveryLatencyMedian()
+    {
+        return _deliveryLatencySnapshot.get().getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getDeliveryLatency99thPercentile()
+    {
+        return _deliveryLatencySnapshot.get().getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getDeliveryLatencyMaximum()
+    {
+        return _deliveryLatencySnapshot.get().getMaximum();
+    }
+
+    @Override
+    public long getAcknowledgeLatencyMedian()
+    {
+        return _acknowledgeLatencySnapshot.get().getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getAcknowledgeLatency99thPercentile()
+    {
+        return _acknowledgeLatencySnapshot.get().getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getAcknowledgeLatencyMaximum()
+    {
+        return _acknowledgeLatencySnapshot.get().getMaximum();
+    }
+
+    @Override
+    public long getStoreTransactionCommitLatencyMedian()
+    {
+        return _storeTransactionCommitLatency.getValueAtPercentile(50d);
+    }
+
+    @Override
+    public long getStoreTransactionCommitLatency99thPercentile()
+    {
+        return _storeTransactionCommitLatency.getValueAtPercentile(99d);
+    }
+
+    @Override
+    public long getStoreTransactionCommitLatencyMaximum()
+    {
+        return _storeTransactionCommitLatency.getMaximum();
+    }
+
+    private Supplier<LatencyHistogram.Snapshot> queueLatencySnapshotSupplier(final Function<Queue<?>, LatencyHistogram> histogram)
+    {
+        return Suppliers.memoizeWithExpiration(() -> combineQueueLatencies(histogram),
+                                               QUEUE_LATENCY_SNAPSHOT_EXPIRY_MILLIS,
+                                               TimeUnit.MILLISECONDS);
+    }
+
+    private LatencyHistogram.Snapshot combineQueueLatencies(final Function<Queue<?>, LatencyHistogram> histogram)
+    {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+        for (Queue<?> queue : getChildren(Queue.class))
+        {
+            snapshot.add(histogram.apply(queue));
+        }
+        return snapshot;
+    }
+
     @Override
     public MessageDestination getDefaultDestination()
     {
@@ -1689,16 +1890,16 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
         _broker.registerMessageDelivered(messageSize);
     }
 
     @Override
     public void registerMessageReceived(long messageSize)
     {
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         _broker.registerMessageReceived(messageSize);
         long hwm;
         while((hwm = _maximumMessageSize.get()) < messageSize)
@@ -1710,51 +1911,51 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
         _broker.registerTransactedMessageReceived();
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
         _broker.registerTransactedMessageDelivered();
     }
 
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     @Override
@@ -2757,6 +2958,12 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
     private void postCreateDefaultExchangeTasks()
     {
+        synchronized (_recoveryRateLock)
+        {
+            _recoveryRateSampleTime = System.nanoTime();
+            _recoveryRateSampleCount = 0L;
+            _recoveryRate = 0L;
+        }
         if(getContextValue(Boolean.class, USE_ASYNC_RECOVERY))
         {
             _messageStoreRecoverer = new AsynchronousMessageStoreRecoverer();
@@ -3242,6 +3449,20 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                 .build());
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> ByteStringInternTable<V> getNamedInternTable(final String tableName)
+    {
+        return (ByteStringInternTable<V>) _internTables.computeIfAbsent(tableName, (k) ->
+        {
+            final String sizeContextVarName = String.format(NAMED_INTERN_TABLE_SIZE_FORMAT, tableName);
+            final int size = getContextKeys(false).contains(sizeContextVarName)
+                    ? getContextValue(Integer.class, sizeContextVarName)
+                    : getContextValue(Integer.class, NAMED_INTERN_TABLE_SIZE);
+            return new ByteStringInternTable<V>(size);
+        });
+    }
+
     private boolean hasDifferentBindings(final Exchange<?> exchange,
                                          final Queue queue,
                                          final Map<String, Map<String,Object>> bindings)
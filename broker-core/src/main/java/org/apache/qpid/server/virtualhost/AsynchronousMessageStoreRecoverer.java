@@ -22,16 +22,19 @@ package org.apache.qpid.server.virtualhost;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Executors;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -68,7 +71,7 @@ import org.apache.qpid.server.util.ServerScopedRuntimeException;
 public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousMessageStoreRecoverer.class);
-    private AsynchronousRecoverer _asynchronousRecoverer;
+    private volatile AsynchronousRecoverer _asynchronousRecoverer;
 
     @Override
     public ListenableFuture<Void> recover(final QueueManagingVirtualHost<?> virtualHost)
@@ -87,25 +90,39 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         }
     }
 
+    @Override
+    public long getRecoveredMessageInstanceCount()
+    {
+        final AsynchronousRecoverer recoverer = _asynchronousRecoverer;
+        return recoverer == null ? 0L : recoverer.getRecoveredMessageInstanceCount();
+    }
+
+    @Override
+    public int getQueuesAwaitingRecoveryCount()
+    {
+        final AsynchronousRecoverer recoverer = _asynchronousRecoverer;
+        return recoverer == null ? 0 : recoverer.getQueuesAwaitingRecoveryCount();
+    }
+
     private static class AsynchronousRecoverer
     {
 
         public static final int THREAD_POOL_SHUTDOWN_TIMEOUT = 5000;
+        private static final int RELEASE_INTERVAL = 256;
         private final QueueManagingVirtualHost<?> _virtualHost;
         private final EventLogger _eventLogger;
         private final MessageStore _store;
         private final MessageStoreLogSubject _logSubject;
         private final long _maxMessageId;
+        private final int _recoveredMetaDataRetainedPerQueue;
         private final Set<Queue<?>> _recoveringQueues = new CopyOnWriteArraySet<>();
         private final AtomicBoolean _recoveryComplete = new AtomicBoolean();
-        private final Map<Long, MessageReference<? extends ServerMessage<?>>> _recoveredMessages = new HashMap<>();
-        private final ListeningExecutorService _queueRecoveryExecutor =
-                MoreExecutors.listeningDecorator(new ThreadPoolExecutor(0,
-                                                                        Integer.MAX_VALUE,
-                                                                        60L,
-                                                                        TimeUnit.SECONDS,
-                                                                        new SynchronousQueue<>(),
-                                                                        QpidByteBuffer.createQpidByteBufferTrackingThreadFactory(Executors.defaultThreadFactory())));
+        private final RecoveredMessageMap<RecoveredMessage> _recoveredMessages = new RecoveredMessageMap<>();
+        private final Map<Queue<?>, MessageInstanceVisitor> _queueVisitors = new ConcurrentHashMap<>();
+        private final PriorityQueue<RecoveredMessage> _heldMessages =
+                new PriorityQueue<>(Comparator.comparingLong(RecoveredMessage::getMessageId));
+        private final LongAdder _recoveredMessageInstanceCount = new LongAdder();
+        private final ListeningExecutorService _queueRecoveryExecutor;
 
         private final MessageStore.MessageStoreReader _storeReader;
         private AtomicBoolean _continueRecovery = new AtomicBoolean(true);
@@ -119,9 +136,47 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             _logSubject = new MessageStoreLogSubject(virtualHost.getName(), _store.getClass().getSimpleName());
 
             _maxMessageId = _store.getNextMessageId();
+            _recoveredMetaDataRetainedPerQueue = getRecoveredMetaDataRetainedPerQueue(virtualHost);
             Collection children = _virtualHost.getChildren(Queue.class);
             _recoveringQueues.addAll((Collection<? extends Queue<?>>) children);
+            for (Queue<?> queue : _recoveringQueues)
+            {
+                _queueVisitors.put(queue, new MessageInstanceVisitor(queue));
+            }
+
+            final int threads = getRecoveryThreads(virtualHost);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+                                                                       threads,
+                                                                       60L,
+                                                                       TimeUnit.SECONDS,
+                                                                       new LinkedBlockingQueue<>(),
+                                                                       QpidByteBuffer.createQpidByteBufferTrackingThreadFactory(Executors.defaultThreadFactory()));
+            executor.allowCoreThreadTimeOut(true);
+            _queueRecoveryExecutor = MoreExecutors.listeningDecorator(executor);
+        }
+
+        private static int getRecoveryThreads(final QueueManagingVirtualHost<?> virtualHost)
+        {
+            final Integer threads =
+                    virtualHost.getContextValue(Integer.class, QueueManagingVirtualHost.RECOVERY_THREADS);
+            return threads == null || threads <= 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        }
+
+        private static int getRecoveredMetaDataRetainedPerQueue(final QueueManagingVirtualHost<?> virtualHost)
+        {
+            final Integer retained = virtualHost.getContextValue(Integer.class,
+                                                                 QueueManagingVirtualHost.RECOVERED_METADATA_RETAINED_PER_QUEUE);
+            return retained == null ? QueueManagingVirtualHost.DEFAULT_RECOVERED_METADATA_RETAINED_PER_QUEUE : retained;
+        }
+
+        long getRecoveredMessageInstanceCount()
+        {
+            return _recoveredMessageInstanceCount.sum();
+        }
 
+        int getQueuesAwaitingRecoveryCount()
+        {
+            return _recoveringQueues.size();
         }
 
         public ListenableFuture<Void> recover()
@@ -172,7 +227,7 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 
         private void recoverQueue(Queue<?> queue)
         {
-            MessageInstanceVisitor handler = new MessageInstanceVisitor(queue);
+            MessageInstanceVisitor handler = _queueVisitors.get(queue);
             _storeReader.visitMessageInstances(queue, handler);
 
             if (handler.getNumberOfUnknownMessageInstances() > 0)
@@ -186,20 +241,52 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             queue.completeRecovery();
 
             _recoveringQueues.remove(queue);
+            _queueVisitors.remove(queue);
             if (_recoveringQueues.isEmpty() && _recoveryComplete.compareAndSet(false, true))
             {
                 completeRecovery();
             }
+            else
+            {
+                releasePassedMessages();
+            }
+        }
+
+        /**
+         * Releases the references held for recovered messages which no queue still being recovered can enqueue.
+         * The store visits the instances of each queue in ascending message id order, so once every such queue
+         * has moved past a message id, the message has been attached to all the queues that hold it.
+         */
+        private void releasePassedMessages()
+        {
+            long position = Long.MAX_VALUE;
+            for (MessageInstanceVisitor visitor : _queueVisitors.values())
+            {
+                position = Math.min(position, visitor.getPosition());
+            }
+
+            final List<RecoveredMessage> passedMessages = new ArrayList<>();
+            synchronized (_heldMessages)
+            {
+                RecoveredMessage message;
+                while ((message = _heldMessages.peek()) != null && message.getMessageId() <= position)
+                {
+                    passedMessages.add(_heldMessages.poll());
+                }
+            }
+            // released outside the lock as a recovered message adds itself while holding its own lock
+            passedMessages.forEach(RecoveredMessage::release);
         }
 
         private synchronized void completeRecovery()
         {
-            // at this point nothing should be writing to the map of recovered messages
-            for (Map.Entry<Long,MessageReference<? extends ServerMessage<?>>> entry : _recoveredMessages.entrySet())
+            // at this point nothing should be writing to the map of recovered messages; the ids are retained
+            // for the orphan check below but any references still held are released now
+            synchronized (_heldMessages)
             {
-                entry.getValue().release();
-                entry.setValue(null); // free up any memory associated with the reference object
+                _heldMessages.clear();
             }
+            _recoveredMessages.forEach(RecoveredMessage::release);
             final List<StoredMessage<?>> messagesToDelete = new ArrayList<>();
             getStoreReader().visitMessages(new MessageHandler()
             {
@@ -240,27 +327,27 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             _queueRecoveryExecutor.shutdown();
         }
 
-        private synchronized ServerMessage<?> getRecoveredMessage(final long messageId)
+        private ServerMessage<?> getRecoveredMessage(final long messageId)
+        {
+            return _recoveredMessages.computeIfAbsent(messageId, RecoveredMessage::new).getMessage();
+        }
+
+        private MessageReference<? extends ServerMessage<?>> recoverMessage(final long messageId)
         {
-            MessageReference<? extends ServerMessage<?>> ref = _recoveredMessages.get(messageId);
-            if (ref == null)
+            StoredMessage<?> message = _storeReader.getMessage(messageId);
+            if (message != null)
             {
-                StoredMessage<?> message = _storeReader.getMessage(messageId);
-                if(message != null)
-                {
-                    StorableMessageMetaData metaData = message.getMetaData();
+                StorableMessageMetaData metaData = message.getMetaData();
 
-                    @SuppressWarnings("rawtypes")
-                    MessageMetaDataType type = metaData.getType();
+                @SuppressWarnings("rawtypes")
+                MessageMetaDataType type = metaData.getType();
 
-                    @SuppressWarnings("unchecked")
-                    ServerMessage<?> serverMessage = type.createMessage(message);
+                @SuppressWarnings("unchecked")
+                ServerMessage<?> serverMessage = type.createMessage(message);
 
-                    ref = serverMessage.newReference();
-                    _recoveredMessages.put(messageId, ref);
-                }
+                return serverMessage.newReference();
             }
-            return ref == null ? null : ref.getMessage();
+            return null;
         }
 
         public void cancel()
@@ -379,12 +466,10 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
                         }
 
                         final long messageId = record.getEnqueueRecord().getMessageNumber();
-                        final ServerMessage<?> message = getRecoveredMessage(messageId);
+                        final QueueEntry entry = queue.getMessageOnTheQueue(messageId);
 
-                        if (message != null)
+                        if (entry != null)
                         {
-                            final QueueEntry entry = queue.getMessageOnTheQueue(messageId);
-
                             if (entry.acquire())
                             {
                                 branch.dequeue(entry.getEnqueueRecord());
@@ -512,11 +597,67 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         }
 
 
+        /**
+         * The message recovered for an id.  The reference keeps the message from being deleted by a consumer of one
+         * queue before another queue has recovered its instance, and is released, together with the message, once
+         * every queue still being recovered has moved past the id.  Should the id be looked up again after that,
+         * the message is loaded from the store afresh.
+         */
+        private final class RecoveredMessage
+        {
+            private final long _messageId;
+            private boolean _loaded;
+            private MessageReference<? extends ServerMessage<?>> _reference;
+            private ServerMessage<?> _message;
+
+            private RecoveredMessage(final long messageId)
+            {
+                _messageId = messageId;
+            }
+
+            long getMessageId()
+            {
+                return _messageId;
+            }
+
+            synchronized ServerMessage<?> getMessage()
+            {
+                if (!_loaded)
+                {
+                    _loaded = true;
+                    _reference = recoverMessage(_messageId);
+                    if (_reference != null)
+                    {
+                        _message = _reference.getMessage();
+                        synchronized (_heldMessages)
+                        {
+                            _heldMessages.add(this);
+                        }
+                    }
+                }
+                return _message;
+            }
+
+            synchronized void release()
+            {
+                if (_reference != null)
+                {
+                    _reference.release();
+                    _reference = null;
+                    _message = null;
+                    _loaded = false;
+                }
+            }
+        }
+
         private class MessageInstanceVisitor implements MessageInstanceHandler
         {
             private final Queue<?> _queue;
             long _recoveredCount;
             private int _numberOfUnknownMessageInstances;
+            private int _handledSinceRelease;
+            // the id of the last instance handled, before which the queue has no further instances to recover
+            private volatile long _position = -1L;
 
             private MessageInstanceVisitor(Queue<?> queue)
             {
@@ -532,7 +673,9 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 
                 if(messageId < _maxMessageId)
                 {
-                    ServerMessage<?> message = getRecoveredMessage(messageId);
+                    final RecoveredMessage recoveredMessage =
+                            _recoveredMessages.computeIfAbsent(messageId, RecoveredMessage::new);
+                    final ServerMessage<?> message = recoveredMessage.getMessage();
 
                     if (message != null)
                     {
@@ -540,6 +683,16 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 
                         _queue.recover(message, record);
                         _recoveredCount++;
+                        _recoveredMessageInstanceCount.increment();
+
+                        if (_recoveredMetaDataRetainedPerQueue >= 0
+                            && _recoveredCount > _recoveredMetaDataRetainedPerQueue)
+                        {
+                            // entries this far back are unlikely to be delivered soon; the metadata has been
+                            // decoded to create the entry, which holds what it needs, so let the store release
+                            // the metadata and reload it on demand
+                            message.getStoredMessage().flowToDisk();
+                        }
                     }
                     else
                     {
@@ -550,6 +703,13 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
                         txn.commitTranAsync((Void) null);
                         _numberOfUnknownMessageInstances++;
                     }
+
+                    _position = messageId;
+                    if (++_handledSinceRelease == RELEASE_INTERVAL)
+                    {
+                        _handledSinceRelease = 0;
+                        releasePassedMessages();
+                    }
                     return _continueRecovery.get();
                 }
                 else
@@ -559,6 +719,11 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 
             }
 
+            long getPosition()
+            {
+                return _position;
+            }
+
             long getRecoveredCount()
             {
                 return _recoveredCount;
@@ -0,0 +1,188 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.virtualhost;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+
+/**
+ * Bounded intern table mapping short byte sequences (typically the encoded form of exchange names, routing keys and
+ * header names) onto a single shared decoded value.  A table is owned by a virtual host and is shared by all the
+ * threads servicing its connections.
+ * <p>
+ * Lookups hash and compare the bytes in place within the incoming buffer, so a hit neither copies nor allocates;
+ * only a miss copies the bytes and decodes the value.  The table is lock-free: entries are immutable and are
+ * published into an atomic array.  Each key may occupy one of a small number of slots following its home slot; when
+ * all of these are taken the entry in the home slot is replaced, bounding the table to its initial capacity.
+ * Concurrent misses for the same key may both decode a value, in which case one of them is retained.
+ */
+public final class ByteStringInternTable<V>
+{
+    private static final int MAX_PROBES = 4;
+
+    private final AtomicReferenceArray<Entry<V>> _entries;
+    private final int _mask;
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+
+    public ByteStringInternTable(final int capacity)
+    {
+        final int tableSize = Integer.highestOneBit(Math.max(MAX_PROBES - 1, capacity - 1) << 1);
+        _entries = new AtomicReferenceArray<>(tableSize);
+        _mask = tableSize - 1;
+    }
+
+    /**
+     * Reads {@code length} bytes from the current position of the buffer, advancing the position, and returns the
+     * value interned for them.  If there is none, the value is created from a copy of the bytes by the given
+     * factory and interned.
+     */
+    public V intern(final QpidByteBuffer buffer, final int length, final Function<byte[], V> factory)
+    {
+        final int position = buffer.position();
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + buffer.get(position + i);
+        }
+
+        final int home = spread(hash) & _mask;
+        int free = -1;
+        for (int probe = 0; probe < MAX_PROBES; probe++)
+        {
+            final int index = (home + probe) & _mask;
+            final Entry<V> entry = _entries.get(index);
+            if (entry == null)
+            {
+                if (free == -1)
+                {
+                    free = index;
+                }
+            }
+            else if (entry._hash == hash && entry.matches(buffer, position, length))
+            {
+                buffer.position(position + length);
+                _hits.increment();
+                return entry._value;
+            }
+        }
+
+        final byte[] data = new byte[length];
+        buffer.get(data, 0, length);
+        final V value = factory.apply(data);
+        _entries.set(free == -1 ? home : free, new Entry<>(hash, data, value));
+        _misses.increment();
+        return value;
+    }
+
+    /**
+     * Returns the value interned for the given bytes, or null if there is none.  Does not affect the statistics.
+     */
+    public V get(final byte[] data)
+    {
+        int hash = 0;
+        for (byte b : data)
+        {
+            hash = 31 * hash + b;
+        }
+
+        final int home = spread(hash) & _mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++)
+        {
+            final Entry<V> entry = _entries.get((home + probe) & _mask);
+            if (entry != null && entry._hash == hash && Arrays.equals(entry._key, data))
+            {
+                return entry._value;
+            }
+        }
+        return null;
+    }
+
+    public int getCapacity()
+    {
+        return _entries.length();
+    }
+
+    /**
+     * Returns the number of entries in the table, which never exceeds its capacity.
+     */
+    public int size()
+    {
+        int size = 0;
+        for (int i = 0; i < _entries.length(); i++)
+        {
+            if (_entries.get(i) != null)
+            {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount()
+    {
+        return _hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return _misses.sum();
+    }
+
+    private static int spread(final int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry<V>
+    {
+        private final int _hash;
+        private final byte[] _key;
+        private final V _value;
+
+        private Entry(final int hash, final byte[] key, final V value)
+        {
+            _hash = hash;
+            _key = key;
+            _value = value;
+        }
+
+        private boolean matches(final QpidByteBuffer buffer, final int position, final int length)
+        {
+            if (_key.length != length)
+            {
+                return false;
+            }
+            for (int i = 0; i < length; i++)
+            {
+                if (_key[i] != buffer.get(position + i))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
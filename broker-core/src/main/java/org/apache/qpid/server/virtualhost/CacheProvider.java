@@ -25,4 +25,6 @@ import com.google.common.cache.Cache;
 public interface CacheProvider
 {
     <K, V> Cache<K, V> getNamedCache(String cacheName);
+
+    <V> ByteStringInternTable<V> getNamedInternTable(String tableName);
 }
@@ -24,11 +24,13 @@ import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.stats.FlightRecorder;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 
 public abstract class HouseKeepingTask implements Runnable
@@ -50,6 +52,7 @@ public abstract class HouseKeepingTask implements Runnable
     {
         String originalThreadName = Thread.currentThread().getName();
         Thread.currentThread().setName(_name);
+        final long startTime = System.nanoTime();
 
         try
         {
@@ -72,6 +75,9 @@ public abstract class HouseKeepingTask implements Runnable
         }
         finally
         {
+            FlightRecorder.getInstance().record(FlightRecorder.EventType.HOUSEKEEPING_TASK,
+                                                _name,
+                                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
             // eagerly revert the thread name to make thread dumps more meaningful if captured after task has finished
             Thread.currentThread().setName(originalThreadName);
         }
@@ -31,4 +31,14 @@ public interface MessageStoreRecoverer
      * completed, this method call has no effect.
      */
     void cancel();
+
+    /**
+     * @return the number of message instances (queue entries) recovered so far
+     */
+    long getRecoveredMessageInstanceCount();
+
+    /**
+     * @return the number of queues whose recovery has not yet completed
+     */
+    int getQueuesAwaitingRecoveryCount();
 }
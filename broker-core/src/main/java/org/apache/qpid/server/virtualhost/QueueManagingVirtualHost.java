@@ -52,6 +52,9 @@ import org.apache.qpid.server.stats.StatisticsGatherer;
 import org.apache.qpid.server.store.DurableConfigurationStore;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.preferences.UserPreferencesCreator;
+import org.apache.qpid.server.store.serializer.MessageStoreSerializer;
+import org.apache.qpid.server.store.serializer.v1.MessageStoreSerializer_v1;
+import org.apache.qpid.server.store.serializer.v2.MessageStoreSerializer_v2;
 
 public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>> extends VirtualHost<X>,
                                                                                          EventListener,
@@ -164,6 +167,25 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedContextDefault( name = VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS)
     long DEFAULT_VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS = Math.max(DEFAULT_VIRTUALHOST_CONNECTION_THREAD_POOL_SIZE/8, 1);
 
+    String RECOVERY_THREADS = "virtualhost.recovery.threadCount";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = RECOVERY_THREADS,
+            description = "Maximum number of queues recovered in parallel when message store recovery is asynchronous")
+    int DEFAULT_RECOVERY_THREADS = Runtime.getRuntime().availableProcessors();
+
+    String RECOVERED_METADATA_RETAINED_PER_QUEUE = "virtualhost.recoveredMetaDataRetainedPerQueue";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = RECOVERED_METADATA_RETAINED_PER_QUEUE,
+            description = "Number of recovered messages at the head of each queue whose metadata stays in memory "
+                          + "once they have been put on the queue. The metadata of the remaining recovered messages is "
+                          + "released and reloaded from the store on demand, reducing the memory held by deep queues "
+                          + "after recovery. This does not shorten recovery: the metadata of every message is still "
+                          + "decoded once while it is recovered. A negative value keeps the metadata of all recovered "
+                          + "messages.")
+    int DEFAULT_RECOVERED_METADATA_RETAINED_PER_QUEUE = 1000;
+
+    String IMPORT_CHECKPOINT_FILE_NAME = "messageStoreImport.checkpoint";
+
     String NAMED_CACHE_MAXIMUM_SIZE = "virtualhost.namedCache.maximumSize";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = NAMED_CACHE_MAXIMUM_SIZE, description = "Maximum number of entries within the named cached")
@@ -176,6 +198,12 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     long DEFAULT_NAMED_CACHE_EXPIRATION = 300 * 1000;
     String NAMED_CACHE_EXPIRATION_FORMAT = "virtualhost.namedCache.%s.expiration";
 
+    String NAMED_INTERN_TABLE_SIZE = "virtualhost.namedInternTable.size";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = NAMED_INTERN_TABLE_SIZE, description = "Number of entries within each named intern table")
+    int DEFAULT_NAMED_INTERN_TABLE_SIZE = 4096;
+    String NAMED_INTERN_TABLE_SIZE_FORMAT = "virtualhost.namedInternTable.%s.size";
+
     @ManagedAttribute( defaultValue = "${" + QueueManagingVirtualHost.VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS + "}")
     int getNumberOfSelectors();
 
@@ -287,6 +315,109 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
             description = "Maximum size of message published into the Virtual Host since start-up.")
     long getInboundMessageSizeHighWatermark();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES,
+            label = "Recovered Messages",
+            description = "Number of message instances recovered from the message store since start-up.")
+    long getRecoveredMessageInstanceCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+            label = "Queues Awaiting Recovery",
+            description = "Current number of queues whose messages are still being recovered from the message store.")
+    int getQueuesAwaitingRecoveryCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+            label = "Recovery Rate",
+            description = "Number of message instances recovered per second from the message store, measured over "
+                          + "the period since the previous reading of this statistic (at least one second).")
+    long getRecoveryRate();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Intern Table Hits",
+            description = "Total number of decoded strings found within the intern tables of this virtualhost.")
+    long getInternTableHits();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Intern Table Misses",
+            description = "Total number of decoded strings not found within the intern tables of this virtualhost.")
+    long getInternTableMisses();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Enqueue Latency (Median)",
+            description = "The median of the time from arrival at the broker to enqueue of messages on this virtualhost over the last one to two minutes.")
+    long getEnqueueLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Enqueue Latency (99th Percentile)",
+            description = "The 99th percentile of the time from arrival at the broker to enqueue of messages on this virtualhost over the last one to two minutes.")
+    long getEnqueueLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Enqueue Latency (Maximum)",
+            description = "The maximum of the time from arrival at the broker to enqueue of messages on this virtualhost over the last one to two minutes.")
+    long getEnqueueLatencyMaximum();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Delivery Latency (Median)",
+            description = "The median of the time from arrival at the broker to delivery to a consumer of messages on this virtualhost over the last one to two minutes.")
+    long getDeliveryLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Delivery Latency (99th Percentile)",
+            description = "The 99th percentile of the time from arrival at the broker to delivery to a consumer of messages on this virtualhost over the last one to two minutes.")
+    long getDeliveryLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Delivery Latency (Maximum)",
+            description = "The maximum of the time from arrival at the broker to delivery to a consumer of messages on this virtualhost over the last one to two minutes.")
+    long getDeliveryLatencyMaximum();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Acknowledgement Latency (Median)",
+            description = "The median of the time from arrival at the broker to acknowledgement by a consumer of messages on this virtualhost over the last one to two minutes.")
+    long getAcknowledgeLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Acknowledgement Latency (99th Percentile)",
+            description = "The 99th percentile of the time from arrival at the broker to acknowledgement by a consumer of messages on this virtualhost over the last one to two minutes.")
+    long getAcknowledgeLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Acknowledgement Latency (Maximum)",
+            description = "The maximum of the time from arrival at the broker to acknowledgement by a consumer of messages on this virtualhost over the last one to two minutes.")
+    long getAcknowledgeLatencyMaximum();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION_MICROSECONDS,
+            label = "Store Commit Latency (Median)",
+            description = "The median of the time from the start to completion of message store transaction commits on this virtualhost, in microseconds, over the last one to two minutes.")
+    long getStoreTransactionCommitLatencyMedian();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION_MICROSECONDS,
+            label = "Store Commit Latency (99th Percentile)",
+            description = "The 99th percentile of the time from the start to completion of message store transaction commits on this virtualhost, in microseconds, over the last one to two minutes.")
+    long getStoreTransactionCommitLatency99thPercentile();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION_MICROSECONDS,
+            label = "Store Commit Latency (Maximum)",
+            description = "The maximum of the time from the start to completion of message store transaction commits on this virtualhost, in microseconds, over the last one to two minutes.")
+    long getStoreTransactionCommitLatencyMaximum();
+
     @Override
     @ManagedOperation(nonModifying = true, changesConfiguredObjectState = false)
     Collection<? extends Connection<?>> getConnections();
@@ -313,12 +444,22 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
             description = "Extract message store content",
             secure = true,
             changesConfiguredObjectState = false)
-    Content exportMessageStore();
+    Content exportMessageStore(@Param(name = "format",
+                                      description = "Format of the extract. The segmented v2.0 format is faster to "
+                                                    + "export and import, but cannot be imported by brokers which "
+                                                    + "only support v1.0.",
+                                      defaultValue = MessageStoreSerializer.LATEST,
+                                      validValues = {MessageStoreSerializer_v1.VERSION,
+                                                     MessageStoreSerializer_v2.VERSION}) String format);
 
     @ManagedOperation(description = "Import message store content",
             secure = true,
             changesConfiguredObjectState = false)
-    void importMessageStore(@Param(name="source", description = "Extract file", mandatory = true)String source);
+    void importMessageStore(@Param(name="source", description = "Extract file", mandatory = true)String source,
+                            @Param(name="resume",
+                                    description = "If true, continues an earlier import of the same extract file "
+                                                  + "which failed, rather than requiring an empty message store.",
+                                    defaultValue = "false") boolean resume);
 
     @ManagedOperation(nonModifying = true,
             description = "Returns metadata concerning the current connection",
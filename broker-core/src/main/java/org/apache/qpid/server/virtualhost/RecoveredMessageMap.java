@@ -0,0 +1,260 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.virtualhost;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Map from message id to the object recovered for it, used while the message store is recovered by several
+ * threads at once.
+ * <p>
+ * Keys are held as primitive longs in open addressing tables, avoiding the boxed key and entry node which a
+ * {@link java.util.HashMap} would allocate for every recovered message.  The id space is split over a number of
+ * independently locked shards so that queues being recovered in parallel rarely contend with each other.
+ */
+class RecoveredMessageMap<V>
+{
+    private static final int DEFAULT_SHARDS = 64;
+    private static final int INITIAL_SHARD_CAPACITY = 64;
+
+    private final Shard<V>[] _shards;
+    private final int _shardMask;
+
+    RecoveredMessageMap()
+    {
+        this(DEFAULT_SHARDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    RecoveredMessageMap(final int shards)
+    {
+        final int shardCount = Integer.highestOneBit(Math.max(1, shards - 1) << 1);
+        _shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++)
+        {
+            _shards[i] = new Shard<>();
+        }
+        _shardMask = shardCount - 1;
+    }
+
+    /**
+     * Returns the value for the given id, computing and storing it if absent.  The function is called with the
+     * lock of the id's shard held, so it is invoked at most once per id; it may return null, in which case nothing
+     * is stored.
+     */
+    V computeIfAbsent(final long messageId, final LongFunction<V> function)
+    {
+        return shard(messageId).computeIfAbsent(messageId, function);
+    }
+
+    /**
+     * Returns the value for the given id, or null if there is none.
+     */
+    V get(final long messageId)
+    {
+        return shard(messageId).get(messageId);
+    }
+
+    boolean containsKey(final long messageId)
+    {
+        return shard(messageId).containsKey(messageId);
+    }
+
+    int size()
+    {
+        int size = 0;
+        for (Shard<V> shard : _shards)
+        {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    void forEach(final Consumer<V> action)
+    {
+        for (Shard<V> shard : _shards)
+        {
+            shard.forEach(action);
+        }
+    }
+
+    void clear()
+    {
+        for (Shard<V> shard : _shards)
+        {
+            shard.clear();
+        }
+    }
+
+    private Shard<V> shard(final long messageId)
+    {
+        return _shards[mix(messageId) & _shardMask];
+    }
+
+    private static int mix(final long key)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Shard<V>
+    {
+        private static final long EMPTY = 0L;
+
+        private long[] _keys = new long[INITIAL_SHARD_CAPACITY];
+        private Object[] _values = new Object[INITIAL_SHARD_CAPACITY];
+        private int _size;
+
+        // a key of zero is the empty marker for the table so is held separately
+        private boolean _hasZeroKey;
+        private Object _zeroKeyValue;
+
+        @SuppressWarnings("unchecked")
+        synchronized V computeIfAbsent(final long key, final LongFunction<V> function)
+        {
+            if (key == EMPTY)
+            {
+                if (!_hasZeroKey)
+                {
+                    final V value = function.apply(key);
+                    if (value != null)
+                    {
+                        _hasZeroKey = true;
+                        _zeroKeyValue = value;
+                    }
+                    return value;
+                }
+                return (V) _zeroKeyValue;
+            }
+
+            final int mask = _keys.length - 1;
+            int index = (mix(key) >>> 8) & mask;
+            long existing;
+            while ((existing = _keys[index]) != EMPTY)
+            {
+                if (existing == key)
+                {
+                    return (V) _values[index];
+                }
+                index = (index + 1) & mask;
+            }
+
+            final V value = function.apply(key);
+            if (value != null)
+            {
+                _keys[index] = key;
+                _values[index] = value;
+                if (++_size > (_keys.length >> 1) + (_keys.length >> 2))
+                {
+                    resize();
+                }
+            }
+            return value;
+        }
+
+        synchronized boolean containsKey(final long key)
+        {
+            return key == EMPTY ? _hasZeroKey : indexOf(key) >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(final long key)
+        {
+            if (key == EMPTY)
+            {
+                return (V) _zeroKeyValue;
+            }
+            final int index = indexOf(key);
+            return index < 0 ? null : (V) _values[index];
+        }
+
+        private int indexOf(final long key)
+        {
+            final int mask = _keys.length - 1;
+            int index = (mix(key) >>> 8) & mask;
+            long existing;
+            while ((existing = _keys[index]) != EMPTY)
+            {
+                if (existing == key)
+                {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        synchronized int size()
+        {
+            return _size + (_hasZeroKey ? 1 : 0);
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void forEach(final Consumer<V> action)
+        {
+            if (_hasZeroKey)
+            {
+                action.accept((V) _zeroKeyValue);
+            }
+            for (Object value : _values)
+            {
+                if (value != null)
+                {
+                    action.accept((V) value);
+                }
+            }
+        }
+
+        synchronized void clear()
+        {
+            _keys = new long[INITIAL_SHARD_CAPACITY];
+            _values = new Object[INITIAL_SHARD_CAPACITY];
+            _size = 0;
+            _hasZeroKey = false;
+            _zeroKeyValue = null;
+        }
+
+        private void resize()
+        {
+            final long[] oldKeys = _keys;
+            final Object[] oldValues = _values;
+            final int capacity = oldKeys.length << 1;
+            final int mask = capacity - 1;
+            _keys = new long[capacity];
+            _values = new Object[capacity];
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                final long key = oldKeys[i];
+                if (key != EMPTY)
+                {
+                    int index = (mix(key) >>> 8) & mask;
+                    while (_keys[index] != EMPTY)
+                    {
+                        index = (index + 1) & mask;
+                    }
+                    _keys[index] = key;
+                    _values[index] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -60,6 +60,8 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(SynchronousMessageStoreRecoverer.class);
 
+    private volatile long _recoveredMessageInstanceCount;
+
     @Override
     public ListenableFuture<Void> recover(QueueManagingVirtualHost<?> virtualHost)
     {
@@ -109,10 +111,12 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             }
         }
 
+        long recoveredMessageInstanceCount = 0L;
         for(Map.Entry<Queue<?>, Integer> entry : queueRecoveries.entrySet())
         {
             Queue<?> queue = entry.getKey();
             Integer deliveredCount = entry.getValue();
+            recoveredMessageInstanceCount += deliveredCount;
             eventLogger.message(logSubject, TransactionLogMessages.RECOVERED(deliveredCount, queue.getName()));
             eventLogger.message(logSubject, TransactionLogMessages.RECOVERY_COMPLETE(queue.getName(), true));
             queue.completeRecovery();
@@ -147,6 +151,8 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
                              MessageStoreMessages.RECOVERED(recoveredMessages.size() - unusedMessages.size()));
         eventLogger.message(logSubject, MessageStoreMessages.RECOVERY_COMPLETE());
 
+        _recoveredMessageInstanceCount = recoveredMessageInstanceCount;
+
         return Futures.immediateFuture(null);
     }
 
@@ -156,6 +162,19 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         // No-op
     }
 
+    @Override
+    public long getRecoveredMessageInstanceCount()
+    {
+        return _recoveredMessageInstanceCount;
+    }
+
+    @Override
+    public int getQueuesAwaitingRecoveryCount()
+    {
+        // recovery completes before recover() returns
+        return 0;
+    }
+
     private static class MessageVisitor implements MessageHandler
     {
 
@@ -197,6 +216,7 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         private final Map<Long, StoredMessage<?>> _unusedMessages;
         private final Map<UUID, Integer> _unknownQueuesWithMessages;
         private Map<Queue<?>, Integer> _queuesWithUnknownMessages;
+        private final int _recoveredMetaDataRetainedPerQueue;
 
         private MessageInstanceVisitor(final QueueManagingVirtualHost<?> virtualHost,
                                        final MessageStore store,
@@ -213,6 +233,11 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             _unusedMessages = unusedMessages;
             _unknownQueuesWithMessages = unknownQueuesWithMessages;
             _queuesWithUnknownMessages = queuesWithUnknownMessages;
+
+            final Integer retained = virtualHost.getContextValue(Integer.class,
+                                                                 QueueManagingVirtualHost.RECOVERED_METADATA_RETAINED_PER_QUEUE);
+            _recoveredMetaDataRetainedPerQueue =
+                    retained == null ? QueueManagingVirtualHost.DEFAULT_RECOVERED_METADATA_RETAINED_PER_QUEUE : retained;
         }
 
         @Override
@@ -232,10 +257,16 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
                 {
                     LOGGER.debug("Delivering message id '{}' to queue '{}'", message.getMessageNumber(), queueName);
 
-                    _queueRecoveries.merge(queue, 1, (old, unused) -> old + 1);
+                    final int recoveredCount = _queueRecoveries.merge(queue, 1, (old, unused) -> old + 1);
 
                     queue.recover(message, record);
 
+                    if (_recoveredMetaDataRetainedPerQueue >= 0 && recoveredCount > _recoveredMetaDataRetainedPerQueue)
+                    {
+                        // the metadata has been decoded to create the entry; release it until it is needed
+                        message.getStoredMessage().flowToDisk();
+                    }
+
                     dequeueMessageInstance = false;
                 }
                 else
@@ -39,6 +39,7 @@ import org.junit.Test;
 
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.ConfiguredObjectAttribute;
+import org.apache.qpid.server.model.ConfiguredObjectGetters;
 import org.apache.qpid.server.model.ConfiguredObjectOperation;
 import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
 import org.apache.qpid.server.model.ConfiguredSettableAttribute;
@@ -195,4 +196,27 @@ public class ConfiguredObjectTypeRegistryTest extends UnitTestBase
                 Lists.newArrayList("GREY", "BLACK"),
                 attribute.validValues());
     }
+
+    @Test
+    public void testGeneratedAccessorsReturnAttributeValues() throws Exception
+    {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ConfiguredObject.NAME, "testCar");
+        attributes.put(ConfiguredObject.TYPE, TestStandardCarImpl.TEST_STANDARD_CAR_TYPE);
+        attributes.put("bodyColour", "RED");
+
+        TestCar<?> object = TestModel.getInstance().getObjectFactory().create(TestCar.class, attributes, null);
+
+        Class<?> accessorsClass = Class.forName(TestCar.class.getName() + "Accessors");
+        assertTrue("Unexpected accessors type", ConfiguredObjectGetters.class.isAssignableFrom(accessorsClass));
+        ConfiguredObjectGetters getters = (ConfiguredObjectGetters) accessorsClass.getDeclaredConstructor().newInstance();
+        assertEquals("Unexpected generated getter value",
+                     TestCar.Colour.RED,
+                     getters.getGetter("getBodyColour").apply(object));
+        assertNull("Unexpected getter for operation", getters.getGetter("startEngine"));
+
+        ConfiguredObjectAttribute<TestCar<?>, ?> attribute =
+                (ConfiguredObjectAttribute<TestCar<?>, ?>) _typeRegistry.getAttributeTypes(TestCar.class).get("bodyColour");
+        assertEquals("Unexpected attribute value", TestCar.Colour.RED, attribute.getValue(object));
+    }
 }
@@ -39,6 +39,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -65,6 +66,8 @@ import org.apache.qpid.server.exchange.DirectExchangeImpl;
 import org.apache.qpid.server.exchange.ExchangeDefaults;
 import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.InstanceProperties;
+import org.apache.qpid.server.message.MessageInfo;
+import org.apache.qpid.server.message.MessageInfoPage;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.message.MessageReference;
@@ -742,6 +745,67 @@ abstract class AbstractQueueTestBase extends UnitTestBase
         }
     }
 
+    @Test
+    public void testGetMessageInfoPage()
+    {
+        enqueueGivenNumberOfMessages(_queue, 5);
+
+        MessageInfoPage firstPage = _queue.getMessageInfoPage(null, 2, false);
+        assertMessageIds(firstPage, 0L, 1L);
+        assertNotNull("Expected cursor for next page", firstPage.getNextCursor());
+
+        // deleting the entry at which the cursor points does not invalidate the cursor
+        dequeueMessage(_queue, 1);
+
+        MessageInfoPage secondPage = _queue.getMessageInfoPage(firstPage.getNextCursor(), 2, false);
+        assertMessageIds(secondPage, 2L, 3L);
+        assertNotNull("Expected cursor for next page", secondPage.getNextCursor());
+
+        MessageInfoPage lastPage = _queue.getMessageInfoPage(secondPage.getNextCursor(), 2, false);
+        assertMessageIds(lastPage, 4L);
+        assertNull("Unexpected cursor after last page", lastPage.getNextCursor());
+
+        assertEquals("Unexpected message info for browsed message",
+                     3L, _queue.getMessageInfoById(3L, false).getId());
+    }
+
+    @Test
+    public void testGetMessageInfoPageResumesAfterForgottenCursor()
+    {
+        enqueueGivenNumberOfMessages(_queue, 4);
+        dequeueMessage(_queue, 1);
+
+        // the cursor was never handed out by this queue, so its entry has to be found by message number
+        MessageInfoPage page = _queue.getMessageInfoPage(Long.toString(1L, Character.MAX_RADIX), 2, false);
+        assertMessageIds(page, 2L, 3L);
+        assertNull("Unexpected cursor after last page", page.getNextCursor());
+    }
+
+    @Test
+    public void testGetMessageInfoPageWithInvalidCursor()
+    {
+        enqueueGivenNumberOfMessages(_queue, 1);
+        try
+        {
+            _queue.getMessageInfoPage("not a cursor", 1, false);
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    private void assertMessageIds(final MessageInfoPage page, final Long... expectedIds)
+    {
+        final List<Long> ids = new ArrayList<>();
+        for (MessageInfo messageInfo : page.getMessages())
+        {
+            ids.add(messageInfo.getId());
+        }
+        assertEquals("Unexpected messages on page", Arrays.asList(expectedIds), ids);
+    }
+
     /**
      * Tests that all messages including dequeued one are deleted from the queue
      * on invocation of {@link AbstractQueue#clearQueue()}
@@ -769,6 +833,32 @@ abstract class AbstractQueueTestBase extends UnitTestBase
         assertEquals((long) 0, (long) entries.size());
     }
 
+    @Test
+    public void testLatencyStatisticsRecorded() throws Exception
+    {
+        ServerMessage messageA = createMessage(new Long(24));
+        when(messageA.getArrivalTime()).thenReturn(System.currentTimeMillis() - 1000L);
+        _queue.enqueue(messageA, null, null);
+
+        assertTrue("Unexpected enqueue latency", _queue.getEnqueueLatencyMaximum() >= 1000L);
+        assertEquals("Unexpected delivery latency", 0L, _queue.getDeliveryLatencyMaximum());
+
+        _consumer = (QueueConsumer<?,?>) _queue.addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                                                          EnumSet.of(ConsumerOption.ACQUIRES,
+                                                                     ConsumerOption.SEES_REQUEUES), 0);
+        while(_consumerTarget.processPending());
+
+        assertTrue("Unexpected delivery latency", _queue.getDeliveryLatencyMedian() >= 1000L);
+        assertEquals("Unexpected acknowledge latency", 0L, _queue.getAcknowledgeLatencyMaximum());
+
+        _consumer.getQueueContext().getLastSeenEntry().delete();
+
+        assertTrue("Unexpected acknowledge latency", _queue.getAcknowledgeLatency99thPercentile() >= 1000L);
+        assertTrue("Unexpected virtual host delivery latency", _virtualHost.getDeliveryLatencyMaximum() >= 1000L);
+        assertTrue("Unexpected virtual host acknowledge latency",
+                   _virtualHost.getAcknowledgeLatencyMedian() >= 1000L);
+    }
+
     @Test
     public void testNotificationFiredOnEnqueue() throws Exception
     {
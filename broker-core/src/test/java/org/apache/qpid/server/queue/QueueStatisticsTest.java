@@ -0,0 +1,133 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class QueueStatisticsTest extends UnitTestBase
+{
+    private static final int THREADS = 8;
+    private static final int MESSAGES_PER_THREAD = 10000;
+    private static final long MESSAGE_SIZE = 10;
+
+    @Test
+    public void testConcurrentEnqueueAndDequeue() throws Exception
+    {
+        final QueueStatistics statistics = new QueueStatistics();
+
+        runConcurrently(() ->
+                        {
+                            for (int i = 0; i < MESSAGES_PER_THREAD; i++)
+                            {
+                                statistics.addToQueue(MESSAGE_SIZE);
+                                statistics.addToAvailable(MESSAGE_SIZE);
+                                statistics.addToEnqueued(MESSAGE_SIZE);
+                                statistics.addToPersistentEnqueued(MESSAGE_SIZE);
+                            }
+                            for (int i = 0; i < MESSAGES_PER_THREAD; i++)
+                            {
+                                statistics.removeFromAvailable(MESSAGE_SIZE);
+                                statistics.addToUnacknowledged(MESSAGE_SIZE);
+                                statistics.removeFromUnacknowledged(MESSAGE_SIZE);
+                                statistics.removeFromQueue(MESSAGE_SIZE);
+                                statistics.addToDequeued(MESSAGE_SIZE);
+                            }
+                        });
+
+        final long expectedCount = (long) THREADS * MESSAGES_PER_THREAD;
+        assertEquals("Unexpected enqueue count", expectedCount, statistics.getEnqueueCount());
+        assertEquals("Unexpected enqueue size", expectedCount * MESSAGE_SIZE, statistics.getEnqueueSize());
+        assertEquals("Unexpected persistent enqueue count", expectedCount, statistics.getPersistentEnqueueCount());
+        assertEquals("Unexpected dequeue count", expectedCount, statistics.getDequeueCount());
+        assertEquals("Unexpected dequeue size", expectedCount * MESSAGE_SIZE, statistics.getDequeueSize());
+
+        assertEquals("Unexpected queue count", 0, statistics.getQueueCount());
+        assertEquals("Unexpected queue size", 0, statistics.getQueueSize());
+        assertEquals("Unexpected available count", 0, statistics.getAvailableCount());
+        assertEquals("Unexpected unacknowledged count", 0, statistics.getUnackedCount());
+        assertEquals("Unexpected unacknowledged size", 0, statistics.getUnackedSize());
+
+        final int countHwm = statistics.getQueueCountHwm();
+        assertTrue("Unexpected queue count high watermark " + countHwm,
+                   countHwm >= MESSAGES_PER_THREAD && countHwm <= expectedCount);
+        final long sizeHwm = statistics.getQueueSizeHwm();
+        assertTrue("Unexpected queue size high watermark " + sizeHwm,
+                   sizeHwm >= MESSAGES_PER_THREAD * MESSAGE_SIZE && sizeHwm <= expectedCount * MESSAGE_SIZE);
+        final int availableCountHwm = statistics.getAvailableCountHwm();
+        assertTrue("Unexpected available count high watermark " + availableCountHwm,
+                   availableCountHwm >= MESSAGES_PER_THREAD && availableCountHwm <= expectedCount);
+    }
+
+    @Test
+    public void testHighWatermarksNotLoweredByDequeue()
+    {
+        final QueueStatistics statistics = new QueueStatistics();
+        statistics.addToQueue(5);
+        statistics.addToQueue(7);
+        statistics.removeFromQueue(5);
+        statistics.addToQueue(1);
+
+        assertEquals("Unexpected queue count", 2, statistics.getQueueCount());
+        assertEquals("Unexpected queue count high watermark", 2, statistics.getQueueCountHwm());
+        assertEquals("Unexpected queue size high watermark", 12, statistics.getQueueSizeHwm());
+    }
+
+    private void runConcurrently(final Runnable task) throws Exception
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++)
+            {
+                futures.add(executor.submit(() ->
+                                            {
+                                                start.await();
+                                                task.run();
+                                                return null;
+                                            }));
+            }
+            start.countDown();
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
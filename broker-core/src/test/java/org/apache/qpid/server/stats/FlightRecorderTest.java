@@ -0,0 +1,107 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class FlightRecorderTest extends UnitTestBase
+{
+    @Test
+    public void testRecordedEventsReturnedOldestFirst()
+    {
+        final FlightRecorder recorder = new FlightRecorder(8);
+        recorder.record(FlightRecorder.EventType.COMMIT_BATCH, "committer", 3);
+        recorder.record(FlightRecorder.EventType.HOUSEKEEPING_TASK, "task", 150);
+
+        final List<FlightRecorder.Event> events = recorder.getEvents(0);
+        assertEquals("Unexpected number of events", 2, events.size());
+
+        final FlightRecorder.Event first = events.get(0);
+        assertEquals("Unexpected type", FlightRecorder.EventType.COMMIT_BATCH, first.getType());
+        assertEquals("Unexpected source", "committer", first.getSource());
+        assertEquals("Unexpected value", 3, first.getValue());
+        assertEquals("Unexpected thread", Thread.currentThread().getName(), first.getThreadName());
+        assertEquals("Unexpected type", FlightRecorder.EventType.HOUSEKEEPING_TASK, events.get(1).getType());
+    }
+
+    @Test
+    public void testOldestEventsOverwrittenWhenFull()
+    {
+        final FlightRecorder recorder = new FlightRecorder(4);
+        for (int i = 0; i < 10; i++)
+        {
+            recorder.record(FlightRecorder.EventType.SELECTOR_WAKEUP, "selector", i);
+        }
+
+        final List<FlightRecorder.Event> events = recorder.getEvents(0);
+        assertEquals("Unexpected number of events", 4, events.size());
+        for (int i = 0; i < events.size(); i++)
+        {
+            assertEquals("Unexpected value", 6 + i, events.get(i).getValue());
+        }
+    }
+
+    @Test
+    public void testFrequentEventsDoNotEvictOtherTypes()
+    {
+        final FlightRecorder recorder = new FlightRecorder(4);
+        recorder.record(FlightRecorder.EventType.FLOW_TO_DISK, "queue", 1024);
+        for (int i = 0; i < 10; i++)
+        {
+            recorder.record(FlightRecorder.EventType.SELECTOR_WAKEUP, "selector", i);
+        }
+
+        final List<FlightRecorder.Event> events = recorder.getEvents(0);
+        assertEquals("Unexpected number of events", 5, events.size());
+        assertEquals("Unexpected type", FlightRecorder.EventType.FLOW_TO_DISK, events.get(0).getType());
+    }
+
+    @Test
+    public void testEventsBeforeGivenTimeExcluded()
+    {
+        final FlightRecorder recorder = new FlightRecorder(4);
+        recorder.record(FlightRecorder.EventType.FLOW_TO_DISK, "queue", 1024);
+
+        assertTrue("Unexpected events", recorder.getEvents(System.currentTimeMillis() + 1000).isEmpty());
+
+        final String dump = recorder.dump(0);
+        assertTrue("Unexpected dump " + dump, dump.contains("FLOW_TO_DISK 1024 bytes source=\"queue\""));
+    }
+
+    @Test
+    public void testZeroCapacityDisablesRecording()
+    {
+        final FlightRecorder recorder = new FlightRecorder(0);
+        assertFalse("Recorder should be disabled", recorder.isEnabled());
+
+        recorder.record(FlightRecorder.EventType.CONNECTION_SCHEDULING_DELAY, "connection", 5);
+
+        assertTrue("Unexpected events", recorder.getEvents(0).isEmpty());
+    }
+}
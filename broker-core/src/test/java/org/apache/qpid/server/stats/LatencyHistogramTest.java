@@ -0,0 +1,159 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class LatencyHistogramTest extends UnitTestBase
+{
+    @Test
+    public void testEmptyHistogram()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals("Unexpected count", 0L, histogram.getCount());
+        assertEquals("Unexpected maximum", 0L, histogram.getMaximum());
+        assertEquals("Unexpected median", 0L, histogram.getValueAtPercentile(50d));
+    }
+
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++)
+        {
+            histogram.record(i);
+        }
+
+        assertEquals("Unexpected count", 10L, histogram.getCount());
+        assertEquals("Unexpected median", 5L, histogram.getValueAtPercentile(50d));
+        assertEquals("Unexpected 90th percentile", 9L, histogram.getValueAtPercentile(90d));
+        assertEquals("Unexpected maximum", 10L, histogram.getMaximum());
+        assertEquals("Unexpected 100th percentile", 10L, histogram.getValueAtPercentile(100d));
+    }
+
+    @Test
+    public void testPercentilesWithinBucketPrecision()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++)
+        {
+            histogram.record(i);
+        }
+
+        assertWithinPrecision(50000L, histogram.getValueAtPercentile(50d));
+        assertWithinPrecision(99000L, histogram.getValueAtPercentile(99d));
+        assertEquals("Unexpected maximum", 100000L, histogram.getMaximum());
+    }
+
+    @Test
+    public void testBucketBoundaries()
+    {
+        for (long value : new long[]{0L, 15L, 16L, 17L, 31L, 32L, 33L, 1000L, 123456789L, 1L << 40})
+        {
+            final int index = LatencyHistogram.indexOf(value);
+            assertTrue("Value " + value + " above its bucket", value <= LatencyHistogram.highestValueOf(index));
+            if (index > 0)
+            {
+                assertTrue("Value " + value + " below its bucket",
+                           value > LatencyHistogram.highestValueOf(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotCombinesHistograms()
+    {
+        final LatencyHistogram histogram1 = new LatencyHistogram();
+        final LatencyHistogram histogram2 = new LatencyHistogram();
+
+        histogram1.record(10L);
+        histogram2.record(20L);
+
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+        snapshot.add(histogram1);
+        snapshot.add(histogram2);
+
+        assertEquals("Unexpected histogram count", 1L, histogram1.getCount());
+        assertEquals("Unexpected snapshot count", 2L, snapshot.getCount());
+        assertEquals("Unexpected snapshot maximum", 20L, snapshot.getMaximum());
+        assertEquals("Unexpected snapshot median", 10L, snapshot.getValueAtPercentile(50d));
+    }
+
+    @Test
+    public void testValuesExpireAfterTwoWindows()
+    {
+        final AtomicLong time = new AtomicLong(1000L);
+        final LatencyHistogram histogram = new LatencyHistogram(100L, time::get);
+
+        histogram.record(50L);
+        time.addAndGet(100L);
+        assertEquals("Unexpected count after one window", 1L, histogram.getCount());
+
+        histogram.record(5L);
+        assertEquals("Unexpected maximum within two windows", 50L, histogram.getMaximum());
+
+        time.addAndGet(100L);
+        assertEquals("Unexpected count after two windows", 1L, histogram.getCount());
+        assertEquals("Unexpected maximum after two windows", 5L, histogram.getMaximum());
+
+        time.addAndGet(100L);
+        assertEquals("Unexpected count after three windows", 0L, histogram.getCount());
+        assertEquals("Unexpected maximum after three windows", 0L, histogram.getMaximum());
+    }
+
+    @Test
+    public void testValuesExpireWithoutReads()
+    {
+        final AtomicLong time = new AtomicLong(1000L);
+        final LatencyHistogram histogram = new LatencyHistogram(100L, time::get);
+
+        histogram.record(50L);
+        time.addAndGet(250L);
+        histogram.record(5L);
+
+        assertEquals("Unexpected count", 1L, histogram.getCount());
+        assertEquals("Unexpected maximum", 5L, histogram.getMaximum());
+    }
+
+    @Test
+    public void testNegativeValueRecordedAsZero()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+
+        assertEquals("Unexpected count", 1L, histogram.getCount());
+        assertEquals("Unexpected maximum", 0L, histogram.getMaximum());
+    }
+
+    private void assertWithinPrecision(final long expected, final long actual)
+    {
+        assertTrue("Unexpected value " + actual + " for expected " + expected,
+                   Math.abs(actual - expected) <= expected / 16);
+    }
+}
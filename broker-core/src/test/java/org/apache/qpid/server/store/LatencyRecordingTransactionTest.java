@@ -0,0 +1,79 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.stats.LatencyHistogram;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class LatencyRecordingTransactionTest extends UnitTestBase
+{
+    private Transaction _delegate;
+    private LatencyHistogram _histogram;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _delegate = mock(Transaction.class);
+        _histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void testWrapWithoutHistogramReturnsTransaction()
+    {
+        assertSame("Unexpected transaction", _delegate, LatencyRecordingTransaction.wrap(_delegate, null));
+    }
+
+    @Test
+    public void testCommitRecorded()
+    {
+        final Transaction transaction = LatencyRecordingTransaction.wrap(_delegate, _histogram);
+
+        transaction.commitTran();
+
+        verify(_delegate).commitTran();
+        assertEquals("Unexpected number of commits recorded", 1L, _histogram.getCount());
+    }
+
+    @Test
+    public void testAsyncCommitRecordedOnCompletion()
+    {
+        final SettableFuture<String> future = SettableFuture.create();
+        when(_delegate.commitTranAsync("test")).thenReturn(future);
+        final Transaction transaction = LatencyRecordingTransaction.wrap(_delegate, _histogram);
+
+        assertSame("Unexpected future", future, transaction.commitTranAsync("test"));
+        assertEquals("Commit recorded before completion", 0L, _histogram.getCount());
+
+        future.set("test");
+
+        assertEquals("Unexpected number of commits recorded", 1L, _histogram.getCount());
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.EnqueueableMessage;
+import org.apache.qpid.server.store.MemoryMessageStore;
+import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+import org.apache.qpid.server.store.MessageHandle;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.StorableMessageMetaData;
+import org.apache.qpid.server.store.StoreException;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TestMessageMetaData;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.serializer.MessageStoreSerializer;
+import org.apache.qpid.server.virtualhost.TestMemoryVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageStoreSerializer_v2Test extends UnitTestBase
+{
+    private static final String QUEUE_NAME = "testQueue";
+    private static final int NUMBER_OF_MESSAGES = 10;
+
+    private MessageStore _sourceStore;
+    private MessageStore _targetStore;
+    private UUID _sourceQueueId;
+    private UUID _targetQueueId;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _sourceStore = new MemoryMessageStore();
+        _sourceStore.openMessageStore(mock(TestMemoryVirtualHost.class));
+        _targetStore = new MemoryMessageStore();
+        _targetStore.openMessageStore(mock(TestMemoryVirtualHost.class));
+        _sourceQueueId = UUID.randomUUID();
+        _targetQueueId = UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _sourceStore.closeMessageStore();
+        _targetStore.closeMessageStore();
+    }
+
+    @Test
+    public void testExportImport() throws Exception
+    {
+        final Transaction txn = _sourceStore.newTransaction();
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+        {
+            final StoredMessage<?> message = addMessage(_sourceStore, i);
+            if (i % 2 == 0)
+            {
+                txn.enqueueMessage(createQueue(_sourceQueueId), createEnqueueableMessage(message));
+            }
+        }
+        txn.commitTran();
+
+        final byte[] exported = export();
+
+        final MessageStoreSerializer serializer =
+                MessageStoreSerializer.FACTORY.newInstance(new DataInputStream(new ByteArrayInputStream(exported)));
+        assertEquals("Unexpected serializer version", MessageStoreSerializer_v2.VERSION, serializer.getType());
+
+        serializer.deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                               _targetStore,
+                               new ByteArrayInputStream(exported));
+
+        final MessageStore.MessageStoreReader reader = _targetStore.newMessageStoreReader();
+        final List<StoredMessage<?>> messages = new ArrayList<>();
+        reader.visitMessages(message -> messages.add(message));
+        assertEquals("Unexpected number of imported messages", NUMBER_OF_MESSAGES, messages.size());
+        for (StoredMessage<?> message : messages)
+        {
+            final int size = message.getContentSize();
+            try (QpidByteBuffer content = message.getContent(0, size))
+            {
+                final byte[] bytes = new byte[size];
+                content.get(bytes);
+                assertArrayEquals("Unexpected content", createContent(size - 1), bytes);
+            }
+        }
+
+        final List<MessageEnqueueRecord> instances = new ArrayList<>();
+        reader.visitMessageInstances(createQueue(_targetQueueId), record -> instances.add(record));
+        assertEquals("Unexpected number of imported message instances", NUMBER_OF_MESSAGES / 2, instances.size());
+        reader.close();
+    }
+
+    @Test
+    public void testExportImportOfSeveralSegments() throws Exception
+    {
+        final int numberOfMessages = 48;
+        final int contentSize = MessageStoreSerializer_v2.SEGMENT_SIZE / 10;
+        final Transaction txn = _sourceStore.newTransaction();
+        for (int i = 0; i < numberOfMessages; i++)
+        {
+            final StoredMessage<?> message = addMessage(_sourceStore, i, createContent(i, contentSize + i));
+            txn.enqueueMessage(createQueue(_sourceQueueId), createEnqueueableMessage(message));
+        }
+        txn.commitTran();
+
+        final byte[] exported = export();
+        new MessageStoreSerializer_v2().deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                                                    _targetStore,
+                                                    new ByteArrayInputStream(exported));
+
+        final MessageStore.MessageStoreReader reader = _targetStore.newMessageStoreReader();
+        final List<StoredMessage<?>> messages = new ArrayList<>();
+        reader.visitMessages(message -> messages.add(message));
+        assertEquals("Unexpected number of imported messages", numberOfMessages, messages.size());
+        for (StoredMessage<?> message : messages)
+        {
+            final int size = message.getContentSize();
+            try (QpidByteBuffer content = message.getContent(0, size))
+            {
+                final byte[] bytes = new byte[size];
+                content.get(bytes);
+                assertArrayEquals("Unexpected content", createContent(size - contentSize, size), bytes);
+            }
+        }
+
+        final List<MessageEnqueueRecord> instances = new ArrayList<>();
+        reader.visitMessageInstances(createQueue(_targetQueueId), record -> instances.add(record));
+        assertEquals("Unexpected number of imported message instances", numberOfMessages, instances.size());
+        reader.close();
+    }
+
+    @Test
+    public void testExportImportOfPreparedTransaction() throws Exception
+    {
+        final StoredMessage<?> enqueued = addMessage(_sourceStore, 1);
+        final StoredMessage<?> dequeued = addMessage(_sourceStore, 2);
+        final Transaction enqueueTxn = _sourceStore.newTransaction();
+        final MessageEnqueueRecord enqueueRecord =
+                enqueueTxn.enqueueMessage(createQueue(_sourceQueueId), createEnqueueableMessage(dequeued));
+        enqueueTxn.commitTran();
+
+        final Transaction.EnqueueRecord preparedEnqueue = mock(Transaction.EnqueueRecord.class);
+        final EnqueueableMessage enqueueableMessage = createEnqueueableMessage(enqueued);
+        final TransactionLogResource sourceQueue = createQueue(_sourceQueueId);
+        when(preparedEnqueue.getMessage()).thenReturn(enqueueableMessage);
+        when(preparedEnqueue.getResource()).thenReturn(sourceQueue);
+        final Transaction.DequeueRecord preparedDequeue = mock(Transaction.DequeueRecord.class);
+        when(preparedDequeue.getEnqueueRecord()).thenReturn(enqueueRecord);
+
+        final byte[] globalId = {1, 2, 3};
+        final byte[] branchId = {4, 5};
+        final Transaction xidTxn = _sourceStore.newTransaction();
+        xidTxn.recordXid(7L,
+                         globalId,
+                         branchId,
+                         new Transaction.EnqueueRecord[]{preparedEnqueue},
+                         new Transaction.DequeueRecord[]{preparedDequeue});
+        xidTxn.commitTran();
+
+        final byte[] exported = export();
+        new MessageStoreSerializer_v2().deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                                                    _targetStore,
+                                                    new ByteArrayInputStream(exported));
+
+        final MessageStore.MessageStoreReader reader = _targetStore.newMessageStoreReader();
+        final Map<Integer, Long> messageIdsBySize = new HashMap<>();
+        reader.visitMessages(message -> messageIdsBySize.put(message.getContentSize(),
+                                                             message.getMessageNumber()) == null);
+        final List<Transaction.StoredXidRecord> xids = new ArrayList<>();
+        reader.visitDistributedTransactions((storedXid, enqueues, dequeues) ->
+                                            {
+                                                xids.add(storedXid);
+                                                assertEquals("Unexpected number of enqueues", 1, enqueues.length);
+                                                final StoredMessage<?> storedMessage =
+                                                        enqueues[0].getMessage().getStoredMessage();
+                                                assertEquals("Unexpected enqueued message",
+                                                             messageIdsBySize.get(enqueued.getContentSize()),
+                                                             Long.valueOf(storedMessage.getMessageNumber()));
+                                                assertEquals("Unexpected enqueue queue",
+                                                             _targetQueueId,
+                                                             enqueues[0].getResource().getId());
+                                                assertEquals("Unexpected number of dequeues", 1, dequeues.length);
+                                                assertEquals("Unexpected dequeued message",
+                                                             messageIdsBySize.get(dequeued.getContentSize()),
+                                                             Long.valueOf(dequeues[0].getEnqueueRecord()
+                                                                                     .getMessageNumber()));
+                                                return true;
+                                            });
+        reader.close();
+
+        assertEquals("Unexpected number of distributed transactions", 1, xids.size());
+        assertEquals("Unexpected format", 7L, xids.get(0).getFormat());
+        assertArrayEquals("Unexpected global id", globalId, xids.get(0).getGlobalId());
+        assertArrayEquals("Unexpected branch id", branchId, xids.get(0).getBranchId());
+    }
+
+    @Test
+    public void testImportOfPreparedTransactionWithMissingMessageFails() throws Exception
+    {
+        final MessageEnqueueRecord enqueueRecord = mock(MessageEnqueueRecord.class);
+        when(enqueueRecord.getMessageNumber()).thenReturn(999L);
+        when(enqueueRecord.getQueueId()).thenReturn(_sourceQueueId);
+        final Transaction.DequeueRecord preparedDequeue = mock(Transaction.DequeueRecord.class);
+        when(preparedDequeue.getEnqueueRecord()).thenReturn(enqueueRecord);
+
+        final Transaction xidTxn = _sourceStore.newTransaction();
+        xidTxn.recordXid(7L,
+                         new byte[]{1},
+                         new byte[]{2},
+                         new Transaction.EnqueueRecord[0],
+                         new Transaction.DequeueRecord[]{preparedDequeue});
+        xidTxn.commitTran();
+
+        final byte[] exported = export();
+        try
+        {
+            new MessageStoreSerializer_v2().deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                                                        _targetStore,
+                                                        new ByteArrayInputStream(exported));
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    @Test
+    public void testResumeFailedImport() throws Exception
+    {
+        final Transaction txn = _sourceStore.newTransaction();
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+        {
+            final StoredMessage<?> message = addMessage(_sourceStore, i);
+            if (i % 2 == 0)
+            {
+                txn.enqueueMessage(createQueue(_sourceQueueId), createEnqueueableMessage(message));
+            }
+        }
+        txn.commitTran();
+        final byte[] exported = export();
+
+        final MessageStore failingStore = spy(new MemoryMessageStore());
+        final AtomicInteger addedMessages = new AtomicInteger();
+        doAnswer(invocation ->
+                 {
+                     if (addedMessages.incrementAndGet() == NUMBER_OF_MESSAGES / 2 + 1)
+                     {
+                         throw new StoreException("Test failure");
+                     }
+                     return invocation.callRealMethod();
+                 }).when(failingStore).addMessage(any(StorableMessageMetaData.class));
+        failingStore.openMessageStore(mock(TestMemoryVirtualHost.class));
+
+        final File checkpoint = File.createTempFile(getTestName(), ".checkpoint");
+        try
+        {
+            final Map<String, UUID> queueMap = Collections.singletonMap(QUEUE_NAME, _targetQueueId);
+            try
+            {
+                new MessageStoreSerializer_v2().deserialize(queueMap,
+                                                            failingStore,
+                                                            new ByteArrayInputStream(exported),
+                                                            checkpoint,
+                                                            false);
+                fail("Exception not thrown");
+            }
+            catch (StoreException e)
+            {
+                // pass
+            }
+
+            new MessageStoreSerializer_v2().deserialize(queueMap,
+                                                        failingStore,
+                                                        new ByteArrayInputStream(exported),
+                                                        checkpoint,
+                                                        true);
+
+            final MessageStore.MessageStoreReader reader = failingStore.newMessageStoreReader();
+            final Set<Integer> contentSizes = new HashSet<>();
+            reader.visitMessages(message -> contentSizes.add(message.getContentSize()));
+            assertEquals("Unexpected number of imported messages", NUMBER_OF_MESSAGES, contentSizes.size());
+
+            final List<MessageEnqueueRecord> instances = new ArrayList<>();
+            reader.visitMessageInstances(createQueue(_targetQueueId), record -> instances.add(record));
+            assertEquals("Unexpected number of imported message instances",
+                         NUMBER_OF_MESSAGES / 2,
+                         instances.size());
+            reader.close();
+        }
+        finally
+        {
+            failingStore.closeMessageStore();
+            checkpoint.delete();
+        }
+    }
+
+    @Test
+    public void testResumeWithCheckpointOfDifferentExtractFails() throws Exception
+    {
+        addMessage(_sourceStore, 1);
+        final byte[] firstExtract = export();
+        final byte[] secondExtract = export();
+
+        final File checkpoint = File.createTempFile(getTestName(), ".checkpoint");
+        try
+        {
+            final Map<String, UUID> queueMap = Collections.singletonMap(QUEUE_NAME, _targetQueueId);
+            new MessageStoreSerializer_v2().deserialize(queueMap,
+                                                        _targetStore,
+                                                        new ByteArrayInputStream(firstExtract),
+                                                        checkpoint,
+                                                        false);
+            try
+            {
+                new MessageStoreSerializer_v2().deserialize(queueMap,
+                                                            _targetStore,
+                                                            new ByteArrayInputStream(secondExtract),
+                                                            checkpoint,
+                                                            true);
+                fail("Exception not thrown");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // pass
+            }
+        }
+        finally
+        {
+            checkpoint.delete();
+        }
+    }
+
+    @Test
+    public void testImportDetectsCorruptSegment() throws Exception
+    {
+        addMessage(_sourceStore, 1);
+        final byte[] exported = export();
+        exported[exported.length - 30] ^= 0xff;
+
+        try
+        {
+            new MessageStoreSerializer_v2().deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                                                        _targetStore,
+                                                        new ByteArrayInputStream(exported));
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    private byte[] export() throws Exception
+    {
+        final Map<UUID, String> queueMap = new HashMap<>();
+        queueMap.put(_sourceQueueId, QUEUE_NAME);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new MessageStoreSerializer_v2().serialize(queueMap, _sourceStore.newMessageStoreReader(), output);
+        return output.toByteArray();
+    }
+
+    private StoredMessage<?> addMessage(final MessageStore store, final int index)
+    {
+        return addMessage(store, index, createContent(index));
+    }
+
+    private StoredMessage<?> addMessage(final MessageStore store, final int index, final byte[] content)
+    {
+        final MessageHandle<TestMessageMetaData> handle = store.addMessage(new TestMessageMetaData(index,
+                                                                                                   content.length));
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(content))
+        {
+            handle.addContent(buf);
+        }
+        return handle.allContentAdded();
+    }
+
+    private byte[] createContent(final int index)
+    {
+        return createContent(index, index + 1);
+    }
+
+    private byte[] createContent(final int index, final int size)
+    {
+        final byte[] content = new byte[size];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) (index + i);
+        }
+        return content;
+    }
+
+    private TransactionLogResource createQueue(final UUID queueId)
+    {
+        final TransactionLogResource queue = mock(TransactionLogResource.class);
+        when(queue.getId()).thenReturn(queueId);
+        when(queue.getName()).thenReturn(QUEUE_NAME);
+        when(queue.getMessageDurability()).thenReturn(MessageDurability.DEFAULT);
+        return queue;
+    }
+
+    private EnqueueableMessage createEnqueueableMessage(final StoredMessage<?> message)
+    {
+        final EnqueueableMessage enqueueableMessage = mock(EnqueueableMessage.class);
+        when(enqueueableMessage.isPersistent()).thenReturn(true);
+        when(enqueueableMessage.getMessageNumber()).thenReturn(message.getMessageNumber());
+        when(enqueueableMessage.getStoredMessage()).thenReturn(message);
+        return enqueueableMessage;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.transport;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.stats.FlightRecorder;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class FlightRecordingSchedulingDelayListenerTest extends UnitTestBase
+{
+    @Test
+    public void testOnlyDelaysAtOrAboveThresholdRecorded()
+    {
+        final FlightRecorder recorder = new FlightRecorder(8);
+        final FlightRecordingSchedulingDelayListener listener =
+                new FlightRecordingSchedulingDelayListener(recorder, "127.0.0.1:5672", 10L);
+
+        listener.notifySchedulingDelay(0L);
+        listener.notifySchedulingDelay(9L);
+        listener.notifySchedulingDelay(10L);
+        listener.notifySchedulingDelay(25L);
+
+        final List<FlightRecorder.Event> events = recorder.getEvents(0);
+        assertEquals("Unexpected number of events", 2, events.size());
+        assertEquals("Unexpected delay", 10L, events.get(0).getValue());
+        assertEquals("Unexpected delay", 25L, events.get(1).getValue());
+        assertEquals("Unexpected source", "127.0.0.1:5672", events.get(1).getSource());
+    }
+}
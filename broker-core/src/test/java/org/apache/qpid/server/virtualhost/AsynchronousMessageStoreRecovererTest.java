@@ -27,7 +27,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -43,10 +45,13 @@ import com.google.common.util.concurrent.ListenableFuture;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 
 import org.apache.qpid.server.logging.EventLogger;
+import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.plugin.MessageMetaDataType;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.StorableMessageMetaData;
@@ -148,6 +153,76 @@ public class AsynchronousMessageStoreRecovererTest extends UnitTestBase
         verify(queue).recover(argThat((ArgumentMatcher<ServerMessage>) serverMessage -> serverMessage.getMessageNumber()
                                                                                         == storedMessage.getMessageNumber()),
                               same(messageEnqueueRecord));
+        assertEquals("Unexpected number of recovered message instances",
+                     1L, recoverer.getRecoveredMessageInstanceCount());
+        assertEquals("Unexpected number of queues awaiting recovery", 0, recoverer.getQueuesAwaitingRecoveryCount());
+    }
+
+    @Test
+    public void testReferencesReleasedOnceQueueHasPassedThem() throws Exception
+    {
+        final Queue<?> queue = mock(Queue.class);
+        when(queue.getId()).thenReturn(UUID.randomUUID());
+        when(_virtualHost.getChildren(eq(Queue.class))).thenReturn(Collections.singleton(queue));
+        final int numberOfMessages = 300;
+        when(_store.getNextMessageId()).thenReturn(numberOfMessages + 1L);
+
+        final List<MessageReference<?>> references = new ArrayList<>();
+        final List<StoredMessage<?>> messages = new ArrayList<>();
+        final List<MessageEnqueueRecord> records = new ArrayList<>();
+        for (long messageId = 1; messageId <= numberOfMessages; messageId++)
+        {
+            final MessageReference<?> reference = mock(MessageReference.class);
+            references.add(reference);
+            messages.add(createMessageWithReference(messageId, reference));
+            records.add(createEnqueueRecord(queue, messageId));
+        }
+
+        when(_store.newMessageStoreReader()).thenReturn(new MockStoreReader(records, messages));
+
+        final AsynchronousMessageStoreRecoverer recoverer = new AsynchronousMessageStoreRecoverer();
+        assertNull(recoverer.recover(_virtualHost).get());
+
+        // the references of the messages the queue has moved past are released while the queue is still recovering
+        final MessageReference<?> firstReference = references.get(0);
+        final InOrder inOrder = inOrder(queue, firstReference);
+        inOrder.verify(queue).recover(any(ServerMessage.class), same(records.get(0)));
+        inOrder.verify(firstReference).release();
+        inOrder.verify(queue).recover(any(ServerMessage.class), same(records.get(numberOfMessages - 1)));
+
+        for (MessageReference<?> reference : references)
+        {
+            verify(reference, times(1)).release();
+        }
+    }
+
+    private StoredMessage<?> createMessageWithReference(final long messageNumber,
+                                                        final MessageReference<?> reference)
+    {
+        final ServerMessage<?> serverMessage = mock(ServerMessage.class);
+        when(serverMessage.getMessageNumber()).thenReturn(messageNumber);
+        doReturn(serverMessage).when(reference).getMessage();
+        doReturn(reference).when(serverMessage).newReference();
+
+        final MessageMetaDataType<?> type = mock(MessageMetaDataType.class);
+        doReturn(serverMessage).when(type).createMessage(any(StoredMessage.class));
+        final StorableMessageMetaData metaData = mock(StorableMessageMetaData.class);
+        doReturn(type).when(metaData).getType();
+
+        final StoredMessage storedMessage = mock(StoredMessage.class);
+        when(storedMessage.getMessageNumber()).thenReturn(messageNumber);
+        when(storedMessage.getMetaData()).thenReturn(metaData);
+        when(serverMessage.getStoredMessage()).thenReturn(storedMessage);
+        return storedMessage;
+    }
+
+    private MessageEnqueueRecord createEnqueueRecord(final Queue<?> queue, final long messageNumber)
+    {
+        final MessageEnqueueRecord record = mock(MessageEnqueueRecord.class);
+        final UUID queueId = queue.getId();
+        when(record.getQueueId()).thenReturn(queueId);
+        when(record.getMessageNumber()).thenReturn(messageNumber);
+        return record;
     }
 
     private StoredMessage<?> createTestMessage(final long messageNumber)
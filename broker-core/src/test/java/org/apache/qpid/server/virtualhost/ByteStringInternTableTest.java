@@ -0,0 +1,136 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.virtualhost;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ByteStringInternTableTest extends UnitTestBase
+{
+    @Test
+    public void testIntern()
+    {
+        final ByteStringInternTable<String> table = new ByteStringInternTable<>(16);
+        final QpidByteBuffer buffer = createBuffer("amq.direct", "amq.topic", "amq.direct");
+        try
+        {
+            final String first = table.intern(buffer, 10, this::decode);
+            final String second = table.intern(buffer, 9, this::decode);
+            final String third = table.intern(buffer, 10, this::decode);
+
+            assertEquals("Unexpected value", "amq.direct", first);
+            assertEquals("Unexpected value", "amq.topic", second);
+            assertSame("Unexpected value", first, third);
+            assertEquals("Unexpected remaining bytes", 0, buffer.remaining());
+            assertEquals("Unexpected hit count", 1, table.getHitCount());
+            assertEquals("Unexpected miss count", 2, table.getMissCount());
+            assertSame("Unexpected value", first, table.get("amq.direct".getBytes(StandardCharsets.US_ASCII)));
+            assertNull("Unexpected value", table.get("amq.fanout".getBytes(StandardCharsets.US_ASCII)));
+        }
+        finally
+        {
+            buffer.dispose();
+        }
+    }
+
+    @Test
+    public void testTableIsBounded()
+    {
+        final ByteStringInternTable<String> table = new ByteStringInternTable<>(4);
+        assertEquals("Unexpected capacity", 4, table.getCapacity());
+
+        for (int i = 0; i < 1000; i++)
+        {
+            final QpidByteBuffer buffer = createBuffer("key" + i);
+            try
+            {
+                table.intern(buffer, buffer.remaining(), this::decode);
+            }
+            finally
+            {
+                buffer.dispose();
+            }
+        }
+
+        int retained = 0;
+        for (int i = 0; i < 1000; i++)
+        {
+            if (table.get(("key" + i).getBytes(StandardCharsets.US_ASCII)) != null)
+            {
+                retained++;
+            }
+        }
+        assertEquals("Unexpected number of retained entries", table.getCapacity(), retained);
+        assertEquals("Unexpected size", table.getCapacity(), table.size());
+        assertEquals("Unexpected miss count", 1000, table.getMissCount());
+    }
+
+    @Test
+    public void testKeysWithEqualHashes()
+    {
+        final ByteStringInternTable<String> table = new ByteStringInternTable<>(16);
+        // "Aa" and "BB" have equal hash codes
+        final QpidByteBuffer buffer = createBuffer("Aa", "BB", "Aa", "BB");
+        try
+        {
+            final String aa = table.intern(buffer, 2, this::decode);
+            final String bb = table.intern(buffer, 2, this::decode);
+
+            assertNotSame("Unexpected value", aa, bb);
+            assertSame("Unexpected value", aa, table.intern(buffer, 2, this::decode));
+            assertSame("Unexpected value", bb, table.intern(buffer, 2, this::decode));
+        }
+        finally
+        {
+            buffer.dispose();
+        }
+    }
+
+    private String decode(final byte[] data)
+    {
+        return new String(data, StandardCharsets.US_ASCII);
+    }
+
+    private QpidByteBuffer createBuffer(final String... values)
+    {
+        int size = 0;
+        for (String value : values)
+        {
+            size += value.length();
+        }
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(size);
+        for (String value : values)
+        {
+            buffer.put(value.getBytes(StandardCharsets.US_ASCII));
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.virtualhost;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class RecoveredMessageMapTest extends UnitTestBase
+{
+    @Test
+    public void testComputeIfAbsent()
+    {
+        final RecoveredMessageMap<String> map = new RecoveredMessageMap<>(4);
+        final AtomicInteger invocations = new AtomicInteger();
+
+        for (long id = 0; id < 10000; id++)
+        {
+            final String value = map.computeIfAbsent(id, key -> {
+                invocations.incrementAndGet();
+                return String.valueOf(key);
+            });
+            assertEquals("Unexpected value", String.valueOf(id), value);
+        }
+        for (long id = 0; id < 10000; id++)
+        {
+            assertEquals("Unexpected value", String.valueOf(id), map.computeIfAbsent(id, key -> "unexpected"));
+        }
+
+        assertEquals("Unexpected number of invocations", 10000, invocations.get());
+        assertEquals("Unexpected size", 10000, map.size());
+    }
+
+    @Test
+    public void testNullValueIsNotStored()
+    {
+        final RecoveredMessageMap<String> map = new RecoveredMessageMap<>();
+
+        assertNull("Unexpected value", map.computeIfAbsent(1L, key -> null));
+        assertFalse("Key should not be present", map.containsKey(1L));
+        assertEquals("Unexpected size", 0, map.size());
+    }
+
+    @Test
+    public void testGetAndForEach()
+    {
+        final RecoveredMessageMap<String> map = new RecoveredMessageMap<>();
+        for (long id = 0; id < 100; id++)
+        {
+            map.computeIfAbsent(id, String::valueOf);
+        }
+
+        assertEquals("Unexpected value", "0", map.get(0L));
+        assertEquals("Unexpected value", "99", map.get(99L));
+        assertNull("Unexpected value", map.get(100L));
+
+        final List<String> visited = new ArrayList<>();
+        map.forEach(visited::add);
+        assertEquals("Unexpected number of visited values", 100, visited.size());
+        assertEquals("Value should still be present after visit", "50", map.get(50L));
+
+        map.clear();
+        assertFalse("Key should not be present after clear", map.containsKey(0L));
+        assertNull("Value should not be present after clear", map.get(0L));
+        assertEquals("Unexpected size after clear", 0, map.size());
+    }
+}
@@ -20,6 +20,7 @@
  */
 package org.apache.qpid.server.virtualhost;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -109,6 +110,46 @@ public class SynchronousMessageStoreRecovererTest extends UnitTestBase
         verify(queue, times(1)).recover(eq(message), any(MessageEnqueueRecord.class));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRecoveredMetaDataReleasedBeyondRetainedLimit()
+    {
+        when(_virtualHost.getContextValue(Integer.class,
+                                          QueueManagingVirtualHost.RECOVERED_METADATA_RETAINED_PER_QUEUE)).thenReturn(1);
+        final Queue<?> queue = createRegisteredMockQueue();
+
+        final StoredMessage<StorableMessageMetaData> headMessage = createMockStoredMessage(1);
+        final StoredMessage<StorableMessageMetaData> tailMessage = createMockStoredMessage(2);
+
+        MessageStore store = new NullMessageStore()
+        {
+            @Override
+            public void visitMessages(MessageHandler handler) throws StoreException
+            {
+                handler.handle(headMessage);
+                handler.handle(tailMessage);
+            }
+
+            @Override
+            public void visitMessageInstances(MessageInstanceHandler handler) throws StoreException
+            {
+                handler.handle(new TestMessageEnqueueRecord(queue.getId(), 1));
+                handler.handle(new TestMessageEnqueueRecord(queue.getId(), 2));
+            }
+        };
+
+        when(_virtualHost.getMessageStore()).thenReturn(store);
+
+        SynchronousMessageStoreRecoverer recoverer = new SynchronousMessageStoreRecoverer();
+        recoverer.recover(_virtualHost);
+
+        verify(queue, times(2)).recover(any(ServerMessage.class), any(MessageEnqueueRecord.class));
+        verify(headMessage, never()).flowToDisk();
+        verify(tailMessage, times(1)).flowToDisk();
+        assertEquals("Unexpected number of recovered message instances",
+                     2L, recoverer.getRecoveredMessageInstanceCount());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testRecoveryOfMessageInstanceForNonExistingMessage()
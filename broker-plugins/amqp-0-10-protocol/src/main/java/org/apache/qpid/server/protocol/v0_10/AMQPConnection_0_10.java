@@ -28,7 +28,10 @@ import org.apache.qpid.server.logging.EventLoggerProvider;
 import org.apache.qpid.server.model.ContextProvider;
 import org.apache.qpid.server.model.DerivedAttribute;
 import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.ManagedStatistic;
 import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.transport.AMQPConnection;
 import org.apache.qpid.server.transport.ProtocolEngine;
 
@@ -62,4 +65,15 @@ public interface AMQPConnection_0_10<C extends AMQPConnection_0_10<C>> extends A
     @DerivedAttribute(description = "The actual negotiated value of heartbeat delay.")
     int getHeartbeatDelay();
 
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Multi-frame Segments",
+                      description = "Total number of segments received split over more than one frame.")
+    long getMultiFrameSegments();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.BYTES,
+                      label = "Multi-frame Segment Bytes",
+                      description = "Total size of the segments received split over more than one frame. These are "
+                                    + "assembled as views over the received frames without copying.")
+    long getMultiFrameSegmentBytes();
+
 }
@@ -62,6 +62,7 @@ public class AMQPConnection_0_10Impl extends AbstractAMQPConnection<AMQPConnecti
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(AMQPConnection_0_10Impl.class);
     private final ServerInputHandler _inputHandler;
+    private final ServerAssembler _assembler;
 
     private final ServerConnection _connection;
 
@@ -90,7 +91,8 @@ public class AMQPConnection_0_10Impl extends AbstractAMQPConnection<AMQPConnecti
         _connection.setConnectionDelegate(connDelegate);
         _connection.setRemoteAddress(network.getRemoteAddress());
 
-        _inputHandler = new ServerInputHandler(new ServerAssembler(_connection));
+        _assembler = new ServerAssembler(_connection);
+        _inputHandler = new ServerInputHandler(_assembler);
         _connection.addFrameSizeObserver(_inputHandler);
 
         AccessController.doPrivileged((PrivilegedAction<Object>) () ->
@@ -217,6 +219,18 @@ public class AMQPConnection_0_10Impl extends AbstractAMQPConnection<AMQPConnecti
         return _connection.getHeartBeatDelay();
     }
 
+    @Override
+    public long getMultiFrameSegments()
+    {
+        return _assembler.getMultiFrameSegments();
+    }
+
+    @Override
+    public long getMultiFrameSegmentBytes()
+    {
+        return _assembler.getMultiFrameSegmentBytes();
+    }
+
     @Override
     public void setTransportBlockedForWriting(final boolean blocked)
     {
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
@@ -61,7 +62,12 @@ public class ServerAssembler
     private final Method[] _incompleteMethodArray = new Method[ARRAY_SIZE + 1];
     private final Map<Integer, Method> _incompleteMethodMap = new HashMap<>();
 
-    private final Map<Integer,List<ServerFrame>> _segments;
+    // Fragments of segments split over several frames, held until the last frame of the segment arrives.  The
+    // fragments are slices of the network buffers and are combined into a composite view, so are never copied.
+    private final Map<Integer,List<QpidByteBuffer>> _segments;
+
+    private final AtomicLong _multiFrameSegments = new AtomicLong();
+    private final AtomicLong _multiFrameSegmentBytes = new AtomicLong();
 
     public ServerAssembler(ServerConnection connection)
     {
@@ -69,6 +75,22 @@ public class ServerAssembler
         _segments = new HashMap<>();
     }
 
+    /**
+     * @return the number of segments received split over more than one frame
+     */
+    public long getMultiFrameSegments()
+    {
+        return _multiFrameSegments.get();
+    }
+
+    /**
+     * @return the total size of the segments received split over more than one frame
+     */
+    public long getMultiFrameSegmentBytes()
+    {
+        return _multiFrameSegmentBytes.get();
+    }
+
     public void received(final List<ServerFrame> frames)
     {
         if (!frames.isEmpty())
@@ -151,25 +173,34 @@ public class ServerAssembler
         return (frame.getTrack() + 1) * frame.getChannel();
     }
 
-    private List<ServerFrame> getSegment(ServerFrame frame)
+    private List<QpidByteBuffer> getSegment(ServerFrame frame)
     {
         return _segments.get(segmentKey(frame));
     }
 
-    private void setSegment(ServerFrame frame, List<ServerFrame> segment)
+    private void setSegment(ServerFrame frame, List<QpidByteBuffer> segment)
     {
         int key = segmentKey(frame);
-        if (_segments.containsKey(key))
+        final List<QpidByteBuffer> inProgress = _segments.put(key, segment);
+        if (inProgress != null)
         {
+            disposeAll(inProgress);
             error(new ProtocolError(Frame.L2, "segment in progress: %s",
                                     frame));
         }
-        _segments.put(segmentKey(frame), segment);
     }
 
-    private void clearSegment(ServerFrame frame)
+    private List<QpidByteBuffer> clearSegment(ServerFrame frame)
     {
-        _segments.remove(segmentKey(frame));
+        return _segments.remove(segmentKey(frame));
+    }
+
+    private void disposeAll(final List<QpidByteBuffer> buffers)
+    {
+        for (QpidByteBuffer buffer : buffers)
+        {
+            buffer.dispose();
+        }
     }
 
     private void emit(int channel, ProtocolEvent event)
@@ -185,7 +216,18 @@ public class ServerAssembler
 
     public void closed()
     {
-        _connection.closed();
+        try
+        {
+            for (List<QpidByteBuffer> segment : _segments.values())
+            {
+                disposeAll(segment);
+            }
+            _segments.clear();
+        }
+        finally
+        {
+            _connection.closed();
+        }
     }
 
     public void init(ProtocolHeader header)
@@ -206,32 +248,31 @@ public class ServerAssembler
         }
         else
         {
-            List<ServerFrame> frames;
+            final List<QpidByteBuffer> fragments;
             if (frame.isFirstFrame())
             {
-                frames = new ArrayList<>();
-                setSegment(frame, frames);
+                fragments = new ArrayList<>(4);
+                setSegment(frame, fragments);
             }
             else
             {
-                frames = getSegment(frame);
+                fragments = frame.isLastFrame() ? clearSegment(frame) : getSegment(frame);
+                if (fragments == null)
+                {
+                    frame.getBody().dispose();
+                    error(new ProtocolError(Frame.L2, "no segment in progress: %s", frame));
+                    return;
+                }
             }
 
-            frames.add(frame);
+            fragments.add(frame.getBody());
 
             if (frame.isLastFrame())
             {
-                clearSegment(frame);
-                List<QpidByteBuffer> frameBuffers = new ArrayList<>(frames.size());
-                for (ServerFrame f : frames)
-                {
-                    frameBuffers.add(f.getBody());
-                }
-                QpidByteBuffer combined = QpidByteBuffer.concatenate(frameBuffers);
-                for (QpidByteBuffer buffer : frameBuffers)
-                {
-                    buffer.dispose();
-                }
+                final QpidByteBuffer combined = QpidByteBuffer.concatenate(fragments);
+                disposeAll(fragments);
+                _multiFrameSegments.incrementAndGet();
+                _multiFrameSegmentBytes.addAndGet(combined.remaining());
                 assemble(frame, combined);
             }
         }
@@ -277,6 +318,9 @@ public class ServerAssembler
                     DeliveryProperties deliveryProps = null;
                     MessageProperties messageProps = null;
 
+                    // Header structs are decoded eagerly: ServerSessionDelegate reads the
+                    // delivery and message properties as soon as the command is emitted,
+                    // so deferring the decode would not save any work.
                     while (dec.hasRemaining())
                     {
                         Struct struct = dec.readStruct32();
@@ -0,0 +1,151 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_10;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcceptMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcquireMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageTransfer;
+import org.apache.qpid.server.protocol.v0_10.transport.ProtocolEvent;
+import org.apache.qpid.server.protocol.v0_10.transport.SegmentType;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ServerAssemblerTest extends UnitTestBase
+{
+    private static final int CHANNEL = 1;
+
+    private ServerConnection _connection;
+    private ServerAssembler _assembler;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _connection = mock(ServerConnection.class);
+        _assembler = new ServerAssembler(_connection);
+    }
+
+    @Test
+    public void testBodySplitOverFramesIsAssembled()
+    {
+        final byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+        _assembler.received(Arrays.asList(
+                createFrame(ServerFrame.FIRST_SEG | ServerFrame.FIRST_FRAME | ServerFrame.LAST_FRAME,
+                            SegmentType.COMMAND, encodeTransfer()),
+                createFrame(ServerFrame.FIRST_FRAME, SegmentType.BODY, Arrays.copyOfRange(content, 0, 4)),
+                createFrame(0, SegmentType.BODY, Arrays.copyOfRange(content, 4, 7)),
+                createFrame(ServerFrame.LAST_SEG | ServerFrame.LAST_FRAME, SegmentType.BODY,
+                            Arrays.copyOfRange(content, 7, content.length))));
+
+        final ArgumentCaptor<ProtocolEvent> eventCaptor = ArgumentCaptor.forClass(ProtocolEvent.class);
+        verify(_connection).received(eventCaptor.capture());
+        assertTrue("Unexpected event", eventCaptor.getValue() instanceof MessageTransfer);
+
+        final MessageTransfer transfer = (MessageTransfer) eventCaptor.getValue();
+        assertEquals("Unexpected channel", CHANNEL, transfer.getChannel());
+        assertEquals("Unexpected destination", "dest", transfer.getDestination());
+        assertEquals("Unexpected body size", content.length, transfer.getBodySize());
+
+        final byte[] body = new byte[transfer.getBodySize()];
+        transfer.getBody().get(body);
+        assertArrayEquals("Unexpected body", content, body);
+        transfer.dispose();
+
+        assertEquals("Unexpected multi-frame segments", 1L, _assembler.getMultiFrameSegments());
+        assertEquals("Unexpected multi-frame segment bytes", (long) content.length,
+                     _assembler.getMultiFrameSegmentBytes());
+    }
+
+    @Test
+    public void testSingleFrameSegmentsAreNotCountedAsMultiFrame()
+    {
+        _assembler.received(Arrays.asList(
+                createFrame(ServerFrame.FIRST_SEG | ServerFrame.FIRST_FRAME | ServerFrame.LAST_FRAME,
+                            SegmentType.COMMAND, encodeTransfer()),
+                createFrame(ServerFrame.LAST_SEG | ServerFrame.FIRST_FRAME | ServerFrame.LAST_FRAME,
+                            SegmentType.BODY, new byte[]{1, 2, 3})));
+
+        final ArgumentCaptor<ProtocolEvent> eventCaptor = ArgumentCaptor.forClass(ProtocolEvent.class);
+        verify(_connection).received(eventCaptor.capture());
+        ((MessageTransfer) eventCaptor.getValue()).dispose();
+
+        assertEquals("Unexpected multi-frame segments", 0L, _assembler.getMultiFrameSegments());
+        assertEquals("Unexpected multi-frame segment bytes", 0L, _assembler.getMultiFrameSegmentBytes());
+    }
+
+    @Test
+    public void testIncompleteSegmentReleasedOnClose()
+    {
+        final QpidByteBuffer fragment = mock(QpidByteBuffer.class);
+
+        _assembler.received(Arrays.asList(
+                createFrame(ServerFrame.FIRST_SEG | ServerFrame.FIRST_FRAME | ServerFrame.LAST_FRAME,
+                            SegmentType.COMMAND, encodeTransfer()),
+                new ServerFrame((byte) ServerFrame.FIRST_FRAME, SegmentType.BODY, (byte) 0, CHANNEL, fragment)));
+
+        verify(fragment, never()).dispose();
+        verify(_connection, never()).received(any(ProtocolEvent.class));
+
+        _assembler.closed();
+
+        verify(fragment).dispose();
+        verify(_connection).closed();
+    }
+
+    private byte[] encodeTransfer()
+    {
+        final MessageTransfer transfer = new MessageTransfer();
+        transfer.setDestination("dest");
+        transfer.setAcceptMode(MessageAcceptMode.NONE);
+        transfer.setAcquireMode(MessageAcquireMode.PRE_ACQUIRED);
+
+        final ServerEncoder encoder = new ServerEncoder(256, false);
+        encoder.writeUint16(transfer.getEncodedType());
+        encoder.writeUint16(0);
+        transfer.write(encoder);
+        try (QpidByteBuffer buffer = encoder.getBuffer())
+        {
+            final byte[] encoded = new byte[buffer.remaining()];
+            buffer.get(encoded);
+            return encoded;
+        }
+    }
+
+    private ServerFrame createFrame(final int flags, final SegmentType type, final byte[] body)
+    {
+        return new ServerFrame((byte) flags, type, (byte) 0, CHANNEL, QpidByteBuffer.wrap(body));
+    }
+}
@@ -78,6 +78,8 @@ import org.apache.qpid.server.txn.LocalTransaction;
 import org.apache.qpid.server.txn.ServerTransaction;
 import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
+import org.apache.qpid.server.virtualhost.CacheProvider;
 import org.apache.qpid.server.virtualhost.NoopConnectionEstablishmentPolicy;
 import org.apache.qpid.server.virtualhost.VirtualHostUnavailableException;
 
@@ -158,6 +160,7 @@ public class AMQPConnection_0_8Impl
     private final int _binaryDataLimit;
     private volatile boolean _transportBlockedForWriting;
     private volatile SubjectAuthenticationResult _successfulAuthenticationResult;
+    private volatile ByteStringInternTable<AMQShortString> _shortStringInternTable;
 
     private final Set<AMQPSession<?,?>> _sessionsWithWork =
             Collections.newSetFromMap(new ConcurrentHashMap<AMQPSession<?,?>, Boolean>());
@@ -245,6 +248,8 @@ public class AMQPConnection_0_8Impl
     @Override
     protected void onReceive(final QpidByteBuffer msg)
     {
+        final ByteStringInternTable<AMQShortString> previousInternTable =
+                AMQShortString.setInternTable(_shortStringInternTable);
         try
         {
             _decoder.decodeBuffer(msg);
@@ -256,6 +261,10 @@ public class AMQPConnection_0_8Impl
             LOGGER.warn("Unexpected exception", e);
             throw new ConnectionScopedRuntimeException(e);
         }
+        finally
+        {
+            AMQShortString.setInternTable(previousInternTable);
+        }
     }
 
     private void receivedCompleteAllChannels()
@@ -981,6 +990,10 @@ public class AMQPConnection_0_8Impl
                 {
                     addressSpace.registerConnection(this, new NoopConnectionEstablishmentPolicy());
                     setAddressSpace(addressSpace);
+                    if (addressSpace instanceof CacheProvider)
+                    {
+                        _shortStringInternTable = ((CacheProvider) addressSpace).getNamedInternTable(AMQShortString.INTERN_TABLE_NAME);
+                    }
 
                     if(addressSpace.authoriseCreateConnection(this))
                     {
@@ -1249,7 +1262,7 @@ public class AMQPConnection_0_8Impl
                                                   props,
                                                   _channelId,
                                                   deliveryTag,
-                                                  target.getConsumerTag());
+                                                  target.getDeliverTemplate());
             registerMessageDelivered(size);
             if (target.getChannel().isTransactional())
             {
@@ -21,17 +21,14 @@
 
 package org.apache.qpid.server.protocol.v0_8;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
-import com.google.common.cache.Cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
-import org.apache.qpid.server.virtualhost.CacheFactory;
-import org.apache.qpid.server.virtualhost.NullCache;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
 
 /**
  * A short string is a representation of an AMQ Short String
@@ -46,13 +43,12 @@ public final class AMQShortString implements Comparable<AMQShortString>
      */
     public static final int MAX_LENGTH = 255;
 
+    static final String INTERN_TABLE_NAME = "amqShortString";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AMQShortString.class);
-    private static final NullCache<ByteBuffer, AMQShortString> NULL_CACHE = new NullCache<>();
 
-    // Unfortunately CacheBuilder does not yet support keyEquivalence, so we have to wrap the keys in ByteBuffers
-    // rather than using the byte arrays as keys.
-    private static final ThreadLocal<Cache<ByteBuffer, AMQShortString>> CACHE =
-            ThreadLocal.withInitial(() -> CacheFactory.getCache("amqShortStringCache", NULL_CACHE));
+    // The intern table of the virtual host of the connection whose bytes are currently being decoded by this thread
+    private static final ThreadLocal<ByteStringInternTable<AMQShortString>> INTERN_TABLE = new ThreadLocal<>();
 
     private final byte[] _data;
     private int _hashCode;
@@ -76,25 +72,13 @@ public final class AMQShortString implements Comparable<AMQShortString>
 
     static byte[] readAMQShortStringAsBytes(QpidByteBuffer buffer)
     {
-        int length = buffer.getUnsignedByte();
+        int length = readLength(buffer);
         if(length == 0)
         {
             return null;
         }
         else
         {
-            if (length > MAX_LENGTH)
-            {
-                throw new IllegalArgumentException("Cannot create AMQShortString with number of octets over 255!");
-            }
-            if(length > buffer.remaining())
-            {
-                throw new IllegalArgumentException("Cannot create AMQShortString with length "
-                                                   + length + " from a ByteBuffer with only "
-                                                   + buffer.remaining()
-                                                   + " bytes.");
-
-            }
             byte[] data = new byte[length];
             buffer.get(data,0, length);
 
@@ -102,6 +86,24 @@ public final class AMQShortString implements Comparable<AMQShortString>
         }
     }
 
+    private static int readLength(final QpidByteBuffer buffer)
+    {
+        int length = buffer.getUnsignedByte();
+        if (length > MAX_LENGTH)
+        {
+            throw new IllegalArgumentException("Cannot create AMQShortString with number of octets over 255!");
+        }
+        if(length > buffer.remaining())
+        {
+            throw new IllegalArgumentException("Cannot create AMQShortString with length "
+                                               + length + " from a ByteBuffer with only "
+                                               + buffer.remaining()
+                                               + " bytes.");
+
+        }
+        return length;
+    }
+
     public static String readAMQShortStringAsString(QpidByteBuffer buffer)
     {
         byte[] data = readAMQShortStringAsBytes(buffer);
@@ -117,21 +119,22 @@ public final class AMQShortString implements Comparable<AMQShortString>
 
     public static AMQShortString readAMQShortString(QpidByteBuffer buffer)
     {
-        byte[] data = readAMQShortStringAsBytes(buffer);
-        if (data == null)
+        int length = readLength(buffer);
+        if (length == 0)
         {
             return null;
         }
+
+        final ByteStringInternTable<AMQShortString> internTable = INTERN_TABLE.get();
+        if (internTable == null)
+        {
+            byte[] data = new byte[length];
+            buffer.get(data, 0, length);
+            return new AMQShortString(data);
+        }
         else
         {
-            ByteBuffer stringBuffer = ByteBuffer.wrap(data);
-            AMQShortString cached = getShortStringCache().getIfPresent(stringBuffer);
-            if (cached == null)
-            {
-                cached = new AMQShortString(data);
-                getShortStringCache().put(stringBuffer, cached);
-            }
-            return cached;
+            return internTable.intern(buffer, length, AMQShortString::new);
         }
     }
 
@@ -142,7 +145,7 @@ public final class AMQShortString implements Comparable<AMQShortString>
             throw new NullPointerException("Cannot create AMQShortString with null data[]");
         }
 
-        final AMQShortString cached = getShortStringCache().getIfPresent(ByteBuffer.wrap(data));
+        final AMQShortString cached = getInterned(data);
         return cached != null ? cached : new AMQShortString(data);
     }
 
@@ -150,7 +153,7 @@ public final class AMQShortString implements Comparable<AMQShortString>
     {
         final byte[] data = EncodingUtils.asUTF8Bytes(string);
 
-        final AMQShortString cached = getShortStringCache().getIfPresent(ByteBuffer.wrap(data));
+        final AMQShortString cached = getInterned(data);
         if (cached != null)
         {
             return cached;
@@ -395,14 +398,33 @@ public final class AMQShortString implements Comparable<AMQShortString>
         return amqShortString == null ? null : amqShortString.toString();
     }
 
-    static Cache<ByteBuffer, AMQShortString> getShortStringCache()
+    private static AMQShortString getInterned(final byte[] data)
+    {
+        final ByteStringInternTable<AMQShortString> internTable = INTERN_TABLE.get();
+        return internTable == null ? null : internTable.get(data);
+    }
+
+    static ByteStringInternTable<AMQShortString> getInternTable()
     {
-        return CACHE.get();
+        return INTERN_TABLE.get();
     }
 
-    /** Unit testing only */
-    static void setShortStringCache(final Cache<ByteBuffer, AMQShortString> cache)
+    /**
+     * Sets the intern table used by the current thread when decoding short strings.
+     *
+     * @return the intern table previously used by the current thread
+     */
+    static ByteStringInternTable<AMQShortString> setInternTable(final ByteStringInternTable<AMQShortString> internTable)
     {
-        CACHE.set(cache);
+        final ByteStringInternTable<AMQShortString> previous = INTERN_TABLE.get();
+        if (internTable == null)
+        {
+            INTERN_TABLE.remove();
+        }
+        else
+        {
+            INTERN_TABLE.set(internTable);
+        }
+        return previous;
     }
 }
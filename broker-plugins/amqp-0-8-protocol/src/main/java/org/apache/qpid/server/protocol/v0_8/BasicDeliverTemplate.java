@@ -0,0 +1,163 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8;
+
+import java.util.Objects;
+
+import org.apache.qpid.server.QpidException;
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQMethodBody;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQVersionAwareProtocolSession;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicDeliverBody;
+import org.apache.qpid.server.transport.ByteBufferSender;
+
+/**
+ * Pre-encoded form of the basic.deliver method bodies sent to a single consumer.
+ * <p>
+ * The class id, method id and consumer tag are encoded once when the template is created.  The exchange and routing
+ * key of the most recent delivery are also retained in encoded form, so successive deliveries of messages published
+ * with the same exchange and routing key (the common case, particularly as decoded short strings are interned) are
+ * written as a copy of the two encoded fragments with the delivery tag and redelivered flag patched in between.
+ */
+final class BasicDeliverTemplate
+{
+    private static final int DELIVERY_TAG_AND_FLAGS_SIZE = 9;
+
+    private final AMQShortString _consumerTag;
+    private final byte[] _prefix;
+    private volatile EncodedAddress _lastAddress;
+
+    BasicDeliverTemplate(final AMQShortString consumerTag)
+    {
+        _consumerTag = consumerTag;
+        _prefix = new byte[4 + EncodingUtils.encodedShortStringLength(consumerTag)];
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(_prefix))
+        {
+            buffer.putUnsignedShort(BasicDeliverBody.CLASS_ID);
+            buffer.putUnsignedShort(BasicDeliverBody.METHOD_ID);
+            EncodingUtils.writeShortStringBytes(buffer, consumerTag);
+        }
+    }
+
+    AMQShortString getConsumerTag()
+    {
+        return _consumerTag;
+    }
+
+    AMQBody createBody(final long deliveryTag,
+                       final boolean redelivered,
+                       final AMQShortString exchange,
+                       final AMQShortString routingKey)
+    {
+        EncodedAddress address = _lastAddress;
+        if (address == null || !address.matches(exchange, routingKey))
+        {
+            address = new EncodedAddress(exchange, routingKey);
+            _lastAddress = address;
+        }
+        return new Body(deliveryTag, redelivered, address);
+    }
+
+    private static final class EncodedAddress
+    {
+        private final AMQShortString _exchange;
+        private final AMQShortString _routingKey;
+        private final byte[] _encoded;
+
+        private EncodedAddress(final AMQShortString exchange, final AMQShortString routingKey)
+        {
+            _exchange = exchange;
+            _routingKey = routingKey;
+            _encoded = new byte[EncodingUtils.encodedShortStringLength(exchange)
+                                + EncodingUtils.encodedShortStringLength(routingKey)];
+            try (QpidByteBuffer buffer = QpidByteBuffer.wrap(_encoded))
+            {
+                EncodingUtils.writeShortStringBytes(buffer, exchange);
+                EncodingUtils.writeShortStringBytes(buffer, routingKey);
+            }
+        }
+
+        private boolean matches(final AMQShortString exchange, final AMQShortString routingKey)
+        {
+            return Objects.equals(_exchange, exchange) && Objects.equals(_routingKey, routingKey);
+        }
+    }
+
+    private final class Body implements AMQBody
+    {
+        private final long _deliveryTag;
+        private final boolean _redelivered;
+        private final EncodedAddress _address;
+
+        private Body(final long deliveryTag, final boolean redelivered, final EncodedAddress address)
+        {
+            _deliveryTag = deliveryTag;
+            _redelivered = redelivered;
+            _address = address;
+        }
+
+        @Override
+        public byte getFrameType()
+        {
+            return AMQMethodBody.TYPE;
+        }
+
+        @Override
+        public int getSize()
+        {
+            return _prefix.length + DELIVERY_TAG_AND_FLAGS_SIZE + _address._encoded.length;
+        }
+
+        @Override
+        public long writePayload(final ByteBufferSender sender)
+        {
+            final int size = getSize();
+            try (QpidByteBuffer buf = QpidByteBuffer.allocate(sender.isDirectBufferPreferred(), size))
+            {
+                buf.put(_prefix);
+                buf.putLong(_deliveryTag);
+                buf.put(_redelivered ? (byte) 1 : (byte) 0);
+                buf.put(_address._encoded);
+                buf.flip();
+                sender.send(buf);
+            }
+            return size;
+        }
+
+        @Override
+        public void handle(final int channelId, final AMQVersionAwareProtocolSession amqProtocolSession)
+                throws QpidException
+        {
+            throw new QpidException("This block should never be dispatched!");
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[" + BasicDeliverBody.class.getSimpleName() + ": consumerTag=" + _consumerTag
+                   + ", deliveryTag=" + _deliveryTag
+                   + ", redelivered=" + _redelivered
+                   + ", exchange=" + _address._exchange
+                   + ", routingKey=" + _address._routingKey + "]";
+        }
+    }
+}
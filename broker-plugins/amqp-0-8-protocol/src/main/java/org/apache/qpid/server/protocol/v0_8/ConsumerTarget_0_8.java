@@ -239,6 +239,8 @@ public abstract class ConsumerTarget_0_8 extends AbstractConsumerTarget<Consumer
 
     private final AMQShortString _consumerTag;
 
+    private final BasicDeliverTemplate _deliverTemplate;
+
     private final FlowCreditManager_0_8 _creditManager;
 
     private final Boolean _autoClose;
@@ -254,6 +256,7 @@ public abstract class ConsumerTarget_0_8 extends AbstractConsumerTarget<Consumer
 
         _channel = channel;
         _consumerTag = consumerTag;
+        _deliverTemplate = new BasicDeliverTemplate(consumerTag);
 
         _creditManager = creditManager;
 
@@ -353,6 +356,11 @@ public abstract class ConsumerTarget_0_8 extends AbstractConsumerTarget<Consumer
         return _consumerTag;
     }
 
+    BasicDeliverTemplate getDeliverTemplate()
+    {
+        return _deliverTemplate;
+    }
+
     private AMQPConnection_0_8 getConnection()
     {
         return _channel.getConnection();
@@ -53,6 +53,13 @@ public class FieldTable
     private final long _encodedSize;
     private final boolean _strictAMQP;
 
+    // offset index over the encoded form, built on the first lookup of a key, so that looking up a key neither
+    // decodes nor allocates for the other entries of the table
+    private int[] _keyOffsets;
+    private int[] _keyHashes;
+    private int _entryCount;
+    private int _distinctKeyCount;
+
     FieldTable(QpidByteBuffer input, int len)
     {
         _strictAMQP = STRICT_AMQP;
@@ -109,6 +116,155 @@ public class FieldTable
         return value;
     }
 
+    private void buildIndexIfNecessary()
+    {
+        if (_keyOffsets == null)
+        {
+            int capacity = 8;
+            int[] keyOffsets = new int[capacity];
+            int[] keyHashes = new int[capacity];
+            int entryCount = 0;
+            int distinctKeyCount = 0;
+
+            final int base = _encodedForm.position();
+            _encodedForm.mark();
+            try
+            {
+                while (_encodedForm.hasRemaining())
+                {
+                    final int keyOffset = _encodedForm.position() - base;
+                    final int keyLength = _encodedForm.getUnsignedByte();
+                    if (keyLength > _encodedForm.remaining())
+                    {
+                        throw new IllegalStateException("Malformed field table detected: key exceeds table");
+                    }
+                    int hash = 0;
+                    for (int i = 0; i < keyLength; i++)
+                    {
+                        hash = 31 * hash + (_encodedForm.get(base + keyOffset + 1 + i) & 0xFF);
+                    }
+                    _encodedForm.position(_encodedForm.position() + keyLength);
+                    AMQTypeMap.getType(_encodedForm.get()).skip(_encodedForm);
+
+                    if (entryCount == capacity)
+                    {
+                        capacity <<= 1;
+                        keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+                        keyHashes = Arrays.copyOf(keyHashes, capacity);
+                    }
+                    if (indexOf(keyOffsets, keyHashes, entryCount, base, keyOffset, hash) < 0)
+                    {
+                        distinctKeyCount++;
+                    }
+                    keyOffsets[entryCount] = keyOffset;
+                    keyHashes[entryCount] = hash;
+                    entryCount++;
+                }
+            }
+            catch (IllegalStateException e)
+            {
+                throw e;
+            }
+            catch (RuntimeException e)
+            {
+                throw new IllegalStateException("Malformed field table detected", e);
+            }
+            finally
+            {
+                _encodedForm.reset();
+            }
+
+            _keyHashes = keyHashes;
+            _entryCount = entryCount;
+            _distinctKeyCount = distinctKeyCount;
+            _keyOffsets = keyOffsets;
+        }
+    }
+
+    /**
+     * Returns the index of the first entry whose key equals the key at the given offset, or -1.
+     */
+    private int indexOf(final int[] keyOffsets,
+                        final int[] keyHashes,
+                        final int entryCount,
+                        final int base,
+                        final int keyOffset,
+                        final int hash)
+    {
+        final int keyLength = _encodedForm.get(base + keyOffset) & 0xFF;
+        for (int entry = 0; entry < entryCount; entry++)
+        {
+            if (keyHashes[entry] == hash
+                && (_encodedForm.get(base + keyOffsets[entry]) & 0xFF) == keyLength
+                && encodedKeysEqual(base + keyOffsets[entry] + 1, base + keyOffset + 1, keyLength))
+            {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private boolean encodedKeysEqual(final int offset, final int otherOffset, final int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (_encodedForm.get(offset + i) != _encodedForm.get(otherOffset + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first entry with the given key, or -1.  Keys made of ASCII characters (the usual
+     * case) are compared with the encoded keys without being encoded themselves.
+     */
+    private int findEntry(final String key)
+    {
+        buildIndexIfNecessary();
+
+        final byte[] keyBytes = isAscii(key) ? null : key.getBytes(StandardCharsets.UTF_8);
+        final int keyLength = keyBytes == null ? key.length() : keyBytes.length;
+        int hash = 0;
+        for (int i = 0; i < keyLength; i++)
+        {
+            hash = 31 * hash + (keyBytes == null ? key.charAt(i) : keyBytes[i] & 0xFF);
+        }
+
+        final int base = _encodedForm.position();
+        for (int entry = 0; entry < _entryCount; entry++)
+        {
+            final int keyOffset = base + _keyOffsets[entry];
+            if (_keyHashes[entry] == hash && (_encodedForm.get(keyOffset) & 0xFF) == keyLength)
+            {
+                boolean equal = true;
+                for (int i = 0; i < keyLength && equal; i++)
+                {
+                    final byte expected = keyBytes == null ? (byte) key.charAt(i) : keyBytes[i];
+                    equal = _encodedForm.get(keyOffset + 1 + i) == expected;
+                }
+                if (equal)
+                {
+                    return entry;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAscii(final String key)
+    {
+        for (int i = 0; i < key.length(); i++)
+        {
+            if (key.charAt(i) >= 0x80)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private Map<String, AMQTypedValue> decode()
     {
         final Map<String, AMQTypedValue> properties = new HashMap<>();
@@ -399,6 +555,8 @@ public class FieldTable
                 _encodedForm.dispose();
                 _encodedForm = null;
             }
+            _keyOffsets = null;
+            _keyHashes = null;
         }
     }
 
@@ -409,11 +567,18 @@ public class FieldTable
             _encodedForm.dispose();
             _encodedForm = null;
         }
+        _keyOffsets = null;
+        _keyHashes = null;
         _properties.clear();
     }
 
-    public int size()
+    public synchronized int size()
     {
+        if (!_decoded && _encodedForm != null)
+        {
+            buildIndexIfNecessary();
+            return _distinctKeyCount;
+        }
         return getProperties().size();
     }
 
@@ -422,8 +587,12 @@ public class FieldTable
         return size() == 0;
     }
 
-    public boolean containsKey(String key)
+    public synchronized boolean containsKey(String key)
     {
+        if (!_decoded && _encodedForm != null)
+        {
+            return findEntry(key) >= 0;
+        }
         return getProperties().containsKey(key);
     }
 
@@ -497,29 +666,23 @@ public class FieldTable
 
     private AMQTypedValue findValueForKey(String key)
     {
-        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final int entry = findEntry(key);
+        if (entry < 0)
+        {
+            return NOT_PRESENT;
+        }
+
         _encodedForm.mark();
         try
         {
-            while (_encodedForm.hasRemaining())
-            {
-                final byte[] bytes = AMQShortString.readAMQShortStringAsBytes(_encodedForm);
-                if (Arrays.equals(keyBytes, bytes))
-                {
-                    return AMQTypedValue.readFromBuffer(_encodedForm);
-                }
-                else
-                {
-                    AMQType type = AMQTypeMap.getType(_encodedForm.get());
-                    type.skip(_encodedForm);
-                }
-            }
+            final int keyOffset = _encodedForm.position() + _keyOffsets[entry];
+            _encodedForm.position(keyOffset + 1 + (_encodedForm.get(keyOffset) & 0xFF));
+            return AMQTypedValue.readFromBuffer(_encodedForm);
         }
         finally
         {
             _encodedForm.reset();
         }
-        return NOT_PRESENT;
     }
 
     public static FieldTable convertToFieldTable(Map<String, Object> map)
@@ -32,7 +32,6 @@ import org.apache.qpid.server.message.MessageContentSource;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQDataBlock;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQFrame;
-import org.apache.qpid.server.protocol.v0_8.transport.AMQMethodBody;
 import org.apache.qpid.server.protocol.v0_8.transport.AMQVersionAwareProtocolSession;
 import org.apache.qpid.server.protocol.v0_8.transport.BasicCancelOkBody;
 import org.apache.qpid.server.protocol.v0_8.transport.BasicContentHeaderProperties;
@@ -59,10 +58,11 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
     public long writeDeliver(final AMQMessage msg,
                              final InstanceProperties props, int channelId,
                              long deliveryTag,
-                             AMQShortString consumerTag)
+                             BasicDeliverTemplate deliverTemplate)
     {
         final boolean isRedelivered = Boolean.TRUE.equals(props.getProperty(InstanceProperties.Property.REDELIVERED));
-        AMQBody deliverBody = createEncodedDeliverBody(msg, isRedelivered, deliveryTag, consumerTag);
+        final MessagePublishInfo pb = msg.getMessagePublishInfo();
+        AMQBody deliverBody = deliverTemplate.createBody(deliveryTag, isRedelivered, pb.getExchange(), pb.getRoutingKey());
         return writeMessageDelivery(msg, channelId, deliverBody);
     }
 
@@ -265,89 +265,6 @@ public class ProtocolOutputConverterImpl implements ProtocolOutputConverter
     }
 
 
-    private AMQBody createEncodedDeliverBody(AMQMessage message,
-                                             boolean isRedelivered,
-                                             final long deliveryTag,
-                                             final AMQShortString consumerTag)
-    {
-
-        final AMQShortString exchangeName;
-        final AMQShortString routingKey;
-
-        final MessagePublishInfo pb = message.getMessagePublishInfo();
-        exchangeName = pb.getExchange();
-        routingKey = pb.getRoutingKey();
-
-        return new EncodedDeliveryBody(deliveryTag, routingKey, exchangeName, consumerTag, isRedelivered);
-    }
-
-    private class EncodedDeliveryBody implements AMQBody
-    {
-        private final long _deliveryTag;
-        private final AMQShortString _routingKey;
-        private final AMQShortString _exchangeName;
-        private final AMQShortString _consumerTag;
-        private final boolean _isRedelivered;
-        private AMQBody _underlyingBody;
-
-        private EncodedDeliveryBody(long deliveryTag, AMQShortString routingKey, AMQShortString exchangeName, AMQShortString consumerTag, boolean isRedelivered)
-        {
-            _deliveryTag = deliveryTag;
-            _routingKey = routingKey;
-            _exchangeName = exchangeName;
-            _consumerTag = consumerTag;
-            _isRedelivered = isRedelivered;
-        }
-
-        public AMQBody createAMQBody()
-        {
-            return _connection.getMethodRegistry().createBasicDeliverBody(_consumerTag,
-                                                                               _deliveryTag,
-                                                                               _isRedelivered,
-                                                                               _exchangeName,
-                                                                               _routingKey);
-        }
-
-        @Override
-        public byte getFrameType()
-        {
-            return AMQMethodBody.TYPE;
-        }
-
-        @Override
-        public int getSize()
-        {
-            if(_underlyingBody == null)
-            {
-                _underlyingBody = createAMQBody();
-            }
-            return _underlyingBody.getSize();
-        }
-
-        @Override
-        public long writePayload(ByteBufferSender sender)
-        {
-            if(_underlyingBody == null)
-            {
-                _underlyingBody = createAMQBody();
-            }
-            return _underlyingBody.writePayload(sender);
-        }
-
-        @Override
-        public void handle(final int channelId, final AMQVersionAwareProtocolSession amqProtocolSession)
-            throws QpidException
-        {
-            throw new QpidException("This block should never be dispatched!");
-        }
-
-        @Override
-        public String toString()
-        {
-            return "[" + getClass().getSimpleName() + " underlyingBody: " + String.valueOf(_underlyingBody) + "]";
-        }
-    }
-
     private AMQBody createEncodedGetOkBody(AMQMessage message, InstanceProperties props, long deliveryTag, int queueSize)
     {
         final AMQShortString exchangeName;
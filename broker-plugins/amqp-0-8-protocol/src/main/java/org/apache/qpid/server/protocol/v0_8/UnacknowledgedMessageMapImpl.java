@@ -23,25 +23,44 @@ package org.apache.qpid.server.protocol.v0_8;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
+import org.apache.qpid.server.consumer.ConsumerTarget;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
-import org.apache.qpid.server.protocol.ErrorCodes;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 
+/**
+ * Map of the deliveries of a channel awaiting acknowledgement.
+ * <p>
+ * Delivery tags are allocated sequentially by the channel, so the outstanding deliveries occupy a narrow window
+ * {@code [head, tail)} of the tag space.  They are held in a ring indexed by the low bits of the delivery tag, which
+ * avoids boxing the tag and allocating a map node per delivery, and lets an acknowledgement of multiple deliveries
+ * walk just the part of the ring the acknowledged range covers.  Should the window grow beyond the maximum ring
+ * capacity (for instance because one delivery is left unacknowledged whilst many later ones are acknowledged) the
+ * oldest deliveries are moved to an overflow map.
+ */
 class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
 {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int DEFAULT_MAX_RING_CAPACITY = 1 << 16;
+
     private static final class MessageConsumerAssociationImpl implements MessageConsumerAssociation
     {
+        private final long _deliveryTag;
         private final MessageInstance _messageInstance;
         private final MessageInstanceConsumer _consumer;
         private final boolean _usesCredit;
 
-        private MessageConsumerAssociationImpl(final MessageInstance messageInstance, final MessageInstanceConsumer consumer, final boolean usesCredit)
+        private MessageConsumerAssociationImpl(final long deliveryTag,
+                                               final MessageInstance messageInstance,
+                                               final MessageInstanceConsumer consumer,
+                                               final boolean usesCredit)
         {
+            _deliveryTag = deliveryTag;
             _messageInstance = messageInstance;
             _consumer = consumer;
             _usesCredit = usesCredit;
@@ -70,7 +89,14 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
             return _usesCredit;
         }
     }
-    private final Map<Long, MessageConsumerAssociationImpl> _map;
+
+    private final int _maxRingCapacity;
+    private MessageConsumerAssociationImpl[] _ring;
+    private long _head;
+    private long _tail;
+    // holds deliveries with tags below the head of the ring
+    private final TreeMap<Long, MessageConsumerAssociationImpl> _overflow = new TreeMap<>();
+
     // we keep this separately as it is accessed by the management thread
     private volatile int _size;
 
@@ -78,7 +104,14 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
 
     UnacknowledgedMessageMapImpl(int prefetchLimit, CreditRestorer creditRestorer)
     {
-        _map = new LinkedHashMap<>(prefetchLimit);
+        this(prefetchLimit, creditRestorer, DEFAULT_MAX_RING_CAPACITY);
+    }
+
+    UnacknowledgedMessageMapImpl(int prefetchLimit, CreditRestorer creditRestorer, int maxRingCapacity)
+    {
+        _maxRingCapacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(maxRingCapacity));
+        _ring = new MessageConsumerAssociationImpl[Math.min(INITIAL_CAPACITY,
+                                                            Math.max(1, Integer.highestOneBit(prefetchLimit)))];
         _creditRestorer = creditRestorer;
     }
 
@@ -87,11 +120,11 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     {
         if (multiple)
         {
-            collect(deliveryTag, msgs);
+            visitRange(deliveryTag, association -> msgs.put(association._deliveryTag, association));
         }
         else
         {
-            final MessageConsumerAssociation messageConsumerAssociation = _map.get(deliveryTag);
+            final MessageConsumerAssociation messageConsumerAssociation = find(deliveryTag);
             if(messageConsumerAssociation != null)
             {
                 msgs.put(deliveryTag, messageConsumerAssociation);
@@ -100,21 +133,12 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
 
     }
 
-    private void remove(Collection<Long> msgs)
-    {
-        for (Long deliveryTag : msgs)
-        {
-            remove(deliveryTag, true);
-        }
-    }
-
     @Override
     public MessageConsumerAssociation remove(long deliveryTag, final boolean restoreCredit)
     {
-        MessageConsumerAssociationImpl entry = _map.remove(deliveryTag);
+        MessageConsumerAssociationImpl entry = removeEntry(deliveryTag);
         if(entry != null)
         {
-            _size--;
             if(restoreCredit && entry.isUsesCredit())
             {
                 _creditRestorer.restoreCredit(entry.getConsumer().getTarget(), 1, entry.getSize());
@@ -126,9 +150,18 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     @Override
     public void visit(Visitor visitor)
     {
-        for (Map.Entry<Long, MessageConsumerAssociationImpl> entry : _map.entrySet())
+        for (MessageConsumerAssociationImpl entry : _overflow.values())
         {
-            visitor.callback(entry.getKey(), entry.getValue());
+            visitor.callback(entry._deliveryTag, entry);
+        }
+        final int mask = _ring.length - 1;
+        for (long tag = _head; tag < _tail; tag++)
+        {
+            final MessageConsumerAssociationImpl entry = _ring[(int) tag & mask];
+            if (entry != null)
+            {
+                visitor.callback(tag, entry);
+            }
         }
         visitor.visitComplete();
     }
@@ -136,14 +169,42 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     @Override
     public void add(long deliveryTag, MessageInstance message, final MessageInstanceConsumer consumer, final boolean usesCredit)
     {
-        if(_map.put(deliveryTag, new MessageConsumerAssociationImpl(message, consumer, usesCredit)) == null)
+        final MessageConsumerAssociationImpl association =
+                new MessageConsumerAssociationImpl(deliveryTag, message, consumer, usesCredit);
+
+        if (_head == _tail && (_overflow.isEmpty() || deliveryTag > _overflow.lastKey()))
+        {
+            _head = deliveryTag;
+            _tail = deliveryTag;
+        }
+
+        if (deliveryTag < _head)
         {
-            _size++;
+            if (_overflow.putIfAbsent(deliveryTag, association) != null)
+            {
+                throw new ConnectionScopedRuntimeException("Unexpected duplicate delivery tag created");
+            }
         }
         else
         {
-            throw new ConnectionScopedRuntimeException("Unexpected duplicate delivery tag created");
+            if (deliveryTag >= _tail)
+            {
+                if (deliveryTag - _head >= _maxRingCapacity)
+                {
+                    evictBefore(deliveryTag - _maxRingCapacity + 1);
+                }
+                ensureRingCapacity(deliveryTag - _head + 1);
+                _tail = deliveryTag + 1;
+            }
+
+            final int index = (int) deliveryTag & (_ring.length - 1);
+            if (_ring[index] != null)
+            {
+                throw new ConnectionScopedRuntimeException("Unexpected duplicate delivery tag created");
+            }
+            _ring[index] = association;
         }
+        _size++;
     }
 
     @Override
@@ -155,7 +216,7 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     @Override
     public MessageInstance get(long key)
     {
-        MessageConsumerAssociation association = _map.get(key);
+        MessageConsumerAssociation association = find(key);
         return association == null ? null : association.getMessageInstance();
     }
 
@@ -164,11 +225,10 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
     {
         if(multiple)
         {
-            Map<Long, MessageConsumerAssociation> ackedMessageMap = new LinkedHashMap<>();
-            collect(deliveryTag, multiple, ackedMessageMap);
-            remove(ackedMessageMap.keySet());
-            List<MessageConsumerAssociation> acknowledged = new ArrayList<>();
-            for (MessageConsumerAssociation messageConsumerAssociation : ackedMessageMap.values())
+            final List<MessageConsumerAssociationImpl> removed = removeRange(deliveryTag);
+            restoreCredit(removed);
+            List<MessageConsumerAssociation> acknowledged = new ArrayList<>(removed.size());
+            for (MessageConsumerAssociationImpl messageConsumerAssociation : removed)
             {
                 MessageInstance instance = messageConsumerAssociation.getMessageInstance();
                 if (instance.makeAcquisitionUnstealable(messageConsumerAssociation.getConsumer()))
@@ -193,16 +253,181 @@ class UnacknowledgedMessageMapImpl implements UnacknowledgedMessageMap
         }
     }
 
-    private void collect(long key, Map<Long, MessageConsumerAssociation> msgs)
+    /**
+     * Restores the credit of the given deliveries with a single call per consumer target (rather than one call per
+     * delivery).  The deliveries of a channel usually belong to one or a few consumers, so runs of deliveries to the
+     * same target are aggregated.
+     */
+    private void restoreCredit(final List<MessageConsumerAssociationImpl> associations)
+    {
+        ConsumerTarget target = null;
+        int count = 0;
+        long size = 0L;
+        for (MessageConsumerAssociationImpl association : associations)
+        {
+            if (association.isUsesCredit())
+            {
+                final ConsumerTarget associationTarget = association.getConsumer().getTarget();
+                if (associationTarget != target)
+                {
+                    if (count != 0)
+                    {
+                        _creditRestorer.restoreCredit(target, count, size);
+                    }
+                    target = associationTarget;
+                    count = 0;
+                    size = 0L;
+                }
+                count++;
+                size += association.getSize();
+            }
+        }
+        if (count != 0)
+        {
+            _creditRestorer.restoreCredit(target, count, size);
+        }
+    }
+
+    /**
+     * Passes to the given action each delivery covered by an acknowledgement of multiple deliveries up to and
+     * including the given tag, in delivery tag order.  A tag of zero covers all outstanding deliveries.
+     */
+    private void visitRange(final long deliveryTag, final Consumer<MessageConsumerAssociationImpl> action)
+    {
+        final long last = deliveryTag == 0L ? Long.MAX_VALUE : deliveryTag;
+        for (MessageConsumerAssociationImpl entry : _overflow.headMap(last, true).values())
+        {
+            action.accept(entry);
+        }
+        final int mask = _ring.length - 1;
+        final long end = last < _tail ? last + 1 : _tail;
+        for (long tag = _head; tag < end; tag++)
+        {
+            final MessageConsumerAssociationImpl entry = _ring[(int) tag & mask];
+            if (entry != null)
+            {
+                action.accept(entry);
+            }
+        }
+    }
+
+    private List<MessageConsumerAssociationImpl> removeRange(final long deliveryTag)
     {
-        for (Map.Entry<Long, MessageConsumerAssociationImpl> entry : _map.entrySet())
+        final List<MessageConsumerAssociationImpl> removed = new ArrayList<>();
+        visitRange(deliveryTag, removed::add);
+        if (!removed.isEmpty())
         {
-            msgs.put(entry.getKey(), entry.getValue());
-            if (entry.getKey() == key)
+            final long last = deliveryTag == 0L ? Long.MAX_VALUE : deliveryTag;
+            _overflow.headMap(last, true).clear();
+            final int mask = _ring.length - 1;
+            final long end = last < _tail ? last + 1 : _tail;
+            for (long tag = _head; tag < end; tag++)
             {
-                break;
+                _ring[(int) tag & mask] = null;
             }
+            if (end > _head)
+            {
+                _head = end;
+                advanceHead();
+            }
+            _size -= removed.size();
+        }
+        return removed;
+    }
+
+    private MessageConsumerAssociationImpl find(final long deliveryTag)
+    {
+        if (deliveryTag >= _head && deliveryTag < _tail)
+        {
+            return _ring[(int) deliveryTag & (_ring.length - 1)];
+        }
+        else if (deliveryTag < _head && !_overflow.isEmpty())
+        {
+            return _overflow.get(deliveryTag);
+        }
+        return null;
+    }
+
+    private MessageConsumerAssociationImpl removeEntry(final long deliveryTag)
+    {
+        final MessageConsumerAssociationImpl entry;
+        if (deliveryTag >= _head && deliveryTag < _tail)
+        {
+            final int index = (int) deliveryTag & (_ring.length - 1);
+            entry = _ring[index];
+            if (entry != null)
+            {
+                _ring[index] = null;
+                if (deliveryTag == _head)
+                {
+                    advanceHead();
+                }
+            }
+        }
+        else if (deliveryTag < _head && !_overflow.isEmpty())
+        {
+            entry = _overflow.remove(deliveryTag);
+        }
+        else
+        {
+            entry = null;
+        }
+
+        if (entry != null)
+        {
+            _size--;
         }
+        return entry;
     }
 
+    private void advanceHead()
+    {
+        final int mask = _ring.length - 1;
+        while (_head < _tail && _ring[(int) _head & mask] == null)
+        {
+            _head++;
+        }
+    }
+
+    private void evictBefore(final long newHead)
+    {
+        final int mask = _ring.length - 1;
+        final long end = Math.min(newHead, _tail);
+        for (long tag = _head; tag < end; tag++)
+        {
+            final int index = (int) tag & mask;
+            final MessageConsumerAssociationImpl entry = _ring[index];
+            if (entry != null)
+            {
+                _overflow.put(tag, entry);
+                _ring[index] = null;
+            }
+        }
+        _head = newHead;
+        if (_tail < newHead)
+        {
+            _tail = newHead;
+        }
+        advanceHead();
+    }
+
+    private void ensureRingCapacity(final long span)
+    {
+        if (span > _ring.length)
+        {
+            int capacity = _ring.length;
+            while (capacity < span)
+            {
+                capacity <<= 1;
+            }
+            final MessageConsumerAssociationImpl[] ring = new MessageConsumerAssociationImpl[capacity];
+            final int oldMask = _ring.length - 1;
+            final int newMask = capacity - 1;
+            for (long tag = _head; tag < _tail; tag++)
+            {
+                ring[(int) tag & newMask] = _ring[(int) tag & oldMask];
+            }
+            _ring = ring;
+        }
+    }
 }
@@ -85,11 +85,22 @@ public class BasicContentHeaderProperties
     private static final int APPLICATION_ID_MASK = 1 << 3;
     private static final int CLUSTER_ID_MASK = 1 << 2;
 
+    // properties whose values are only decoded from the encoded form when first required
+    private static final int LAZILY_DECODED_MASK = CONTENT_TYPE_MASK | ENCODING_MASK | HEADERS_MASK
+                                                   | CORRELATION_ID_MASK | REPLY_TO_MASK | MESSAGE_ID_MASK
+                                                   | TYPE_MASK | USER_ID_MASK | APPLICATION_ID_MASK
+                                                   | CLUSTER_ID_MASK;
+
     private QpidByteBuffer _encodedForm;
 
+    // bits are cleared for the properties which are present in the encoded form but are yet to be decoded
+    private volatile int _decodedFlags = ~0;
+
 
     public BasicContentHeaderProperties(BasicContentHeaderProperties other)
     {
+        other.decode(LAZILY_DECODED_MASK);
+
         _headers = FieldTableFactory.createFieldTable(FieldTable.convertToMap(other.getHeaders()));
 
         _contentType = other._contentType;
@@ -216,8 +227,9 @@ public class BasicContentHeaderProperties
         }
     }
 
-    public void setPropertyFlags(int propertyFlags)
+    public synchronized void setPropertyFlags(int propertyFlags)
     {
+        decode(LAZILY_DECODED_MASK);
         _propertyFlags = propertyFlags;
     }
 
@@ -355,31 +367,42 @@ public class BasicContentHeaderProperties
 
         try (QpidByteBuffer byteBuffer = _encodedForm.slice())
         {
-            decode(byteBuffer);
+            scan(byteBuffer);
         }
+        catch (AMQFrameDecodingException | RuntimeException e)
+        {
+            disposeEncodedForm();
+            throw e;
+        }
+        _decodedFlags = ~(propertyFlags & LAZILY_DECODED_MASK);
         buffer.position(buffer.position()+size);
 
     }
 
-    private void decode(QpidByteBuffer buffer) throws AMQFrameDecodingException
+    /**
+     * Checks the structure of the encoded property list and decodes the properties of fixed size.  The remaining
+     * properties are only decoded when first required, as the broker does not need most of them to route or
+     * deliver the message, and the encoded form is sent unchanged to 0-9-1 consumers.
+     */
+    private void scan(QpidByteBuffer buffer) throws AMQFrameDecodingException
     {
         if ((_propertyFlags & (CONTENT_TYPE_MASK)) != 0)
         {
-            _contentType = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & ENCODING_MASK) != 0)
         {
-            _encoding = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & HEADERS_MASK) != 0)
         {
             long length = buffer.getUnsignedInt();
-
-            try (QpidByteBuffer buf = buffer.view(0, (int) length))
+            if (length > buffer.remaining())
             {
-                _headers = FieldTableFactory.createFieldTable(buf);
+                throw new AMQFrameDecodingException("Cannot read headers of length " + length
+                                                    + " from a buffer with only " + buffer.remaining() + " bytes");
             }
             buffer.position(buffer.position()+(int)length);
         }
@@ -396,12 +419,12 @@ public class BasicContentHeaderProperties
 
         if ((_propertyFlags & CORRELATION_ID_MASK) != 0)
         {
-            _correlationId = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & REPLY_TO_MASK) != 0)
         {
-            _replyTo = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & EXPIRATION_MASK) != 0)
@@ -411,7 +434,7 @@ public class BasicContentHeaderProperties
 
         if ((_propertyFlags & MESSAGE_ID_MASK) != 0)
         {
-            _messageId = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & TIMESTAMP_MASK) != 0)
@@ -421,40 +444,144 @@ public class BasicContentHeaderProperties
 
         if ((_propertyFlags & TYPE_MASK) != 0)
         {
-            _type = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & USER_ID_MASK) != 0)
         {
-            _userId = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & APPLICATION_ID_MASK) != 0)
         {
-            _appId = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
         }
 
         if ((_propertyFlags & CLUSTER_ID_MASK) != 0)
         {
-            _clusterId = AMQShortString.readAMQShortString(buffer);
+            skipShortString(buffer);
+        }
+    }
+
+    private static void skipShortString(QpidByteBuffer buffer) throws AMQFrameDecodingException
+    {
+        int length = buffer.getUnsignedByte();
+        if (length > buffer.remaining())
+        {
+            throw new AMQFrameDecodingException("Cannot read short string of length " + length
+                                                + " from a buffer with only " + buffer.remaining() + " bytes");
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    private void ensureDecoded(final int mask)
+    {
+        if ((_decodedFlags & mask) == 0)
+        {
+            decode(mask);
+        }
+    }
+
+    /**
+     * Decodes from the encoded form those of the given properties which have not yet been decoded.  The structure of
+     * the encoded form was checked on construction so decoding cannot fail.
+     */
+    private synchronized void decode(final int mask)
+    {
+        final int undecoded = mask & ~_decodedFlags;
+        if (undecoded == 0)
+        {
+            return;
+        }
+
+        if (_encodedForm != null)
+        {
+            try (QpidByteBuffer buffer = _encodedForm.duplicate())
+            {
+                _contentType = readShortString(buffer, CONTENT_TYPE_MASK, undecoded, _contentType);
+                _encoding = readShortString(buffer, ENCODING_MASK, undecoded, _encoding);
+
+                if ((_propertyFlags & HEADERS_MASK) != 0)
+                {
+                    int length = (int) buffer.getUnsignedInt();
+                    if ((undecoded & HEADERS_MASK) != 0)
+                    {
+                        try (QpidByteBuffer buf = buffer.view(0, length))
+                        {
+                            _headers = FieldTableFactory.createFieldTable(buf);
+                        }
+                    }
+                    buffer.position(buffer.position() + length);
+                }
+
+                skip(buffer, DELIVERY_MODE_MASK, 1);
+                skip(buffer, PRIORITY_MASK, 1);
+                _correlationId = readShortString(buffer, CORRELATION_ID_MASK, undecoded, _correlationId);
+                _replyTo = readShortString(buffer, REPLY_TO_MASK, undecoded, _replyTo);
+                if ((_propertyFlags & EXPIRATION_MASK) != 0)
+                {
+                    skipCheckedShortString(buffer);
+                }
+                _messageId = readShortString(buffer, MESSAGE_ID_MASK, undecoded, _messageId);
+                skip(buffer, TIMESTAMP_MASK, 8);
+                _type = readShortString(buffer, TYPE_MASK, undecoded, _type);
+                _userId = readShortString(buffer, USER_ID_MASK, undecoded, _userId);
+                _appId = readShortString(buffer, APPLICATION_ID_MASK, undecoded, _appId);
+                _clusterId = readShortString(buffer, CLUSTER_ID_MASK, undecoded, _clusterId);
+            }
+        }
+        _decodedFlags |= undecoded;
+    }
+
+    private AMQShortString readShortString(final QpidByteBuffer buffer,
+                                           final int mask,
+                                           final int undecoded,
+                                           final AMQShortString current)
+    {
+        if ((_propertyFlags & mask) == 0)
+        {
+            return current;
+        }
+        else if ((undecoded & mask) != 0)
+        {
+            return AMQShortString.readAMQShortString(buffer);
+        }
+        else
+        {
+            skipCheckedShortString(buffer);
+            return current;
         }
+    }
 
+    private static void skipCheckedShortString(final QpidByteBuffer buffer)
+    {
+        buffer.position(buffer.position() + 1 + (buffer.get(buffer.position()) & 0xFF));
+    }
+
+    private void skip(final QpidByteBuffer buffer, final int mask, final int size)
+    {
+        if ((_propertyFlags & mask) != 0)
+        {
+            buffer.position(buffer.position() + size);
+        }
     }
 
 
     public AMQShortString getContentType()
     {
+        ensureDecoded(CONTENT_TYPE_MASK);
         return _contentType;
     }
 
     public String getContentTypeAsString()
     {
-        return (_contentType == null) ? null : _contentType.toString();
+        final AMQShortString value = getContentType();
+        return (value == null) ? null : value.toString();
     }
 
     public synchronized void setContentType(AMQShortString contentType)
     {
-
+        nullEncodedForm();
         if(contentType == null)
         {
             _propertyFlags &= (~CONTENT_TYPE_MASK);
@@ -464,7 +591,6 @@ public class BasicContentHeaderProperties
             _propertyFlags |= CONTENT_TYPE_MASK;
         }
         _contentType = contentType;
-        nullEncodedForm();
     }
 
     public void setContentType(String contentType)
@@ -480,6 +606,7 @@ public class BasicContentHeaderProperties
 
     public AMQShortString getEncoding()
     {
+        ensureDecoded(ENCODING_MASK);
         return _encoding;
     }
 
@@ -490,6 +617,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setEncoding(AMQShortString encoding)
     {
+        nullEncodedForm();
         if(encoding == null)
         {
             _propertyFlags &= (~ENCODING_MASK);
@@ -499,16 +627,17 @@ public class BasicContentHeaderProperties
             _propertyFlags |= ENCODING_MASK;
         }
         _encoding = encoding;
-        nullEncodedForm();
     }
 
     public FieldTable getHeaders()
     {
+        ensureDecoded(HEADERS_MASK);
         return _headers;
     }
 
     public synchronized void setHeaders(FieldTable headers)
     {
+        nullEncodedForm();
         if(headers == null)
         {
             _propertyFlags &= (~HEADERS_MASK);
@@ -518,7 +647,6 @@ public class BasicContentHeaderProperties
             _propertyFlags |= HEADERS_MASK;
         }
         _headers = headers == null ? FieldTable.EMPTY : headers;
-        nullEncodedForm();
     }
 
     public byte getDeliveryMode()
@@ -528,9 +656,9 @@ public class BasicContentHeaderProperties
 
     public synchronized void setDeliveryMode(byte deliveryMode)
     {
+        nullEncodedForm();
         _propertyFlags |= DELIVERY_MODE_MASK;
         _deliveryMode = deliveryMode;
-        nullEncodedForm();
     }
 
     public byte getPriority()
@@ -540,19 +668,21 @@ public class BasicContentHeaderProperties
 
     public synchronized void setPriority(byte priority)
     {
+        nullEncodedForm();
         _propertyFlags |= PRIORITY_MASK;
         _priority = priority;
-        nullEncodedForm();
     }
 
     public AMQShortString getCorrelationId()
     {
+        ensureDecoded(CORRELATION_ID_MASK);
         return _correlationId;
     }
 
     public String getCorrelationIdAsString()
     {
-        return (_correlationId == null) ? null : _correlationId.toString();
+        final AMQShortString value = getCorrelationId();
+        return (value == null) ? null : value.toString();
     }
 
     public void setCorrelationId(String correlationId)
@@ -562,6 +692,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setCorrelationId(AMQShortString correlationId)
     {
+        nullEncodedForm();
         if(correlationId == null)
         {
             _propertyFlags &= (~CORRELATION_ID_MASK);
@@ -571,16 +702,17 @@ public class BasicContentHeaderProperties
             _propertyFlags |= CORRELATION_ID_MASK;
         }
         _correlationId = correlationId;
-        nullEncodedForm();
     }
 
     public String getReplyToAsString()
     {
-        return (_replyTo == null) ? null : _replyTo.toString();
+        final AMQShortString value = getReplyTo();
+        return (value == null) ? null : value.toString();
     }
 
     public AMQShortString getReplyTo()
     {
+        ensureDecoded(REPLY_TO_MASK);
         return _replyTo;
     }
 
@@ -591,6 +723,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setReplyTo(AMQShortString replyTo)
     {
+        nullEncodedForm();
         if(replyTo == null)
         {
             _propertyFlags &= (~REPLY_TO_MASK);
@@ -600,7 +733,6 @@ public class BasicContentHeaderProperties
             _propertyFlags |= REPLY_TO_MASK;
         }
         _replyTo = replyTo;
-        nullEncodedForm();
     }
 
     public long getExpiration()
@@ -610,6 +742,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setExpiration(long expiration)
     {
+        nullEncodedForm();
         if(expiration == 0l)
         {
             _propertyFlags &= (~EXPIRATION_MASK);
@@ -619,7 +752,6 @@ public class BasicContentHeaderProperties
             _propertyFlags |= EXPIRATION_MASK;
         }
         _expiration = expiration;
-        nullEncodedForm();
     }
 
     public boolean hasExpiration()
@@ -629,12 +761,14 @@ public class BasicContentHeaderProperties
 
     public AMQShortString getMessageId()
     {
+        ensureDecoded(MESSAGE_ID_MASK);
         return _messageId;
     }
 
     public String getMessageIdAsString()
     {
-        return (_messageId == null) ? null : _messageId.toString();
+        final AMQShortString value = getMessageId();
+        return (value == null) ? null : value.toString();
     }
 
     public void setMessageId(String messageId)
@@ -644,6 +778,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setMessageId(AMQShortString messageId)
     {
+        nullEncodedForm();
         if(messageId == null)
         {
             _propertyFlags &= (~MESSAGE_ID_MASK);
@@ -653,7 +788,6 @@ public class BasicContentHeaderProperties
             _propertyFlags |= MESSAGE_ID_MASK;
         }
         _messageId = messageId;
-        nullEncodedForm();
     }
 
     public long getTimestamp()
@@ -663,9 +797,9 @@ public class BasicContentHeaderProperties
 
     public synchronized void setTimestamp(long timestamp)
     {
+        nullEncodedForm();
         _propertyFlags |= TIMESTAMP_MASK;
         _timestamp = timestamp;
-        nullEncodedForm();
     }
 
 
@@ -676,11 +810,13 @@ public class BasicContentHeaderProperties
 
     public String getTypeAsString()
     {
-        return (_type == null) ? null : _type.toString();
+        final AMQShortString value = getType();
+        return (value == null) ? null : value.toString();
     }
 
     public AMQShortString getType()
     {
+        ensureDecoded(TYPE_MASK);
         return _type;
     }
 
@@ -691,6 +827,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setType(AMQShortString type)
     {
+        nullEncodedForm();
         if(type == null)
         {
             _propertyFlags &= (~TYPE_MASK);
@@ -700,16 +837,17 @@ public class BasicContentHeaderProperties
             _propertyFlags |= TYPE_MASK;
         }
         _type = type;
-        nullEncodedForm();
     }
 
     public String getUserIdAsString()
     {
-        return (_userId == null) ? null : _userId.toString();
+        final AMQShortString value = getUserId();
+        return (value == null) ? null : value.toString();
     }
 
     public AMQShortString getUserId()
     {
+        ensureDecoded(USER_ID_MASK);
         return _userId;
     }
 
@@ -720,6 +858,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setUserId(AMQShortString userId)
     {
+        nullEncodedForm();
         if(userId == null)
         {
             _propertyFlags &= (~USER_ID_MASK);
@@ -729,16 +868,17 @@ public class BasicContentHeaderProperties
             _propertyFlags |= USER_ID_MASK;
         }
         _userId = userId;
-        nullEncodedForm();
     }
 
     public String getAppIdAsString()
     {
-        return (_appId == null) ? null : _appId.toString();
+        final AMQShortString value = getAppId();
+        return (value == null) ? null : value.toString();
     }
 
     public AMQShortString getAppId()
     {
+        ensureDecoded(APPLICATION_ID_MASK);
         return _appId;
     }
 
@@ -749,6 +889,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setAppId(AMQShortString appId)
     {
+        nullEncodedForm();
         if(appId == null)
         {
             _propertyFlags &= (~APPLICATION_ID_MASK);
@@ -758,16 +899,17 @@ public class BasicContentHeaderProperties
             _propertyFlags |= APPLICATION_ID_MASK;
         }
         _appId = appId;
-        nullEncodedForm();
     }
 
     public String getClusterIdAsString()
     {
-        return (_clusterId == null) ? null : _clusterId.toString();
+        final AMQShortString value = getClusterId();
+        return (value == null) ? null : value.toString();
     }
 
     public AMQShortString getClusterId()
     {
+        ensureDecoded(CLUSTER_ID_MASK);
         return _clusterId;
     }
 
@@ -778,6 +920,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void setClusterId(AMQShortString clusterId)
     {
+        nullEncodedForm();
         if(clusterId == null)
         {
             _propertyFlags &= (~CLUSTER_ID_MASK);
@@ -787,12 +930,12 @@ public class BasicContentHeaderProperties
             _propertyFlags |= CLUSTER_ID_MASK;
         }
         _clusterId = clusterId;
-        nullEncodedForm();
     }
 
     @Override
     public String toString()
     {
+        decode(LAZILY_DECODED_MASK);
         return "reply-to = " + _replyTo + ",propertyFlags = " + _propertyFlags + ",ApplicationID = " + _appId
             + ",ClusterID = " + _clusterId + ",UserId = " + _userId + ",JMSMessageID = " + _messageId
             + ",JMSCorrelationID = " + _correlationId + ",JMSDeliveryMode = " + _deliveryMode + ",JMSExpiration = "
@@ -808,7 +951,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void dispose()
     {
-        nullEncodedForm();
+        disposeEncodedForm();
         _headers.dispose();
     }
 
@@ -819,6 +962,15 @@ public class BasicContentHeaderProperties
     }
 
     private synchronized void nullEncodedForm()
+    {
+        if(_encodedForm != null)
+        {
+            decode(LAZILY_DECODED_MASK);
+            disposeEncodedForm();
+        }
+    }
+
+    private synchronized void disposeEncodedForm()
     {
         if(_encodedForm != null)
         {
@@ -838,7 +990,7 @@ public class BasicContentHeaderProperties
 
     public synchronized void validate()
     {
-        _headers.validate();
+        getHeaders().validate();
     }
 
     public boolean checkValid()
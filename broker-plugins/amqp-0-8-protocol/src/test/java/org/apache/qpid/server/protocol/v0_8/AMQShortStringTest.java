@@ -23,18 +23,17 @@ package org.apache.qpid.server.protocol.v0_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.junit.Test;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public class AMQShortStringTest extends UnitTestBase
@@ -160,9 +159,8 @@ public class AMQShortStringTest extends UnitTestBase
     @Test
     public void testCaching()
     {
-        Cache<ByteBuffer, AMQShortString> original = AMQShortString.getShortStringCache();
-        Cache<ByteBuffer, AMQShortString> cache = CacheBuilder.newBuilder().maximumSize(1).build();
-        AMQShortString.setShortStringCache(cache);
+        final ByteStringInternTable<AMQShortString> internTable = new ByteStringInternTable<>(16);
+        final ByteStringInternTable<AMQShortString> original = AMQShortString.setInternTable(internTable);
         try
         {
             AMQShortString string = AMQShortString.createAMQShortString("hello");
@@ -177,14 +175,35 @@ public class AMQShortStringTest extends UnitTestBase
 
             assertEquals(str1, str2);
             assertSame(str1, str2);
+            assertSame("Unexpected interned string", str1, AMQShortString.createAMQShortString("hello"));
+            assertEquals("Unexpected hit count", 1, internTable.getHitCount());
+            assertEquals("Unexpected miss count", 1, internTable.getMissCount());
         }
         finally
         {
-            cache.cleanUp();
-            AMQShortString.setShortStringCache(original);
+            AMQShortString.setInternTable(original);
         }
     }
 
+    @Test
+    public void testReadWithoutInternTable()
+    {
+        assertNull("Unexpected intern table", AMQShortString.getInternTable());
+
+        AMQShortString string = AMQShortString.createAMQShortString("hello");
+        QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(2 * (string.length() + 1));
+        string.writeToBuffer(qpidByteBuffer);
+        string.writeToBuffer(qpidByteBuffer);
+        qpidByteBuffer.flip();
+
+        AMQShortString str1 = AMQShortString.readAMQShortString(qpidByteBuffer);
+        AMQShortString str2 = AMQShortString.readAMQShortString(qpidByteBuffer);
+
+        assertEquals(str1, str2);
+        assertNotSame(str1, str2);
+        assertEquals("Unexpected remaining bytes", 0, qpidByteBuffer.remaining());
+    }
+
     /**
      * A helper method to generate a string with given length containing given
      * character
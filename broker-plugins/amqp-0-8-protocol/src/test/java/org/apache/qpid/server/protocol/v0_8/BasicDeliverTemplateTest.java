@@ -0,0 +1,108 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQBody;
+import org.apache.qpid.server.protocol.v0_8.transport.AMQMethodBody;
+import org.apache.qpid.server.protocol.v0_8.transport.BasicDeliverBody;
+import org.apache.qpid.server.transport.ByteBufferSender;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class BasicDeliverTemplateTest extends UnitTestBase
+{
+    private static final AMQShortString CONSUMER_TAG = AMQShortString.valueOf("sgen_1");
+    private static final AMQShortString EXCHANGE = AMQShortString.valueOf("amq.direct");
+    private static final AMQShortString ROUTING_KEY = AMQShortString.valueOf("queue");
+
+    @Test
+    public void testEncodingMatchesBasicDeliverBody()
+    {
+        final BasicDeliverTemplate template = new BasicDeliverTemplate(CONSUMER_TAG);
+
+        assertEncodingMatches(template, 1L, false, EXCHANGE, ROUTING_KEY);
+        assertEncodingMatches(template, 2L, true, EXCHANGE, ROUTING_KEY);
+        assertEncodingMatches(template, Long.MAX_VALUE, false, EXCHANGE, AMQShortString.valueOf("other"));
+        assertEncodingMatches(template, 3L, false, null, ROUTING_KEY);
+        assertEncodingMatches(template, 4L, true, EXCHANGE, null);
+    }
+
+    @Test
+    public void testEncodingWithoutConsumerTag()
+    {
+        assertEncodingMatches(new BasicDeliverTemplate(null), 1L, false, EXCHANGE, ROUTING_KEY);
+    }
+
+    private void assertEncodingMatches(final BasicDeliverTemplate template,
+                                       final long deliveryTag,
+                                       final boolean redelivered,
+                                       final AMQShortString exchange,
+                                       final AMQShortString routingKey)
+    {
+        final AMQBody expected =
+                new BasicDeliverBody(template.getConsumerTag(), deliveryTag, redelivered, exchange, routingKey);
+        final AMQBody actual = template.createBody(deliveryTag, redelivered, exchange, routingKey);
+
+        assertEquals("Unexpected frame type", AMQMethodBody.TYPE, actual.getFrameType());
+        assertEquals("Unexpected size", expected.getSize(), actual.getSize());
+        assertArrayEquals("Unexpected encoding", encode(expected), encode(actual));
+    }
+
+    private byte[] encode(final AMQBody body)
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final long written = body.writePayload(new ByteBufferSender()
+        {
+            @Override
+            public boolean isDirectBufferPreferred()
+            {
+                return false;
+            }
+
+            @Override
+            public void send(final QpidByteBuffer msg)
+            {
+                final byte[] data = new byte[msg.remaining()];
+                msg.get(data);
+                output.write(data, 0, data.length);
+            }
+
+            @Override
+            public void flush()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        });
+        assertEquals("Unexpected number of bytes written", output.size(), written);
+        return output.toByteArray();
+    }
+}
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.protocol.v0_8;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -546,6 +547,77 @@ public class FieldTableTest extends UnitTestBase
         assertTrue("Expected key is not found", fieldTable.containsKey("testKey"));
     }
 
+    @Test
+    public void testIndexedLookupOfEncodedFieldTable()
+    {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++)
+        {
+            map.put("key" + i, i);
+        }
+        map.put("str", "value");
+        map.put("\u00e9t\u00e9", "summer");
+        map.put("nested", Collections.singletonMap("inner", true));
+
+        final FieldTable fieldTable = encodeAndDecode(new FieldTable(map));
+
+        assertTrue("Expected key is not found", fieldTable.containsKey("key42"));
+        assertEquals("Unexpected value", 42, fieldTable.get("key42"));
+        assertEquals("Unexpected value", "value", fieldTable.get("str"));
+        assertEquals("Unexpected value", "summer", fieldTable.get("\u00e9t\u00e9"));
+        assertTrue("Unexpected nested table", fieldTable.get("nested") instanceof FieldTable);
+        assertEquals("Unexpected nested value", true, ((FieldTable) fieldTable.get("nested")).get("inner"));
+        assertNull("Unexpected value for absent key", fieldTable.get("key50"));
+        assertFalse("Unexpected key found", fieldTable.containsKey("key4x"));
+        assertEquals("Unexpected size", map.size(), fieldTable.size());
+
+        assertEquals("Unexpected keys", map.keySet(), fieldTable.keys());
+        assertTrue("Expected key is not found after decode", fieldTable.containsKey("key0"));
+    }
+
+    @Test
+    public void testIndexedLookupWithDuplicateKeys()
+    {
+        final byte[] first = new FieldTable(Collections.singletonMap("dup", 1)).getDataAsBytes();
+        final byte[] second = new FieldTable(Collections.singletonMap("dup", 2)).getDataAsBytes();
+        final byte[] other = new FieldTable(Collections.singletonMap("other", 3)).getDataAsBytes();
+        final QpidByteBuffer buf = QpidByteBuffer.allocate(first.length + second.length + other.length);
+        buf.put(first);
+        buf.put(second);
+        buf.put(other);
+        buf.flip();
+
+        final FieldTable fieldTable = FieldTableFactory.createFieldTable(buf);
+        assertEquals("Unexpected size", 2, fieldTable.size());
+        assertEquals("First instance of a duplicate key should be used", 1, fieldTable.get("dup"));
+        assertEquals("Unexpected value", 3, fieldTable.get("other"));
+    }
+
+    @Test
+    public void testContainsKeyOfMalformedFieldTable()
+    {
+        final FieldTable fieldTable = buildMalformedFieldTable();
+
+        try
+        {
+            fieldTable.containsKey("key");
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException e)
+        {
+            // pass
+        }
+    }
+
+    private FieldTable encodeAndDecode(final FieldTable ft)
+    {
+        final QpidByteBuffer buf = QpidByteBuffer.allocate((int) ft.getEncodedSize() + Integer.BYTES);
+        ft.writeToBuffer(buf);
+        buf.flip();
+        buf.position(Integer.BYTES);
+        return new FieldTable(buf);
+    }
+
     private FieldTable buildMalformedFieldTable()
     {
         final QpidByteBuffer buf = QpidByteBuffer.allocate(1);
@@ -21,16 +21,25 @@
 package org.apache.qpid.server.protocol.v0_8;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
 import org.junit.Test;
 
+import org.apache.qpid.server.consumer.ConsumerTarget;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.message.ServerMessage;
@@ -85,6 +94,85 @@ public class UnacknowledgedMessageMapTest extends UnitTestBase
 
     }
 
+    @Test
+    public void testAcknowledgeMultipleRestoresCreditOncePerTarget()
+    {
+        final CreditRestorer creditRestorer = mock(CreditRestorer.class);
+        final ConsumerTarget target = mock(ConsumerTarget.class);
+        when(_consumer.getTarget()).thenReturn(target);
+        final UnacknowledgedMessageMap map = new UnacknowledgedMessageMapImpl(100, creditRestorer);
+        final MessageInstance[] msgs = populateMap(map, 1000);
+
+        final Collection<MessageConsumerAssociation> acknowledged = map.acknowledge(599, true);
+
+        assertEquals("Unexpected number of acknowledged messages", 600, acknowledged.size());
+        assertEquals("Unexpected size", 400, map.size());
+        assertNull("Unexpected message", map.get(599));
+        assertSame("Unexpected message", msgs[600], map.get(600));
+        verify(creditRestorer).restoreCredit(target, 600, 0L);
+        verifyNoMoreInteractions(creditRestorer);
+    }
+
+    @Test
+    public void testAcknowledgeMultipleAfterSingleAcknowledgements()
+    {
+        final UnacknowledgedMessageMap map = new UnacknowledgedMessageMapImpl(100, mock(CreditRestorer.class));
+        final MessageInstance[] msgs = populateMap(map, 10);
+
+        assertEquals("Unexpected number of acknowledged messages", 1, map.acknowledge(0, false).size());
+        assertEquals("Unexpected number of acknowledged messages", 1, map.acknowledge(5, false).size());
+        assertTrue("Unexpected acknowledgement", map.acknowledge(5, false).isEmpty());
+
+        final Collection<MessageInstance> acknowledged =
+                Collections2.transform(map.acknowledge(6, true), MESSAGE_INSTANCE_FUNCTION);
+        assertEquals("Unexpected acknowledged messages",
+                     Arrays.asList(msgs[1], msgs[2], msgs[3], msgs[4], msgs[6]),
+                     new ArrayList<>(acknowledged));
+        assertEquals("Unexpected size", 3, map.size());
+
+        assertEquals("Unexpected number of acknowledged messages", 3, map.acknowledge(0, true).size());
+        assertEquals("Unexpected size", 0, map.size());
+    }
+
+    @Test
+    public void testDeliveriesBeyondMaximumRingCapacity()
+    {
+        final UnacknowledgedMessageMap map = new UnacknowledgedMessageMapImpl(100, mock(CreditRestorer.class), 64);
+        final MessageInstance[] msgs = populateMap(map, 1000);
+        for (int i = 1; i < 900; i++)
+        {
+            assertNotNull("Message " + i + " not removed", map.remove(i, true));
+        }
+
+        assertEquals("Unexpected size", 101, map.size());
+        assertSame("Unexpected message", msgs[0], map.get(0));
+        assertSame("Unexpected message", msgs[950], map.get(950));
+
+        final List<Long> visited = new ArrayList<>();
+        map.visit(new UnacknowledgedMessageMap.Visitor()
+        {
+            @Override
+            public boolean callback(final long deliveryTag, final MessageConsumerAssociation messageConsumerPair)
+            {
+                assertSame("Unexpected message", msgs[(int) deliveryTag], messageConsumerPair.getMessageInstance());
+                visited.add(deliveryTag);
+                return false;
+            }
+
+            @Override
+            public void visitComplete()
+            {
+            }
+        });
+        assertEquals("Unexpected number of visited deliveries", 101, visited.size());
+        assertEquals("Unexpected first visited delivery", 0L, (long) visited.get(0));
+        assertEquals("Unexpected second visited delivery", 900L, (long) visited.get(1));
+
+        assertEquals("Unexpected number of acknowledged messages", 51, map.acknowledge(949, true).size());
+        assertNull("Unexpected message", map.get(0));
+        assertEquals("Unexpected size", 50, map.size());
+    }
+
     public MessageInstance[] populateMap(final UnacknowledgedMessageMap map, int size)
     {
         MessageInstance[] msgs = new MessageInstance[size];
@@ -20,8 +20,10 @@
  */
 package org.apache.qpid.server.protocol.v0_8.transport;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -30,6 +32,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.AMQFrameDecodingException;
 import org.apache.qpid.server.protocol.v0_8.EncodingUtils;
 import org.apache.qpid.server.protocol.v0_8.FieldTable;
 import org.apache.qpid.server.protocol.v0_8.FieldTableFactory;
@@ -213,6 +216,128 @@ public class BasicContentHeaderPropertiesTest extends UnitTestBase
         assertEquals(clusterId, _testProperties.getClusterIdAsString());
     }
 
+    @Test
+    public void testPropertiesDecodedFromEncodedForm() throws Exception
+    {
+        populateProperties(_testProperties);
+        final byte[] encoded = encode(_testProperties);
+
+        final BasicContentHeaderProperties decoded = decode(encoded, _testProperties.getPropertyFlags());
+        try
+        {
+            assertArrayEquals("Unexpected encoded form", encoded, encode(decoded));
+            assertPropertiesEqual(_testProperties, decoded);
+            assertArrayEquals("Unexpected encoded form after decoding", encoded, encode(decoded));
+        }
+        finally
+        {
+            decoded.dispose();
+        }
+    }
+
+    @Test
+    public void testMutationOfPropertiesDecodedFromEncodedForm() throws Exception
+    {
+        populateProperties(_testProperties);
+
+        final BasicContentHeaderProperties decoded =
+                decode(encode(_testProperties), _testProperties.getPropertyFlags());
+        try
+        {
+            decoded.setPriority((byte) 9);
+            _testProperties.setPriority((byte) 9);
+
+            assertPropertiesEqual(_testProperties, decoded);
+            assertArrayEquals("Unexpected encoded form", encode(_testProperties), encode(decoded));
+
+            final BasicContentHeaderProperties copy =
+                    new BasicContentHeaderProperties(decode(encode(_testProperties), _testProperties.getPropertyFlags()));
+            assertPropertiesEqual(_testProperties, copy);
+        }
+        finally
+        {
+            decoded.dispose();
+        }
+    }
+
+    @Test
+    public void testMalformedEncodedForm()
+    {
+        final BasicContentHeaderProperties properties = new BasicContentHeaderProperties();
+        properties.setContentType("text/plain");
+        properties.setMessageId("ID:1");
+        final byte[] encoded = encode(properties);
+        encoded[encoded.length - 5] = (byte) 100;
+
+        try
+        {
+            decode(encoded, properties.getPropertyFlags());
+            fail("Exception not thrown");
+        }
+        catch (AMQFrameDecodingException e)
+        {
+            // pass
+        }
+    }
+
+    private void populateProperties(final BasicContentHeaderProperties properties)
+    {
+        properties.setContentType("text/plain");
+        properties.setEncoding("utf-8");
+        properties.setDeliveryMode(BasicContentHeaderProperties.PERSISTENT);
+        properties.setPriority((byte) 4);
+        properties.setCorrelationId("correlationId");
+        properties.setReplyTo("replyTo");
+        properties.setExpiration(1234567890123L);
+        properties.setMessageId("messageId");
+        properties.setTimestamp(1234567890000L);
+        properties.setType("type");
+        properties.setUserId("userId");
+        properties.setAppId("appId");
+        properties.setClusterId("clusterId");
+    }
+
+    private void assertPropertiesEqual(final BasicContentHeaderProperties expected,
+                                       final BasicContentHeaderProperties actual)
+    {
+        assertEquals("Unexpected property flags", expected.getPropertyFlags(), actual.getPropertyFlags());
+        assertEquals("Unexpected content type", expected.getContentType(), actual.getContentType());
+        assertEquals("Unexpected encoding", expected.getEncoding(), actual.getEncoding());
+        assertEquals("Unexpected headers",
+                     FieldTable.convertToMap(expected.getHeaders()),
+                     FieldTable.convertToMap(actual.getHeaders()));
+        assertEquals("Unexpected delivery mode", expected.getDeliveryMode(), actual.getDeliveryMode());
+        assertEquals("Unexpected priority", expected.getPriority(), actual.getPriority());
+        assertEquals("Unexpected correlation id", expected.getCorrelationId(), actual.getCorrelationId());
+        assertEquals("Unexpected reply to", expected.getReplyTo(), actual.getReplyTo());
+        assertEquals("Unexpected expiration", expected.getExpiration(), actual.getExpiration());
+        assertEquals("Unexpected message id", expected.getMessageId(), actual.getMessageId());
+        assertEquals("Unexpected timestamp", expected.getTimestamp(), actual.getTimestamp());
+        assertEquals("Unexpected type", expected.getType(), actual.getType());
+        assertEquals("Unexpected user id", expected.getUserId(), actual.getUserId());
+        assertEquals("Unexpected app id", expected.getAppId(), actual.getAppId());
+        assertEquals("Unexpected cluster id", expected.getClusterId(), actual.getClusterId());
+    }
+
+    private byte[] encode(final BasicContentHeaderProperties properties)
+    {
+        final byte[] encoded = new byte[properties.getPropertyListSize()];
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(encoded))
+        {
+            properties.writePropertyListPayload(buffer);
+        }
+        return encoded;
+    }
+
+    private BasicContentHeaderProperties decode(final byte[] encoded, final int propertyFlags)
+            throws AMQFrameDecodingException
+    {
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(encoded))
+        {
+            return new BasicContentHeaderProperties(buffer, propertyFlags, encoded.length);
+        }
+    }
+
     private static final int BUFFER_SIZE = 1024 * 10;
     private static final int POOL_SIZE = 20;
     private static final double SPARSITY_FRACTION = 0.5;
@@ -50,6 +50,24 @@ public interface AMQPConnection_1_0<C extends AMQPConnection_1_0<C>> extends AMQ
     @ManagedContextDefault(name = SEND_SASL_FINAL_CHALLENGE_AS_CHALLENGE)
     boolean DEFAULT_SEND_SASL_FINAL_CHALLENGE_AS_CHALLENGE = false;
 
+    String CONNECTION_SESSION_MAX_BATCHED_DISPOSITIONS = "connection.sessionMaxBatchedDispositions";
+    @ManagedContextDefault(name = CONNECTION_SESSION_MAX_BATCHED_DISPOSITIONS,
+                           description = "Maximum number of delivery outcomes a session holds back in order to"
+                                         + " coalesce them into ranged dispositions before sending them.")
+    int DEFAULT_CONNECTION_SESSION_MAX_BATCHED_DISPOSITIONS = 1024;
+
+    String CONNECTION_SESSION_MAX_DISPOSITION_HOLD_TIME = "connection.sessionMaxDispositionHoldTime";
+    @ManagedContextDefault(name = CONNECTION_SESSION_MAX_DISPOSITION_HOLD_TIME,
+                           description = "Maximum time, in milliseconds, for which a session holds back delivery"
+                                         + " outcomes in order to coalesce them into ranged dispositions.")
+    long DEFAULT_CONNECTION_SESSION_MAX_DISPOSITION_HOLD_TIME = 10L;
+
+    String CONNECTION_DECODER_INTERN_TABLE_SIZE = "connection.decoderInternTableSize";
+    @ManagedContextDefault(name = CONNECTION_DECODER_INTERN_TABLE_SIZE,
+                           description = "Number of entries in each of the tables a connection uses to intern the"
+                                         + " strings and symbols it decodes.  Zero disables interning.")
+    int DEFAULT_CONNECTION_DECODER_INTERN_TABLE_SIZE = 512;
+
     Symbol ANONYMOUS_RELAY = Symbol.valueOf("ANONYMOUS-RELAY");
     Symbol SHARED_SUBSCRIPTIONS = Symbol.valueOf("SHARED-SUBS");
 
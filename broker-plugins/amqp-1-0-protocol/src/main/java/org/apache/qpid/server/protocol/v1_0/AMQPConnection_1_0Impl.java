@@ -1427,7 +1427,10 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
 
     private FrameHandler getFrameHandler(final boolean sasl)
     {
-        return new FrameHandler(new ValueHandler(this.getDescribedTypeRegistry()), this, sasl);
+        final Integer internTableSize = getContextValue(Integer.class, AMQPConnection_1_0.CONNECTION_DECODER_INTERN_TABLE_SIZE);
+        final ValueHandler valueHandler = new ValueHandler(this.getDescribedTypeRegistry(),
+                                                           internTableSize == null ? 0 : internTableSize);
+        return new FrameHandler(valueHandler, this, sasl);
     }
 
 
@@ -309,9 +309,14 @@ public abstract class AbstractReceivingLinkEndpoint<T extends BaseTarget> extend
                            final DeliveryState state,
                            final boolean settled)
     {
-
-        final Set<Binary> unsettledKeys = new HashSet<>(_unsettled.keySet());
-        unsettledKeys.retainAll(deliveryTags);
+        final Set<Binary> unsettledKeys = new HashSet<>();
+        for (final Binary deliveryTag : deliveryTags)
+        {
+            if (_unsettled.containsKey(deliveryTag))
+            {
+                unsettledKeys.add(deliveryTag);
+            }
+        }
         final int settledDeliveryCount = deliveryTags.size() - unsettledKeys.size();
 
         if (!unsettledKeys.isEmpty())
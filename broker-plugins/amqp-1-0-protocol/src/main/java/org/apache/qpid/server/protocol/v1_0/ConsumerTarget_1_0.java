@@ -186,44 +186,16 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
 
                 headerSection = header.createEncodingRetainingSection();
             }
+            // only the header may have been re-encoded: the remaining sections and the body are views of the
+            // stored encoding, which is neither decoded nor copied
             List<QpidByteBuffer> payload = new ArrayList<>();
-            if(headerSection != null)
-            {
-                payload.add(headerSection.getEncodedForm());
-                headerSection.dispose();
-            }
-            EncodingRetainingSection<?> section;
-            if((section = message.getDeliveryAnnotationsSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
-            if((section = message.getMessageAnnotationsSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
-            if((section = message.getPropertiesSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
-            if((section = message.getApplicationPropertiesSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
-
+            addEncodedForm(payload, headerSection);
+            addEncodedForm(payload, message.getDeliveryAnnotationsSection());
+            addEncodedForm(payload, message.getMessageAnnotationsSection());
+            addEncodedForm(payload, message.getPropertiesSection());
+            addEncodedForm(payload, message.getApplicationPropertiesSection());
             payload.add(bodyContent);
-
-            if((section = message.getFooterSection()) != null)
-            {
-                payload.add(section.getEncodedForm());
-                section.dispose();
-            }
+            addEncodedForm(payload, message.getFooterSection());
 
             try (QpidByteBuffer combined = QpidByteBuffer.concatenate(payload))
             {
@@ -358,6 +330,15 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
         }
     }
 
+    private static void addEncodedForm(final List<QpidByteBuffer> payload, final EncodingRetainingSection<?> section)
+    {
+        if (section != null)
+        {
+            payload.add(section.getEncodedForm());
+            section.dispose();
+        }
+    }
+
     @Override
     public void flushBatched()
     {
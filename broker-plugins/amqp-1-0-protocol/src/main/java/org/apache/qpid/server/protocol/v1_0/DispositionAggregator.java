@@ -0,0 +1,139 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.qpid.server.protocol.v1_0.type.DeliveryState;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+
+/**
+ * Collects the outcomes of incoming deliveries so that they can be sent to the peer as few dispositions as possible.
+ * <p>
+ * On flush the collected outcomes are ordered by delivery id (as serial numbers) and contiguous runs of deliveries
+ * sharing the same state and settlement are sent as a single ranged disposition.  Outcomes recorded for the same
+ * delivery id are sent in the order in which they were added.
+ */
+class DispositionAggregator
+{
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] _deliveryIds = new int[INITIAL_CAPACITY];
+    private DeliveryState[] _states = new DeliveryState[INITIAL_CAPACITY];
+    private boolean[] _settled = new boolean[INITIAL_CAPACITY];
+    private long[] _order = new long[INITIAL_CAPACITY];
+    private int _size;
+
+    void add(final int deliveryId, final DeliveryState state, final boolean settled)
+    {
+        if (_size == _deliveryIds.length)
+        {
+            final int capacity = _size << 1;
+            _deliveryIds = Arrays.copyOf(_deliveryIds, capacity);
+            _states = Arrays.copyOf(_states, capacity);
+            _settled = Arrays.copyOf(_settled, capacity);
+            _order = new long[capacity];
+        }
+        _deliveryIds[_size] = deliveryId;
+        _states[_size] = state;
+        _settled[_size] = settled;
+        _size++;
+    }
+
+    int size()
+    {
+        return _size;
+    }
+
+    boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    /**
+     * Passes the collected outcomes to the given sender as ranges, and empties the aggregator.
+     *
+     * @return the number of ranges sent
+     */
+    int flush(final DispositionSender sender)
+    {
+        final int size = _size;
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        // sort on the id relative to the first id (so that ids wrapping around 2^32 keep their order) and then on
+        // the position at which the outcome was added
+        final int base = _deliveryIds[0];
+        for (int i = 0; i < size; i++)
+        {
+            _order[i] = ((long) (_deliveryIds[i] - base) << 32) | i;
+        }
+        Arrays.sort(_order, 0, size);
+
+        int ranges = 0;
+        try
+        {
+            int start = (int) _order[0];
+            int end = start;
+            for (int i = 1; i < size; i++)
+            {
+                final int index = (int) _order[i];
+                if (_deliveryIds[index] == _deliveryIds[end] + 1
+                    && _settled[index] == _settled[start]
+                    && Objects.equals(_states[index], _states[start]))
+                {
+                    end = index;
+                }
+                else
+                {
+                    send(sender, start, end);
+                    ranges++;
+                    start = index;
+                    end = index;
+                }
+            }
+            send(sender, start, end);
+            ranges++;
+        }
+        finally
+        {
+            Arrays.fill(_states, 0, size, null);
+            _size = 0;
+        }
+        return ranges;
+    }
+
+    private void send(final DispositionSender sender, final int start, final int end)
+    {
+        sender.send(UnsignedInteger.valueOf(_deliveryIds[start]),
+                    UnsignedInteger.valueOf(_deliveryIds[end]),
+                    _states[start],
+                    _settled[start]);
+    }
+
+    interface DispositionSender
+    {
+        void send(UnsignedInteger first, UnsignedInteger last, DeliveryState state, boolean settled);
+    }
+}
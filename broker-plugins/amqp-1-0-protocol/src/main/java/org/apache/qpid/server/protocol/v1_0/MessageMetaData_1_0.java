@@ -368,7 +368,13 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
     public HeaderSection getHeaderSection()
     {
-        return _headerSection == null ? null : _headerSection.copy();
+        if (_headerSection == null)
+        {
+            return null;
+        }
+        // the header is small and consulted on every delivery so its value is decoded once and shared by the copies
+        _headerSection.getValue();
+        return _headerSection.copy();
     }
 
     public DeliveryAnnotationsSection getDeliveryAnnotationsSection()
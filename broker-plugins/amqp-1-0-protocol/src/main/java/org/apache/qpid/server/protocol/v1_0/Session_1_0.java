@@ -33,16 +33,14 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.security.auth.Subject;
 
@@ -112,7 +110,7 @@ import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 
 public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget_1_0>
-        implements LogSubject, org.apache.qpid.server.util.Deletable<Session_1_0>
+        implements AMQPSession_1_0<Session_1_0>, LogSubject, org.apache.qpid.server.util.Deletable<Session_1_0>
 {
     static final Symbol DELAYED_DELIVERY = Symbol.valueOf("DELAYED_DELIVERY");
     static final Symbol SHARED_CAPABILITY = Symbol.getSymbol("shared");
@@ -150,6 +148,15 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
     private final DeliveryRegistry _outgoingDeliveryRegistry = new DeliveryRegistryImpl();
     private final DeliveryRegistry _incomingDeliveryRegistry = new DeliveryRegistryImpl();
 
+    private final DispositionAggregator _incomingDispositions = new DispositionAggregator();
+    private final DispositionAggregator _outgoingDispositions = new DispositionAggregator();
+    private final int _maxBatchedDispositions;
+    private final long _maxDispositionHoldTimeNanos;
+    private int _dispositionBatchDepth;
+    private long _dispositionsHeldSince;
+    private final AtomicLong _dispositionsSent = new AtomicLong();
+    private final AtomicLong _deliveriesSettled = new AtomicLong();
+
     private final Error _sessionEndedLinkError =
             new Error(LinkError.DETACH_FORCED,
                       "Force detach the link because the session is remotely ended.");
@@ -170,6 +177,16 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         _connection = connection;
         _primaryDomain = getPrimaryDomain();
         _incomingWindow = UnsignedInteger.valueOf(incomingWindow);
+        final Integer maxBatchedDispositions =
+                connection.getContextValue(Integer.class, AMQPConnection_1_0.CONNECTION_SESSION_MAX_BATCHED_DISPOSITIONS);
+        _maxBatchedDispositions = maxBatchedDispositions == null
+                ? AMQPConnection_1_0.DEFAULT_CONNECTION_SESSION_MAX_BATCHED_DISPOSITIONS
+                : maxBatchedDispositions;
+        final Long maxDispositionHoldTime =
+                connection.getContextValue(Long.class, AMQPConnection_1_0.CONNECTION_SESSION_MAX_DISPOSITION_HOLD_TIME);
+        _maxDispositionHoldTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxDispositionHoldTime == null
+                ? AMQPConnection_1_0.DEFAULT_CONNECTION_SESSION_MAX_DISPOSITION_HOLD_TIME
+                : maxDispositionHoldTime);
 
         AccessController.doPrivileged((new PrivilegedAction<Object>()
         {
@@ -233,20 +250,37 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
 
         disposition.setState(state);
 
+        int settledDeliveries = 0;
         if (settled)
         {
             final DeliveryRegistry deliveryRegistry = role == Role.RECEIVER ? _incomingDeliveryRegistry : _outgoingDeliveryRegistry;
 
-            SequenceNumber pos = new SequenceNumber(first.intValue());
-            SequenceNumber end = new SequenceNumber(last.intValue());
-            while (pos.compareTo(end) <= 0)
+            final int unsettledDeliveries = deliveryRegistry.size();
+            deliveryRegistry.removeDeliveries(first, last);
+            settledDeliveries = unsettledDeliveries - deliveryRegistry.size();
+        }
+
+        _connection.sendFrame(_sendingChannel, disposition);
+        if (role == Role.RECEIVER)
+        {
+            _dispositionsSent.incrementAndGet();
+            if (settledDeliveries > 0)
             {
-                deliveryRegistry.removeDelivery(UnsignedInteger.valueOf(pos.intValue()));
-                pos.incr();
+                _deliveriesSettled.addAndGet(settledDeliveries);
             }
         }
+    }
+
+    @Override
+    public long getDispositionsSent()
+    {
+        return _dispositionsSent.get();
+    }
 
-        send(disposition);
+    @Override
+    public long getDeliveriesSettled()
+    {
+        return _deliveriesSettled.get();
     }
 
     void updateDisposition(final LinkEndpoint<?,?> linkEndpoint,
@@ -255,6 +289,7 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
                            final boolean settled)
     {
         final UnsignedInteger deliveryId = getDeliveryId(deliveryTag, linkEndpoint);
+        flushHeldDispositions();
         updateDisposition(linkEndpoint.getRole(), deliveryId, deliveryId, state, settled);
     }
 
@@ -271,14 +306,6 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         return deliveryId;
     }
 
-    private SortedSet<UnsignedInteger> getDeliveryIds(final Set<Binary> deliveryTags, final LinkEndpoint<?, ?> linkEndpoint)
-    {
-        final DeliveryRegistry deliveryRegistry = getDeliveryRegistry(linkEndpoint.getRole());
-        return deliveryTags.stream()
-                           .map(deliveryTag -> getDeliveryId(deliveryRegistry, deliveryTag, linkEndpoint))
-                           .collect(Collectors.toCollection(TreeSet::new));
-    }
-
     private UnsignedInteger getDeliveryId(final Binary deliveryTag, final LinkEndpoint<?, ?> linkEndpoint)
     {
         final DeliveryRegistry deliveryRegistry = getDeliveryRegistry(linkEndpoint.getRole());
@@ -290,32 +317,69 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         return role == Role.RECEIVER ? getIncomingDeliveryRegistry() : getOutgoingDeliveryRegistry();
     }
 
+    /**
+     * Sends the outcome of the given deliveries as ranged dispositions.  Whilst incoming frames are being processed
+     * the outcomes of incoming deliveries are held back, so that those of deliveries on all links of the session
+     * are coalesced, until processing completes or the maximum number of held outcomes or the maximum hold time is
+     * reached.
+     */
     void updateDisposition(final LinkEndpoint<?,?> linkEndpoint,
                            final Set<Binary> deliveryTags,
                            final DeliveryState state,
                            final boolean settled)
     {
         final Role role = linkEndpoint.getRole();
-        final Iterator<UnsignedInteger> iterator = getDeliveryIds(deliveryTags, linkEndpoint).iterator();
-        if (iterator.hasNext())
+        final DeliveryRegistry deliveryRegistry = getDeliveryRegistry(role);
+        final DispositionAggregator dispositions = role == Role.RECEIVER ? _incomingDispositions : _outgoingDispositions;
+        if (role == Role.RECEIVER && _incomingDispositions.isEmpty())
         {
-            UnsignedInteger begin = iterator.next();
-            UnsignedInteger end = begin;
-            while (iterator.hasNext())
-            {
-                final UnsignedInteger deliveryId = iterator.next();
-                if (!end.add(UnsignedInteger.ONE).equals(deliveryId))
-                {
-                    updateDisposition(role, begin, end, state, settled);
-                    begin = deliveryId;
-                    end = begin;
-                }
-                else
-                {
-                    end = deliveryId;
-                }
-            }
-            updateDisposition(role, begin, end, state, settled);
+            _dispositionsHeldSince = System.nanoTime();
+        }
+        for (Binary deliveryTag : deliveryTags)
+        {
+            dispositions.add(getDeliveryId(deliveryRegistry, deliveryTag, linkEndpoint).intValue(), state, settled);
+        }
+
+        if (role != Role.RECEIVER
+            || _dispositionBatchDepth == 0
+            || dispositions.size() >= _maxBatchedDispositions
+            || isDispositionHoldTimeExceeded())
+        {
+            flushHeldDispositions();
+            dispositions.flush((first, last, deliveryState, deliverySettled) ->
+                                       updateDisposition(role, first, last, deliveryState, deliverySettled));
+        }
+    }
+
+    private void beginDispositionBatch()
+    {
+        _dispositionBatchDepth++;
+    }
+
+    private void endDispositionBatch()
+    {
+        if (--_dispositionBatchDepth == 0)
+        {
+            flushHeldDispositions();
+        }
+    }
+
+    private boolean isDispositionHoldTimeExceeded()
+    {
+        return !_incomingDispositions.isEmpty()
+               && System.nanoTime() - _dispositionsHeldSince >= _maxDispositionHoldTimeNanos;
+    }
+
+    /**
+     * Sends the held outcomes of incoming deliveries.  Called before any other frame is sent on the session so
+     * that the peer never sees a disposition after a later detach, end or transfer.
+     */
+    private void flushHeldDispositions()
+    {
+        if (!_incomingDispositions.isEmpty())
+        {
+            _incomingDispositions.flush((first, last, state, settled) ->
+                                                updateDisposition(Role.RECEIVER, first, last, state, settled));
         }
     }
 
@@ -333,6 +397,7 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
 
     void sendTransfer(final Transfer xfr, final SendingLinkEndpoint endpoint)
     {
+        flushHeldDispositions();
         _nextOutgoingId.incr();
         final boolean settled = Boolean.TRUE.equals(xfr.getSettled());
         UnsignedInteger deliveryId = UnsignedInteger.valueOf(_nextOutgoingDeliveryId++);
@@ -393,7 +458,7 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
                 _sessionState = SessionState.END_RECVD;
                 detachLinks();
                 remoteEnd(end);
-                _connection.sendEnd(_sendingChannel, new End(), true);
+                sendEnd(new End(), true);
                 _sessionState = SessionState.ENDED;
                 break;
             default:
@@ -402,7 +467,7 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
                 error.setCondition(AmqpError.ILLEGAL_STATE);
                 error.setDescription("END called on Session which has not been opened");
                 reply.setError(error);
-                _connection.sendEnd(_sendingChannel, reply, true);
+                sendEnd(reply, true);
                 break;
         }
     }
@@ -505,33 +570,20 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
             unsettledDeliveries = _incomingDeliveryRegistry;
         }
 
-        SequenceNumber deliveryId = new SequenceNumber(disposition.getFirst().intValue());
-        SequenceNumber last;
-        if(disposition.getLast() == null)
-        {
-            last = new SequenceNumber(deliveryId.intValue());
-        }
-        else
-        {
-            last = new SequenceNumber(disposition.getLast().intValue());
-        }
+        final UnsignedInteger first = disposition.getFirst();
+        final UnsignedInteger last = disposition.getLast() == null ? first : disposition.getLast();
+        final DeliveryState state = disposition.getState();
+        final Boolean settled = disposition.getSettled();
 
-        while(deliveryId.compareTo(last)<=0)
+        unsettledDeliveries.visitDeliveries(first, last, (deliveryId, unsettledDelivery) ->
         {
-            UnsignedInteger deliveryIdUnsigned = UnsignedInteger.valueOf(deliveryId.intValue());
-            UnsettledDelivery unsettledDelivery = unsettledDeliveries.getDelivery(deliveryIdUnsigned);
-
-            if(unsettledDelivery != null)
+            LinkEndpoint<?,?> linkEndpoint  = unsettledDelivery.getLinkEndpoint();
+            linkEndpoint.receiveDeliveryState(unsettledDelivery.getDeliveryTag(), state, settled);
+            if (Boolean.TRUE.equals(settled))
             {
-                LinkEndpoint<?,?> linkEndpoint  = unsettledDelivery.getLinkEndpoint();
-                linkEndpoint.receiveDeliveryState(unsettledDelivery.getDeliveryTag(), disposition.getState(), disposition.getSettled());
-                if (Boolean.TRUE.equals(disposition.getSettled()))
-                {
-                    unsettledDeliveries.removeDelivery(deliveryIdUnsigned);
-                }
+                unsettledDeliveries.removeDelivery(UnsignedInteger.valueOf(deliveryId));
             }
-            deliveryId.incr();
-        }
+        });
     }
 
     public SessionState getSessionState()
@@ -572,9 +624,16 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
 
     private void send(final FrameBody frameBody)
     {
+        flushHeldDispositions();
         _connection.sendFrame(_sendingChannel, frameBody);
     }
 
+    private void sendEnd(final End end, final boolean remove)
+    {
+        flushHeldDispositions();
+        _connection.sendEnd(_sendingChannel, end, remove);
+    }
+
     public boolean isSyntheticError(final Error error)
     {
         return error == _sessionEndedLinkError;
@@ -585,12 +644,12 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         switch (_sessionState)
         {
             case BEGIN_SENT:
-                _connection.sendEnd(_sendingChannel, end, false);
+                sendEnd(end, false);
                 _sessionState = SessionState.END_PIPE;
                 break;
             case ACTIVE:
                 detachLinks();
-                _connection.sendEnd(_sendingChannel, end, true);
+                sendEnd(end, true);
                 _sessionState = SessionState.END_SENT;
                 break;
             default:
@@ -599,7 +658,7 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
                 error.setCondition(AmqpError.ILLEGAL_STATE);
                 error.setDescription("END called on Session which has not been opened");
                 reply.setError(error);
-                _connection.sendEnd(_sendingChannel, reply, true);
+                sendEnd(reply, true);
                 break;
 
 
@@ -634,7 +693,15 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
         else
         {
             AbstractReceivingLinkEndpoint endpoint = ((AbstractReceivingLinkEndpoint) linkEndpoint);
-            endpoint.receiveTransfer(transfer);
+            beginDispositionBatch();
+            try
+            {
+                endpoint.receiveTransfer(transfer);
+            }
+            finally
+            {
+                endDispositionBatch();
+            }
         }
     }
 
@@ -1355,7 +1422,24 @@ public class Session_1_0 extends AbstractAMQPSession<Session_1_0, ConsumerTarget
 
     void receivedComplete()
     {
-        _associatedLinkEndpoints.forEach(linkedEnpoint -> linkedEnpoint.receiveComplete());
+        beginDispositionBatch();
+        try
+        {
+            _associatedLinkEndpoints.forEach(linkedEnpoint ->
+                                             {
+                                                 linkedEnpoint.receiveComplete();
+                                                 // completing a link may wait for its store commits, so do not
+                                                 // hold the outcomes of earlier links beyond the maximum hold time
+                                                 if (isDispositionHoldTimeExceeded())
+                                                 {
+                                                     flushHeldDispositions();
+                                                 }
+                                             });
+        }
+        finally
+        {
+            endDispositionBatch();
+        }
     }
 
     private class EndpointCreationCallback<T extends LinkEndpoint<? extends BaseSource, ? extends BaseTarget>> implements FutureCallback<T>
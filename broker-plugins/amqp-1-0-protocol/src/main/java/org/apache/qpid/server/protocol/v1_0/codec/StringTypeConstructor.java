@@ -22,22 +22,15 @@ package org.apache.qpid.server.protocol.v1_0.codec;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import java.nio.ByteBuffer;
-
-import com.google.common.cache.Cache;
-
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
 import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
-import org.apache.qpid.server.virtualhost.CacheFactory;
-import org.apache.qpid.server.virtualhost.NullCache;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
 
 public class StringTypeConstructor extends VariableWidthTypeConstructor<String>
 {
-    private static final NullCache<ByteBuffer, String> NULL_CACHE = new NullCache<>();
-
-    private static final ThreadLocal<Cache<ByteBuffer, String>> CACHE =
-            ThreadLocal.withInitial(() -> CacheFactory.getCache("stringCache", NULL_CACHE));
+    // longer strings (message bodies and the like) are unlikely to repeat, so are not interned
+    private static final int MAX_INTERNED_LENGTH = 256;
 
     public static StringTypeConstructor getInstance(int i)
     {
@@ -50,6 +43,11 @@ public class StringTypeConstructor extends VariableWidthTypeConstructor<String>
         super(size);
     }
 
+    static ByteStringInternTable<String> createInternTable(final int capacity)
+    {
+        return new ByteStringInternTable<>(capacity);
+    }
+
     @Override
     public String construct(final QpidByteBuffer in, final ValueHandler handler) throws AmqpErrorException
     {
@@ -74,26 +72,14 @@ public class StringTypeConstructor extends VariableWidthTypeConstructor<String>
             throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Cannot construct string: insufficient input data");
         }
 
-        byte[] data = new byte[size];
-        in.get(data);
-
-        ByteBuffer buffer = ByteBuffer.wrap(data);
-        String cached = getCache().getIfPresent(buffer);
-        if (cached == null)
+        final ByteStringInternTable<String> internTable = handler == null ? null : handler.getStringInternTable();
+        if (internTable != null && size <= MAX_INTERNED_LENGTH)
         {
-            cached = new String(data, UTF_8);
-            getCache().put(buffer, cached);
+            return internTable.intern(in, size, data -> new String(data, UTF_8));
         }
-        return cached;
-    }
-
-    static Cache<ByteBuffer, String> getCache()
-    {
-        return CACHE.get();
-    }
 
-    static void setCache(final Cache<ByteBuffer, String> cache)
-    {
-        CACHE.set(cache);
+        byte[] data = new byte[size];
+        in.get(data);
+        return new String(data, UTF_8);
     }
 }
@@ -28,10 +28,12 @@ import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
 import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
 
 public class SymbolTypeConstructor extends VariableWidthTypeConstructor<Symbol>
 {
     private static final Charset ASCII = Charset.forName("US-ASCII");
+    private static final int MAX_INTERNED_LENGTH = 256;
 
     private static final ConcurrentMap<BinaryString, Symbol> SYMBOL_MAP =
             new ConcurrentHashMap<>(2048);
@@ -47,6 +49,11 @@ public class SymbolTypeConstructor extends VariableWidthTypeConstructor<Symbol>
         super(size);
     }
 
+    static ByteStringInternTable<Symbol> createInternTable(final int capacity)
+    {
+        return new ByteStringInternTable<>(capacity);
+    }
+
     @Override
     public Symbol construct(final QpidByteBuffer in, final ValueHandler handler) throws AmqpErrorException
     {
@@ -72,8 +79,19 @@ public class SymbolTypeConstructor extends VariableWidthTypeConstructor<Symbol>
             throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Cannot construct symbol: insufficient input data");
         }
 
+        final ByteStringInternTable<Symbol> internTable = handler == null ? null : handler.getSymbolInternTable();
+        if (internTable != null && size <= MAX_INTERNED_LENGTH)
+        {
+            return internTable.intern(in, size, SymbolTypeConstructor::getSymbol);
+        }
+
         byte[] data = new byte[size];
         in.get(data);
+        return getSymbol(data);
+    }
+
+    private static Symbol getSymbol(final byte[] data)
+    {
         final BinaryString binaryStr = new BinaryString(data);
 
         Symbol symbolVal = SYMBOL_MAP.get(binaryStr);
@@ -22,14 +22,18 @@ package org.apache.qpid.server.protocol.v1_0.codec;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
 import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
 import org.apache.qpid.server.protocol.v1_0.type.transport.ConnectionError;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
 
 public class ValueHandler implements DescribedTypeConstructorRegistry.Source
 {
     public static final byte DESCRIBED_TYPE = (byte)0;
 
     private final DescribedTypeConstructorRegistry _describedTypeConstructorRegistry;
+    private final ByteStringInternTable<String> _stringInternTable;
+    private final ByteStringInternTable<Symbol> _symbolInternTable;
 
 
     private static final TypeConstructor[][] TYPE_CONSTRUCTORS =
@@ -77,8 +81,36 @@ public class ValueHandler implements DescribedTypeConstructorRegistry.Source
 
 
     public ValueHandler(DescribedTypeConstructorRegistry registry)
+    {
+        this(registry, 0);
+    }
+
+    /**
+     * Creates a value handler which interns decoded strings and symbols in tables of the given capacity.
+     */
+    public ValueHandler(DescribedTypeConstructorRegistry registry, int internTableCapacity)
     {
         _describedTypeConstructorRegistry = registry;
+        if (internTableCapacity > 0)
+        {
+            _stringInternTable = StringTypeConstructor.createInternTable(internTableCapacity);
+            _symbolInternTable = SymbolTypeConstructor.createInternTable(internTableCapacity);
+        }
+        else
+        {
+            _stringInternTable = null;
+            _symbolInternTable = null;
+        }
+    }
+
+    ByteStringInternTable<String> getStringInternTable()
+    {
+        return _stringInternTable;
+    }
+
+    ByteStringInternTable<Symbol> getSymbolInternTable()
+    {
+        return _symbolInternTable;
     }
 
 
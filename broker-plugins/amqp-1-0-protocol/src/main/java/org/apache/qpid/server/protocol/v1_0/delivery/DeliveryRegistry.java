@@ -32,4 +32,22 @@ public interface DeliveryRegistry
     void removeDeliveriesForLinkEndpoint(LinkEndpoint<?, ?> linkEndpoint);
     UnsignedInteger getDeliveryId(Binary deliveryTag, LinkEndpoint<?, ?> linkEndpoint);
     int size();
+
+    /**
+     * Passes each registered delivery whose id lies in the range first..last (inclusive, compared as serial
+     * numbers) to the visitor.  The cost is bounded by the number of registered deliveries rather than by the
+     * width of the range.  The visitor may add or remove deliveries.
+     */
+    void visitDeliveries(UnsignedInteger first, UnsignedInteger last, DeliveryVisitor visitor);
+
+    /**
+     * Removes all registered deliveries whose id lies in the range first..last (inclusive, compared as serial
+     * numbers).
+     */
+    void removeDeliveries(UnsignedInteger first, UnsignedInteger last);
+
+    interface DeliveryVisitor
+    {
+        void visit(int deliveryId, UnsettledDelivery unsettledDelivery);
+    }
 }
@@ -20,66 +20,436 @@
  */
 package org.apache.qpid.server.protocol.v1_0.delivery;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 
 import org.apache.qpid.server.protocol.v1_0.LinkEndpoint;
 import org.apache.qpid.server.protocol.v1_0.type.Binary;
 import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 
+/**
+ * Registry of the unsettled deliveries of a session.
+ * <p>
+ * Delivery ids are allocated sequentially, so the unsettled deliveries normally occupy a narrow window
+ * {@code [base, base + span)} of the id space.  They are held in a ring indexed by the low bits of the delivery id,
+ * which avoids boxing the id and allocating a map node per delivery, and lets a range of deliveries be settled by
+ * walking the part of the ring the range covers.  Should the window grow beyond the maximum ring capacity (for
+ * instance because one delivery is left unsettled whilst many later ones are settled) the oldest deliveries are
+ * moved to an overflow map.
+ * <p>
+ * The reverse mapping from delivery tag and link endpoint to delivery id is held in an open addressing table.
+ */
 public class DeliveryRegistryImpl implements DeliveryRegistry
 {
-    private final Map<UnsignedInteger, UnsettledDelivery> _deliveries = new ConcurrentHashMap<>();
-    private final Map<UnsettledDelivery, UnsignedInteger> _deliveryIds = new ConcurrentHashMap<>();
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int DEFAULT_MAX_RING_CAPACITY = 1 << 16;
 
-    @Override
-    public void addDelivery(final UnsignedInteger deliveryId, final UnsettledDelivery unsettledDelivery)
+    private final int _maxRingCapacity;
+
+    private UnsettledDelivery[] _ring = new UnsettledDelivery[INITIAL_CAPACITY];
+    private int _base;
+    private int _span;
+    private final Map<Integer, UnsettledDelivery> _overflow = new HashMap<>();
+    private volatile int _size;
+
+    private UnsettledDelivery[] _idTableKeys = new UnsettledDelivery[INITIAL_CAPACITY];
+    private int[] _idTableValues = new int[INITIAL_CAPACITY];
+    private int _idTableSize;
+
+    public DeliveryRegistryImpl()
     {
-        _deliveries.put(deliveryId, unsettledDelivery);
-        _deliveryIds.put(unsettledDelivery, deliveryId);
+        this(DEFAULT_MAX_RING_CAPACITY);
+    }
+
+    DeliveryRegistryImpl(final int maxRingCapacity)
+    {
+        _maxRingCapacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(maxRingCapacity));
     }
 
     @Override
-    public void removeDelivery(final UnsignedInteger deliveryId)
+    public synchronized void addDelivery(final UnsignedInteger deliveryId, final UnsettledDelivery unsettledDelivery)
     {
-        UnsettledDelivery unsettledDelivery = _deliveries.remove(deliveryId);
-        if (unsettledDelivery != null)
+        final int id = deliveryId.intValue();
+        remove(id);
+
+        if (_span == 0)
         {
-            _deliveryIds.remove(unsettledDelivery);
+            _base = id;
+            _span = 1;
         }
+        else
+        {
+            final int offset = id - _base;
+            if (offset < 0)
+            {
+                final long span = (long) _span - offset;
+                if (span > _maxRingCapacity)
+                {
+                    addToOverflow(id, unsettledDelivery);
+                    return;
+                }
+                ensureRingCapacity((int) span);
+                _base = id;
+                _span = (int) span;
+            }
+            else if (offset >= _span)
+            {
+                if (offset >= _maxRingCapacity)
+                {
+                    evictBefore(id - _maxRingCapacity + 1);
+                }
+                if (_span == 0)
+                {
+                    _base = id;
+                    _span = 1;
+                }
+                else
+                {
+                    ensureRingCapacity(id - _base + 1);
+                    _span = id - _base + 1;
+                }
+            }
+        }
+
+        _ring[id & (_ring.length - 1)] = unsettledDelivery;
+        addId(unsettledDelivery, id);
+        _size++;
     }
 
     @Override
-    public UnsettledDelivery getDelivery(final UnsignedInteger deliveryId)
+    public synchronized void removeDelivery(final UnsignedInteger deliveryId)
     {
-        return _deliveries.get(deliveryId);
+        remove(deliveryId.intValue());
     }
 
     @Override
-    public void removeDeliveriesForLinkEndpoint(final LinkEndpoint<?, ?> linkEndpoint)
+    public synchronized UnsettledDelivery getDelivery(final UnsignedInteger deliveryId)
     {
-        Iterator<UnsettledDelivery> iterator = _deliveries.values().iterator();
+        return get(deliveryId.intValue());
+    }
+
+    @Override
+    public synchronized void removeDeliveriesForLinkEndpoint(final LinkEndpoint<?, ?> linkEndpoint)
+    {
+        final int mask = _ring.length - 1;
+        final int base = _base;
+        final int span = _span;
+        for (int i = 0; i < span; i++)
+        {
+            final UnsettledDelivery unsettledDelivery = _ring[(base + i) & mask];
+            if (unsettledDelivery != null && unsettledDelivery.getLinkEndpoint() == linkEndpoint)
+            {
+                remove(base + i);
+            }
+        }
+
+        final Iterator<Map.Entry<Integer, UnsettledDelivery>> iterator = _overflow.entrySet().iterator();
         while (iterator.hasNext())
         {
-            UnsettledDelivery unsettledDelivery = iterator.next();
-            if (unsettledDelivery.getLinkEndpoint() == linkEndpoint)
+            final Map.Entry<Integer, UnsettledDelivery> entry = iterator.next();
+            if (entry.getValue().getLinkEndpoint() == linkEndpoint)
             {
                 iterator.remove();
-                _deliveryIds.remove(unsettledDelivery);
+                removeId(entry.getValue(), entry.getKey());
+                _size--;
             }
         }
     }
 
     @Override
-    public UnsignedInteger getDeliveryId(final Binary deliveryTag, final LinkEndpoint<?, ?> linkEndpoint)
+    public synchronized UnsignedInteger getDeliveryId(final Binary deliveryTag, final LinkEndpoint<?, ?> linkEndpoint)
     {
-        return _deliveryIds.get(new UnsettledDelivery(deliveryTag, linkEndpoint));
+        final int index = findId(deliveryTag, linkEndpoint);
+        return index < 0 ? null : UnsignedInteger.valueOf(_idTableValues[index]);
     }
 
     @Override
     public int size()
     {
-        return _deliveries.size();
+        return _size;
+    }
+
+    @Override
+    public void visitDeliveries(final UnsignedInteger first,
+                                final UnsignedInteger last,
+                                final DeliveryVisitor visitor)
+    {
+        final int start = first.intValue();
+        final int length = last.intValue() - start;
+        if (length < 0)
+        {
+            return;
+        }
+
+        final long ringStart;
+        final long ringEnd;
+        final List<Integer> overflowIds;
+        synchronized (this)
+        {
+            ringStart = Math.max((long) (_base - start), 0L);
+            ringEnd = Math.min((long) (_base - start) + _span - 1, length);
+            overflowIds = _overflow.isEmpty() ? null : overflowIdsInRange(start, length);
+        }
+
+        if (overflowIds != null)
+        {
+            for (Integer id : overflowIds)
+            {
+                visit(id, visitor);
+            }
+        }
+
+        // the visitor may change the registry, so each delivery is looked up afresh
+        for (long offset = ringStart; offset <= ringEnd; offset++)
+        {
+            visit(start + (int) offset, visitor);
+        }
+    }
+
+    @Override
+    public synchronized void removeDeliveries(final UnsignedInteger first, final UnsignedInteger last)
+    {
+        final int start = first.intValue();
+        final int length = last.intValue() - start;
+        if (length < 0)
+        {
+            return;
+        }
+
+        if (!_overflow.isEmpty())
+        {
+            for (Integer id : overflowIdsInRange(start, length))
+            {
+                remove(id);
+            }
+        }
+
+        final long ringStart = Math.max((long) (_base - start), 0L);
+        final long ringEnd = Math.min((long) (_base - start) + _span - 1, length);
+        for (long offset = ringStart; offset <= ringEnd; offset++)
+        {
+            remove(start + (int) offset);
+        }
+    }
+
+    private void visit(final int id, final DeliveryVisitor visitor)
+    {
+        final UnsettledDelivery unsettledDelivery;
+        synchronized (this)
+        {
+            unsettledDelivery = get(id);
+        }
+        if (unsettledDelivery != null)
+        {
+            visitor.visit(id, unsettledDelivery);
+        }
+    }
+
+    private List<Integer> overflowIdsInRange(final int start, final int length)
+    {
+        final List<Integer> ids = new ArrayList<>();
+        for (Integer id : _overflow.keySet())
+        {
+            final int offset = id - start;
+            if (offset >= 0 && offset <= length)
+            {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private UnsettledDelivery get(final int id)
+    {
+        final int offset = id - _base;
+        if (offset >= 0 && offset < _span)
+        {
+            return _ring[id & (_ring.length - 1)];
+        }
+        return _overflow.isEmpty() ? null : _overflow.get(id);
+    }
+
+    private void remove(final int id)
+    {
+        final UnsettledDelivery removed;
+        final int offset = id - _base;
+        if (offset >= 0 && offset < _span)
+        {
+            final int index = id & (_ring.length - 1);
+            removed = _ring[index];
+            if (removed != null)
+            {
+                _ring[index] = null;
+                trimRing();
+            }
+        }
+        else
+        {
+            removed = _overflow.isEmpty() ? null : _overflow.remove(id);
+        }
+
+        if (removed != null)
+        {
+            removeId(removed, id);
+            _size--;
+        }
+    }
+
+    private void addToOverflow(final int id, final UnsettledDelivery unsettledDelivery)
+    {
+        _overflow.put(id, unsettledDelivery);
+        addId(unsettledDelivery, id);
+        _size++;
+    }
+
+    private void evictBefore(final int newBase)
+    {
+        final int mask = _ring.length - 1;
+        final int count = (int) Math.min((long) _span, (long) (newBase - _base));
+        for (int i = 0; i < count; i++)
+        {
+            final int id = _base + i;
+            final UnsettledDelivery unsettledDelivery = _ring[id & mask];
+            if (unsettledDelivery != null)
+            {
+                _ring[id & mask] = null;
+                _overflow.put(id, unsettledDelivery);
+            }
+        }
+        _base += count;
+        _span -= count;
+        trimRing();
+    }
+
+    private void trimRing()
+    {
+        final int mask = _ring.length - 1;
+        while (_span > 0 && _ring[_base & mask] == null)
+        {
+            _base++;
+            _span--;
+        }
+        while (_span > 0 && _ring[(_base + _span - 1) & mask] == null)
+        {
+            _span--;
+        }
+    }
+
+    private void ensureRingCapacity(final int required)
+    {
+        if (required > _ring.length)
+        {
+            final int capacity = Integer.highestOneBit(required - 1) << 1;
+            final UnsettledDelivery[] ring = new UnsettledDelivery[capacity];
+            final int oldMask = _ring.length - 1;
+            final int newMask = capacity - 1;
+            for (int i = 0; i < _span; i++)
+            {
+                final int id = _base + i;
+                ring[id & newMask] = _ring[id & oldMask];
+            }
+            _ring = ring;
+        }
+    }
+
+    private static int hash(final Binary deliveryTag, final LinkEndpoint<?, ?> linkEndpoint)
+    {
+        final int h = 31 * (31 + Objects.hashCode(deliveryTag)) + Objects.hashCode(linkEndpoint);
+        return h ^ (h >>> 16);
+    }
+
+    private int findId(final Binary deliveryTag, final LinkEndpoint<?, ?> linkEndpoint)
+    {
+        final int mask = _idTableKeys.length - 1;
+        int index = hash(deliveryTag, linkEndpoint) & mask;
+        UnsettledDelivery key;
+        while ((key = _idTableKeys[index]) != null)
+        {
+            if (Objects.equals(deliveryTag, key.getDeliveryTag())
+                && Objects.equals(linkEndpoint, key.getLinkEndpoint()))
+            {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void addId(final UnsettledDelivery unsettledDelivery, final int id)
+    {
+        final int existing = findId(unsettledDelivery.getDeliveryTag(), unsettledDelivery.getLinkEndpoint());
+        if (existing >= 0)
+        {
+            _idTableKeys[existing] = unsettledDelivery;
+            _idTableValues[existing] = id;
+            return;
+        }
+
+        if ((_idTableSize + 1) << 1 > _idTableKeys.length)
+        {
+            resizeIdTable();
+        }
+        insertId(unsettledDelivery, id);
+        _idTableSize++;
+    }
+
+    private void insertId(final UnsettledDelivery unsettledDelivery, final int id)
+    {
+        final int mask = _idTableKeys.length - 1;
+        int index = hash(unsettledDelivery.getDeliveryTag(), unsettledDelivery.getLinkEndpoint()) & mask;
+        while (_idTableKeys[index] != null)
+        {
+            index = (index + 1) & mask;
+        }
+        _idTableKeys[index] = unsettledDelivery;
+        _idTableValues[index] = id;
+    }
+
+    private void removeId(final UnsettledDelivery unsettledDelivery, final int id)
+    {
+        int index = findId(unsettledDelivery.getDeliveryTag(), unsettledDelivery.getLinkEndpoint());
+        if (index < 0 || _idTableValues[index] != id)
+        {
+            return;
+        }
+
+        // backward shift deletion keeps every remaining key reachable from its home slot without tombstones
+        final int mask = _idTableKeys.length - 1;
+        _idTableKeys[index] = null;
+        _idTableSize--;
+        int next = (index + 1) & mask;
+        UnsettledDelivery key;
+        while ((key = _idTableKeys[next]) != null)
+        {
+            final int home = hash(key.getDeliveryTag(), key.getLinkEndpoint()) & mask;
+            final boolean movable = index <= next ? (home <= index || home > next) : (home <= index && home > next);
+            if (movable)
+            {
+                _idTableKeys[index] = key;
+                _idTableValues[index] = _idTableValues[next];
+                _idTableKeys[next] = null;
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resizeIdTable()
+    {
+        final UnsettledDelivery[] keys = _idTableKeys;
+        final int[] values = _idTableValues;
+        _idTableKeys = new UnsettledDelivery[keys.length << 1];
+        _idTableValues = new int[keys.length << 1];
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != null)
+            {
+                insertId(keys[i], values[i]);
+            }
+        }
     }
 }
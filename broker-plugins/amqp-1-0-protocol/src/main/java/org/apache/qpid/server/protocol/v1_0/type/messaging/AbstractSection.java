@@ -59,10 +59,14 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
 
     protected AbstractSection(final AbstractSection<T, S> otherAbstractSection)
     {
-        _value = otherAbstractSection.getValue();
-        _section = otherAbstractSection._section;
-        _encodedForm = otherAbstractSection.getEncodedForm();
-        _encodedSize = _encodedForm.remaining();
+        // a copy shares the decoded value if the other section already holds it, but copying never forces a decode
+        synchronized (otherAbstractSection)
+        {
+            _value = otherAbstractSection._value;
+            _section = otherAbstractSection._section;
+            _encodedForm = otherAbstractSection.getEncodedForm();
+            _encodedSize = _encodedForm.remaining();
+        }
     }
 
     protected abstract DescribedTypeConstructor<S> createNonEncodingRetainingSectionConstructor();
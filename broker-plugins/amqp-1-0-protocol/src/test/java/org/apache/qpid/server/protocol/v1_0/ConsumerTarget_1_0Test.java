@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.protocol.v1_0;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -139,14 +141,73 @@ public class ConsumerTarget_1_0Test extends UnitTestBase
         assertTrue("Unexpected ttl", sentHeader.getTtl().longValue() <= 1000);
     }
 
+    @Test
+    public void testBareMessageSentFromStoredEncoding() throws Exception
+    {
+        final MessageInstanceConsumer comsumer = mock(MessageInstanceConsumer.class);
+
+        final Header header = new Header();
+        header.setDurable(true);
+        final Message_1_0 message = createTestMessage(header, System.currentTimeMillis());
+        final MessageInstance messageInstance = mock(MessageInstance.class);
+        when(messageInstance.getMessage()).thenReturn(message);
+        when(messageInstance.getDeliveryCount()).thenReturn(1);
+
+        AtomicReference<QpidByteBuffer> payloadRef = new AtomicReference<>();
+        doAnswer(invocation ->
+                 {
+                     Transfer transfer = (Transfer) invocation.getArguments()[0];
+                     payloadRef.set(transfer.getPayload());
+                     return null;
+                 }).when(_sendingLinkEndpoint).transfer(any(Transfer.class), anyBoolean());
+
+        _consumerTarget.doSend(comsumer, messageInstance, false);
+
+        final List<EncodingRetainingSection<?>> sections;
+        try (QpidByteBuffer payload = payloadRef.get())
+        {
+            sections = new SectionDecoderImpl(_describedTypeRegistry.getSectionDecoderRegistry()).parseAll(payload);
+        }
+        assertEquals("Unexpected number of sections", 6, sections.size());
+
+        final Header sentHeader = ((HeaderSection) sections.get(0)).getValue();
+        assertEquals("Unexpected delivery count", UnsignedInteger.ONE, sentHeader.getDeliveryCount());
+        assertEquals("Unexpected durable", Boolean.TRUE, sentHeader.getDurable());
+
+        final ApplicationPropertiesSection storedApplicationProperties = message.getApplicationPropertiesSection();
+        try (QpidByteBuffer expected = storedApplicationProperties.getEncodedForm();
+             QpidByteBuffer actual = sections.get(4).getEncodedForm())
+        {
+            assertArrayEquals("Unexpected application properties encoding", toBytes(expected), toBytes(actual));
+        }
+        assertTrue("Application properties should not have been decoded",
+                   storedApplicationProperties.toString().startsWith("<Undecoded"));
+        storedApplicationProperties.dispose();
+        sections.forEach(EncodingRetainingSection::dispose);
+    }
+
+    private static byte[] toBytes(final QpidByteBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
     private Message_1_0 createTestMessage(final Header header, long arrivalTime)
     {
         DeliveryAnnotationsSection deliveryAnnotations =
                 new DeliveryAnnotations(Collections.emptyMap()).createEncodingRetainingSection();
         MessageAnnotationsSection messageAnnotations =
                 new MessageAnnotations(Collections.emptyMap()).createEncodingRetainingSection();
-        ApplicationPropertiesSection applicationProperties =
-                new ApplicationProperties(Collections.emptyMap()).createEncodingRetainingSection();
+        // application properties held only in encoded form, as when read from the store
+        final ApplicationPropertiesSection applicationProperties;
+        final ApplicationPropertiesSection decodedApplicationProperties =
+                new ApplicationProperties(Collections.singletonMap("key", "value")).createEncodingRetainingSection();
+        try (QpidByteBuffer encoded = decodedApplicationProperties.getEncodedForm())
+        {
+            applicationProperties = new ApplicationPropertiesSection(encoded);
+        }
+        decodedApplicationProperties.dispose();
         FooterSection footer = new Footer(Collections.emptyMap()).createEncodingRetainingSection();
         MessageMetaData_1_0 metaData = new MessageMetaData_1_0(header.createEncodingRetainingSection(),
                                                                deliveryAnnotations,
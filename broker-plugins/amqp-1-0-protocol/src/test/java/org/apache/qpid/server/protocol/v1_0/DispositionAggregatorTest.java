@@ -0,0 +1,172 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.protocol.v1_0.type.DeliveryState;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Rejected;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class DispositionAggregatorTest extends UnitTestBase
+{
+    private static final Accepted ACCEPTED = new Accepted();
+    private static final Rejected REJECTED = new Rejected();
+
+    private DispositionAggregator _aggregator;
+    private List<SentDisposition> _sent;
+
+    @Before
+    public void setUp()
+    {
+        _aggregator = new DispositionAggregator();
+        _sent = new ArrayList<>();
+    }
+
+    @Test
+    public void testContiguousDeliveriesCoalesced()
+    {
+        for (int i = 10; i < 1010; i++)
+        {
+            _aggregator.add(i, ACCEPTED, true);
+        }
+
+        assertEquals("Unexpected number of ranges", 1, flush());
+        assertSent(0, 10, 1009, ACCEPTED, true);
+        assertTrue("Aggregator should be empty after flush", _aggregator.isEmpty());
+    }
+
+    @Test
+    public void testOutOfOrderDeliveriesCoalesced()
+    {
+        _aggregator.add(3, null, true);
+        _aggregator.add(1, null, true);
+        _aggregator.add(2, null, true);
+        _aggregator.add(0, null, true);
+
+        assertEquals("Unexpected number of ranges", 1, flush());
+        assertSent(0, 0, 3, null, true);
+    }
+
+    @Test
+    public void testRangesSplitOnGapStateAndSettlement()
+    {
+        _aggregator.add(0, ACCEPTED, true);
+        _aggregator.add(1, ACCEPTED, true);
+        _aggregator.add(3, ACCEPTED, true);
+        _aggregator.add(4, REJECTED, true);
+        _aggregator.add(5, REJECTED, false);
+
+        assertEquals("Unexpected number of ranges", 4, flush());
+        assertSent(0, 0, 1, ACCEPTED, true);
+        assertSent(1, 3, 3, ACCEPTED, true);
+        assertSent(2, 4, 4, REJECTED, true);
+        assertSent(3, 5, 5, REJECTED, false);
+    }
+
+    @Test
+    public void testRepeatedDeliveryKeepsOrder()
+    {
+        _aggregator.add(7, ACCEPTED, false);
+        _aggregator.add(7, ACCEPTED, true);
+
+        assertEquals("Unexpected number of ranges", 2, flush());
+        assertSent(0, 7, 7, ACCEPTED, false);
+        assertSent(1, 7, 7, ACCEPTED, true);
+    }
+
+    @Test
+    public void testDeliveryIdWraparound()
+    {
+        _aggregator.add(1, null, true);
+        _aggregator.add(-1, null, true);
+        _aggregator.add(0, null, true);
+        _aggregator.add(-2, null, true);
+
+        assertEquals("Unexpected number of ranges", 1, flush());
+        assertSent(0, -2, 1, null, true);
+    }
+
+    @Test
+    public void testFlushEmpty()
+    {
+        assertEquals("Unexpected number of ranges", 0, flush());
+        assertTrue("Unexpected dispositions sent", _sent.isEmpty());
+    }
+
+    private int flush()
+    {
+        return _aggregator.flush((first, last, state, settled) -> _sent.add(new SentDisposition(first,
+                                                                                               last,
+                                                                                               state,
+                                                                                               settled)));
+    }
+
+    private void assertSent(final int index,
+                            final int first,
+                            final int last,
+                            final DeliveryState state,
+                            final boolean settled)
+    {
+        final SentDisposition disposition = _sent.get(index);
+        assertEquals("Unexpected first", UnsignedInteger.valueOf(first), disposition._first);
+        assertEquals("Unexpected last", UnsignedInteger.valueOf(last), disposition._last);
+        if (state == null)
+        {
+            assertNull("Unexpected state", disposition._state);
+        }
+        else
+        {
+            assertSame("Unexpected state", state, disposition._state);
+        }
+        assertEquals("Unexpected settled", settled, disposition._settled);
+    }
+
+    private static class SentDisposition
+    {
+        private final UnsignedInteger _first;
+        private final UnsignedInteger _last;
+        private final DeliveryState _state;
+        private final boolean _settled;
+
+        private SentDisposition(final UnsignedInteger first,
+                                final UnsignedInteger last,
+                                final DeliveryState state,
+                                final boolean settled)
+        {
+            _first = first;
+            _last = last;
+            _state = state;
+            _settled = settled;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.codec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.virtualhost.ByteStringInternTable;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class InternTableTest extends UnitTestBase
+{
+    private static final int CAPACITY = 8;
+
+    private ValueHandler _valueHandler;
+    private ByteStringInternTable<String> _internTable;
+    private StringTypeConstructor _constructor;
+
+    @Before
+    public void setUp()
+    {
+        _valueHandler = new ValueHandler(AMQPDescribedTypeRegistry.newInstance(), CAPACITY);
+        _internTable = _valueHandler.getStringInternTable();
+        _constructor = StringTypeConstructor.getInstance(4);
+    }
+
+    @Test
+    public void testHitDoesNotDecode() throws Exception
+    {
+        final String first = construct("queue-name");
+        final String second = construct("queue-name");
+
+        assertEquals("Unexpected value", "queue-name", first);
+        assertSame("Expected interned value", first, second);
+        assertEquals("Unexpected number of decodes", 1, _internTable.getMissCount());
+        assertEquals("Unexpected number of hits", 1, _internTable.getHitCount());
+    }
+
+    @Test
+    public void testPositionAdvanced() throws Exception
+    {
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(new byte[]{0, 0, 0, 3, 'b', 'c', 'd', 'e'}))
+        {
+            assertEquals("Unexpected value", "bcd", _constructor.construct(buffer, _valueHandler));
+            assertEquals("Unexpected position", 7, buffer.position());
+            buffer.position(0);
+            assertEquals("Unexpected value", "bcd", _constructor.construct(buffer, _valueHandler));
+            assertEquals("Unexpected position", 7, buffer.position());
+        }
+        assertEquals("Unexpected number of decodes", 1, _internTable.getMissCount());
+    }
+
+    @Test
+    public void testLongValuesNotInterned() throws Exception
+    {
+        final char[] chars = new char[300];
+        Arrays.fill(chars, 'a');
+        final String value = new String(chars);
+        final String first = construct(value);
+        final String second = construct(value);
+
+        assertEquals("Unexpected value", value, first);
+        assertNotSame("Unexpected interned value", first, second);
+        assertEquals("Unexpected number of interned decodes", 0, _internTable.getMissCount());
+    }
+
+    @Test
+    public void testTableBounded() throws Exception
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals("Unexpected value", "value-" + i, construct("value-" + i));
+        }
+        assertEquals("Unexpected number of decodes", 1000, _internTable.getMissCount());
+        assertTrue("Table exceeds its capacity", _internTable.size() <= _internTable.getCapacity());
+        assertTrue("Unexpected capacity", _internTable.getCapacity() <= CAPACITY);
+
+        assertEquals("Unexpected value", "value-999", construct("value-999"));
+        assertEquals("Unexpected value", "", construct(""));
+    }
+
+    private String construct(final String value) throws Exception
+    {
+        final byte[] bytes = value.getBytes(UTF_8);
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(4 + bytes.length))
+        {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+            final String result = _constructor.construct(buffer, _valueHandler);
+            assertEquals("Unexpected remaining", 0, buffer.remaining());
+            return result;
+        }
+    }
+}
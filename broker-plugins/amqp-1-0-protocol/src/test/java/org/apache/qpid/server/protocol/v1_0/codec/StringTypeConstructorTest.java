@@ -21,37 +21,45 @@
 package org.apache.qpid.server.protocol.v1_0.codec;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 
-import java.nio.ByteBuffer;
-
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.junit.Test;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
 
 public class StringTypeConstructorTest
 {
-
     @Test
     public void construct() throws Exception
     {
         StringTypeConstructor constructor = StringTypeConstructor.getInstance(1);
-        Cache<ByteBuffer, String> original = StringTypeConstructor.getCache();
-        Cache<ByteBuffer, String> cache = CacheBuilder.newBuilder().maximumSize(2).build();
-        StringTypeConstructor.setCache(cache);
-        try
+        ValueHandler valueHandler = new ValueHandler(AMQPDescribedTypeRegistry.newInstance(), 16);
+
+        try (QpidByteBuffer buffer1 = QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't'});
+             QpidByteBuffer buffer2 = QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't', 'x'}))
         {
-            String string1 = constructor.construct(QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't'}), null);
-            String string2 = constructor.construct(QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't'}), null);
-            assertEquals(string1, string2);
+            String string1 = constructor.construct(buffer1, valueHandler);
+            String string2 = constructor.construct(buffer2, valueHandler);
+            assertEquals("test", string1);
             assertSame(string1, string2);
+            assertEquals("Unexpected remaining", 1, buffer2.remaining());
         }
-        finally
+    }
+
+    @Test
+    public void constructWithoutInternTable() throws Exception
+    {
+        StringTypeConstructor constructor = StringTypeConstructor.getInstance(1);
+
+        try (QpidByteBuffer buffer1 = QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't'});
+             QpidByteBuffer buffer2 = QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't'}))
         {
-            cache.cleanUp();
-            StringTypeConstructor.setCache(original);
+            String string1 = constructor.construct(buffer1, null);
+            String string2 = constructor.construct(buffer2, null);
+            assertEquals(string1, string2);
+            assertNotSame(string1, string2);
         }
     }
 }
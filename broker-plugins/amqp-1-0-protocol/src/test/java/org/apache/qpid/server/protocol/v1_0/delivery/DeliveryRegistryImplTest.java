@@ -26,6 +26,9 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -120,4 +123,112 @@ public class DeliveryRegistryImplTest extends UnitTestBase
 
         assertThat(_registry.size(), is(equalTo(0)));
     }
+
+    @Test
+    public void removeDeliveriesInRange()
+    {
+        final LinkEndpoint<?, ?> linkEndpoint = _unsettledDelivery.getLinkEndpoint();
+        for (int i = 0; i < 10000; i++)
+        {
+            _registry.addDelivery(UnsignedInteger.valueOf(i), new UnsettledDelivery(tag(i), linkEndpoint));
+        }
+        assertThat(_registry.size(), is(equalTo(10000)));
+
+        _registry.removeDeliveries(UnsignedInteger.valueOf(100), UnsignedInteger.valueOf(9899));
+
+        assertThat(_registry.size(), is(equalTo(200)));
+        assertThat(_registry.getDelivery(UnsignedInteger.valueOf(99)), is(equalTo(new UnsettledDelivery(tag(99), linkEndpoint))));
+        assertThat(_registry.getDelivery(UnsignedInteger.valueOf(100)), is(nullValue()));
+        assertThat(_registry.getDelivery(UnsignedInteger.valueOf(9899)), is(nullValue()));
+        assertThat(_registry.getDeliveryId(tag(5000), linkEndpoint), is(nullValue()));
+        assertThat(_registry.getDeliveryId(tag(9900), linkEndpoint), is(equalTo(UnsignedInteger.valueOf(9900))));
+    }
+
+    @Test
+    public void visitDeliveriesInRange()
+    {
+        final LinkEndpoint<?, ?> linkEndpoint = _unsettledDelivery.getLinkEndpoint();
+        for (int i = 0; i < 100; i++)
+        {
+            if (i % 2 == 0)
+            {
+                _registry.addDelivery(UnsignedInteger.valueOf(i), new UnsettledDelivery(tag(i), linkEndpoint));
+            }
+        }
+
+        final List<Integer> visited = new ArrayList<>();
+        _registry.visitDeliveries(UnsignedInteger.valueOf(10), UnsignedInteger.valueOf(20), (deliveryId, delivery) ->
+        {
+            assertThat(delivery.getDeliveryTag(), is(equalTo(tag(deliveryId))));
+            visited.add(deliveryId);
+            _registry.removeDelivery(UnsignedInteger.valueOf(deliveryId));
+        });
+
+        assertThat(visited.size(), is(equalTo(6)));
+        assertThat(visited.get(0), is(equalTo(10)));
+        assertThat(visited.get(5), is(equalTo(20)));
+        assertThat(_registry.size(), is(equalTo(44)));
+    }
+
+    @Test
+    public void deliveryIdWraparound()
+    {
+        final LinkEndpoint<?, ?> linkEndpoint = _unsettledDelivery.getLinkEndpoint();
+        final int start = -5;
+        for (int i = 0; i < 10; i++)
+        {
+            _registry.addDelivery(UnsignedInteger.valueOf(start + i), new UnsettledDelivery(tag(i), linkEndpoint));
+        }
+        assertThat(_registry.getDelivery(UnsignedInteger.valueOf(0xFFFFFFFFL)), is(equalTo(new UnsettledDelivery(tag(4), linkEndpoint))));
+        assertThat(_registry.getDelivery(UnsignedInteger.ZERO), is(equalTo(new UnsettledDelivery(tag(5), linkEndpoint))));
+
+        final List<Integer> visited = new ArrayList<>();
+        _registry.visitDeliveries(UnsignedInteger.valueOf(0xFFFFFFFEL), UnsignedInteger.ONE,
+                                  (deliveryId, delivery) -> visited.add(deliveryId));
+        assertThat(visited.size(), is(equalTo(4)));
+
+        _registry.removeDeliveries(UnsignedInteger.valueOf(0xFFFFFFFEL), UnsignedInteger.ONE);
+        assertThat(_registry.size(), is(equalTo(6)));
+        assertThat(_registry.getDelivery(UnsignedInteger.ZERO), is(nullValue()));
+        assertThat(_registry.getDelivery(UnsignedInteger.valueOf(2)), is(equalTo(new UnsettledDelivery(tag(7), linkEndpoint))));
+    }
+
+    @Test
+    public void longUnsettledDeliveryMovedOutOfRing()
+    {
+        _registry = new DeliveryRegistryImpl(64);
+        final LinkEndpoint<?, ?> linkEndpoint = _unsettledDelivery.getLinkEndpoint();
+        _registry.addDelivery(UnsignedInteger.ZERO, _unsettledDelivery);
+        for (int i = 1; i < 1000; i++)
+        {
+            final UnsignedInteger deliveryId = UnsignedInteger.valueOf(i);
+            _registry.addDelivery(deliveryId, new UnsettledDelivery(tag(i), linkEndpoint));
+            if (i % 10 != 0)
+            {
+                _registry.removeDelivery(deliveryId);
+            }
+        }
+
+        assertThat(_registry.size(), is(equalTo(100)));
+        assertThat(_registry.getDelivery(UnsignedInteger.ZERO), is(equalTo(_unsettledDelivery)));
+        assertThat(_registry.getDeliveryId(DELIVERY_TAG, linkEndpoint), is(equalTo(UnsignedInteger.ZERO)));
+        assertThat(_registry.getDelivery(UnsignedInteger.valueOf(500)), is(equalTo(new UnsettledDelivery(tag(500), linkEndpoint))));
+
+        final List<Integer> visited = new ArrayList<>();
+        _registry.visitDeliveries(UnsignedInteger.ZERO, UnsignedInteger.valueOf(999),
+                                  (deliveryId, delivery) -> visited.add(deliveryId));
+        assertThat(visited.size(), is(equalTo(100)));
+
+        _registry.removeDeliveries(UnsignedInteger.ZERO, UnsignedInteger.valueOf(499));
+        assertThat(_registry.size(), is(equalTo(50)));
+        assertThat(_registry.getDelivery(UnsignedInteger.ZERO), is(nullValue()));
+
+        _registry.removeDeliveriesForLinkEndpoint(linkEndpoint);
+        assertThat(_registry.size(), is(equalTo(0)));
+    }
+
+    private static Binary tag(final int i)
+    {
+        return new Binary(new byte[]{(byte) (i >>> 24), (byte) (i >>> 16), (byte) (i >>> 8), (byte) i});
+    }
 }
@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -58,9 +59,11 @@ import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.plugin.MessageMetaDataType;
+import org.apache.qpid.server.stats.LatencyHistogram;
 import org.apache.qpid.server.store.Event;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.EventManager;
+import org.apache.qpid.server.store.LatencyRecordingTransaction;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageHandle;
@@ -95,6 +98,13 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     private static final String EXECUTOR_SHUTDOWN_TIMEOUT = "qpid.jdbcstore.executorShutdownTimeoutInSeconds";
     private static final int EXECUTOR_SHUTDOWN_TIMEOUT_DEFAULT = 5;
 
+    static final String PIPELINED_COMMIT = "qpid.jdbcstore.pipelinedCommit";
+    private static final boolean PIPELINED_COMMIT_DEFAULT = false;
+    static final String PIPELINE_WRITER_THREADS = "qpid.jdbcstore.pipelineWriterThreads";
+    private static final int PIPELINE_WRITER_THREADS_DEFAULT = 2;
+    static final String PIPELINE_MAX_BATCH_SIZE = "qpid.jdbcstore.pipelineMaxBatchSize";
+    private static final int PIPELINE_MAX_BATCH_SIZE_DEFAULT = 256;
+
     private static final int DB_VERSION = 8;
 
     private final AtomicLong _messageId = new AtomicLong(0);
@@ -120,6 +130,8 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     private ScheduledThreadPoolExecutor _executor;
     private volatile int _inClauseMaxSize;
     private volatile int _executorShutdownTimeOut;
+    private volatile JDBCCommitPipeline<PipelinedCommit> _commitPipeline;
+    private volatile LatencyHistogram _commitLatencyHistogram;
 
     public AbstractJDBCMessageStore()
     {
@@ -250,11 +262,30 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         _executor.prestartAllCoreThreads();
 
         _inClauseMaxSize = getContextValue(Integer.class, IN_CLAUSE_MAX_SIZE, IN_CLAUSE_MAX_SIZE_DEFAULT);
+
+        if (getContextValue(Boolean.class, PIPELINED_COMMIT, PIPELINED_COMMIT_DEFAULT))
+        {
+            _commitPipeline = new JDBCCommitPipeline<>(parent.getName(),
+                                                       getContextValue(Integer.class,
+                                                                       PIPELINE_WRITER_THREADS,
+                                                                       PIPELINE_WRITER_THREADS_DEFAULT),
+                                                       getContextValue(Integer.class,
+                                                                       PIPELINE_MAX_BATCH_SIZE,
+                                                                       PIPELINE_MAX_BATCH_SIZE_DEFAULT),
+                                                       this::writePipelinedCommits);
+            _commitPipeline.start();
+        }
     }
 
     @Override
     public void closeMessageStore()
     {
+        final JDBCCommitPipeline<PipelinedCommit> commitPipeline = _commitPipeline;
+        if (commitPipeline != null)
+        {
+            _commitPipeline = null;
+            commitPipeline.close();
+        }
         for (StoredJDBCMessage<?> message : _messages)
         {
             message.clear(true);
@@ -669,7 +700,18 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     {
         checkMessageStoreOpen();
 
-        return new JDBCTransaction();
+        return LatencyRecordingTransaction.wrap(new JDBCTransaction(), _commitLatencyHistogram);
+    }
+
+    @Override
+    public void setTransactionCommitLatencyHistogram(final LatencyHistogram histogram)
+    {
+        _commitLatencyHistogram = histogram;
+    }
+
+    protected LatencyHistogram getTransactionCommitLatencyHistogram()
+    {
+        return _commitLatencyHistogram;
     }
 
     private void enqueueMessages(ConnectionWrapper connWrapper, Map<Long, List<TransactionLogResource>> queuesPerMessage) throws StoreException
@@ -983,17 +1025,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             stmt.setLong(1, messageId);
 
-            final int bodySize = 1 + metaData.getStorableSize();
-            byte[] underlying = new byte[bodySize];
-            underlying[0] = (byte) metaData.getType().ordinal();
-            try (QpidByteBuffer buf = QpidByteBuffer.wrap(underlying))
-            {
-                buf.position(1);
-                try (QpidByteBuffer bufSlice = buf.slice())
-                {
-                    metaData.writeToBuffer(buf);
-                }
-            }
+            byte[] underlying = encodeMetaData(metaData);
             try(ByteArrayInputStream bis = new ByteArrayInputStream(underlying))
             {
                 stmt.setBinaryStream(2, bis, underlying.length);
@@ -1013,6 +1045,203 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     }
 
 
+    private static byte[] encodeMetaData(final StorableMessageMetaData metaData)
+    {
+        final int bodySize = 1 + metaData.getStorableSize();
+        byte[] underlying = new byte[bodySize];
+        underlying[0] = (byte) metaData.getType().ordinal();
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(underlying))
+        {
+            buf.position(1);
+            try (QpidByteBuffer bufSlice = buf.slice())
+            {
+                metaData.writeToBuffer(buf);
+            }
+        }
+        return underlying;
+    }
+
+    /**
+     * Writes the work of a batch of committed transactions on a single connection using one batched statement per
+     * table, committing them all with a single database commit.
+     */
+    private void writePipelinedCommits(final List<PipelinedCommit> commits)
+    {
+        final List<AutoCloseable> resources = new ArrayList<>();
+        final List<StoredJDBCMessage<?>> batchedMessages = new ArrayList<>();
+        try (Connection conn = newConnection())
+        {
+            try
+            {
+                writeMessages(conn, commits, batchedMessages, resources);
+                writeEnqueues(conn, commits);
+                writeDequeues(conn, commits);
+                conn.commit();
+                for (StoredJDBCMessage<?> message : batchedMessages)
+                {
+                    message.batchCommitted();
+                }
+            }
+            catch (SQLException | RuntimeException e)
+            {
+                for (StoredJDBCMessage<?> message : batchedMessages)
+                {
+                    message.batchAborted();
+                }
+                try
+                {
+                    conn.rollback();
+                }
+                catch (SQLException t)
+                {
+                    // ignore - we are re-throwing underlying exception
+                }
+                throw e;
+            }
+        }
+        catch (SQLException e)
+        {
+            throw new StoreException("Error committing batch of " + commits.size() + " transaction(s)", e);
+        }
+        finally
+        {
+            for (AutoCloseable resource : resources)
+            {
+                try
+                {
+                    resource.close();
+                }
+                catch (Exception e)
+                {
+                    getLogger().debug("Failed to release content of batched message", e);
+                }
+            }
+        }
+    }
+
+    private void writeMessages(final Connection conn,
+                               final List<PipelinedCommit> commits,
+                               final List<StoredJDBCMessage<?>> batchedMessages,
+                               final List<AutoCloseable> resources) throws SQLException
+    {
+        try (PreparedStatement metaDataStmt = conn.prepareStatement("INSERT INTO " + getMetaDataTableName()
+                                                                    + "( message_id , meta_data ) values (?, ?)");
+             PreparedStatement contentStmt = conn.prepareStatement("INSERT INTO " + getMessageContentTableName()
+                                                                   + "( message_id, content ) values (?, ?)"))
+        {
+            for (PipelinedCommit commit : commits)
+            {
+                for (StoredJDBCMessage<?> message : commit.getMessagesToStore())
+                {
+                    if (message.addToBatch(metaDataStmt, contentStmt, resources))
+                    {
+                        batchedMessages.add(message);
+                    }
+                }
+            }
+            if (!batchedMessages.isEmpty())
+            {
+                metaDataStmt.executeBatch();
+                contentStmt.executeBatch();
+                getLogger().debug("Stored {} message(s) in batch", batchedMessages.size());
+            }
+        }
+    }
+
+    private void writeEnqueues(final Connection conn, final List<PipelinedCommit> commits) throws SQLException
+    {
+        int count = 0;
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + getQueueEntryTableName()
+                                                            + " (queue_id, message_id) values (?,?)"))
+        {
+            for (PipelinedCommit commit : commits)
+            {
+                for (Map.Entry<Long, List<TransactionLogResource>> entry : commit.getMessagesToEnqueue().entrySet())
+                {
+                    for (TransactionLogResource queue : entry.getValue())
+                    {
+                        stmt.setString(1, queue.getId().toString());
+                        stmt.setLong(2, entry.getKey());
+                        stmt.addBatch();
+                        count++;
+                    }
+                }
+            }
+            if (count > 0)
+            {
+                stmt.executeBatch();
+                getLogger().debug("Enqueued {} message instance(s) in batch", count);
+            }
+        }
+    }
+
+    private void writeDequeues(final Connection conn, final List<PipelinedCommit> commits) throws SQLException
+    {
+        final List<MessageEnqueueRecord> records = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + getQueueEntryTableName()
+                                                            + " WHERE queue_id = ? AND message_id =?"))
+        {
+            for (PipelinedCommit commit : commits)
+            {
+                for (MessageEnqueueRecord record : commit.getMessagesToDequeue())
+                {
+                    stmt.setString(1, record.getQueueId().toString());
+                    stmt.setLong(2, record.getMessageNumber());
+                    stmt.addBatch();
+                    records.add(record);
+                }
+            }
+            if (!records.isEmpty())
+            {
+                final int[] results = stmt.executeBatch();
+                for (int i = 0; i < results.length; i++)
+                {
+                    if (results[i] == 0)
+                    {
+                        final MessageEnqueueRecord record = records.get(i);
+                        throw new StoreException("Unable to find message with id " + record.getMessageNumber()
+                                                 + " on queue with id " + record.getQueueId());
+                    }
+                }
+                getLogger().debug("Dequeued {} message instance(s) in batch", records.size());
+            }
+        }
+    }
+
+    /**
+     * The work of a committed transaction awaiting its turn in the commit pipeline.
+     */
+    private static final class PipelinedCommit
+    {
+        private final List<StoredJDBCMessage<?>> _messagesToStore;
+        private final Map<Long, List<TransactionLogResource>> _messagesToEnqueue;
+        private final List<MessageEnqueueRecord> _messagesToDequeue;
+
+        private PipelinedCommit(final List<StoredJDBCMessage<?>> messagesToStore,
+                                final Map<Long, List<TransactionLogResource>> messagesToEnqueue,
+                                final List<MessageEnqueueRecord> messagesToDequeue)
+        {
+            _messagesToStore = messagesToStore;
+            _messagesToEnqueue = messagesToEnqueue;
+            _messagesToDequeue = messagesToDequeue;
+        }
+
+        List<StoredJDBCMessage<?>> getMessagesToStore()
+        {
+            return _messagesToStore;
+        }
+
+        Map<Long, List<TransactionLogResource>> getMessagesToEnqueue()
+        {
+            return _messagesToEnqueue;
+        }
+
+        List<MessageEnqueueRecord> getMessagesToDequeue()
+        {
+            return _messagesToDequeue;
+        }
+    }
+
     private static class RecordImpl implements Transaction.EnqueueRecord, Transaction.DequeueRecord, TransactionLogResource, EnqueueableMessage
     {
 
@@ -1206,24 +1435,61 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
     protected class JDBCTransaction implements Transaction
     {
-        private final ConnectionWrapper _connWrapper;
+        private ConnectionWrapper _connWrapper;
         private int _storeSizeIncrease;
         private final List<Runnable> _preCommitActions = new ArrayList<>();
         private final List<Runnable> _postCommitActions = new ArrayList<>();
+        private final List<StoredJDBCMessage<?>> _messagesToStore = new ArrayList<>();
         private final Map<Long, List<TransactionLogResource>> _messagesToEnqueue = new HashMap<>();
+        private final List<MessageEnqueueRecord> _messagesToDequeue = new ArrayList<>();
 
         protected JDBCTransaction()
         {
-            try
+            // When commits are pipelined the connection is only opened if the transaction
+            // records or removes an xid; otherwise its work is written by the pipeline.
+            if (_commitPipeline == null)
             {
-                _connWrapper = new ConnectionWrapper(newConnection());
+                getConnectionWrapper();
             }
-            catch (SQLException e)
+        }
+
+        private ConnectionWrapper getConnectionWrapper()
+        {
+            if (_connWrapper == null)
             {
-                throw new StoreException(e);
-            }
+                try
+                {
+                    _connWrapper = new ConnectionWrapper(newConnection());
+                }
+                catch (SQLException e)
+                {
+                    throw new StoreException(e);
+                }
 
-            _preCommitActions.add(() -> AbstractJDBCMessageStore.this.enqueueMessages(_connWrapper, _messagesToEnqueue));
+                _preCommitActions.add(() -> {
+                    for (StoredJDBCMessage<?> message : _messagesToStore)
+                    {
+                        try
+                        {
+                            message.store(_connWrapper.getConnection());
+                        }
+                        catch (SQLException e)
+                        {
+                            throw new StoreException("Exception on enqueuing message into message store" + _messageId, e);
+                        }
+                    }
+                });
+                _preCommitActions.add(() -> AbstractJDBCMessageStore.this.enqueueMessages(_connWrapper, _messagesToEnqueue));
+                _preCommitActions.add(() -> {
+                    for (MessageEnqueueRecord record : _messagesToDequeue)
+                    {
+                        AbstractJDBCMessageStore.this.dequeueMessage(_connWrapper,
+                                                                     record.getQueueId(),
+                                                                     record.getMessageNumber());
+                    }
+                });
+            }
+            return _connWrapper;
         }
 
         @Override
@@ -1234,17 +1500,8 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             final StoredMessage storedMessage = message.getStoredMessage();
             if(storedMessage instanceof StoredJDBCMessage)
             {
-                _preCommitActions.add(() -> {
-                    try
-                    {
-                        ((StoredJDBCMessage) storedMessage).store(_connWrapper.getConnection());
-                        _storeSizeIncrease += storedMessage.getContentSize();
-                    }
-                    catch (SQLException e)
-                    {
-                        throw new StoreException("Exception on enqueuing message into message store" + _messageId, e);
-                    }
-                });
+                _messagesToStore.add((StoredJDBCMessage<?>) storedMessage);
+                _storeSizeIncrease += storedMessage.getContentSize();
             }
             List<TransactionLogResource> queues = _messagesToEnqueue.computeIfAbsent(message.getMessageNumber(), messageId -> new ArrayList<>());
             queues.add(queue);
@@ -1256,17 +1513,47 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
-            AbstractJDBCMessageStore.this.dequeueMessage(_connWrapper,
-                                                         enqueueRecord.getQueueId(),
-                                                         enqueueRecord.getMessageNumber());
+            if (_connWrapper == null)
+            {
+                _messagesToDequeue.add(enqueueRecord);
+            }
+            else
+            {
+                AbstractJDBCMessageStore.this.dequeueMessage(_connWrapper,
+                                                             enqueueRecord.getQueueId(),
+                                                             enqueueRecord.getMessageNumber());
+            }
         }
 
         @Override
         public void commitTran()
         {
             checkMessageStoreOpen();
-            doPreCommitActions();
-            AbstractJDBCMessageStore.this.commitTran(_connWrapper);
+            if (_connWrapper == null)
+            {
+                try
+                {
+                    submitToCommitPipeline(null).get();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new StoreException("Interrupted whilst awaiting commit", e);
+                }
+                catch (ExecutionException e)
+                {
+                    if (e.getCause() instanceof RuntimeException)
+                    {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new StoreException("Error commit tx", e.getCause());
+                }
+            }
+            else
+            {
+                doPreCommitActions();
+                AbstractJDBCMessageStore.this.commitTran(_connWrapper);
+            }
             storedSizeChange(_storeSizeIncrease);
             doPostCommitActions();
         }
@@ -1275,13 +1562,31 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public <X> ListenableFuture<X> commitTranAsync(final X val)
         {
             checkMessageStoreOpen();
-            doPreCommitActions();
-            ListenableFuture<X> futureResult = AbstractJDBCMessageStore.this.commitTranAsync(_connWrapper, val);
+            final ListenableFuture<X> futureResult;
+            if (_connWrapper == null)
+            {
+                futureResult = submitToCommitPipeline(val);
+            }
+            else
+            {
+                doPreCommitActions();
+                futureResult = AbstractJDBCMessageStore.this.commitTranAsync(_connWrapper, val);
+            }
             storedSizeChange(_storeSizeIncrease);
             doPostCommitActions();
             return futureResult;
         }
 
+        private <X> ListenableFuture<X> submitToCommitPipeline(final X val)
+        {
+            final ListenableFuture<X> future = _commitPipeline.submit(new PipelinedCommit(new ArrayList<>(_messagesToStore),
+                                                                                          new HashMap<>(_messagesToEnqueue),
+                                                                                          new ArrayList<>(_messagesToDequeue)),
+                                                                      val);
+            clearPendingWork();
+            return future;
+        }
+
         private void doPreCommitActions()
         {
             for(Runnable action : _preCommitActions)
@@ -1289,7 +1594,14 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                 action.run();
             }
             _preCommitActions.clear();
+            clearPendingWork();
+        }
+
+        private void clearPendingWork()
+        {
+            _messagesToStore.clear();
             _messagesToEnqueue.clear();
+            _messagesToDequeue.clear();
         }
 
         private void doPostCommitActions()
@@ -1310,8 +1622,11 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
             _preCommitActions.clear();
-            _messagesToEnqueue.clear();
-            AbstractJDBCMessageStore.this.abortTran(_connWrapper);
+            clearPendingWork();
+            if (_connWrapper != null)
+            {
+                AbstractJDBCMessageStore.this.abortTran(_connWrapper);
+            }
         }
 
         @Override
@@ -1319,7 +1634,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
-            AbstractJDBCMessageStore.this.removeXid(_connWrapper,
+            AbstractJDBCMessageStore.this.removeXid(getConnectionWrapper(),
                                                     record.getFormat(),
                                                     record.getGlobalId(),
                                                     record.getBranchId());
@@ -1334,7 +1649,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
-            _postCommitActions.addAll(AbstractJDBCMessageStore.this.recordXid(_connWrapper, format, globalId, branchId, enqueues, dequeues));
+            _postCommitActions.addAll(AbstractJDBCMessageStore.this.recordXid(getConnectionWrapper(), format, globalId, branchId, enqueues, dequeues));
             return new JDBCStoredXidRecord(format, globalId, branchId);
         }
 
@@ -1510,6 +1825,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         private final int _metadataSize;
 
         private MessageDataRef<T> _messageDataRef;
+        private boolean _batchPending;
 
         StoredJDBCMessage(long messageId,
                           T metaData, boolean isRecovered)
@@ -1644,11 +1960,56 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             }
         }
 
+        synchronized boolean addToBatch(final PreparedStatement metaDataStmt,
+                                        final PreparedStatement contentStmt,
+                                        final List<AutoCloseable> resources) throws SQLException
+        {
+            if (_messageDataRef == null || stored() || _batchPending)
+            {
+                return false;
+            }
+
+            final byte[] metaData = encodeMetaData(_messageDataRef.getMetaData());
+            metaDataStmt.setLong(1, _messageId);
+            metaDataStmt.setBinaryStream(2, new ByteArrayInputStream(metaData), metaData.length);
+            metaDataStmt.addBatch();
+
+            final QpidByteBuffer data = _messageDataRef.getData() == null
+                    ? QpidByteBuffer.emptyQpidByteBuffer()
+                    : _messageDataRef.getData().duplicate();
+            resources.add(data);
+            final int contentLength = data.remaining();
+            final InputStream inputStream = data.asInputStream();
+            resources.add(inputStream);
+            contentStmt.setLong(1, _messageId);
+            contentStmt.setBinaryStream(2, inputStream, contentLength);
+            contentStmt.addBatch();
+
+            getLogger().debug("Storing message {} to store in batch", _messageId);
+
+            _batchPending = true;
+            return true;
+        }
+
+        synchronized void batchCommitted()
+        {
+            _batchPending = false;
+            if (_messageDataRef != null)
+            {
+                _messageDataRef.setSoft();
+            }
+        }
+
+        synchronized void batchAborted()
+        {
+            _batchPending = false;
+        }
+
         synchronized ListenableFuture<Void> flushToStore()
         {
             if (_messageDataRef != null)
             {
-                if(!stored())
+                if(!stored() && !_batchPending)
                 {
                     try (Connection conn = newConnection())
                     {
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.store.LatencyRecordingTransaction;
 import org.apache.qpid.server.store.StoreException;
 import org.apache.qpid.server.store.Transaction;
 
@@ -111,7 +112,7 @@ public abstract class GenericAbstractJDBCMessageStore extends AbstractJDBCMessag
     @Override
     public Transaction newTransaction()
     {
-        return new RecordedJDBCTransaction();
+        return LatencyRecordingTransaction.wrap(new RecordedJDBCTransaction(), getTransactionCommitLatencyHistogram());
     }
 
 
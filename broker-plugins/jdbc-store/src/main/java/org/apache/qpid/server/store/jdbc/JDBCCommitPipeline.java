@@ -0,0 +1,293 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.jdbc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.store.StoreException;
+
+/**
+ * Aggregates the work of many concurrently committing transactions into batches which are written by a small,
+ * fixed set of writer threads.  Each writer drains whatever work has queued since it last looked (up to the
+ * maximum batch size), hands the batch to the batch writer (which is expected to write it within a single
+ * database transaction) and then completes the futures of the batch.
+ * <p>
+ * Batches are numbered as they are drained and their futures are completed strictly in that order, so that
+ * the futures returned by {@link #submit(Object, Object)} complete in the order in which the work was submitted
+ * regardless of which writer handled it.  If the batch writer fails for a batch of several transactions, each
+ * transaction of the batch is written again on its own so that the failure is reported only against the
+ * transaction(s) that caused it.
+ */
+class JDBCCommitPipeline<T>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(JDBCCommitPipeline.class);
+
+    private final Consumer<List<T>> _batchWriter;
+    private final int _maxBatchSize;
+    private final Thread[] _writers;
+
+    private final Object _lock = new Object();
+    private final Queue<PendingWork<T>> _pending = new ArrayDeque<>();
+    private long _nextBatchNumber;
+    private boolean _closed;
+
+    private final Object _completionLock = new Object();
+    private long _nextBatchToComplete;
+
+    JDBCCommitPipeline(final String name,
+                       final int writerThreads,
+                       final int maxBatchSize,
+                       final Consumer<List<T>> batchWriter)
+    {
+        _batchWriter = batchWriter;
+        _maxBatchSize = Math.max(1, maxBatchSize);
+        _writers = new Thread[Math.max(1, writerThreads)];
+        for (int i = 0; i < _writers.length; i++)
+        {
+            _writers[i] = new Thread(this::writeBatches, name + "-store-writer-" + (i + 1));
+            _writers[i].setDaemon(true);
+        }
+    }
+
+    void start()
+    {
+        for (Thread writer : _writers)
+        {
+            writer.start();
+        }
+    }
+
+    <X> ListenableFuture<X> submit(final T work, final X value)
+    {
+        final SettableFuture<X> future = SettableFuture.create();
+        final PendingWork<T> pendingWork = new PendingWork<>(work,
+                                                             () -> future.set(value),
+                                                             future::setException);
+        synchronized (_lock)
+        {
+            if (_closed)
+            {
+                throw new StoreException("Commit pipeline is closed");
+            }
+            _pending.add(pendingWork);
+            _lock.notify();
+        }
+        return future;
+    }
+
+    void close()
+    {
+        final List<PendingWork<T>> abandoned;
+        synchronized (_lock)
+        {
+            _closed = true;
+            abandoned = new ArrayList<>(_pending);
+            _pending.clear();
+            _lock.notifyAll();
+        }
+
+        if (!abandoned.isEmpty())
+        {
+            final StoreException closed = new StoreException("Commit pipeline was closed before the transaction was written");
+            for (PendingWork<T> pendingWork : abandoned)
+            {
+                pendingWork.fail(closed);
+            }
+        }
+
+        for (Thread writer : _writers)
+        {
+            if (writer != Thread.currentThread())
+            {
+                try
+                {
+                    writer.join();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void writeBatches()
+    {
+        final List<PendingWork<T>> batch = new ArrayList<>(_maxBatchSize);
+        final List<T> work = new ArrayList<>(_maxBatchSize);
+        while (true)
+        {
+            final long batchNumber;
+            synchronized (_lock)
+            {
+                while (!_closed && _pending.isEmpty())
+                {
+                    try
+                    {
+                        _lock.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        // continue to wait until closed
+                    }
+                }
+                if (_closed)
+                {
+                    return;
+                }
+
+                PendingWork<T> pendingWork;
+                while (batch.size() < _maxBatchSize && (pendingWork = _pending.poll()) != null)
+                {
+                    batch.add(pendingWork);
+                    work.add(pendingWork.getWork());
+                }
+                batchNumber = _nextBatchNumber++;
+            }
+
+            final RuntimeException[] failures = new RuntimeException[batch.size()];
+            try
+            {
+                _batchWriter.accept(work);
+                LOGGER.debug("Wrote batch {} containing {} transaction(s)", batchNumber, batch.size());
+            }
+            catch (RuntimeException e)
+            {
+                if (batch.size() == 1)
+                {
+                    LOGGER.error("Failed to write transaction", e);
+                    failures[0] = e;
+                }
+                else
+                {
+                    LOGGER.debug("Failed to write batch of {} transaction(s), writing each transaction individually",
+                                 batch.size(), e);
+                    writeIndividually(work, failures);
+                }
+            }
+
+            awaitTurnToComplete(batchNumber);
+            try
+            {
+                for (int i = 0; i < batch.size(); i++)
+                {
+                    if (failures[i] == null)
+                    {
+                        batch.get(i).complete();
+                    }
+                    else
+                    {
+                        batch.get(i).fail(failures[i]);
+                    }
+                }
+            }
+            finally
+            {
+                batch.clear();
+                work.clear();
+                synchronized (_completionLock)
+                {
+                    _nextBatchToComplete++;
+                    _completionLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void writeIndividually(final List<T> work, final RuntimeException[] failures)
+    {
+        for (int i = 0; i < work.size(); i++)
+        {
+            try
+            {
+                _batchWriter.accept(Collections.singletonList(work.get(i)));
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.error("Failed to write transaction", e);
+                failures[i] = e;
+            }
+        }
+    }
+
+    private void awaitTurnToComplete(final long batchNumber)
+    {
+        boolean interrupted = false;
+        synchronized (_completionLock)
+        {
+            while (_nextBatchToComplete != batchNumber)
+            {
+                try
+                {
+                    _completionLock.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingWork<T>
+    {
+        private final T _work;
+        private final Runnable _onSuccess;
+        private final Consumer<Throwable> _onFailure;
+
+        private PendingWork(final T work, final Runnable onSuccess, final Consumer<Throwable> onFailure)
+        {
+            _work = work;
+            _onSuccess = onSuccess;
+            _onFailure = onFailure;
+        }
+
+        T getWork()
+        {
+            return _work;
+        }
+
+        void complete()
+        {
+            _onSuccess.run();
+        }
+
+        void fail(final RuntimeException e)
+        {
+            _onFailure.accept(e);
+        }
+    }
+}
@@ -21,11 +21,13 @@
 package org.apache.qpid.server.store.jdbc;
 
 import static org.apache.qpid.server.store.jdbc.AbstractJDBCMessageStore.IN_CLAUSE_MAX_SIZE;
+import static org.apache.qpid.server.store.jdbc.AbstractJDBCMessageStore.PIPELINED_COMMIT;
 import static org.apache.qpid.server.store.jdbc.TestJdbcUtils.assertTablesExistence;
 import static org.apache.qpid.server.store.jdbc.TestJdbcUtils.getTableNames;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
@@ -40,6 +42,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -60,6 +65,7 @@ import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.MessageStoreTestCase;
+import org.apache.qpid.server.store.StoreException;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.server.store.Transaction;
 import org.apache.qpid.server.store.TransactionLogResource;
@@ -245,6 +251,123 @@ public class JDBCMessageStoreTest extends MessageStoreTestCase
         verify(store).removeMessagesFromDatabase(any(Connection.class), eq(Collections.singletonList(21L)));
     }
 
+    @Test
+    public void testPipelinedCommit() throws Exception
+    {
+        final String queueName = getTestName();
+        final TransactionLogResource resource = mockTransactionLogResource(UUID.randomUUID(), queueName);
+        final GenericJDBCMessageStore store = (GenericJDBCMessageStore) getStore();
+        reOpenStoreWithPipelinedCommit(store);
+
+        final int numberOfMessages = 50;
+        final List<Integer> completionOrder = new CopyOnWriteArrayList<>();
+        final CountDownLatch completionLatch = new CountDownLatch(numberOfMessages);
+        final List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        final List<MessageEnqueueRecord> records = new ArrayList<>();
+        for (int i = 0; i < numberOfMessages; i++)
+        {
+            final Transaction transaction = store.newTransaction();
+            records.add(transaction.enqueueMessage(resource, addTestMessage(store, queueName, "test" + i)));
+            final ListenableFuture<Integer> future = transaction.commitTranAsync(i);
+            final int index = i;
+            future.addListener(() -> {
+                completionOrder.add(index);
+                completionLatch.countDown();
+            }, Runnable::run);
+            futures.add(future);
+        }
+        for (ListenableFuture<Integer> future : futures)
+        {
+            future.get(1000, TimeUnit.MILLISECONDS);
+        }
+        assertTrue("Not all commits completed", completionLatch.await(1000, TimeUnit.MILLISECONDS));
+
+        assertEquals("Unexpected completion order",
+                     LongStream.range(0, numberOfMessages).boxed().map(Long::intValue).collect(Collectors.toList()),
+                     completionOrder);
+        assertRecords(store, resource, records);
+
+        for (MessageEnqueueRecord record : records)
+        {
+            final Transaction transaction = store.newTransaction();
+            transaction.dequeueMessage(record);
+            transaction.commitTran();
+        }
+        assertRecords(store, resource, Collections.emptyList());
+    }
+
+    @Test
+    public void testPipelinedCommitFailsOnUnknownDequeue() throws Exception
+    {
+        final GenericJDBCMessageStore store = (GenericJDBCMessageStore) getStore();
+        reOpenStoreWithPipelinedCommit(store);
+
+        final Transaction transaction = store.newTransaction();
+        transaction.dequeueMessage(new JDBCEnqueueRecordForTest(UUID.randomUUID(), 1L));
+        final ListenableFuture<Void> future = transaction.commitTranAsync(null);
+        try
+        {
+            future.get(1000, TimeUnit.MILLISECONDS);
+            fail("Exception is expected");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue("Unexpected cause " + e.getCause(), e.getCause() instanceof StoreException);
+        }
+    }
+
+    @Test
+    public void testPipelinedCommitFailureReportedOnlyAgainstOwningTransaction() throws Exception
+    {
+        final String queueName = getTestName();
+        final TransactionLogResource resource = mockTransactionLogResource(UUID.randomUUID(), queueName);
+        final GenericJDBCMessageStore store = (GenericJDBCMessageStore) getStore();
+        reOpenStoreWithPipelinedCommit(store);
+
+        final int numberOfTransactions = 20;
+        final int failingTransaction = numberOfTransactions / 2;
+        final List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        final List<MessageEnqueueRecord> records = new ArrayList<>();
+        for (int i = 0; i < numberOfTransactions; i++)
+        {
+            final Transaction transaction = store.newTransaction();
+            if (i == failingTransaction)
+            {
+                transaction.dequeueMessage(new JDBCEnqueueRecordForTest(UUID.randomUUID(), 1L));
+            }
+            else
+            {
+                records.add(transaction.enqueueMessage(resource, addTestMessage(store, queueName, "test" + i)));
+            }
+            futures.add(transaction.commitTranAsync(i));
+        }
+
+        for (int i = 0; i < numberOfTransactions; i++)
+        {
+            try
+            {
+                assertEquals("Unexpected result", Integer.valueOf(i), futures.get(i).get(1000, TimeUnit.MILLISECONDS));
+                assertTrue("Transaction " + i + " is expected to fail", i != failingTransaction);
+            }
+            catch (ExecutionException e)
+            {
+                assertEquals("Unexpected failing transaction", failingTransaction, i);
+                assertTrue("Unexpected cause " + e.getCause(), e.getCause() instanceof StoreException);
+            }
+        }
+        assertRecords(store, resource, records);
+    }
+
+    private void reOpenStoreWithPipelinedCommit(final GenericJDBCMessageStore store)
+    {
+        final ConfiguredObject<?> parent = getVirtualHost();
+        when(parent.getContextValue(Boolean.class, PIPELINED_COMMIT)).thenReturn(true);
+        when(parent.getContextKeys(false)).thenReturn(Collections.singleton(PIPELINED_COMMIT));
+
+        store.closeMessageStore();
+        store.openMessageStore(parent);
+    }
+
     private void reOpenStoreWithInClauseMaxSize(final GenericJDBCMessageStore store, final int inClauseMaxSize)
     {
         final ConfiguredObject<?> parent = getVirtualHost();
@@ -303,6 +426,30 @@ public class JDBCMessageStoreTest extends MessageStoreTestCase
         return transactionalLog;
     }
 
+    private static class JDBCEnqueueRecordForTest implements MessageEnqueueRecord
+    {
+        private final UUID _queueId;
+        private final long _messageNumber;
+
+        private JDBCEnqueueRecordForTest(final UUID queueId, final long messageNumber)
+        {
+            _queueId = queueId;
+            _messageNumber = messageNumber;
+        }
+
+        @Override
+        public UUID getQueueId()
+        {
+            return _queueId;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return _messageNumber;
+        }
+    }
+
     @Override
     protected VirtualHost createVirtualHost()
     {
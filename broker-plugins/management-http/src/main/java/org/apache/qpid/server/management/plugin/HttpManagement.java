@@ -95,9 +95,11 @@ import org.apache.qpid.server.management.plugin.servlet.rest.BrokerQueryServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.JsonValueServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.LogoutServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.MetaDataServlet;
+import org.apache.qpid.server.management.plugin.servlet.rest.MetricsServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.QueueReportServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.RestServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.SaslServlet;
+import org.apache.qpid.server.management.plugin.servlet.rest.StatisticsStreamServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.StructureServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.TimeZoneServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.VirtualHostQueryServlet;
@@ -336,23 +338,31 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
         root.getServletContext().setAttribute(HttpManagementUtil.ATTR_BROKER, getBroker());
         root.getServletContext().setAttribute(HttpManagementUtil.ATTR_MANAGEMENT_CONFIGURATION, this);
 
-        root.addFilter(new FilterHolder(new ExceptionHandlingFilter()), "/*", EnumSet.allOf(DispatcherType.class));
+        // filters applied to /service/* support asynchronous requests for the statistics stream
+        final FilterHolder exceptionHandlingFilter = new FilterHolder(new ExceptionHandlingFilter());
+        exceptionHandlingFilter.setAsyncSupported(true);
+        root.addFilter(exceptionHandlingFilter, "/*", EnumSet.allOf(DispatcherType.class));
 
         FilterHolder corsFilter = new FilterHolder(new CrossOriginFilter());
         corsFilter.setInitParameter(CrossOriginFilter.ALLOWED_ORIGINS_PARAM, getCorsAllowOrigins());
         corsFilter.setInitParameter(CrossOriginFilter.ALLOWED_METHODS_PARAM, Joiner.on(",").join(getCorsAllowMethods()));
         corsFilter.setInitParameter(CrossOriginFilter.ALLOWED_HEADERS_PARAM, getCorsAllowHeaders());
         corsFilter.setInitParameter(CrossOriginFilter.ALLOW_CREDENTIALS_PARAM, String.valueOf(getCorsAllowCredentials()));
+        corsFilter.setAsyncSupported(true);
         root.addFilter(corsFilter, "/*", EnumSet.of(DispatcherType.REQUEST));
 
-        root.addFilter(new FilterHolder(new ForbiddingTraceFilter()), "/*", EnumSet.of(DispatcherType.REQUEST));
+        final FilterHolder forbiddingTraceFilter = new FilterHolder(new ForbiddingTraceFilter());
+        forbiddingTraceFilter.setAsyncSupported(true);
+        root.addFilter(forbiddingTraceFilter, "/*", EnumSet.of(DispatcherType.REQUEST));
 
         FilterHolder loggingFilter = new FilterHolder(new LoggingFilter());
+        loggingFilter.setAsyncSupported(true);
         root.addFilter(loggingFilter, "/api/*", EnumSet.of(DispatcherType.REQUEST));
         root.addFilter(loggingFilter, "/service/*", EnumSet.of(DispatcherType.REQUEST));
 
         FilterHolder restAuthorizationFilter = new FilterHolder(new AuthenticationCheckFilter());
         restAuthorizationFilter.setInitParameter(AuthenticationCheckFilter.INIT_PARAM_ALLOWED, "/service/sasl");
+        restAuthorizationFilter.setAsyncSupported(true);
         root.addFilter(restAuthorizationFilter, "/api/*", EnumSet.of(DispatcherType.REQUEST));
         root.addFilter(restAuthorizationFilter, "/apidocs/*", EnumSet.of(DispatcherType.REQUEST));
         root.addFilter(restAuthorizationFilter, "/service/*", EnumSet.of(DispatcherType.REQUEST));
@@ -392,6 +402,11 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
         root.addServlet(new ServletHolder(new StructureServlet()), "/service/structure");
         root.addServlet(new ServletHolder(new QueueReportServlet()), "/service/queuereport/*");
 
+        final ServletHolder statisticsStreamServlet = new ServletHolder(new StatisticsStreamServlet());
+        statisticsStreamServlet.setAsyncSupported(true);
+        root.addServlet(statisticsStreamServlet, "/service/statisticsstream/*");
+        root.addServlet(new ServletHolder(new MetricsServlet()), "/service/metrics");
+
         root.addServlet(new ServletHolder(new MetaDataServlet()), "/service/metadata");
 
         root.addServlet(new ServletHolder(new SaslServlet()), "/service/sasl");
@@ -85,6 +85,47 @@ public interface HttpManagementConfiguration<X extends HttpManagementConfigurati
     @ManagedContextDefault( name = SASL_EXCHANGE_EXPIRY_CONTEXT_NAME)
     long DEFAULT_SASL_EXCHANGE_EXPIRY = 60000L;
 
+    String METRICS_INCLUDE_PATTERNS_CONTEXT_NAME = "qpid.httpManagement.metrics.includePatterns";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = METRICS_INCLUDE_PATTERNS_CONTEXT_NAME,
+            description = "A mapping of category names (broker, virtualhost, queue, exchange, connection) to regular"
+                          + " expressions.  Only objects of a listed category whose names match the expression are"
+                          + " exposed by the metrics endpoint.")
+    String DEFAULT_METRICS_INCLUDE_PATTERNS = "{}";
+
+    String METRICS_EXCLUDE_PATTERNS_CONTEXT_NAME = "qpid.httpManagement.metrics.excludePatterns";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = METRICS_EXCLUDE_PATTERNS_CONTEXT_NAME,
+            description = "A mapping of category names (broker, virtualhost, queue, exchange, connection) to regular"
+                          + " expressions.  Objects of a listed category whose names match the expression are not"
+                          + " exposed by the metrics endpoint.")
+    String DEFAULT_METRICS_EXCLUDE_PATTERNS = "{}";
+
+    String STATISTICS_STREAM_THREAD_COUNT_CONTEXT_NAME = "qpid.httpManagement.statisticsStream.threadCount";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = STATISTICS_STREAM_THREAD_COUNT_CONTEXT_NAME,
+            description = "The number of threads reading and publishing the statistics of statistics streams.")
+    int DEFAULT_STATISTICS_STREAM_THREAD_COUNT = 2;
+
+    String STATISTICS_STREAM_MAX_FEEDS_CONTEXT_NAME = "qpid.httpManagement.statisticsStream.maxFeeds";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = STATISTICS_STREAM_MAX_FEEDS_CONTEXT_NAME,
+            description = "The maximum number of distinct sets of statistics which may be streamed at once.")
+    int DEFAULT_STATISTICS_STREAM_MAX_FEEDS = 64;
+
+    String STATISTICS_STREAM_MAX_SUBSCRIPTIONS_CONTEXT_NAME = "qpid.httpManagement.statisticsStream.maxSubscriptions";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = STATISTICS_STREAM_MAX_SUBSCRIPTIONS_CONTEXT_NAME,
+            description = "The maximum number of statistics streams which may be open at once.")
+    int DEFAULT_STATISTICS_STREAM_MAX_SUBSCRIPTIONS = 256;
+
+    String STATISTICS_STREAM_WRITE_TIMEOUT_CONTEXT_NAME = "qpid.httpManagement.statisticsStream.writeTimeout";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = STATISTICS_STREAM_WRITE_TIMEOUT_CONTEXT_NAME,
+            description = "The time, in milliseconds, a statistics stream may go without accepting written data"
+                          + " before it is closed.")
+    long DEFAULT_STATISTICS_STREAM_WRITE_TIMEOUT = 30000L;
+
     AuthenticationProvider getAuthenticationProvider(HttpServletRequest request);
     Port<?> getPort(HttpServletRequest request);
 }
@@ -92,4 +92,16 @@ public interface ManagementController
     Object formatConfiguredObject(Object content,
                                   Map<String, List<String>> parameters,
                                   boolean isSecureOrAllowedOnInsecureChannel);
+
+    /**
+     * Formats the content of a model object response for writing as JSON.  Unlike
+     * {@link #formatConfiguredObject(Object, Map, boolean)}, the returned value may defer the conversion of the
+     * configured objects until it is serialized, writing them straight to the response stream.
+     */
+    default Object formatConfiguredObjectForStreaming(Object content,
+                                                      Map<String, List<String>> parameters,
+                                                      boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        return formatConfiguredObject(content, parameters, isSecureOrAllowedOnInsecureChannel);
+    }
 }
@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +57,7 @@ import org.apache.qpid.server.management.plugin.ResponseType;
 import org.apache.qpid.server.management.plugin.controller.AbstractManagementController;
 import org.apache.qpid.server.management.plugin.controller.ControllerManagementResponse;
 import org.apache.qpid.server.management.plugin.controller.ConverterHelper;
+import org.apache.qpid.server.management.plugin.servlet.rest.ConfiguredObjectStreamingResponse;
 import org.apache.qpid.server.management.plugin.servlet.rest.ConfiguredObjectToMapConverter;
 import org.apache.qpid.server.management.plugin.servlet.rest.NotFoundException;
 import org.apache.qpid.server.management.plugin.servlet.rest.RequestInfo;
@@ -80,6 +82,8 @@ public class LatestManagementController extends AbstractManagementController
     private static final String EXTRACT_INITIAL_CONFIG_PARAM = "extractInitialConfig";
     private static final String EXCLUDE_INHERITED_CONTEXT_PARAM = "excludeInheritedContext";
     private static final String SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST = "singletonModelObjectResponseAsList";
+    private static final String OFFSET_PARAM = "offset";
+    private static final String LIMIT_PARAM = "limit";
     private static final Set<String> RESERVED_PARAMS =
             new HashSet<>(Arrays.asList(DEPTH_PARAM,
                                         SORT_PARAM,
@@ -88,11 +92,16 @@ public class LatestManagementController extends AbstractManagementController
                                         EXTRACT_INITIAL_CONFIG_PARAM,
                                         CONTENT_DISPOSITION_ATTACHMENT_FILENAME_PARAM,
                                         EXCLUDE_INHERITED_CONTEXT_PARAM,
-                                        SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST));
+                                        SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST,
+                                        OFFSET_PARAM,
+                                        LIMIT_PARAM));
 
     private static final int DEFAULT_DEPTH = 0;
     private static final int DEFAULT_OVERSIZE = 120;
     private static final Class<? extends ConfiguredObject>[] EMPTY_HIERARCHY = new Class[0];
+    private static final Comparator<ConfiguredObject<?>> PAGE_ORDER =
+            Comparator.comparing((ConfiguredObject<?> object) -> object.getName())
+                      .thenComparing(ConfiguredObject::getId);
 
 
     private final ConcurrentMap<ConfiguredObject<?>, ConfiguredObjectFinder> _configuredObjectFinders =
@@ -207,7 +216,7 @@ public class LatestManagementController extends AbstractManagementController
             }
             else
             {
-                return allObjects;
+                return getPage(allObjects, parameters);
             }
         }
         catch (RuntimeException e)
@@ -220,6 +229,44 @@ public class LatestManagementController extends AbstractManagementController
         }
      }
 
+    private Collection<ConfiguredObject<?>> getPage(final Collection<ConfiguredObject<?>> objects,
+                                                    final Map<String, List<String>> parameters)
+    {
+        if (!parameters.containsKey(OFFSET_PARAM) && !parameters.containsKey(LIMIT_PARAM))
+        {
+            return objects;
+        }
+        final int offset = getNonNegativeIntParameter(parameters, OFFSET_PARAM, 0);
+        final int limit = getNonNegativeIntParameter(parameters, LIMIT_PARAM, Integer.MAX_VALUE);
+        return objects.stream().sorted(PAGE_ORDER).skip(offset).limit(limit).collect(Collectors.toList());
+    }
+
+    private int getNonNegativeIntParameter(final Map<String, List<String>> parameters,
+                                           final String name,
+                                           final int defaultValue)
+    {
+        final String value = getParameter(name, parameters);
+        if (value == null)
+        {
+            return defaultValue;
+        }
+        try
+        {
+            final int intValue = Integer.parseInt(value);
+            if (intValue >= 0)
+            {
+                return intValue;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            // fall through
+        }
+        throw createBadRequestManagementException(String.format("Parameter '%s' must be a non-negative integer: '%s'",
+                                                                name,
+                                                                value));
+    }
+
     @Override
     public ConfiguredObject<?> createOrUpdate(final ConfiguredObject<?> root,
                                               final String category,
@@ -521,25 +568,14 @@ public class LatestManagementController extends AbstractManagementController
                                          final Map<String, List<String>> parameters,
                                          final boolean isSecureOrAllowedOnInsecureChannel)
     {
-
-        final int depth = ConverterHelper.getIntParameterFromRequest(parameters, DEPTH_PARAM, DEFAULT_DEPTH);
-        final int oversizeThreshold = ConverterHelper.getIntParameterFromRequest(parameters, OVERSIZE_PARAM, DEFAULT_OVERSIZE);
-        final boolean actuals = Boolean.parseBoolean(getParameter(ACTUALS_PARAM, parameters));
-        final String excludeInheritedContextParameter = getParameter(EXCLUDE_INHERITED_CONTEXT_PARAM, parameters);
-        final boolean excludeInheritedContext = excludeInheritedContextParameter == null
-                                                || Boolean.parseBoolean(excludeInheritedContextParameter);
+        final ConfiguredObjectToMapConverter.ConverterOptions converterOptions =
+                getConverterOptions(parameters, isSecureOrAllowedOnInsecureChannel);
         final boolean responseAsList =
                 Boolean.parseBoolean(getParameter(SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST, parameters));
 
         if (content instanceof ConfiguredObject)
         {
-            Object object = convertObject(
-                    (ConfiguredObject) content,
-                    depth,
-                    actuals,
-                    oversizeThreshold,
-                    isSecureOrAllowedOnInsecureChannel,
-                    excludeInheritedContext);
+            Object object = convertObject((ConfiguredObject) content, converterOptions);
             return responseAsList ? Collections.singletonList(object) : object;
         }
         else if (content instanceof Collection)
@@ -549,11 +585,7 @@ public class LatestManagementController extends AbstractManagementController
                                                                               .map(ConfiguredObject.class::cast)
                                                                               .map(o -> convertObject(
                                                                                       o,
-                                                                                      depth,
-                                                                                      actuals,
-                                                                                      oversizeThreshold,
-                                                                                      isSecureOrAllowedOnInsecureChannel,
-                                                                                      excludeInheritedContext)).collect(Collectors.toSet());
+                                                                                      converterOptions)).collect(Collectors.toSet());
             if (!results.isEmpty())
             {
                 return results;
@@ -562,19 +594,59 @@ public class LatestManagementController extends AbstractManagementController
         return content;
     }
 
-    private Map<String,Object> convertObject(final ConfiguredObject<?> configuredObject, final int depth,
-                                 final boolean actuals,
-                                 final int oversizeThreshold,
-                                 final boolean isSecureOrConfidentialOperationAllowedOnInsecureChannel,
-                                 final boolean excludeInheritedContext)
+    @Override
+    public Object formatConfiguredObjectForStreaming(final Object content,
+                                                     final Map<String, List<String>> parameters,
+                                                     final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        final ConfiguredObjectToMapConverter.ConverterOptions converterOptions =
+                getConverterOptions(parameters, isSecureOrAllowedOnInsecureChannel);
+
+        if (content instanceof ConfiguredObject)
+        {
+            final boolean responseAsList =
+                    Boolean.parseBoolean(getParameter(SINGLETON_MODEL_OBJECT_RESPONSE_AS_LIST, parameters));
+            return ConfiguredObjectStreamingResponse.forObject(_objectConverter,
+                                                               (ConfiguredObject<?>) content,
+                                                               responseAsList,
+                                                               converterOptions);
+        }
+        else if (content instanceof Collection)
+        {
+            final List<ConfiguredObject<?>> objects = ((Collection<?>) content).stream()
+                                                                              .filter(o -> o instanceof ConfiguredObject)
+                                                                              .map(o -> (ConfiguredObject<?>) o)
+                                                                              .collect(Collectors.toList());
+            if (!objects.isEmpty())
+            {
+                return ConfiguredObjectStreamingResponse.forCollection(_objectConverter, objects, converterOptions);
+            }
+        }
+        return content;
+    }
+
+    private ConfiguredObjectToMapConverter.ConverterOptions getConverterOptions(final Map<String, List<String>> parameters,
+                                                                                final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        final int depth = ConverterHelper.getIntParameterFromRequest(parameters, DEPTH_PARAM, DEFAULT_DEPTH);
+        final int oversizeThreshold = ConverterHelper.getIntParameterFromRequest(parameters, OVERSIZE_PARAM, DEFAULT_OVERSIZE);
+        final boolean actuals = Boolean.parseBoolean(getParameter(ACTUALS_PARAM, parameters));
+        final String excludeInheritedContextParameter = getParameter(EXCLUDE_INHERITED_CONTEXT_PARAM, parameters);
+        final boolean excludeInheritedContext = excludeInheritedContextParameter == null
+                                                || Boolean.parseBoolean(excludeInheritedContextParameter);
+        return new ConfiguredObjectToMapConverter.ConverterOptions(depth,
+                                                                   actuals,
+                                                                   oversizeThreshold,
+                                                                   isSecureOrAllowedOnInsecureChannel,
+                                                                   excludeInheritedContext);
+    }
+
+    private Map<String,Object> convertObject(final ConfiguredObject<?> configuredObject,
+                                             final ConfiguredObjectToMapConverter.ConverterOptions converterOptions)
     {
-        return _objectConverter.convertObjectToMap(configuredObject, configuredObject.getCategoryClass(),
-                                                   new ConfiguredObjectToMapConverter.ConverterOptions(
-                                                           depth,
-                                                           actuals,
-                                                           oversizeThreshold,
-                                                           isSecureOrConfidentialOperationAllowedOnInsecureChannel,
-                                                           excludeInheritedContext));
+        return _objectConverter.convertObjectToMap(configuredObject,
+                                                   configuredObject.getCategoryClass(),
+                                                   converterOptions);
     }
 
     private boolean isFullPath(final ConfiguredObject root, final List<String> parts, final String category)
@@ -190,7 +190,7 @@ public class LatestManagementControllerAdapter implements ManagementController
             {
                 result = ((Collection<?>) result).stream()
                                                  .map(o -> new LegacyConfiguredObjectObject((ConfiguredObject<?>) o))
-                                                 .collect(Collectors.toSet());
+                                                 .collect(Collectors.toList());
             }
             return new ControllerManagementResponse(ResponseType.MODEL_OBJECT, result);
         }
@@ -230,6 +230,23 @@ public class LatestManagementControllerAdapter implements ManagementController
     public Object formatConfiguredObject(final Object data,
                                          final Map<String, List<String>> parameters,
                                          final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        return _latestManagementController.formatConfiguredObject(unwrap(data),
+                                                                  parameters,
+                                                                  isSecureOrAllowedOnInsecureChannel);
+    }
+
+    @Override
+    public Object formatConfiguredObjectForStreaming(final Object data,
+                                                     final Map<String, List<String>> parameters,
+                                                     final boolean isSecureOrAllowedOnInsecureChannel)
+    {
+        return _latestManagementController.formatConfiguredObjectForStreaming(unwrap(data),
+                                                                              parameters,
+                                                                              isSecureOrAllowedOnInsecureChannel);
+    }
+
+    private Object unwrap(final Object data)
     {
         Object content = data;
         if (content instanceof LegacyConfiguredObjectObject)
@@ -243,12 +260,9 @@ public class LatestManagementControllerAdapter implements ManagementController
                                             .filter(o -> o instanceof LegacyConfiguredObjectObject)
                                             .map(LegacyConfiguredObjectObject.class::cast)
                                             .map(LegacyConfiguredObjectObject::getConfiguredObject)
-                                            .collect(Collectors.toSet());
+                                            .collect(Collectors.toList());
         }
-
-        return _latestManagementController.formatConfiguredObject(content,
-                                                                  parameters,
-                                                                  isSecureOrAllowedOnInsecureChannel);
+        return content;
     }
 
     private Class<? extends ConfiguredObject> getRequestCategoryClass(final String categoryName,
@@ -275,7 +289,7 @@ public class LatestManagementControllerAdapter implements ManagementController
             return ((Collection<?>) result).stream().filter(o -> o instanceof ConfiguredObject)
                                            .map(ConfiguredObject.class::cast)
                                            .map(o -> new LegacyConfiguredObjectObject((ConfiguredObject<?>) o))
-                                           .collect(Collectors.toSet());
+                                           .collect(Collectors.toList());
         }
         return result;
     }
@@ -357,7 +371,7 @@ public class LatestManagementControllerAdapter implements ManagementController
                 {
                     returnValue = ((Collection) returnValue).stream()
                                                             .map(o -> new LegacyConfiguredObjectObject((ConfiguredObject<?>) o))
-                                                            .collect(Collectors.toSet());
+                                                            .collect(Collectors.toList());
                     responseType = ResponseType.MODEL_OBJECT;
                 }
                 else
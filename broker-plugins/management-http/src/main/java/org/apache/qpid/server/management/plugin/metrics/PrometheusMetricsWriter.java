@@ -0,0 +1,369 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectStatistic;
+import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
+import org.apache.qpid.server.model.Connection;
+import org.apache.qpid.server.model.Exchange;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.model.VirtualHostNode;
+
+/**
+ * Writes the statistics of the broker, its virtual hosts and their queues, exchanges and connections in the
+ * Prometheus text exposition format.
+ * <p>
+ * Each statistic becomes a metric family named <code>qpid_&lt;category&gt;_&lt;statistic&gt;</code>, with the
+ * statistic name converted to snake case and cumulative statistics suffixed with <code>_total</code>.  Objects are
+ * identified by labels holding the name of the object and of its virtual host.  Statistic values are read through
+ * the statistic accessors of the type registry; date valued statistics are written as milliseconds since the epoch
+ * and statistics of other non-numeric types are omitted.
+ * <p>
+ * As a broker may have tens of thousands of queues, the objects exposed can be restricted per category by include
+ * and exclude patterns matched against the object name.  An object is written if its category has no include
+ * pattern or its name matches it, and its category has no exclude pattern or its name does not match it.
+ */
+public class PrometheusMetricsWriter
+{
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    static final String METRIC_PREFIX = "qpid_";
+    static final String VIRTUAL_HOST_LABEL = "virtualhost";
+
+    private static final Map<String, String> SNAKE_CASE_NAMES = new ConcurrentHashMap<>();
+
+    private final ConfiguredObjectTypeRegistry _typeRegistry;
+    private final Map<String, Pattern> _includePatterns;
+    private final Map<String, Pattern> _excludePatterns;
+    private final Map<Class<?>, Map<String, ConfiguredObjectStatistic<?, ?>>> _statisticsByClass = new HashMap<>();
+
+    public PrometheusMetricsWriter(final ConfiguredObjectTypeRegistry typeRegistry,
+                                   final Map<String, String> includePatterns,
+                                   final Map<String, String> excludePatterns)
+    {
+        _typeRegistry = typeRegistry;
+        _includePatterns = compile(includePatterns);
+        _excludePatterns = compile(excludePatterns);
+    }
+
+    /**
+     * Writes the metrics of the given root, which must be either the broker or a virtual host.
+     */
+    public void write(final ConfiguredObject<?> root, final Writer writer) throws IOException
+    {
+        final List<VirtualHost<?>> virtualHosts = new ArrayList<>();
+        if (root instanceof Broker)
+        {
+            final Broker<?> broker = (Broker<?>) root;
+            if (isIncluded(Broker.class, broker.getName()))
+            {
+                writeCategory(writer, Broker.class, Collections.singletonList(new LabelledObject(broker, "")));
+            }
+            for (VirtualHostNode<?> node : broker.getChildren(VirtualHostNode.class))
+            {
+                final VirtualHost<?> virtualHost = node.getVirtualHost();
+                if (virtualHost != null)
+                {
+                    virtualHosts.add(virtualHost);
+                }
+            }
+        }
+        else if (root instanceof VirtualHost)
+        {
+            virtualHosts.add((VirtualHost<?>) root);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Metrics are not available for " + root.getCategoryClass().getSimpleName());
+        }
+
+        final List<LabelledObject> hosts = new ArrayList<>();
+        final List<LabelledObject> queues = new ArrayList<>();
+        final List<LabelledObject> exchanges = new ArrayList<>();
+        final List<LabelledObject> connections = new ArrayList<>();
+        for (VirtualHost<?> virtualHost : virtualHosts)
+        {
+            final String hostLabel = label(VIRTUAL_HOST_LABEL, virtualHost.getName());
+            if (isIncluded(VirtualHost.class, virtualHost.getName()))
+            {
+                hosts.add(new LabelledObject(virtualHost, "{" + hostLabel + "}"));
+            }
+            addChildren(queues, Queue.class, virtualHost.getChildren(Queue.class), hostLabel);
+            addChildren(exchanges, Exchange.class, virtualHost.getChildren(Exchange.class), hostLabel);
+            addChildren(connections, Connection.class, virtualHost.getConnections(), hostLabel);
+        }
+
+        writeCategory(writer, VirtualHost.class, hosts);
+        writeCategory(writer, Queue.class, queues);
+        writeCategory(writer, Exchange.class, exchanges);
+        writeCategory(writer, Connection.class, connections);
+        writer.flush();
+    }
+
+    private void addChildren(final List<LabelledObject> target,
+                             final Class<? extends ConfiguredObject> category,
+                             final Collection<? extends ConfiguredObject> children,
+                             final String hostLabel)
+    {
+        final String labelName = category.getSimpleName().toLowerCase(Locale.ENGLISH);
+        for (ConfiguredObject<?> child : (Collection<? extends ConfiguredObject<?>>) children)
+        {
+            if (isIncluded(category, child.getName()))
+            {
+                target.add(new LabelledObject(child, "{" + hostLabel + "," + label(labelName, child.getName()) + "}"));
+            }
+        }
+    }
+
+    private void writeCategory(final Writer writer,
+                               final Class<? extends ConfiguredObject> category,
+                               final List<LabelledObject> objects) throws IOException
+    {
+        if (objects.isEmpty())
+        {
+            return;
+        }
+
+        final Map<String, ConfiguredObjectStatistic<?, ?>> families = new TreeMap<>();
+        for (LabelledObject labelledObject : objects)
+        {
+            families.putAll(getStatistics(labelledObject.getObject().getClass()));
+        }
+
+        final String categoryPrefix = METRIC_PREFIX + toSnakeCase(category.getSimpleName()) + "_";
+        for (Map.Entry<String, ConfiguredObjectStatistic<?, ?>> family : families.entrySet())
+        {
+            final ConfiguredObjectStatistic<?, ?> statistic = family.getValue();
+            final boolean counter = statistic.getStatisticType() == StatisticType.CUMULATIVE;
+            final String metricName = categoryPrefix + toSnakeCase(family.getKey()) + (counter ? "_total" : "");
+
+            boolean headerWritten = false;
+            for (LabelledObject labelledObject : objects)
+            {
+                final ConfiguredObject<?> object = labelledObject.getObject();
+                final ConfiguredObjectStatistic<?, ?> objectStatistic =
+                        getStatistics(object.getClass()).get(family.getKey());
+                final String value = objectStatistic == null ? null : formatValue(getValue(objectStatistic, object));
+                if (value != null)
+                {
+                    if (!headerWritten)
+                    {
+                        writer.write("# HELP ");
+                        writer.write(metricName);
+                        writer.write(' ');
+                        writer.write(escapeHelp(statistic.getDescription()));
+                        writer.write("\n# TYPE ");
+                        writer.write(metricName);
+                        writer.write(counter ? " counter\n" : " gauge\n");
+                        headerWritten = true;
+                    }
+                    writer.write(metricName);
+                    writer.write(labelledObject.getLabels());
+                    writer.write(' ');
+                    writer.write(value);
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+    private Map<String, ConfiguredObjectStatistic<?, ?>> getStatistics(final Class<?> objectClass)
+    {
+        Map<String, ConfiguredObjectStatistic<?, ?>> statistics = _statisticsByClass.get(objectClass);
+        if (statistics == null)
+        {
+            statistics = new HashMap<>();
+            @SuppressWarnings("unchecked")
+            final Collection<ConfiguredObjectStatistic<?, ?>> registered =
+                    _typeRegistry.getStatistics((Class<? extends ConfiguredObject>) objectClass);
+            if (registered != null)
+            {
+                for (ConfiguredObjectStatistic<?, ?> statistic : registered)
+                {
+                    statistics.put(statistic.getName(), statistic);
+                }
+            }
+            _statisticsByClass.put(objectClass, statistics);
+        }
+        return statistics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object getValue(final ConfiguredObjectStatistic statistic, final ConfiguredObject<?> object)
+    {
+        return statistic.getValue(object);
+    }
+
+    private boolean isIncluded(final Class<? extends ConfiguredObject> category, final String name)
+    {
+        final String key = category.getSimpleName().toLowerCase(Locale.ENGLISH);
+        final Pattern include = _includePatterns.get(key);
+        final Pattern exclude = _excludePatterns.get(key);
+        return (include == null || include.matcher(name).matches())
+               && (exclude == null || !exclude.matcher(name).matches());
+    }
+
+    static String formatValue(final Object value)
+    {
+        if (value instanceof Double || value instanceof Float)
+        {
+            final double doubleValue = ((Number) value).doubleValue();
+            if (Double.isNaN(doubleValue))
+            {
+                return "NaN";
+            }
+            else if (Double.isInfinite(doubleValue))
+            {
+                return doubleValue > 0 ? "+Inf" : "-Inf";
+            }
+            return Double.toString(doubleValue);
+        }
+        else if (value instanceof Number)
+        {
+            return value.toString();
+        }
+        else if (value instanceof Date)
+        {
+            return Long.toString(((Date) value).getTime());
+        }
+        return null;
+    }
+
+    static String toSnakeCase(final String name)
+    {
+        return SNAKE_CASE_NAMES.computeIfAbsent(name, n ->
+        {
+            final StringBuilder builder = new StringBuilder(n.length() + 8);
+            for (int i = 0; i < n.length(); i++)
+            {
+                final char c = n.charAt(i);
+                if (Character.isUpperCase(c))
+                {
+                    if (i > 0 && (Character.isLowerCase(n.charAt(i - 1))
+                                  || (i + 1 < n.length() && Character.isLowerCase(n.charAt(i + 1)))))
+                    {
+                        builder.append('_');
+                    }
+                    builder.append(Character.toLowerCase(c));
+                }
+                else if (Character.isLetterOrDigit(c))
+                {
+                    builder.append(c);
+                }
+                else
+                {
+                    builder.append('_');
+                }
+            }
+            return builder.toString();
+        });
+    }
+
+    static String label(final String name, final String value)
+    {
+        final StringBuilder builder = new StringBuilder(name.length() + value.length() + 3);
+        builder.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++)
+        {
+            final char c = value.charAt(i);
+            switch (c)
+            {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String escapeHelp(final String help)
+    {
+        if (help == null)
+        {
+            return "";
+        }
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static Map<String, Pattern> compile(final Map<String, String> patterns)
+    {
+        final Map<String, Pattern> compiled = new HashMap<>();
+        if (patterns != null)
+        {
+            for (Map.Entry<String, String> entry : patterns.entrySet())
+            {
+                if (entry.getValue() != null)
+                {
+                    compiled.put(entry.getKey().toLowerCase(Locale.ENGLISH), Pattern.compile(entry.getValue()));
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private static final class LabelledObject
+    {
+        private final ConfiguredObject<?> _object;
+        private final String _labels;
+
+        private LabelledObject(final ConfiguredObject<?> object, final String labels)
+        {
+            _object = object;
+            _labels = labels;
+        }
+
+        ConfiguredObject<?> getObject()
+        {
+            return _object;
+        }
+
+        String getLabels()
+        {
+            return _labels;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.report;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ *     A streaming binary report listing the messages on a queue in a columnar layout, suited to dumping queues of
+ *     many millions of messages.  The report is run using the URL
+ *     {@code http://<broker>/service/queuereport/<virtual host name>/<queue name>/columnar} and accepts the
+ *     parameters of a {@link QueueStreamingReport}.
+ * </p>
+ * <p>
+ *     All values are written big-endian, as by {@link DataOutputStream}.  The report starts with the int
+ *     {@value #MAGIC}, the int format {@value #VERSION}, the queue name, and the number of header columns followed
+ *     by the name of each.  Each batch then starts with its number of rows, followed by its columns in turn:
+ * </p>
+ * <ol>
+ *     <li>message number (long)</li>
+ *     <li>size (long)</li>
+ *     <li>arrival time in milliseconds since the epoch, zero if unknown (long)</li>
+ *     <li>expiration time in milliseconds since the epoch, zero if none (long)</li>
+ *     <li>persistent (boolean)</li>
+ *     <li>priority (byte)</li>
+ *     <li>message id (nullable string)</li>
+ *     <li>for each header column, the value of the header as a nullable string</li>
+ *     <li>if {@code includeContent} is true, the content (int length followed by the bytes)</li>
+ * </ol>
+ * <p>
+ *     A batch of zero rows ends the report.  Strings are written as their length in bytes (int) followed by their
+ *     UTF-8 encoding, and nullable strings are preceded by a boolean which is false for null.  If no {@code header} parameter is given the report has no header
+ *     columns.
+ * </p>
+ */
+public class ColumnarQueueReport extends QueueStreamingReport
+{
+    public static final String NAME = "columnar";
+    public static final int MAGIC = 0x51524550;
+    public static final int VERSION = 1;
+
+    private DataOutputStream _output;
+    private List<String> _headerColumns;
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public String getContentType()
+    {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public void startReport(final OutputStream outputStream) throws IOException
+    {
+        final Set<String> headers = getHeaders();
+        _headerColumns = headers == null ? Collections.<String>emptyList() : new ArrayList<>(headers);
+        _output = new DataOutputStream(outputStream);
+        _output.writeInt(MAGIC);
+        _output.writeInt(VERSION);
+        writeString(getQueueName());
+        _output.writeInt(_headerColumns.size());
+        for (String header : _headerColumns)
+        {
+            writeString(header);
+        }
+    }
+
+    @Override
+    public void writeBatch(final List<ReportableMessage> batch, final OutputStream outputStream) throws IOException
+    {
+        _output.writeInt(batch.size());
+        for (ReportableMessage message : batch)
+        {
+            _output.writeLong(message.getMessageNumber());
+        }
+        for (ReportableMessage message : batch)
+        {
+            _output.writeLong(message.getSize());
+        }
+        for (ReportableMessage message : batch)
+        {
+            writeDate(message.getArrivalTime());
+        }
+        for (ReportableMessage message : batch)
+        {
+            writeDate(message.getExpiration());
+        }
+        for (ReportableMessage message : batch)
+        {
+            _output.writeBoolean(message.isPersistent());
+        }
+        for (ReportableMessage message : batch)
+        {
+            _output.writeByte(message.getMessageHeader().getPriority());
+        }
+        for (ReportableMessage message : batch)
+        {
+            writeNullableString(message.getMessageHeader().getMessageId());
+        }
+        for (String header : _headerColumns)
+        {
+            for (ReportableMessage message : batch)
+            {
+                final Object value = message.getMessageHeader().getHeader(header);
+                writeNullableString(value == null ? null : String.valueOf(value));
+            }
+        }
+        if (isIncludeContent())
+        {
+            for (ReportableMessage message : batch)
+            {
+                final ByteBuffer content = message.getContent();
+                final byte[] bytes = new byte[content.remaining()];
+                content.get(bytes);
+                _output.writeInt(bytes.length);
+                _output.write(bytes);
+            }
+        }
+        _output.flush();
+    }
+
+    @Override
+    public void finishReport(final OutputStream outputStream) throws IOException
+    {
+        _output.writeInt(0);
+        _output.flush();
+    }
+
+    private void writeDate(final Date date) throws IOException
+    {
+        _output.writeLong(date == null ? 0L : date.getTime());
+    }
+
+    private void writeNullableString(final String value) throws IOException
+    {
+        _output.writeBoolean(value != null);
+        if (value != null)
+        {
+            writeString(value);
+        }
+    }
+
+    private void writeString(final String value) throws IOException
+    {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        _output.writeInt(bytes.length);
+        _output.write(bytes);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ *     A report which writes its output to the HTTP response while the queue is being visited, rather than building
+ *     the whole report in memory before returning it.  Messages added to the report are collected into batches;
+ *     whenever a batch is full it is passed to {@link #writeBatch(List, OutputStream)} and then discarded, so no more
+ *     than one batch of messages is held at any time.
+ * </p>
+ * <p>
+ *     In addition to any parameters of its own, a streaming report accepts the following parameters:
+ * </p>
+ * <ul>
+ *     <li>{@code batchSize} - the number of messages in each batch, {@value #DEFAULT_BATCH_SIZE} by default</li>
+ *     <li>{@code sampleInterval} - only every n-th message on the queue is added to the report; by default every
+ *     message is added</li>
+ *     <li>{@code limit} - the maximum number of messages to add to the report; by default there is no limit</li>
+ *     <li>{@code header} - the name of a message header to include in the report.  The parameter may be given more
+ *     than once.  When it is given, only the named headers are retrieved from each message; otherwise all headers
+ *     are</li>
+ *     <li>{@code includeContent} - whether the content of each message is retrieved; false by default, in which case
+ *     {@link ReportableMessage#getContent()} returns null</li>
+ * </ul>
+ */
+public abstract class QueueStreamingReport extends QueueReport<Void>
+{
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final List<ReportableMessage> _batch = new ArrayList<>();
+    private int _batchSize = DEFAULT_BATCH_SIZE;
+    private int _sampleInterval = 1;
+    private long _limit;
+    private long _added;
+    private Set<String> _headers;
+    private boolean _includeContent;
+
+    public QueueStreamingReport()
+    {
+    }
+
+    /**
+     * Called by the system once, before any batch is written.
+     *
+     * @param outputStream the stream to which the report is written
+     */
+    public abstract void startReport(final OutputStream outputStream) throws IOException;
+
+    /**
+     * Called by the system to write each batch of messages.  The messages are not retained by the system once this
+     * method returns.
+     *
+     * @param batch the messages of the batch, never empty
+     * @param outputStream the stream to which the report is written
+     */
+    public abstract void writeBatch(final List<ReportableMessage> batch, final OutputStream outputStream)
+            throws IOException;
+
+    /**
+     * Called by the system once, after the last batch is written.
+     *
+     * @param outputStream the stream to which the report is written
+     */
+    public abstract void finishReport(final OutputStream outputStream) throws IOException;
+
+    @Override
+    public final void addMessage(final ReportableMessage reportableMessage)
+    {
+        _batch.add(reportableMessage);
+        _added++;
+    }
+
+    /**
+     * Returns true once the report's {@code limit} has been reached.  Reports overriding this method should also
+     * return true in that case.
+     */
+    @Override
+    public boolean isComplete()
+    {
+        return _limit > 0 && _added >= _limit;
+    }
+
+    @Override
+    public final Void getReport()
+    {
+        return null;
+    }
+
+    public void setBatchSize(final String batchSize)
+    {
+        _batchSize = parsePositive("batchSize", batchSize);
+    }
+
+    public void setSampleInterval(final String sampleInterval)
+    {
+        _sampleInterval = parsePositive("sampleInterval", sampleInterval);
+    }
+
+    public void setLimit(final String limit)
+    {
+        _limit = parsePositive("limit", limit);
+    }
+
+    public void setHeader(final String[] headers)
+    {
+        _headers = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(headers)));
+    }
+
+    public void setIncludeContent(final String includeContent)
+    {
+        _includeContent = Boolean.parseBoolean(includeContent);
+    }
+
+    /**
+     * @return the names of the headers to include in the report, or null if all headers are included
+     */
+    public final Set<String> getHeaders()
+    {
+        return _headers;
+    }
+
+    public final boolean isIncludeContent()
+    {
+        return _includeContent;
+    }
+
+    final int getSampleInterval()
+    {
+        return _sampleInterval;
+    }
+
+    final void flushBatch(final OutputStream outputStream, final boolean force) throws IOException
+    {
+        if (!_batch.isEmpty() && (force || _batch.size() >= _batchSize))
+        {
+            try
+            {
+                writeBatch(Collections.unmodifiableList(_batch), outputStream);
+            }
+            finally
+            {
+                _batch.clear();
+            }
+        }
+    }
+
+    private static int parsePositive(final String name, final String value)
+    {
+        final int parsed;
+        try
+        {
+            parsed = Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException(String.format("Parameter '%s' must be a positive integer: %s",
+                                                             name,
+                                                             value));
+        }
+        if (parsed <= 0)
+        {
+            throw new IllegalArgumentException(String.format("Parameter '%s' must be a positive integer: %s",
+                                                             name,
+                                                             value));
+        }
+        return parsed;
+    }
+}
@@ -20,6 +20,9 @@
  */
 package org.apache.qpid.server.management.plugin.report;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
@@ -40,6 +43,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.MessageInfoImpl;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
@@ -73,6 +77,11 @@ public class ReportRunner<T>
         return _report instanceof QueueBinaryReport;
     }
 
+    public boolean isStreamingReport()
+    {
+        return _report instanceof QueueStreamingReport;
+    }
+
     public static ReportRunner<?> createRunner(final String reportName, final Map<String, String[]> parameterMap)
     {
         QueueReport<?> report = getReport(reportName);
@@ -132,6 +141,11 @@ public class ReportRunner<T>
                     }
                     catch (InvocationTargetException e)
                     {
+                        if (e.getCause() instanceof IllegalArgumentException)
+                        {
+                            // the report rejected the value; let the caller report it as a bad request
+                            throw (IllegalArgumentException) e.getCause();
+                        }
                         LOGGER.info("Error setting parameter '" + key + "' for report " + report.getName(), e);
                     }
                 }
@@ -203,23 +217,65 @@ public class ReportRunner<T>
         @Override
         public boolean visit(final QueueEntry entry)
         {
-            _report.addMessage(convertMessage(entry));
+            _report.addMessage(convertMessage(entry, null, true));
             return _report.isComplete();
         }
 
 
     }
 
+    private static class StreamingReportVisitor implements QueueEntryVisitor
+    {
+        private final QueueStreamingReport _report;
+        private final OutputStream _outputStream;
+        private long _visited;
 
-    private static ReportableMessage convertMessage(QueueEntry entry)
+        private StreamingReportVisitor(final QueueStreamingReport report, final OutputStream outputStream)
+        {
+            _report = report;
+            _outputStream = outputStream;
+        }
+
+        @Override
+        public boolean visit(final QueueEntry entry)
+        {
+            if (_visited++ % _report.getSampleInterval() != 0)
+            {
+                return false;
+            }
+            _report.addMessage(convertMessage(entry, _report.getHeaders(), _report.isIncludeContent()));
+            try
+            {
+                _report.flushBatch(_outputStream, false);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            return _report.isComplete();
+        }
+    }
+
+    private static ReportableMessage convertMessage(final QueueEntry entry,
+                                                    final Set<String> headerNames,
+                                                    final boolean includeContent)
     {
-        final MessageInfoImpl messageInfo = new MessageInfoImpl(entry, true);
+        final MessageInfoImpl messageInfo = new MessageInfoImpl(entry, headerNames == null);
         ServerMessage message = entry.getMessage();
-        byte[] content;
-        try (QpidByteBuffer contentBuffer = message.getContent())
+        final Map<String, Object> headers =
+                headerNames == null ? messageInfo.getHeaders() : projectHeaders(message.getMessageHeader(), headerNames);
+        final byte[] content;
+        if (includeContent)
+        {
+            try (QpidByteBuffer contentBuffer = message.getContent())
+            {
+                content = new byte[contentBuffer.remaining()];
+                contentBuffer.get(content);
+            }
+        }
+        else
         {
-            content = new byte[contentBuffer.remaining()];
-            contentBuffer.get(content);
+            content = null;
         }
 
         return new ReportableMessage()
@@ -233,13 +289,13 @@ public class ReportRunner<T>
             @Override
             public ReportableMessageHeader getMessageHeader()
             {
-                return convertMessageHeader(messageInfo);
+                return convertMessageHeader(messageInfo, headers);
             }
 
             @Override
             public ByteBuffer getContent()
             {
-                return ByteBuffer.wrap(content).asReadOnlyBuffer();
+                return content == null ? null : ByteBuffer.wrap(content).asReadOnlyBuffer();
             }
 
             @Override
@@ -274,7 +330,23 @@ public class ReportRunner<T>
         };
     }
 
-    private static ReportableMessageHeader convertMessageHeader(final MessageInfoImpl messageInfo)
+    private static Map<String, Object> projectHeaders(final AMQMessageHeader messageHeader,
+                                                      final Set<String> headerNames)
+    {
+        final Map<String, Object> headers = new LinkedHashMap<>();
+        for (String headerName : headerNames)
+        {
+            final Object value = messageHeader.getHeader(headerName);
+            if (value != null)
+            {
+                headers.put(headerName, value);
+            }
+        }
+        return headers;
+    }
+
+    private static ReportableMessageHeader convertMessageHeader(final MessageInfoImpl messageInfo,
+                                                                final Map<String, Object> headers)
     {
         return new ReportableMessageHeader()
         {
@@ -347,25 +419,25 @@ public class ReportRunner<T>
             @Override
             public Object getHeader(final String name)
             {
-                return makeImmutable(messageInfo.getHeaders().get(name));
+                return makeImmutable(headers.get(name));
             }
 
             @Override
             public boolean containsHeaders(final Set<String> names)
             {
-                return messageInfo.getHeaders().keySet().contains(names);
+                return headers.keySet().containsAll(names);
             }
 
             @Override
             public boolean containsHeader(final String name)
             {
-                return messageInfo.getHeaders().containsKey(name);
+                return headers.containsKey(name);
             }
 
             @Override
             public Collection<String> getHeaderNames()
             {
-                return Collections.unmodifiableCollection(messageInfo.getHeaders().keySet());
+                return Collections.unmodifiableCollection(headers.keySet());
             }
         };
     }
@@ -416,4 +488,29 @@ public class ReportRunner<T>
         queue.visit(visitor);
         return _report.getReport();
     }
+
+    /**
+     * Runs a {@link QueueStreamingReport streaming report}, writing its output to the given stream as the queue is
+     * visited.
+     */
+    public final void runReport(Queue<?> queue, OutputStream outputStream) throws IOException
+    {
+        if (!isStreamingReport())
+        {
+            throw new IllegalStateException("Report " + _report.getName() + " is not a streaming report");
+        }
+        final QueueStreamingReport report = (QueueStreamingReport) _report;
+        report.setQueue(queue);
+        report.startReport(outputStream);
+        try
+        {
+            queue.visit(new StreamingReportVisitor(report, outputStream));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        report.flushBatch(outputStream, true);
+        report.finishReport(outputStream);
+    }
 }
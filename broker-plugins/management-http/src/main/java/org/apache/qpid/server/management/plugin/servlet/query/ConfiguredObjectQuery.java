@@ -21,12 +21,16 @@
 package org.apache.qpid.server.management.plugin.servlet.query;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.PriorityQueue;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +40,17 @@ import org.apache.qpid.server.filter.SelectorParsingException;
 import org.apache.qpid.server.filter.OrderByExpression;
 import org.apache.qpid.server.model.ConfiguredObject;
 
+/**
+ * Evaluates a query over a list of configured objects.
+ * <p>
+ * The objects are visited once: each is matched against the where clause and only the objects falling within the
+ * requested page are kept.  When the query is ordered and limited, the page is selected using a heap bounded by
+ * offset + limit, so the full result is never sorted.  The orderBy values of an object are evaluated once rather
+ * than on every comparison, and select clauses are only evaluated for the rows returned.
+ * <p>
+ * Parsed select, where and orderBy clauses are cached, as the same queries tend to be issued repeatedly by
+ * management consoles polling the broker.
+ */
 public final class ConfiguredObjectQuery
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfiguredObjectQuery.class);
@@ -44,7 +59,17 @@ public final class ConfiguredObjectQuery
     public static final int DEFAULT_LIMIT = -1;
     public static final int DEFAULT_OFFSET = 0;
 
-    private final ConfiguredObjectExpressionFactory _expressionFactory = new ConfiguredObjectExpressionFactory();
+    private static final int MAX_CACHED_CLAUSES = 256;
+
+    private static final ConfiguredObjectExpressionFactory EXPRESSION_FACTORY = new ConfiguredObjectExpressionFactory();
+
+    private static final HeadersAndValueExpressions DEFAULT_SELECT_CLAUSE = parseSelectClause(null);
+    private static final Cache<String, HeadersAndValueExpressions> SELECT_CLAUSES =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_CLAUSES).build();
+    private static final Cache<String, BooleanExpression<ConfiguredObject>> WHERE_CLAUSES =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_CLAUSES).build();
+    private static final Cache<List<String>, List<OrderByExpression>> ORDER_BY_CLAUSES =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_CLAUSES).build();
 
     private final List<List<Object>> _results;
     private final List<String> _headers;
@@ -81,17 +106,42 @@ public final class ConfiguredObjectQuery
         int limit = toInt(limitClause, DEFAULT_LIMIT);
         int offset = toInt(offsetClause, DEFAULT_OFFSET);
 
-        HeadersAndValueExpressions headersAndValueExpressions = parseSelectClause(selectClause);
+        HeadersAndValueExpressions headersAndValueExpressions = getSelectClause(selectClause);
+        BooleanExpression<ConfiguredObject> whereExpression = whereClause == null ? null : getWhereClause(whereClause);
+        List<OrderByExpression> orderByExpressions =
+                orderByClause == null ? null : getOrderByClause(selectClause, orderByClause, headersAndValueExpressions);
+
+        final RowSelector selector;
+        if (offset < 0)
+        {
+            // an offset counted back from the end of the result needs the whole result to be known
+            selector = new AllRowsSelector(orderByExpressions, limit, offset);
+        }
+        else if (orderByExpressions == null)
+        {
+            selector = new UnorderedRowSelector(limit, offset);
+        }
+        else if (limit < 0)
+        {
+            selector = new AllRowsSelector(orderByExpressions, limit, offset);
+        }
+        else
+        {
+            selector = new TopRowsSelector(orderByExpressions, limit, offset);
+        }
 
-        List<ConfiguredObject<?>> filteredObjects = whereClause == null ? objects : filterObjects(objects, whereClause);
-        List<ConfiguredObject<?>> orderedObjects = orderByClause == null ? filteredObjects : orderObjects(filteredObjects,
-                                                                                                          orderByClause,
-                                                                                                          headersAndValueExpressions);
-        List<ConfiguredObject<?>> limitedOrderedObjects = applyLimitAndOffset(orderedObjects, limit, offset);
+        int matchingRows = 0;
+        for (ConfiguredObject<?> object : objects)
+        {
+            if (whereExpression == null || matches(whereExpression, object))
+            {
+                selector.offer(object, matchingRows++);
+            }
+        }
 
         _headers = headersAndValueExpressions.getHeaders();
-        _results = evaluateResults(limitedOrderedObjects, headersAndValueExpressions.getValueExpressions());
-        _totalNumberOfRows = filteredObjects.size();
+        _results = evaluateResults(selector.getSelectedObjects(), headersAndValueExpressions.getValueExpressions());
+        _totalNumberOfRows = matchingRows;
     }
 
     public List<List<Object>> getResults()
@@ -125,14 +175,55 @@ public final class ConfiguredObjectQuery
         return returnValue;
     }
 
-    private HeadersAndValueExpressions parseSelectClause(final String selectClause)
+    private static HeadersAndValueExpressions getSelectClause(final String selectClause)
+    {
+        if (selectClause == null)
+        {
+            return DEFAULT_SELECT_CLAUSE;
+        }
+        HeadersAndValueExpressions headersAndValueExpressions = SELECT_CLAUSES.getIfPresent(selectClause);
+        if (headersAndValueExpressions == null)
+        {
+            headersAndValueExpressions = parseSelectClause(selectClause);
+            SELECT_CLAUSES.put(selectClause, headersAndValueExpressions);
+        }
+        return headersAndValueExpressions;
+    }
+
+    private static BooleanExpression<ConfiguredObject> getWhereClause(final String whereClause)
+    {
+        BooleanExpression<ConfiguredObject> expression = WHERE_CLAUSES.getIfPresent(whereClause);
+        if (expression == null)
+        {
+            expression = parseWhereClause(whereClause);
+            WHERE_CLAUSES.put(whereClause, expression);
+        }
+        return expression;
+    }
+
+    private static List<OrderByExpression> getOrderByClause(final String selectClause,
+                                                            final String orderByClause,
+                                                            final HeadersAndValueExpressions headersAndValue)
+    {
+        final List<String> key = Arrays.asList(selectClause, orderByClause);
+        List<OrderByExpression> orderByExpressions = ORDER_BY_CLAUSES.getIfPresent(key);
+        if (orderByExpressions == null)
+        {
+            orderByExpressions = resolveColumnIndices(parseOrderByClause(orderByClause, headersAndValue),
+                                                      headersAndValue.getValueExpressions());
+            ORDER_BY_CLAUSES.put(key, orderByExpressions);
+        }
+        return orderByExpressions;
+    }
+
+    private static HeadersAndValueExpressions parseSelectClause(final String selectClause)
     {
         final List<String> headers = new ArrayList<>();
         final List<Expression> valueExpressions = new ArrayList<>();
         if (selectClause != null)
         {
             ConfiguredObjectFilterParser parser = new ConfiguredObjectFilterParser();
-            parser.setConfiguredObjectExpressionFactory(_expressionFactory);
+            parser.setConfiguredObjectExpressionFactory(EXPRESSION_FACTORY);
 
             try
             {
@@ -155,7 +246,7 @@ public final class ConfiguredObjectQuery
             for (String field : STANDARD_FIELDS)
             {
                 headers.add(field);
-                valueExpressions.add(_expressionFactory.createConfiguredObjectExpression(field));
+                valueExpressions.add(EXPRESSION_FACTORY.createConfiguredObjectExpression(field));
             }
         }
         return new HeadersAndValueExpressions()
@@ -192,46 +283,39 @@ public final class ConfiguredObjectQuery
                 };
     }
 
-    private List<ConfiguredObject<?>> filterObjects(final List<ConfiguredObject<?>> objects, final String whereClause)
+    private static BooleanExpression<ConfiguredObject> parseWhereClause(final String whereClause)
     {
-        List<ConfiguredObject<?>> filteredObjects = new ArrayList<>();
         ConfiguredObjectFilterParser parser = new ConfiguredObjectFilterParser();
-        parser.setConfiguredObjectExpressionFactory(_expressionFactory);
+        parser.setConfiguredObjectExpressionFactory(EXPRESSION_FACTORY);
         try
         {
-            final BooleanExpression<ConfiguredObject> expression =
-                    parser.parseWhere(whereClause);
-
-
-            for (ConfiguredObject<?> object : objects)
-            {
-                try
-                {
-                    if (expression.matches(object))
-                    {
-                        filteredObjects.add(object);
-                    }
-                }
-                catch (RuntimeException e)
-                {
-                    throw new EvaluationException("Error while evaluating object against where clause", e);
-                }
-            }
-
+            return parser.parseWhere(whereClause);
         }
         catch (ParseException | TokenMgrError e)
         {
             throw new SelectorParsingException("Unable to parse where clause", e);
         }
-        return filteredObjects;
+    }
+
+    private static boolean matches(final BooleanExpression<ConfiguredObject> expression,
+                                   final ConfiguredObject<?> object)
+    {
+        try
+        {
+            return expression.matches(object);
+        }
+        catch (RuntimeException e)
+        {
+            throw new EvaluationException("Error while evaluating object against where clause", e);
+        }
     }
 
     private List<List<Object>> evaluateResults(final List<ConfiguredObject<?>> filteredObjects, List<Expression> valueExpressions)
     {
-        List<List<Object>> values = new ArrayList<>();
+        List<List<Object>> values = new ArrayList<>(filteredObjects.size());
         for (ConfiguredObject<?> object : filteredObjects)
         {
-            List<Object> objectVals = new ArrayList<>();
+            List<Object> objectVals = new ArrayList<>(valueExpressions.size());
             for (Expression<ConfiguredObject<?>> evaluator : valueExpressions)
             {
                 Object value;
@@ -251,55 +335,206 @@ public final class ConfiguredObjectQuery
         return values;
     }
 
-    private List<ConfiguredObject<?>> applyLimitAndOffset(final List<ConfiguredObject<?>> orderedObjects, final int limit, int offset)
+    private interface RowSelector
     {
-        int size = orderedObjects.size();
-        int firstIndex = offset < 0 ? Math.max(0, size + offset) : Math.min(size, offset);
-        int lastIndex = limit < 0 ? size : Math.min(size, firstIndex + limit);
+        void offer(ConfiguredObject<?> object, int position);
 
-        return orderedObjects.subList(firstIndex, lastIndex);
+        List<ConfiguredObject<?>> getSelectedObjects();
     }
 
+    /**
+     * Keeps the objects whose position in the (unordered) result falls within the requested page.
+     */
+    private static final class UnorderedRowSelector implements RowSelector
+    {
+        private final int _firstPosition;
+        private final long _lastPosition;
+        private final List<ConfiguredObject<?>> _selected = new ArrayList<>();
+
+        private UnorderedRowSelector(final int limit, final int offset)
+        {
+            _firstPosition = offset;
+            _lastPosition = limit < 0 ? Long.MAX_VALUE : (long) offset + limit;
+        }
+
+        @Override
+        public void offer(final ConfiguredObject<?> object, final int position)
+        {
+            if (position >= _firstPosition && position < _lastPosition)
+            {
+                _selected.add(object);
+            }
+        }
+
+        @Override
+        public List<ConfiguredObject<?>> getSelectedObjects()
+        {
+            return _selected;
+        }
+    }
 
-    class OrderByComparator implements Comparator<Object>
+    /**
+     * Keeps every matching object, ordering them if required, and then applies limit and offset.
+     */
+    private static final class AllRowsSelector implements RowSelector
     {
         private final List<OrderByExpression> _orderByExpressions;
+        private final int _limit;
+        private final int _offset;
+        private final List<OrderedRow> _rows = new ArrayList<>();
 
-        public OrderByComparator(final List<OrderByExpression> orderByExpressions,
-                                 final List<Expression> valueExpressions)
+        private AllRowsSelector(final List<OrderByExpression> orderByExpressions, final int limit, final int offset)
         {
-            _orderByExpressions = new ArrayList<>(orderByExpressions);
-            for (ListIterator<OrderByExpression> iterator = _orderByExpressions.listIterator(); iterator.hasNext(); )
+            _orderByExpressions = orderByExpressions;
+            _limit = limit;
+            _offset = offset;
+        }
+
+        @Override
+        public void offer(final ConfiguredObject<?> object, final int position)
+        {
+            _rows.add(new OrderedRow(object, position, _orderByExpressions));
+        }
+
+        @Override
+        public List<ConfiguredObject<?>> getSelectedObjects()
+        {
+            if (_orderByExpressions != null)
+            {
+                _rows.sort(new OrderByComparator(_orderByExpressions));
+            }
+            int size = _rows.size();
+            int firstIndex = _offset < 0 ? Math.max(0, size + _offset) : Math.min(size, _offset);
+            int lastIndex = _limit < 0 ? size : (int) Math.min(size, (long) firstIndex + _limit);
+
+            return toObjects(_rows.subList(firstIndex, lastIndex));
+        }
+    }
+
+    /**
+     * Keeps the first offset + limit objects of the ordered result in a heap whose head is the greatest object
+     * kept, so that each further object is either discarded or replaces the head.
+     */
+    private static final class TopRowsSelector implements RowSelector
+    {
+        private final List<OrderByExpression> _orderByExpressions;
+        private final int _offset;
+        private final int _capacity;
+        private final Comparator<OrderedRow> _comparator;
+        private final PriorityQueue<OrderedRow> _heap;
+
+        private TopRowsSelector(final List<OrderByExpression> orderByExpressions, final int limit, final int offset)
+        {
+            _orderByExpressions = orderByExpressions;
+            _offset = offset;
+            _capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) offset + limit);
+            _comparator = new OrderByComparator(orderByExpressions);
+            _heap = new PriorityQueue<>(Math.max(1, Math.min(_capacity, 1024)), _comparator.reversed());
+        }
+
+        @Override
+        public void offer(final ConfiguredObject<?> object, final int position)
+        {
+            if (_capacity == 0)
+            {
+                return;
+            }
+            final OrderedRow row = new OrderedRow(object, position, _orderByExpressions);
+            if (_heap.size() < _capacity)
             {
-                OrderByExpression orderByExpression = iterator.next();
-                if (orderByExpression.isColumnIndex())
+                _heap.add(row);
+            }
+            else if (_comparator.compare(row, _heap.peek()) < 0)
+            {
+                _heap.poll();
+                _heap.add(row);
+            }
+        }
+
+        @Override
+        public List<ConfiguredObject<?>> getSelectedObjects()
+        {
+            final List<OrderedRow> rows = new ArrayList<>(_heap);
+            rows.sort(_comparator);
+            return toObjects(rows.subList(Math.min(rows.size(), _offset), rows.size()));
+        }
+    }
+
+    private static List<ConfiguredObject<?>> toObjects(final List<OrderedRow> rows)
+    {
+        final List<ConfiguredObject<?>> objects = new ArrayList<>(rows.size());
+        for (OrderedRow row : rows)
+        {
+            objects.add(row.getObject());
+        }
+        return objects;
+    }
+
+    /**
+     * An object of the result together with its position in the unordered result and the values of its orderBy
+     * expressions.
+     */
+    private static final class OrderedRow
+    {
+        private final ConfiguredObject<?> _object;
+        private final int _position;
+        private final Object[] _orderByValues;
+
+        private OrderedRow(final ConfiguredObject<?> object,
+                           final int position,
+                           final List<OrderByExpression> orderByExpressions)
+        {
+            _object = object;
+            _position = position;
+            if (orderByExpressions == null)
+            {
+                _orderByValues = null;
+            }
+            else
+            {
+                _orderByValues = new Object[orderByExpressions.size()];
+                for (int i = 0; i < _orderByValues.length; i++)
                 {
-                    // column indices are starting from 1 by SQL spec
-                    int index = orderByExpression.getColumnIndex();
-                    if (index <= 0 || index > valueExpressions.size())
+                    try
                     {
-                        throw new EvaluationException(String.format("Invalid column index '%d' in orderBy clause", index));
+                        _orderByValues[i] = orderByExpressions.get(i).evaluate(object);
                     }
-                    else
+                    catch (RuntimeException e)
                     {
-                        orderByExpression = new OrderByExpression(valueExpressions.get(index - 1), orderByExpression.getOrder());
-                        iterator.set(orderByExpression);
+                        throw new EvaluationException("Error while evaluating object against orderBy clause", e);
                     }
                 }
             }
         }
 
+        ConfiguredObject<?> getObject()
+        {
+            return _object;
+        }
+    }
+
+    /**
+     * Orders rows by their orderBy values, and rows with equal values by their position in the unordered result.
+     */
+    private static final class OrderByComparator implements Comparator<OrderedRow>
+    {
+        private final List<OrderByExpression> _orderByExpressions;
+
+        private OrderByComparator(final List<OrderByExpression> orderByExpressions)
+        {
+            _orderByExpressions = orderByExpressions;
+        }
+
         @Override
-        public int compare(final Object o1, final Object o2)
+        public int compare(final OrderedRow o1, final OrderedRow o2)
         {
-            int index = 0;
-            int comparisonResult = 0;
-            for (OrderByExpression orderByExpression : _orderByExpressions)
+            for (int index = 0; index < _orderByExpressions.size(); index++)
             {
+                int comparisonResult = 0;
                 try
                 {
-                    Comparable left = (Comparable) orderByExpression.evaluate(o1);
-                    Comparable right = (Comparable) orderByExpression.evaluate(o2);
+                    Comparable left = (Comparable) o1._orderByValues[index];
+                    Comparable right = (Comparable) o2._orderByValues[index];
                     if (left == null && right != null)
                     {
                         comparisonResult = -1;
@@ -312,40 +547,48 @@ public final class ConfiguredObjectQuery
                     {
                         comparisonResult = left.compareTo(right);
                     }
-                    if (comparisonResult != 0)
-                    {
-                        int order = 1;
-                        if (orderByExpression.getOrder() == OrderByExpression.Order.DESC)
-                        {
-                            order = -1;
-                        }
-                        return order * comparisonResult;
-                    }
-                    index++;
                 }
                 catch (ClassCastException e)
                 {
                     throw new EvaluationException(String.format("The orderBy expression at position '%d' is unsupported", index), e);
                 }
+                if (comparisonResult != 0)
+                {
+                    return _orderByExpressions.get(index).getOrder() == OrderByExpression.Order.DESC
+                            ? -comparisonResult
+                            : comparisonResult;
+                }
             }
-            return comparisonResult;
+            return Integer.compare(o1._position, o2._position);
         }
     }
 
-    private List<ConfiguredObject<?>> orderObjects(final List<ConfiguredObject<?>> unorderedResults,
-                                                   final String orderByClause,
-                                                   final HeadersAndValueExpressions headersAndValue)
+    private static List<OrderByExpression> resolveColumnIndices(final List<OrderByExpression> orderByExpressions,
+                                                                final List<Expression> valueExpressions)
     {
-        List<OrderByExpression> orderByExpressions = parseOrderByClause(orderByClause, headersAndValue);
-        List<ConfiguredObject<?>> orderedObjects = new ArrayList<>(unorderedResults.size());
-        orderedObjects.addAll(unorderedResults);
-        Comparator<Object> comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
-        Collections.sort(orderedObjects, comparator);
-        return orderedObjects;
+        final List<OrderByExpression> resolvedExpressions = new ArrayList<>(orderByExpressions);
+        for (ListIterator<OrderByExpression> iterator = resolvedExpressions.listIterator(); iterator.hasNext(); )
+        {
+            OrderByExpression orderByExpression = iterator.next();
+            if (orderByExpression.isColumnIndex())
+            {
+                // column indices are starting from 1 by SQL spec
+                int index = orderByExpression.getColumnIndex();
+                if (index <= 0 || index > valueExpressions.size())
+                {
+                    throw new EvaluationException(String.format("Invalid column index '%d' in orderBy clause", index));
+                }
+                else
+                {
+                    iterator.set(new OrderByExpression(valueExpressions.get(index - 1), orderByExpression.getOrder()));
+                }
+            }
+        }
+        return Collections.unmodifiableList(resolvedExpressions);
     }
 
-    private List<OrderByExpression> parseOrderByClause(final String orderByClause,
-                                                       final HeadersAndValueExpressions headersAndValue)
+    private static List<OrderByExpression> parseOrderByClause(final String orderByClause,
+                                                              final HeadersAndValueExpressions headersAndValue)
     {
         final List<OrderByExpression> orderByExpressions;
         ConfiguredObjectFilterParser parser = new ConfiguredObjectFilterParser();
@@ -375,6 +618,4 @@ public final class ConfiguredObjectQuery
         }
         return orderByExpressions;
     }
-
-
 }
@@ -0,0 +1,119 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+
+/**
+ * Response body which writes configured objects straight to the JSON generator as the response is serialized,
+ * so that the {@link java.util.Map} representation of a large collection is never held in memory at once.
+ * <p>
+ * The JSON produced is the same as that of the maps returned by
+ * {@link ConfiguredObjectToMapConverter#convertObjectToMap}.
+ */
+public class ConfiguredObjectStreamingResponse implements JsonSerializable
+{
+    private final ConfiguredObjectToMapConverter _converter;
+    private final List<ConfiguredObject<?>> _objects;
+    private final boolean _singleObject;
+    private final ConfiguredObjectToMapConverter.ConverterOptions _converterOptions;
+
+    private ConfiguredObjectStreamingResponse(final ConfiguredObjectToMapConverter converter,
+                                              final List<ConfiguredObject<?>> objects,
+                                              final boolean singleObject,
+                                              final ConfiguredObjectToMapConverter.ConverterOptions converterOptions)
+    {
+        _converter = converter;
+        _objects = objects;
+        _singleObject = singleObject;
+        _converterOptions = converterOptions;
+    }
+
+    public static ConfiguredObjectStreamingResponse forObject(final ConfiguredObjectToMapConverter converter,
+                                                              final ConfiguredObject<?> object,
+                                                              final boolean asList,
+                                                              final ConfiguredObjectToMapConverter.ConverterOptions converterOptions)
+    {
+        return new ConfiguredObjectStreamingResponse(converter,
+                                                     Collections.singletonList(object),
+                                                     !asList,
+                                                     converterOptions);
+    }
+
+    public static ConfiguredObjectStreamingResponse forCollection(final ConfiguredObjectToMapConverter converter,
+                                                                  final Collection<? extends ConfiguredObject<?>> objects,
+                                                                  final ConfiguredObjectToMapConverter.ConverterOptions converterOptions)
+    {
+        return new ConfiguredObjectStreamingResponse(converter,
+                                                     new ArrayList<>(objects),
+                                                     false,
+                                                     converterOptions);
+    }
+
+    public List<ConfiguredObject<?>> getObjects()
+    {
+        return Collections.unmodifiableList(_objects);
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider provider) throws IOException
+    {
+        if (_singleObject)
+        {
+            writeObject(generator, provider, _objects.get(0));
+        }
+        else
+        {
+            generator.writeStartArray();
+            for (ConfiguredObject<?> object : _objects)
+            {
+                writeObject(generator, provider, object);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator generator,
+                                  final SerializerProvider provider,
+                                  final TypeSerializer typeSerializer) throws IOException
+    {
+        serialize(generator, provider);
+    }
+
+    private void writeObject(final JsonGenerator generator,
+                             final SerializerProvider provider,
+                             final ConfiguredObject<?> object) throws IOException
+    {
+        _converter.writeObject(generator, provider, object, object.getCategoryClass(), _converterOptions);
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.apache.qpid.server.management.plugin.servlet.rest;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +33,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,93 +75,140 @@ public class ConfiguredObjectToMapConverter
     }
 
 
-    private void incorporateAttributesIntoMap(
-            final ConfiguredObject<?> confObject,
-            Map<String, Object> object,
-            ConverterOptions converterOptions)
+    /**
+     * Writes the given object to the generator in the same form as {@link #convertObjectToMap} would produce,
+     * serializing attributes, statistics and children as they are visited rather than first collecting them into
+     * a map.
+     */
+    public void writeObject(final JsonGenerator generator,
+                            final SerializerProvider provider,
+                            final ConfiguredObject<?> confObject,
+                            final Class<? extends ConfiguredObject> clazz,
+                            final ConverterOptions converterOptions) throws IOException
     {
-
-        for(String name : confObject.getAttributeNames())
+        generator.writeStartObject();
+        for (String name : confObject.getAttributeNames())
         {
-            Object value =
-                    converterOptions.isUseActualValues()
-                            ? confObject.getActualAttributes().get(name)
-                            : confObject.getAttribute(name);
-            if (value instanceof ConfiguredObject)
+            Object value = convertAttributeValue(confObject, name, converterOptions);
+            if (value != null)
             {
-                object.put(name, ((ConfiguredObject) value).getName());
+                provider.defaultSerializeField(name, value, generator);
             }
-            else if (ConfiguredObject.CONTEXT.equals(name))
-            {
-                Map<String, Object> contextValues = collectContext(confObject,
-                                                                   converterOptions.isExcludeInheritedContext(),
-                                                                   converterOptions.isUseActualValues());
+        }
 
-                if (!contextValues.isEmpty())
-                {
-                    object.put(ConfiguredObject.CONTEXT, contextValues);
-                }
-            }
-            else if (value instanceof Collection)
+        Map<String, Object> statistics = confObject.getStatistics();
+        if (!statistics.isEmpty())
+        {
+            provider.defaultSerializeField(STATISTICS_MAP_KEY, new TreeMap<>(statistics), generator);
+        }
+
+        if (converterOptions.getDepth() > 0)
+        {
+            ConverterOptions childConverterOptions =
+                    new ConverterOptions(converterOptions, converterOptions.getDepth() - 1);
+            for (Class<? extends ConfiguredObject> childClass : getSortedChildTypes(confObject, clazz))
             {
-                List<Object> converted = new ArrayList<>();
-                for (Object member : (Collection) value)
+                List<? extends ConfiguredObject> children = getSortedChildren(confObject, childClass);
+                if (!children.isEmpty())
                 {
-                    if (member instanceof ConfiguredObject)
+                    generator.writeArrayFieldStart(getChildrenKey(childClass));
+                    for (ConfiguredObject child : children)
                     {
-                        converted.add(((ConfiguredObject) member).getName());
-                    }
-                    else
-                    {
-                        converted.add(member);
+                        writeObject(generator, provider, child, childClass, childConverterOptions);
                     }
+                    generator.writeEndArray();
                 }
-                object.put(name, converted);
             }
-            else if (value instanceof Named)
+        }
+        generator.writeEndObject();
+    }
+
+    private void incorporateAttributesIntoMap(
+            final ConfiguredObject<?> confObject,
+            Map<String, Object> object,
+            ConverterOptions converterOptions)
+    {
+
+        for(String name : confObject.getAttributeNames())
+        {
+            Object value = convertAttributeValue(confObject, name, converterOptions);
+            if (value != null)
             {
-                object.put(name, ((Named) value).getName());
+                object.put(name, value);
             }
-            else if (value != null)
-            {
-                ConfiguredObjectAttribute<?, ?> attribute = confObject.getModel()
-                        .getTypeRegistry()
-                        .getAttributeTypes(confObject.getClass())
-                        .get(name);
+        }
+    }
 
-                if (attribute.isSecureValue(value))
-                {
-                    // do not expose actual secure attribute value
-                    // getAttribute() returns encoded value
-                    value = confObject.getAttribute(name);
-                }
+    /**
+     * Returns the representation of the named attribute, or null if the attribute is to be omitted.
+     */
+    private Object convertAttributeValue(final ConfiguredObject<?> confObject,
+                                         final String name,
+                                         final ConverterOptions converterOptions)
+    {
+        Object value =
+                converterOptions.isUseActualValues()
+                        ? confObject.getActualAttributes().get(name)
+                        : confObject.getAttribute(name);
+        if (value instanceof ConfiguredObject)
+        {
+            return ((ConfiguredObject) value).getName();
+        }
+        else if (ConfiguredObject.CONTEXT.equals(name))
+        {
+            Map<String, Object> contextValues = collectContext(confObject,
+                                                               converterOptions.isExcludeInheritedContext(),
+                                                               converterOptions.isUseActualValues());
 
-                if (attribute.isOversized()
-                    && !converterOptions.isUseActualValues())
+            return contextValues.isEmpty() ? null : contextValues;
+        }
+        else if (value instanceof Collection)
+        {
+            List<Object> converted = new ArrayList<>();
+            for (Object member : (Collection) value)
+            {
+                if (member instanceof ConfiguredObject)
                 {
-                    String valueString = String.valueOf(value);
-                    if (valueString.length() > converterOptions.getOversizeThreshold())
-                    {
-
-                        String replacementValue = "".equals(attribute.getOversizedAltText())
-                                ? String.valueOf(value).substring(0, converterOptions.getOversizeThreshold() - 4)
-                                  + "..."
-                                : attribute.getOversizedAltText();
-
-                        object.put(name, replacementValue);
-                    }
-                    else
-                    {
-                        object.put(name, value);
-                    }
+                    converted.add(((ConfiguredObject) member).getName());
                 }
                 else
                 {
-                    object.put(name, value);
+                    converted.add(member);
                 }
             }
+            return converted;
+        }
+        else if (value instanceof Named)
+        {
+            return ((Named) value).getName();
+        }
+        else if (value != null)
+        {
+            ConfiguredObjectAttribute<?, ?> attribute = confObject.getModel()
+                    .getTypeRegistry()
+                    .getAttributeTypes(confObject.getClass())
+                    .get(name);
+
+            if (attribute.isSecureValue(value))
+            {
+                // do not expose actual secure attribute value
+                // getAttribute() returns encoded value
+                value = confObject.getAttribute(name);
+            }
 
+            if (attribute.isOversized()
+                && !converterOptions.isUseActualValues())
+            {
+                String valueString = String.valueOf(value);
+                if (valueString.length() > converterOptions.getOversizeThreshold())
+                {
+                    return "".equals(attribute.getOversizedAltText())
+                            ? valueString.substring(0, converterOptions.getOversizeThreshold() - 4) + "..."
+                            : attribute.getOversizedAltText();
+                }
+            }
         }
+        return value;
     }
 
     private Map<String, Object> collectContext(ConfiguredObject<?> configuredObject,
@@ -229,6 +279,29 @@ public class ConfiguredObjectToMapConverter
             Class<? extends ConfiguredObject> clazz,
             Map<String, Object> object,
             ConverterOptions converterOptions)
+    {
+        ConverterOptions childConverterOptions = new ConverterOptions(converterOptions, converterOptions.getDepth() - 1);
+        for(Class<? extends ConfiguredObject> childClass : getSortedChildTypes(confObject, clazz))
+        {
+            List<Map<String, Object>> childObjects = new ArrayList<>();
+
+            for (ConfiguredObject child : getSortedChildren(confObject, childClass))
+            {
+                childObjects.add(convertObjectToMap(child,
+                                                    childClass,
+                                                    childConverterOptions));
+
+            }
+
+            if (!childObjects.isEmpty())
+            {
+                object.put(getChildrenKey(childClass), childObjects);
+            }
+        }
+    }
+
+    private List<Class<? extends ConfiguredObject>> getSortedChildTypes(final ConfiguredObject<?> confObject,
+                                                                        final Class<? extends ConfiguredObject> clazz)
     {
         List<Class<? extends ConfiguredObject>> childTypes = new ArrayList<>(confObject.getModel().getChildTypes(clazz));
 
@@ -240,50 +313,41 @@ public class ConfiguredObjectToMapConverter
                 return o1.getSimpleName().compareTo(o2.getSimpleName());
             }
         });
+        return childTypes;
+    }
 
-        ConverterOptions childConverterOptions = new ConverterOptions(converterOptions, converterOptions.getDepth() - 1);
-        for(Class<? extends ConfiguredObject> childClass : childTypes)
+    private List<? extends ConfiguredObject> getSortedChildren(final ConfiguredObject<?> confObject,
+                                                               final Class<? extends ConfiguredObject> childClass)
+    {
+        Collection children = confObject.getChildren(childClass);
+        if (children == null)
+        {
+            return Collections.emptyList();
+        }
+        List<? extends ConfiguredObject> sortedChildren = new ArrayList<ConfiguredObject>(children);
+        if (Comparable.class.isAssignableFrom(childClass))
+        {
+            Collections.sort((List) sortedChildren);
+        }
+        else
         {
-            Collection children = confObject.getChildren(childClass);
-            if (children != null)
+            Collections.sort(sortedChildren, new Comparator<ConfiguredObject>()
             {
-                List<? extends ConfiguredObject> sortedChildren = new ArrayList<ConfiguredObject>(children);
-                if (Comparable.class.isAssignableFrom(childClass))
-                {
-                    Collections.sort((List) sortedChildren);
-                }
-                else
+                @Override
+                public int compare(final ConfiguredObject o1, final ConfiguredObject o2)
                 {
-                    Collections.sort(sortedChildren, new Comparator<ConfiguredObject>()
-                    {
-                        @Override
-                        public int compare(final ConfiguredObject o1, final ConfiguredObject o2)
-                        {
-                            return o1.getName().compareTo(o2.getName());
-                        }
-                    });
+                    return o1.getName().compareTo(o2.getName());
                 }
-                List<Map<String, Object>> childObjects = new ArrayList<>();
-
-
-                for (ConfiguredObject child : sortedChildren)
-                {
-                    childObjects.add(convertObjectToMap(child,
-                                                        childClass,
-                                                        childConverterOptions));
-
-                }
-
-                if (!childObjects.isEmpty())
-                {
-                    String childTypeSingular = childClass.getSimpleName().toLowerCase();
-                    object.put(childTypeSingular + (childTypeSingular.endsWith("s") ? "es" : "s"), childObjects);
-                }
-            }
-
+            });
         }
+        return sortedChildren;
     }
 
+    private String getChildrenKey(final Class<? extends ConfiguredObject> childClass)
+    {
+        String childTypeSingular = childClass.getSimpleName().toLowerCase();
+        return childTypeSingular + (childTypeSingular.endsWith("s") ? "es" : "s");
+    }
 
     public static final class ConverterOptions
     {
@@ -0,0 +1,88 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.rest;
+
+import static org.apache.qpid.server.util.ParameterizedTypes.MAP_OF_STRING_STRING;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.qpid.server.management.plugin.HttpManagementConfiguration;
+import org.apache.qpid.server.management.plugin.metrics.PrometheusMetricsWriter;
+import org.apache.qpid.server.model.ConfiguredObject;
+
+/**
+ * Exposes the statistics of the managed object (the broker or, through a virtual host alias, a single virtual
+ * host) in the Prometheus text exposition format.
+ */
+public class MetricsServlet extends AbstractServlet
+{
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doGet(final HttpServletRequest request,
+                         final HttpServletResponse response,
+                         final ConfiguredObject<?> managedObject) throws IOException, ServletException
+    {
+        final HttpManagementConfiguration<?> configuration = getManagementConfiguration();
+        final PrometheusMetricsWriter metricsWriter;
+        try
+        {
+            metricsWriter = new PrometheusMetricsWriter(managedObject.getModel().getTypeRegistry(),
+                                                        getPatterns(configuration,
+                                                                    HttpManagementConfiguration.METRICS_INCLUDE_PATTERNS_CONTEXT_NAME),
+                                                        getPatterns(configuration,
+                                                                    HttpManagementConfiguration.METRICS_EXCLUDE_PATTERNS_CONTEXT_NAME));
+        }
+        catch (PatternSyntaxException e)
+        {
+            sendJsonErrorResponse(request,
+                                  response,
+                                  HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                                  "Invalid metrics pattern: " + e.getMessage());
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(PrometheusMetricsWriter.CONTENT_TYPE);
+        sendCachingHeadersOnResponse(response);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(getOutputStream(request, response),
+                                                                        StandardCharsets.UTF_8)))
+        {
+            metricsWriter.write(managedObject, writer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> getPatterns(final HttpManagementConfiguration<?> configuration, final String contextName)
+    {
+        return configuration.getContextValue(Map.class, MAP_OF_STRING_STRING, contextName);
+    }
+}
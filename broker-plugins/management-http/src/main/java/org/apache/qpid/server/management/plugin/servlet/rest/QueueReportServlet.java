@@ -68,15 +68,23 @@ public class QueueReportServlet extends AbstractServlet
         if(queue != null)
         {
             ReportRunner<?> reportRunner = ReportRunner.createRunner(reportName,request.getParameterMap());
-            Object output = reportRunner.runReport(queue);
-            response.setContentType(reportRunner.getContentType());
-            if(reportRunner.isBinaryReport())
+            if (reportRunner.isStreamingReport())
             {
-                response.getOutputStream().write((byte[])output);
+                response.setContentType(reportRunner.getContentType());
+                reportRunner.runReport(queue, response.getOutputStream());
             }
             else
             {
-                response.getWriter().write((String)output);
+                Object output = reportRunner.runReport(queue);
+                response.setContentType(reportRunner.getContentType());
+                if (reportRunner.isBinaryReport())
+                {
+                    response.getOutputStream().write((byte[]) output);
+                }
+                else
+                {
+                    response.getWriter().write((String) output);
+                }
             }
         }
         else
@@ -42,6 +42,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.base.Strings;
@@ -56,6 +57,7 @@ import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.ConfiguredObjectJacksonModule;
 import org.apache.qpid.server.model.Content;
 import org.apache.qpid.server.model.port.HttpPort;
+import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 import org.apache.qpid.server.util.DataUrlUtils;
 
 public class RestServlet extends AbstractServlet
@@ -260,13 +262,17 @@ public class RestServlet extends AbstractServlet
             response.setContentType(APPLICATION_JSON);
             if (body != null && managementResponse.getType() == ResponseType.MODEL_OBJECT)
             {
-                body = controller.formatConfiguredObject(
+                body = controller.formatConfiguredObjectForStreaming(
                         managementResponse.getBody(),
                         parameters,
                         managementRequest.isSecure()
                         || managementRequest.isConfidentialOperationAllowedOnInsecureChannel());
+                writeStreamingJsonResponse(body, request, response);
+            }
+            else
+            {
+                writeJsonResponse(body, request, response);
             }
-            writeJsonResponse(body, request, response);
         }
     }
 
@@ -292,6 +298,33 @@ public class RestServlet extends AbstractServlet
         }
     }
 
+    /**
+     * Writes a response whose body is serialized as it is streamed. By the time a serialization failure occurs the
+     * status and part of the body may already have been sent, so on failure the stream is deliberately left
+     * unclosed and the exception is propagated: the container then aborts the connection rather than completing
+     * the truncated body as if it were a successful response.
+     */
+    private void writeStreamingJsonResponse(final Object formattedResponse,
+                                            final HttpServletRequest request,
+                                            final HttpServletResponse response) throws IOException
+    {
+        final OutputStream stream = HttpManagementUtil.getOutputStream(request,
+                                                                       response,
+                                                                       getManagementConfiguration());
+        final ObjectMapper mapper = ConfiguredObjectJacksonModule.newObjectMapper(false);
+        mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        try
+        {
+            mapper.writeValue(stream, formattedResponse);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            throw new ConnectionScopedRuntimeException("Failed to stream response body", e);
+        }
+        stream.close();
+    }
+
     private static Map<String, List<String>> parseQueryString(String queryString)
     {
         if (Strings.isNullOrEmpty(queryString))
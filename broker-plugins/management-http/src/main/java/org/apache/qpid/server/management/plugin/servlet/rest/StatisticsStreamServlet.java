@@ -0,0 +1,391 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.servlet.rest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessController;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.security.auth.Subject;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.management.plugin.HttpManagementConfiguration;
+import org.apache.qpid.server.management.plugin.HttpManagementUtil;
+import org.apache.qpid.server.management.plugin.statistics.StatisticsPublisher;
+import org.apache.qpid.server.management.plugin.statistics.StatisticsSubscriber;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectFinder;
+import org.apache.qpid.server.util.DaemonThreadFactory;
+
+/**
+ * Streams the statistics of configured objects to the client as server-sent events.
+ * <p>
+ * The path names a category followed by the path of the objects beneath the managed object, as in the REST API,
+ * and may use wildcards.  For instance <code>/service/statisticsstream/queue/vhn/vh/*</code> streams the
+ * statistics of every queue of virtual host <code>vh</code>.  The optional <code>statistic</code> parameter,
+ * which may be repeated, restricts the statistics streamed, and <code>interval</code> sets the number of seconds
+ * between updates.
+ * <p>
+ * Events are written with non-blocking I/O, so a slow client never holds up the publishing thread.  A client which
+ * accepts no data for longer than the write timeout, or which falls too far behind, is disconnected.
+ */
+public class StatisticsStreamServlet extends AbstractServlet
+{
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsStreamServlet.class);
+
+    private static final String STATISTIC_PARAM = "statistic";
+    private static final String INTERVAL_PARAM = "interval";
+    private static final int DEFAULT_INTERVAL = 5;
+    private static final String EVENT_STREAM_CONTENT_TYPE = "text/event-stream";
+    private static final long MAX_PENDING_BYTES = 1024 * 1024;
+
+    private transient ScheduledThreadPoolExecutor _executor;
+    private transient StatisticsPublisher _publisher;
+    private transient long _writeTimeout;
+
+    @Override
+    public void init() throws ServletException
+    {
+        super.init();
+        final HttpManagementConfiguration<?> configuration = getManagementConfiguration();
+        final int threadCount = configuration.getContextValue(Integer.class,
+                                                              HttpManagementConfiguration.STATISTICS_STREAM_THREAD_COUNT_CONTEXT_NAME);
+        final int maxFeeds = configuration.getContextValue(Integer.class,
+                                                           HttpManagementConfiguration.STATISTICS_STREAM_MAX_FEEDS_CONTEXT_NAME);
+        final int maxSubscriptions =
+                configuration.getContextValue(Integer.class,
+                                              HttpManagementConfiguration.STATISTICS_STREAM_MAX_SUBSCRIPTIONS_CONTEXT_NAME);
+        _writeTimeout = configuration.getContextValue(Long.class,
+                                                      HttpManagementConfiguration.STATISTICS_STREAM_WRITE_TIMEOUT_CONTEXT_NAME);
+        _executor = new ScheduledThreadPoolExecutor(Math.max(1, threadCount),
+                                                    new DaemonThreadFactory("HttpManagement-StatisticsStream"));
+        _executor.setRemoveOnCancelPolicy(true);
+        _publisher = new StatisticsPublisher(_executor, maxFeeds, maxSubscriptions);
+    }
+
+    @Override
+    public void destroy()
+    {
+        try
+        {
+            _publisher.close();
+            _executor.shutdown();
+        }
+        finally
+        {
+            super.destroy();
+        }
+    }
+
+    @Override
+    protected void doGet(final HttpServletRequest request,
+                         final HttpServletResponse response,
+                         final ConfiguredObject<?> managedObject) throws IOException, ServletException
+    {
+        final List<String> pathInfoElements =
+                HttpManagementUtil.getPathInfoElements(request.getServletPath(), request.getPathInfo());
+        if (pathInfoElements.isEmpty())
+        {
+            sendJsonErrorResponse(request, response, HttpServletResponse.SC_BAD_REQUEST, "Category is not specified");
+            return;
+        }
+
+        final Class<? extends ConfiguredObject> category =
+                getCategory(pathInfoElements.get(0), managedObject.getModel().getSupportedCategories());
+        if (category == null)
+        {
+            sendJsonErrorResponse(request,
+                                  response,
+                                  HttpServletResponse.SC_NOT_FOUND,
+                                  "Unknown category " + pathInfoElements.get(0));
+            return;
+        }
+
+        final List<String> path = pathInfoElements.subList(1, pathInfoElements.size());
+        final ConfiguredObjectFinder finder = getConfiguredObjectFinder(managedObject);
+        final Class<? extends ConfiguredObject>[] hierarchy = finder.getHierarchy(category);
+        if (hierarchy == null || path.size() > hierarchy.length)
+        {
+            sendJsonErrorResponse(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid path");
+            return;
+        }
+        final Collection<ConfiguredObject<?>> objects = finder.findObjectsFromPath(path, hierarchy, true);
+        if (objects == null || objects.isEmpty())
+        {
+            sendJsonErrorResponse(request, response, HttpServletResponse.SC_NOT_FOUND, "Not Found");
+            return;
+        }
+
+        final int interval;
+        try
+        {
+            final String intervalParameter = request.getParameter(INTERVAL_PARAM);
+            interval = intervalParameter == null ? DEFAULT_INTERVAL : Integer.parseInt(intervalParameter);
+        }
+        catch (NumberFormatException e)
+        {
+            sendJsonErrorResponse(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid interval");
+            return;
+        }
+        if (interval <= 0)
+        {
+            sendJsonErrorResponse(request, response, HttpServletResponse.SC_BAD_REQUEST, "Invalid interval");
+            return;
+        }
+
+        final String[] statisticParameters = request.getParameterValues(STATISTIC_PARAM);
+        final List<String> statistics =
+                statisticParameters == null ? Collections.emptyList() : Arrays.asList(statisticParameters);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(EVENT_STREAM_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        sendCachingHeadersOnResponse(response);
+
+        final AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+
+        final EventStreamSubscriber subscriber =
+                new EventStreamSubscriber(asyncContext, response, _writeTimeout, MAX_PENDING_BYTES);
+        final StatisticsPublisher.Subscription subscription;
+        try
+        {
+            subscription = _publisher.subscribe(Subject.getSubject(AccessController.getContext()),
+                                                managedObject,
+                                                category,
+                                                path,
+                                                statistics,
+                                                TimeUnit.SECONDS.toMillis(interval),
+                                                subscriber);
+        }
+        catch (StatisticsPublisher.SubscriptionLimitException e)
+        {
+            sendJsonErrorResponse(request, response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+            asyncContext.complete();
+            return;
+        }
+        asyncContext.addListener(new AsyncListener()
+        {
+            @Override
+            public void onComplete(final AsyncEvent event)
+            {
+                subscription.close();
+            }
+
+            @Override
+            public void onTimeout(final AsyncEvent event)
+            {
+                subscription.close();
+            }
+
+            @Override
+            public void onError(final AsyncEvent event)
+            {
+                subscription.close();
+            }
+
+            @Override
+            public void onStartAsync(final AsyncEvent event)
+            {
+            }
+        });
+        subscriber.start();
+    }
+
+    private Class<? extends ConfiguredObject> getCategory(final String categoryName,
+                                                          final Collection<Class<? extends ConfiguredObject>> categories)
+    {
+        for (Class<? extends ConfiguredObject> category : categories)
+        {
+            if (category.getSimpleName().equalsIgnoreCase(categoryName))
+            {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    private static class EventStreamSubscriber implements StatisticsSubscriber, WriteListener
+    {
+        private static final byte[] KEEP_ALIVE = ":\n\n".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] DATA = "\ndata: ".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+        private final AsyncContext _asyncContext;
+        private final HttpServletResponse _response;
+        private final long _writeTimeout;
+        private final long _maxPendingBytes;
+        private final Deque<byte[]> _pending = new ArrayDeque<>();
+        private ServletOutputStream _outputStream;
+        private long _pendingBytes;
+        private long _blockedSince;
+        private boolean _flushRequired;
+        private boolean _closed;
+
+        private EventStreamSubscriber(final AsyncContext asyncContext,
+                                      final HttpServletResponse response,
+                                      final long writeTimeout,
+                                      final long maxPendingBytes)
+        {
+            _asyncContext = asyncContext;
+            _response = response;
+            _writeTimeout = writeTimeout;
+            _maxPendingBytes = maxPendingBytes;
+        }
+
+        /**
+         * Sends the response headers and switches the stream to non-blocking writes.  Events sent before the
+         * stream is started are held until the container reports that it can be written.
+         */
+        synchronized void start() throws IOException
+        {
+            if (!_closed)
+            {
+                _response.flushBuffer();
+                _outputStream = _response.getOutputStream();
+                _outputStream.setWriteListener(this);
+            }
+        }
+
+        @Override
+        public synchronized void send(final String eventType, final byte[] data) throws IOException
+        {
+            if (_closed)
+            {
+                throw new IOException("Event stream is closed");
+            }
+            if (_blockedSince != 0 && System.currentTimeMillis() - _blockedSince > _writeTimeout)
+            {
+                throw new IOException(String.format("Event stream accepted no data for %d ms", _writeTimeout));
+            }
+            if (eventType == null)
+            {
+                enqueue(KEEP_ALIVE);
+            }
+            else
+            {
+                enqueue(("event: " + eventType).getBytes(StandardCharsets.UTF_8));
+                enqueue(DATA);
+                enqueue(data);
+                enqueue(EVENT_END);
+            }
+            if (_pendingBytes > _maxPendingBytes)
+            {
+                throw new IOException(String.format("Event stream has more than %d bytes waiting to be written",
+                                                    _maxPendingBytes));
+            }
+            if (_outputStream != null)
+            {
+                writePending();
+            }
+        }
+
+        @Override
+        public synchronized void onWritePossible() throws IOException
+        {
+            if (!_closed)
+            {
+                writePending();
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t)
+        {
+            LOGGER.debug("Failed to write to event stream", t);
+            close();
+        }
+
+        @Override
+        public synchronized void close()
+        {
+            if (!_closed)
+            {
+                _closed = true;
+                _pending.clear();
+                _pendingBytes = 0;
+                try
+                {
+                    _asyncContext.complete();
+                }
+                catch (IllegalStateException e)
+                {
+                    LOGGER.debug("Event stream already completed", e);
+                }
+            }
+        }
+
+        private void enqueue(final byte[] bytes)
+        {
+            _pending.add(bytes);
+            _pendingBytes += bytes.length;
+        }
+
+        private void writePending() throws IOException
+        {
+            boolean progress = false;
+            while (_outputStream.isReady())
+            {
+                final byte[] bytes = _pending.poll();
+                if (bytes != null)
+                {
+                    _pendingBytes -= bytes.length;
+                    _outputStream.write(bytes);
+                    _flushRequired = true;
+                    progress = true;
+                }
+                else if (_flushRequired)
+                {
+                    _flushRequired = false;
+                    _outputStream.flush();
+                }
+                else
+                {
+                    _blockedSince = 0;
+                    return;
+                }
+            }
+            if (progress || _blockedSince == 0)
+            {
+                _blockedSince = System.currentTimeMillis();
+            }
+        }
+    }
+}
@@ -0,0 +1,509 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.statistics;
+
+import java.io.IOException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.security.auth.Subject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectFinder;
+import org.apache.qpid.server.model.ConfiguredObjectJacksonModule;
+
+/**
+ * Publishes the statistics of sets of configured objects to subscribers at a fixed interval.
+ * <p>
+ * Subscriptions naming the same objects, statistics and interval share a single feed.  On each tick the feed
+ * reads the statistics once, works out which values changed since the previous tick, encodes the change once
+ * and sends the same bytes to every subscriber of the feed, so the cost of a feed does not depend on the number
+ * of subscribers.
+ * <p>
+ * A subscriber is first sent a {@link #SNAPSHOT_EVENT} holding every statistic of every object, and then a
+ * {@link #DELTA_EVENT} on each tick at which a value changed.  Events are JSON objects keyed by object id:
+ * an object which is new to the subscriber has its name and all its statistics, an object whose statistics
+ * changed has only the changed values, and an object which no longer exists maps to null.  Ticks with no
+ * changes send a keep-alive, which is also how subscribers which have gone away are noticed.
+ * <p>
+ * Statistics are read under the subject of the subscriber, so feeds are only shared between subscriptions made
+ * by the same subject.  The number of feeds and of subscriptions is capped, since each feed costs a read of its
+ * objects' statistics on every tick.
+ */
+public class StatisticsPublisher
+{
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String DELTA_EVENT = "delta";
+
+    static final String NAME_KEY = "name";
+    static final String STATISTICS_KEY = "statistics";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsPublisher.class);
+
+    private final ScheduledExecutorService _executor;
+    private final int _maxFeeds;
+    private final int _maxSubscriptions;
+    private final ObjectMapper _objectMapper = ConfiguredObjectJacksonModule.newObjectMapper(false);
+    private final Map<FeedKey, Feed> _feeds = new HashMap<>();
+    private int _subscriptionCount;
+    private boolean _closed;
+
+    public StatisticsPublisher(final ScheduledExecutorService executor,
+                               final int maxFeeds,
+                               final int maxSubscriptions)
+    {
+        _executor = executor;
+        _maxFeeds = maxFeeds;
+        _maxSubscriptions = maxSubscriptions;
+    }
+
+    /**
+     * Subscribes to the statistics of the objects found from the root by the given category and path.  The path
+     * may contain wildcards, and is resolved again on every tick so that objects created later are included.
+     *
+     * @param subject the subject under which the statistics are read, or null to read them with no subject
+     * @param statistics the names of the statistics to publish, or an empty collection for all statistics
+     * @throws SubscriptionLimitException if the subscription would exceed the maximum number of feeds or
+     * subscriptions
+     */
+    public Subscription subscribe(final Subject subject,
+                                  final ConfiguredObject<?> root,
+                                  final Class<? extends ConfiguredObject> category,
+                                  final List<String> path,
+                                  final Collection<String> statistics,
+                                  final long intervalMillis,
+                                  final StatisticsSubscriber subscriber)
+    {
+        final FeedKey key = new FeedKey(subject, root, category, path, statistics, intervalMillis);
+        final Subscription subscription = new Subscription(key, subscriber);
+        synchronized (_feeds)
+        {
+            if (_closed)
+            {
+                throw new IllegalStateException("Statistics publisher is closed");
+            }
+            if (_subscriptionCount >= _maxSubscriptions)
+            {
+                throw new SubscriptionLimitException(String.format("Maximum number of statistics subscriptions (%d) reached",
+                                                                   _maxSubscriptions));
+            }
+            Feed feed = _feeds.get(key);
+            if (feed == null)
+            {
+                if (_feeds.size() >= _maxFeeds)
+                {
+                    throw new SubscriptionLimitException(String.format("Maximum number of statistics feeds (%d) reached",
+                                                                       _maxFeeds));
+                }
+                feed = new Feed(key);
+                _feeds.put(key, feed);
+                feed.add(subscription);
+                feed.start();
+            }
+            else
+            {
+                feed.add(subscription);
+            }
+            _subscriptionCount++;
+        }
+        return subscription;
+    }
+
+    public void close()
+    {
+        final List<Feed> feeds;
+        synchronized (_feeds)
+        {
+            _closed = true;
+            feeds = new ArrayList<>(_feeds.values());
+            _feeds.clear();
+            _subscriptionCount = 0;
+        }
+        for (Feed feed : feeds)
+        {
+            feed.stop();
+            for (Subscription subscription : feed.getSubscriptions())
+            {
+                subscription.closeSubscriber();
+            }
+        }
+    }
+
+    int getFeedCount()
+    {
+        synchronized (_feeds)
+        {
+            return _feeds.size();
+        }
+    }
+
+    int getSubscriptionCount()
+    {
+        synchronized (_feeds)
+        {
+            return _subscriptionCount;
+        }
+    }
+
+    private void unsubscribe(final Subscription subscription)
+    {
+        synchronized (_feeds)
+        {
+            final Feed feed = _feeds.get(subscription.getKey());
+            if (feed != null && feed.remove(subscription))
+            {
+                _subscriptionCount--;
+                if (feed.isEmpty())
+                {
+                    feed.stop();
+                    _feeds.remove(subscription.getKey());
+                }
+            }
+        }
+    }
+
+    public final class Subscription
+    {
+        private final FeedKey _key;
+        private final StatisticsSubscriber _subscriber;
+        private final AtomicBoolean _snapshotRequired = new AtomicBoolean(true);
+        private final AtomicBoolean _closed = new AtomicBoolean();
+
+        private Subscription(final FeedKey key, final StatisticsSubscriber subscriber)
+        {
+            _key = key;
+            _subscriber = subscriber;
+        }
+
+        public void close()
+        {
+            unsubscribe(this);
+            closeSubscriber();
+        }
+
+        private FeedKey getKey()
+        {
+            return _key;
+        }
+
+        private void closeSubscriber()
+        {
+            if (_closed.compareAndSet(false, true))
+            {
+                _subscriber.close();
+            }
+        }
+    }
+
+    private final class Feed implements Runnable
+    {
+        private final FeedKey _key;
+        private final ConfiguredObjectFinder _finder;
+        private final Class<? extends ConfiguredObject>[] _hierarchy;
+        private final List<Subscription> _subscriptions = new CopyOnWriteArrayList<>();
+        private Map<UUID, ObjectStatistics> _previous = Collections.emptyMap();
+        private ScheduledFuture<?> _future;
+
+        private Feed(final FeedKey key)
+        {
+            _key = key;
+            _finder = new ConfiguredObjectFinder(key._root);
+            _hierarchy = _finder.getHierarchy(key._category);
+        }
+
+        void start()
+        {
+            _future = _executor.scheduleAtFixedRate(this, 0, _key._intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        void stop()
+        {
+            if (_future != null)
+            {
+                _future.cancel(false);
+            }
+        }
+
+        void add(final Subscription subscription)
+        {
+            _subscriptions.add(subscription);
+        }
+
+        boolean remove(final Subscription subscription)
+        {
+            return _subscriptions.remove(subscription);
+        }
+
+        boolean isEmpty()
+        {
+            return _subscriptions.isEmpty();
+        }
+
+        List<Subscription> getSubscriptions()
+        {
+            return _subscriptions;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                if (_key._subject == null)
+                {
+                    publish();
+                }
+                else
+                {
+                    Subject.doAs(_key._subject, (PrivilegedAction<Void>) () -> {
+                        publish();
+                        return null;
+                    });
+                }
+            }
+            catch (RuntimeException e)
+            {
+                // an exception escaping would cancel the feed's schedule
+                LOGGER.warn("Failed to publish statistics of {} objects at path {}",
+                            _key._category.getSimpleName(),
+                            _key._path,
+                            e);
+            }
+        }
+
+        private void publish()
+        {
+            final Map<UUID, ObjectStatistics> current = readStatistics();
+            final Map<String, Object> delta = new LinkedHashMap<>();
+            for (Map.Entry<UUID, ObjectStatistics> entry : current.entrySet())
+            {
+                final ObjectStatistics previous = _previous.get(entry.getKey());
+                if (previous == null)
+                {
+                    delta.put(entry.getKey().toString(), entry.getValue().toEvent());
+                }
+                else
+                {
+                    final Map<String, Object> changed = entry.getValue().getChangedStatistics(previous);
+                    if (!changed.isEmpty())
+                    {
+                        delta.put(entry.getKey().toString(), Collections.singletonMap(STATISTICS_KEY, changed));
+                    }
+                }
+            }
+            for (UUID id : _previous.keySet())
+            {
+                if (!current.containsKey(id))
+                {
+                    delta.put(id.toString(), null);
+                }
+            }
+            _previous = current;
+
+            byte[] deltaData = null;
+            byte[] snapshotData = null;
+            for (Subscription subscription : _subscriptions)
+            {
+                try
+                {
+                    if (subscription._snapshotRequired.compareAndSet(true, false))
+                    {
+                        if (snapshotData == null)
+                        {
+                            snapshotData = encodeSnapshot(current);
+                        }
+                        subscription._subscriber.send(SNAPSHOT_EVENT, snapshotData);
+                    }
+                    else if (!delta.isEmpty())
+                    {
+                        if (deltaData == null)
+                        {
+                            deltaData = encode(delta);
+                        }
+                        subscription._subscriber.send(DELTA_EVENT, deltaData);
+                    }
+                    else
+                    {
+                        subscription._subscriber.send(null, null);
+                    }
+                }
+                catch (IOException e)
+                {
+                    LOGGER.debug("Failed to send statistics to subscriber, unsubscribing", e);
+                    subscription.close();
+                }
+            }
+        }
+
+        private Map<UUID, ObjectStatistics> readStatistics()
+        {
+            final Collection<ConfiguredObject<?>> objects = _finder.findObjectsFromPath(_key._path, _hierarchy, true);
+            if (objects == null || objects.isEmpty())
+            {
+                return Collections.emptyMap();
+            }
+            final Map<UUID, ObjectStatistics> statistics = new LinkedHashMap<>();
+            for (ConfiguredObject<?> object : objects)
+            {
+                statistics.put(object.getId(),
+                               new ObjectStatistics(object.getName(), object.getStatistics(_key._statistics)));
+            }
+            return statistics;
+        }
+
+        private byte[] encodeSnapshot(final Map<UUID, ObjectStatistics> current)
+        {
+            final Map<String, Object> snapshot = new LinkedHashMap<>();
+            for (Map.Entry<UUID, ObjectStatistics> entry : current.entrySet())
+            {
+                snapshot.put(entry.getKey().toString(), entry.getValue().toEvent());
+            }
+            return encode(snapshot);
+        }
+
+        private byte[] encode(final Map<String, Object> event)
+        {
+            try
+            {
+                return _objectMapper.writeValueAsBytes(event);
+            }
+            catch (JsonProcessingException e)
+            {
+                throw new IllegalStateException("Failed to encode statistics event", e);
+            }
+        }
+    }
+
+    private static final class ObjectStatistics
+    {
+        private final String _name;
+        private final Map<String, Object> _statistics;
+
+        private ObjectStatistics(final String name, final Map<String, Object> statistics)
+        {
+            _name = name;
+            _statistics = statistics;
+        }
+
+        Map<String, Object> toEvent()
+        {
+            final Map<String, Object> event = new LinkedHashMap<>();
+            event.put(NAME_KEY, _name);
+            event.put(STATISTICS_KEY, _statistics);
+            return event;
+        }
+
+        Map<String, Object> getChangedStatistics(final ObjectStatistics previous)
+        {
+            final Map<String, Object> changed = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : _statistics.entrySet())
+            {
+                if (!Objects.equals(entry.getValue(), previous._statistics.get(entry.getKey())))
+                {
+                    changed.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Thrown when a subscription would exceed the maximum number of feeds or subscriptions of the publisher.
+     */
+    public static final class SubscriptionLimitException extends RuntimeException
+    {
+        private SubscriptionLimitException(final String message)
+        {
+            super(message);
+        }
+    }
+
+    private static final class FeedKey
+    {
+        private final Subject _subject;
+        private final ConfiguredObject<?> _root;
+        private final Class<? extends ConfiguredObject> _category;
+        private final List<String> _path;
+        private final List<String> _statistics;
+        private final long _intervalMillis;
+
+        private FeedKey(final Subject subject,
+                        final ConfiguredObject<?> root,
+                        final Class<? extends ConfiguredObject> category,
+                        final List<String> path,
+                        final Collection<String> statistics,
+                        final long intervalMillis)
+        {
+            _subject = subject;
+            _root = root;
+            _category = category;
+            _path = Collections.unmodifiableList(new ArrayList<>(path));
+            _statistics = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(statistics)));
+            _intervalMillis = intervalMillis;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            final FeedKey feedKey = (FeedKey) o;
+            return _intervalMillis == feedKey._intervalMillis
+                   && Objects.equals(_subject, feedKey._subject)
+                   && _root.equals(feedKey._root)
+                   && _category.equals(feedKey._category)
+                   && _path.equals(feedKey._path)
+                   && _statistics.equals(feedKey._statistics);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Arrays.hashCode(new Object[]{_subject, _root, _category, _path, _statistics, _intervalMillis});
+        }
+    }
+}
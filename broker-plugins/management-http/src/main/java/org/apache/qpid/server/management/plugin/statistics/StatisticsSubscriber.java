@@ -0,0 +1,44 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.statistics;
+
+import java.io.IOException;
+
+/**
+ * Receives the statistics events of a subscription made with {@link StatisticsPublisher}.
+ */
+public interface StatisticsSubscriber
+{
+    /**
+     * Sends an event to the subscriber.
+     *
+     * @param eventType the type of event, or null for a keep-alive carrying no data
+     * @param data the JSON encoded event data, or null for a keep-alive
+     * @throws IOException if the subscriber can no longer be sent events, in which case it is unsubscribed
+     */
+    void send(String eventType, byte[] data) throws IOException;
+
+    /**
+     * Called once the subscriber is unsubscribed, whether by closing the subscription, a failure to send or the
+     * publisher being closed.
+     */
+    void close();
+}
@@ -380,6 +380,10 @@ define(["dojox/lang/functional/object",
                     {
                         return value < 0 ? "-" : (number.round(value/1000) + " s");
                     }
+                    else if (units === "TIME_DURATION_MICROSECONDS")
+                    {
+                        return value < 0 ? "-" : (value + " " + entities.decode("&micro;") + "s");
+                    }
                     else
                     {
                         return value;
@@ -33,8 +33,14 @@ define([
         management: null,
         operationName: "getMessageInfo",
         operationArguments: {includeHeaders: false},
+        pageOperationName: "getMessageInfoPage",
+        maxCursors: 100,
         totalLength: null,
 
+        constructor: function () {
+            this._cursors = {};
+        },
+
         fetch: function () {
             return this._request();
         },
@@ -44,6 +50,22 @@ define([
         },
 
         _request: function (kwArgs) {
+            var headers = lang.mixin({Accept: "application/javascript, application/json"},
+                kwArgs ? kwArgs.headers : null);
+            var messages;
+            if (this._canRequestPage(kwArgs))
+            {
+                messages = this._requestPage(kwArgs, headers);
+            }
+            else
+            {
+                messages = this._requestRange(kwArgs, headers);
+            }
+            var depth = this._getQueueDepth();
+            return new QueryResults(messages, {totalLength: depth});
+        },
+
+        _requestRange: function (kwArgs, headers) {
             var modelObj = {
                 name: this.operationName,
                 parent: this.modelObject,
@@ -58,10 +80,50 @@ define([
             {
                 query.last = kwArgs.end;
             }
-            var headers = lang.mixin({Accept: "application/javascript, application/json"}, kwArgs.headers);
-            var messages = this.management.invoke(modelObj, query, {headers: headers}, true);
-            var depth = this._getQueueDepth();
-            return new QueryResults(messages, {totalLength: depth});
+            return this.management.invoke(modelObj, query, {headers: headers}, true);
+        },
+
+        // Pages which start at the beginning of the queue, or where a previously read page ended, are read from
+        // a cursor so that the broker does not need to walk the queue from its head to reach them
+        _canRequestPage: function (kwArgs) {
+            return this.pageOperationName && kwArgs && kwArgs.hasOwnProperty("start")
+                   && kwArgs.hasOwnProperty("end") && kwArgs.end > kwArgs.start
+                   && (kwArgs.start === 0 || this._cursors.hasOwnProperty(kwArgs.start));
+        },
+
+        _requestPage: function (kwArgs, headers) {
+            var modelObj = {
+                name: this.pageOperationName,
+                parent: this.modelObject,
+                type: this.modelObject.type
+            };
+            var query = lang.clone(this.operationArguments);
+            query.count = kwArgs.end - kwArgs.start;
+            if (kwArgs.start !== 0)
+            {
+                query.cursor = this._cursors[kwArgs.start];
+            }
+            var that = this;
+            return this.management.invoke(modelObj, query, {headers: headers}, true)
+                .then(function (page) {
+                    that._rememberCursor(kwArgs.start + page.messages.length, page.nextCursor);
+                    return page.messages;
+                }, function (error) {
+                    // the cursor is no longer valid, forget it and read the range instead
+                    delete that._cursors[kwArgs.start];
+                    return that._requestRange(kwArgs, headers);
+                });
+        },
+
+        _rememberCursor: function (position, cursor) {
+            if (cursor)
+            {
+                if (Object.keys(this._cursors).length >= this.maxCursors)
+                {
+                    this._cursors = {};
+                }
+                this._cursors[position] = cursor;
+            }
         },
 
         _getQueueDepth: function () {
@@ -49,6 +49,8 @@ import java.util.stream.Stream;
 
 import javax.security.auth.Subject;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -57,11 +59,13 @@ import org.apache.qpid.server.management.plugin.ManagementException;
 import org.apache.qpid.server.management.plugin.ManagementRequest;
 import org.apache.qpid.server.management.plugin.ManagementResponse;
 import org.apache.qpid.server.management.plugin.RequestType;
+import org.apache.qpid.server.management.plugin.servlet.rest.ConfiguredObjectStreamingResponse;
 import org.apache.qpid.server.model.AuthenticationProvider;
 import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.BrokerModel;
 import org.apache.qpid.server.model.BrokerTestHelper;
 import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectJacksonModule;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.model.VirtualHost;
 import org.apache.qpid.server.model.VirtualHostNode;
@@ -291,6 +295,45 @@ public class LatestManagementControllerTest extends UnitTestBase
         assertThat(((Queue) o2).getName(), is(equalTo("bar")));
     }
 
+    @Test
+    public void getForBrokerRootAndQueuePathWithOffsetAndLimit() throws Exception
+    {
+        final String hostName = "test";
+        final QueueManagingVirtualHost<?> virtualHost = createVirtualHostWithQueue(hostName, "foo", "bar", "bar2");
+        final List<String> path = Arrays.asList("*", hostName);
+        final Map<String, List<String>> parameters = new HashMap<>();
+        parameters.put("offset", Collections.singletonList("1"));
+        parameters.put("limit", Collections.singletonList("1"));
+
+        final Object object = _controller.get(virtualHost.getBroker(), "queue", path, parameters);
+        assertThat(object, is(instanceOf(Collection.class)));
+
+        final Collection<?> data = (Collection<?>) object;
+        assertThat(data.size(), is(equalTo(1)));
+        assertThat(((Queue) data.iterator().next()).getName(), is(equalTo("bar2")));
+    }
+
+    @Test
+    public void getForBrokerRootAndQueuePathWithNegativeLimit() throws Exception
+    {
+        final String hostName = "test";
+        final QueueManagingVirtualHost<?> virtualHost = createVirtualHostWithQueue(hostName, "foo", "bar");
+        final List<String> path = Arrays.asList("*", hostName);
+
+        try
+        {
+            _controller.get(virtualHost.getBroker(),
+                            "queue",
+                            path,
+                            Collections.singletonMap("limit", Collections.singletonList("-1")));
+            fail("Negative limit should be rejected");
+        }
+        catch (ManagementException e)
+        {
+            assertThat(e.getStatusCode(), is(equalTo(400)));
+        }
+    }
+
     @Test
     public void getForBrokerRootAndQueuePathWithFilter() throws Exception
     {
@@ -631,6 +674,43 @@ public class LatestManagementControllerTest extends UnitTestBase
         assertThat(queueMap2.get(Queue.NAME), is(equalTo("foo")));
     }
 
+    @Test
+    public void formatConfiguredObjectForStreamingMatchesFormattedMaps() throws Exception
+    {
+        final String hostName = "test";
+        final QueueManagingVirtualHost<?> virtualHost = createVirtualHostWithQueue(hostName, "foo", "bar");
+        final Map<String, List<String>> parameters = Collections.singletonMap("depth", Collections.singletonList("1"));
+
+        final Object formatted = _controller.formatConfiguredObject(virtualHost, parameters, true);
+        final Object streamed = _controller.formatConfiguredObjectForStreaming(virtualHost, parameters, true);
+        assertThat(streamed, is(instanceOf(ConfiguredObjectStreamingResponse.class)));
+
+        final ObjectMapper mapper = ConfiguredObjectJacksonModule.newObjectMapper(false);
+        final JsonNode expected = mapper.readTree(mapper.writeValueAsString(formatted));
+        final JsonNode actual = mapper.readTree(mapper.writeValueAsString(streamed));
+        assertThat(actual, is(equalTo(expected)));
+        assertThat(actual.get("queues").size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void formatConfiguredObjectForStreamingCollection() throws Exception
+    {
+        final String hostName = "test";
+        final QueueManagingVirtualHost<?> virtualHost = createVirtualHostWithQueue(hostName, "foo", "bar");
+        final List<String> path = Arrays.asList("*", hostName);
+        final Map<String, List<String>> parameters = Collections.singletonMap("limit", Collections.singletonList("2"));
+
+        final Object objects = _controller.get(virtualHost.getBroker(), "queue", path, parameters);
+        final Object streamed = _controller.formatConfiguredObjectForStreaming(objects, parameters, true);
+
+        final ObjectMapper mapper = ConfiguredObjectJacksonModule.newObjectMapper(false);
+        final JsonNode actual = mapper.readTree(mapper.writeValueAsString(streamed));
+        assertThat(actual.isArray(), is(equalTo(true)));
+        assertThat(actual.size(), is(equalTo(2)));
+        assertThat(actual.get(0).get(Queue.NAME).asText(), is(equalTo("bar")));
+        assertThat(actual.get(1).get(Queue.NAME).asText(), is(equalTo("foo")));
+    }
+
     @Test
     public void handleGetForBrokerRootAndQueueSingletonPath() throws Exception
     {
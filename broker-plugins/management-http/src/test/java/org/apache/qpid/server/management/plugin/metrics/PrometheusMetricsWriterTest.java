@@ -0,0 +1,133 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class PrometheusMetricsWriterTest extends UnitTestBase
+{
+    private QueueManagingVirtualHost<?> _virtualHost;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _virtualHost = BrokerTestHelper.createVirtualHost("test", this);
+        _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, "foo"));
+        _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, "bar"));
+    }
+
+    @Test
+    public void testQueueStatisticsWritten() throws Exception
+    {
+        final String output = write(Collections.emptyMap(), Collections.emptyMap());
+
+        assertTrue("Unexpected type line",
+                   output.contains("# TYPE qpid_queue_queue_depth_messages gauge\n"));
+        assertTrue("Unexpected queue sample",
+                   output.contains("qpid_queue_queue_depth_messages{virtualhost=\"test\",queue=\"foo\"} 0\n"));
+        assertTrue("Unexpected queue sample",
+                   output.contains("qpid_queue_queue_depth_messages{virtualhost=\"test\",queue=\"bar\"} 0\n"));
+        assertTrue("Unexpected counter type line",
+                   output.contains("# TYPE qpid_queue_persistent_enqueued_messages_total counter\n"));
+        assertTrue("Unexpected virtual host sample",
+                   output.contains("qpid_virtual_host_total_connection_count_total{virtualhost=\"test\"} 0\n"));
+    }
+
+    @Test
+    public void testEachFamilyHasSingleHeader() throws Exception
+    {
+        final String output = write(Collections.emptyMap(), Collections.emptyMap());
+
+        final String header = "# TYPE qpid_queue_queue_depth_messages gauge\n";
+        assertEquals("Unexpected number of headers",
+                     output.indexOf(header),
+                     output.lastIndexOf(header));
+    }
+
+    @Test
+    public void testIncludePattern() throws Exception
+    {
+        final String output = write(Collections.singletonMap("queue", "f.*"), Collections.emptyMap());
+
+        assertTrue("Included queue not found", output.contains("queue=\"foo\""));
+        assertFalse("Unexpected queue found", output.contains("queue=\"bar\""));
+        assertTrue("Virtual host metrics not found", output.contains("qpid_virtual_host_"));
+    }
+
+    @Test
+    public void testExcludePattern() throws Exception
+    {
+        final String output = write(Collections.emptyMap(), Collections.singletonMap("queue", ".*"));
+
+        assertFalse("Unexpected queue metrics found", output.contains("qpid_queue_"));
+        assertTrue("Virtual host metrics not found", output.contains("qpid_virtual_host_"));
+    }
+
+    @Test
+    public void testLabelValueEscaping()
+    {
+        assertEquals("Unexpected label", "queue=\"a\\\"b\\\\c\\nd\"", PrometheusMetricsWriter.label("queue", "a\"b\\c\nd"));
+    }
+
+    @Test
+    public void testSnakeCase()
+    {
+        assertEquals("Unexpected name", "queue_depth_messages", PrometheusMetricsWriter.toSnakeCase("queueDepthMessages"));
+        assertEquals("Unexpected name", "virtual_host", PrometheusMetricsWriter.toSnakeCase("VirtualHost"));
+        assertEquals("Unexpected name", "jvm_heap_used", PrometheusMetricsWriter.toSnakeCase("JVMHeapUsed"));
+    }
+
+    @Test
+    public void testFormatValue()
+    {
+        assertEquals("Unexpected value", "42", PrometheusMetricsWriter.formatValue(42L));
+        assertEquals("Unexpected value", "1.5", PrometheusMetricsWriter.formatValue(1.5d));
+        assertEquals("Unexpected value", "NaN", PrometheusMetricsWriter.formatValue(Double.NaN));
+        assertEquals("Unexpected value", "+Inf", PrometheusMetricsWriter.formatValue(Double.POSITIVE_INFINITY));
+        assertEquals("Unexpected value", "1000", PrometheusMetricsWriter.formatValue(new Date(1000L)));
+        assertNull("Unexpected value", PrometheusMetricsWriter.formatValue("foo"));
+    }
+
+    private String write(final Map<String, String> includes, final Map<String, String> excludes) throws Exception
+    {
+        final PrometheusMetricsWriter writer =
+                new PrometheusMetricsWriter(_virtualHost.getModel().getTypeRegistry(), includes, excludes);
+        final StringWriter output = new StringWriter();
+        writer.write(_virtualHost, output);
+        return output.toString();
+    }
+}
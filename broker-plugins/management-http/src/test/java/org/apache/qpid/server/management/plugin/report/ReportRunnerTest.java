@@ -21,14 +21,18 @@
 package org.apache.qpid.server.management.plugin.report;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -132,6 +136,21 @@ public class ReportRunnerTest extends UnitTestBase
         }
     }
 
+    @Test
+    public void testInvalidParameterValue()
+    {
+        try
+        {
+            ReportRunner.createRunner(ColumnarQueueReport.NAME,
+                                      Collections.singletonMap("limit", new String[]{"-1"}));
+            fail("Invalid parameter value should throw exception");
+        }
+        catch(IllegalArgumentException e)
+        {
+            assertEquals("Parameter 'limit' must be a positive integer: -1", e.getMessage());
+        }
+    }
+
     @Test
     public void testBinaryReportWithLimit() throws Exception
     {
@@ -156,6 +175,137 @@ public class ReportRunnerTest extends UnitTestBase
         assertTrue("Output not as expected", Arrays.equals(expected, actual));
     }
 
+    @Test
+    public void testColumnarReportStreamsSampledBatches() throws Exception
+    {
+        Queue queue = createMockQueue(createMessage(1, Collections.<String, Object>singletonMap("key", "a")),
+                                      createMessage(2, Collections.<String, Object>singletonMap("key", "b")),
+                                      createMessage(3, Collections.<String, Object>singletonMap("other", "c")),
+                                      createMessage(4, Collections.<String, Object>singletonMap("key", "d")),
+                                      createMessage(5, Collections.<String, Object>singletonMap("key", "e")),
+                                      createMessage(6, Collections.<String, Object>singletonMap("key", "f")));
+        when(queue.getName()).thenReturn("testQueue");
+        Map<String, String[]> parameterMap = new HashMap<>();
+        parameterMap.put("header", new String[]{"key"});
+        parameterMap.put("sampleInterval", new String[]{"2"});
+        parameterMap.put("batchSize", new String[]{"2"});
+
+        ReportRunner<?> runner = ReportRunner.createRunner(ColumnarQueueReport.NAME, parameterMap);
+        assertTrue("Report should be streaming", runner.isStreamingReport());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        runner.runReport(queue, output);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals("Unexpected magic", ColumnarQueueReport.MAGIC, input.readInt());
+        assertEquals("Unexpected version", ColumnarQueueReport.VERSION, input.readInt());
+        assertEquals("Unexpected queue name", "testQueue", readString(input));
+        assertEquals("Unexpected number of header columns", 1, input.readInt());
+        assertEquals("Unexpected header column", "key", readString(input));
+
+        assertEquals("Unexpected size of first batch", 2, input.readInt());
+        assertEquals("Unexpected message number", 1L, input.readLong());
+        assertEquals("Unexpected message number", 3L, input.readLong());
+        skipFixedColumns(input, 2);
+        assertTrue("Expected header value", input.readBoolean());
+        assertEquals("Unexpected header value", "a", readString(input));
+        assertFalse("Unexpected header value", input.readBoolean());
+
+        assertEquals("Unexpected size of second batch", 1, input.readInt());
+        assertEquals("Unexpected message number", 5L, input.readLong());
+        skipFixedColumns(input, 1);
+        assertTrue("Expected header value", input.readBoolean());
+        assertEquals("Unexpected header value", "e", readString(input));
+
+        assertEquals("Unexpected end of report marker", 0, input.readInt());
+        assertEquals("Unexpected trailing data", 0, input.available());
+    }
+
+    @Test
+    public void testColumnarReportWithLimit() throws Exception
+    {
+        Queue queue = createMockQueue(createMessage(1, Collections.<String, Object>emptyMap()),
+                                      createMessage(2, Collections.<String, Object>emptyMap()),
+                                      createMessage(3, Collections.<String, Object>emptyMap()));
+        when(queue.getName()).thenReturn("testQueue");
+        Map<String, String[]> parameterMap = new HashMap<>();
+        parameterMap.put("limit", new String[]{"2"});
+
+        ReportRunner<?> runner = ReportRunner.createRunner(ColumnarQueueReport.NAME, parameterMap);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        runner.runReport(queue, output);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        input.readInt();
+        input.readInt();
+        readString(input);
+        assertEquals("Unexpected number of header columns", 0, input.readInt());
+        assertEquals("Unexpected size of batch", 2, input.readInt());
+        assertEquals("Unexpected message number", 1L, input.readLong());
+        assertEquals("Unexpected message number", 2L, input.readLong());
+    }
+
+    @Test
+    public void testColumnarReportWritesLongStrings() throws Exception
+    {
+        final char[] chars = new char[70000];
+        Arrays.fill(chars, '\u00e9');
+        final String longValue = new String(chars);
+        Queue queue = createMockQueue(createMessage(1, Collections.<String, Object>singletonMap("key", longValue)));
+        when(queue.getName()).thenReturn("testQueue");
+        Map<String, String[]> parameterMap = new HashMap<>();
+        parameterMap.put("header", new String[]{"key"});
+
+        ReportRunner<?> runner = ReportRunner.createRunner(ColumnarQueueReport.NAME, parameterMap);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        runner.runReport(queue, output);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        input.readInt();
+        input.readInt();
+        readString(input);
+        assertEquals("Unexpected number of header columns", 1, input.readInt());
+        readString(input);
+        assertEquals("Unexpected size of batch", 1, input.readInt());
+        assertEquals("Unexpected message number", 1L, input.readLong());
+        skipFixedColumns(input, 1);
+        assertTrue("Expected header value", input.readBoolean());
+        assertEquals("Unexpected header value", longValue, readString(input));
+    }
+
+    private String readString(final DataInputStream input) throws Exception
+    {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void skipFixedColumns(final DataInputStream input, final int rows) throws Exception
+    {
+        // size, arrival time and expiration columns
+        for (int i = 0; i < rows * 3; i++)
+        {
+            input.readLong();
+        }
+        // persistent and priority columns
+        for (int i = 0; i < rows * 2; i++)
+        {
+            input.readByte();
+        }
+        // message id column
+        for (int i = 0; i < rows; i++)
+        {
+            assertFalse("Unexpected message id", input.readBoolean());
+        }
+    }
+
+    private ServerMessage<?> createMessage(final long messageNumber, final Map<String, Object> props)
+    {
+        ServerMessage<?> message = createMessageWithAppProperties(props);
+        when(message.getMessageNumber()).thenReturn(messageNumber);
+        return message;
+    }
+
     private ServerMessage<?> createMessageWithAppProperties(final Map<String,Object> props)
     {
         ServerMessage<?> message = mock(ServerMessage.class);
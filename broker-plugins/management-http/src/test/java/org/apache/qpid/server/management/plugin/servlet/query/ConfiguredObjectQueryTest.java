@@ -23,6 +23,8 @@ package org.apache.qpid.server.management.plugin.servlet.query;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -38,6 +40,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -198,6 +201,32 @@ public class ConfiguredObjectQueryTest extends UnitTestBase
         assertEquals("Unexpected row", Lists.newArrayList(objectUuid, 1234), row);
     }
 
+    @Test
+    public void testEmptySelectClauseDistinctFromDefault()
+    {
+        ConfiguredObject obj = createCO(new HashMap<String, Object>()
+        {{
+            put(ConfiguredObject.ID, UUID.randomUUID());
+            put(ConfiguredObject.NAME, "obj1");
+        }});
+        _objects.add(obj);
+
+        _query = new ConfiguredObjectQuery(_objects, null, null);
+        assertEquals("Unexpected headers",
+                     Lists.newArrayList(ConfiguredObject.ID, ConfiguredObject.NAME),
+                     _query.getHeaders());
+
+        try
+        {
+            new ConfiguredObjectQuery(_objects, "", null);
+            fail("Exception not thrown");
+        }
+        catch (SelectorParsingException e)
+        {
+            // pass
+        }
+    }
+
     @Test
     public void testSelectClause_NonExistingColumn()
     {
@@ -776,6 +805,86 @@ public class ConfiguredObjectQueryTest extends UnitTestBase
         assertQueryResults(new Object[][]{{"test-0"},{"test-1"},{"test-2"}}, _query.getResults());
     }
 
+    @Test
+    public void testLimitAndOffsetOfOrderedResultWithTies()
+    {
+        final Random random = new Random(1);
+        for (int i = 0; i < 200; i++)
+        {
+            final String name = "test-" + i;
+            final int depth = random.nextInt(20);
+            _objects.add(createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put("depth", depth);
+            }}));
+        }
+
+        final List<List<Object>> allResults =
+                new ConfiguredObjectQuery(_objects, "name, depth", null, "depth DESC").getResults();
+        assertEquals("Unexpected number of results", (long) 200, (long) allResults.size());
+
+        for (int offset : new int[]{0, 1, 15, 199, 200, 250})
+        {
+            for (int limit : new int[]{0, 1, 20, 300})
+            {
+                _query = new ConfiguredObjectQuery(_objects,
+                                                   "name, depth",
+                                                   null,
+                                                   "depth DESC",
+                                                   String.valueOf(limit),
+                                                   String.valueOf(offset));
+                final int from = Math.min(200, offset);
+                final int to = Math.min(200, offset + limit);
+                assertEquals(String.format("Unexpected results for limit %d and offset %d", limit, offset),
+                             allResults.subList(from, to),
+                             _query.getResults());
+                assertEquals("Unexpected total number of rows", (long) 200, (long) _query.getTotalNumberOfRows());
+            }
+        }
+    }
+
+    @Test
+    public void testLimitWithWhereClauseCountsAllMatchingRows()
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            final String name = "test-" + i;
+            final int number = i;
+            _objects.add(createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put(NUMBER_ATTR, number);
+            }}));
+        }
+
+        _query = new ConfiguredObjectQuery(_objects, "name", NUMBER_ATTR + " >= 4", null, "2", "1");
+        assertQueryResults(new Object[][]{{"test-5"}, {"test-6"}}, _query.getResults());
+        assertEquals("Unexpected total number of rows", (long) 6, (long) _query.getTotalNumberOfRows());
+    }
+
+    @Test
+    public void testOrderByExpressionEvaluatedOncePerObject()
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            final String name = "test-" + i;
+            final int number = 5 - i;
+            _objects.add(createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put(NUMBER_ATTR, number);
+            }}));
+        }
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, NUMBER_ATTR, "2", "0");
+        assertQueryResults(new Object[][]{{"test-4"}, {"test-3"}}, _query.getResults());
+        for (ConfiguredObject<?> object : _objects)
+        {
+            verify(object, times(1)).getAttribute(NUMBER_ATTR);
+        }
+    }
+
     private void assertQueryResults(final Object[][] expectedAttributes,
                                     final List<List<Object>> results)
     {
@@ -0,0 +1,351 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.management.plugin.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class StatisticsPublisherTest extends UnitTestBase
+{
+    private static final long INTERVAL = 5000;
+    private static final int MAX_FEEDS = 2;
+    private static final int MAX_SUBSCRIPTIONS = 3;
+
+    private ScheduledExecutorService _executor;
+    private ScheduledFuture<?> _future;
+    private StatisticsPublisher _publisher;
+    private QueueManagingVirtualHost<?> _virtualHost;
+    private Queue<?> _queue;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _executor = mock(ScheduledExecutorService.class);
+        _future = mock(ScheduledFuture.class);
+        doReturn(_future).when(_executor).scheduleAtFixedRate(any(Runnable.class),
+                                                              anyLong(),
+                                                              anyLong(),
+                                                              any(TimeUnit.class));
+        _publisher = new StatisticsPublisher(_executor, MAX_FEEDS, MAX_SUBSCRIPTIONS);
+        _virtualHost = BrokerTestHelper.createVirtualHost(getTestName(), this);
+        _queue = _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, "foo"));
+    }
+
+    @After
+    public void tearDown()
+    {
+        _publisher.close();
+    }
+
+    @Test
+    public void testSubscribersOfSameObjectsShareFeed() throws Exception
+    {
+        final RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        final RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        subscribe(subscriber1);
+        subscribe(subscriber2);
+
+        verify(_executor, times(1)).scheduleAtFixedRate(any(Runnable.class),
+                                                        eq(0L),
+                                                        eq(INTERVAL),
+                                                        eq(TimeUnit.MILLISECONDS));
+        assertEquals("Unexpected number of feeds", 1, _publisher.getFeedCount());
+
+        getFeed().run();
+
+        assertEquals("Unexpected event", StatisticsPublisher.SNAPSHOT_EVENT, subscriber1.getLastEventType());
+        assertTrue("Expected subscribers to be sent the same encoded event",
+                   subscriber1.getLastData() == subscriber2.getLastData());
+
+        final Map<String, Object> queueEntry = getEntry(subscriber1, _queue);
+        assertEquals("Unexpected name", "foo", queueEntry.get(StatisticsPublisher.NAME_KEY));
+        final Map<?, ?> statistics = (Map<?, ?>) queueEntry.get(StatisticsPublisher.STATISTICS_KEY);
+        assertEquals("Unexpected statistics", Collections.singleton("queueDepthMessages"), statistics.keySet());
+    }
+
+    @Test
+    public void testDeltaOfCreatedAndDeletedObjects() throws Exception
+    {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscribe(subscriber);
+        final Runnable feed = getFeed();
+        feed.run();
+
+        feed.run();
+        assertNull("Expected keep-alive when nothing changed", subscriber.getLastEventType());
+
+        final Queue<?> bar = _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, "bar"));
+        _queue.delete();
+        feed.run();
+
+        assertEquals("Unexpected event", StatisticsPublisher.DELTA_EVENT, subscriber.getLastEventType());
+        final Map<String, Object> delta = subscriber.getLastEvent();
+        assertEquals("Unexpected number of changed objects", 2, delta.size());
+        assertTrue("Expected deleted queue in delta", delta.containsKey(_queue.getId().toString()));
+        assertNull("Expected deleted queue to map to null", delta.get(_queue.getId().toString()));
+        assertEquals("Unexpected name of created queue",
+                     "bar",
+                     getEntry(subscriber, bar).get(StatisticsPublisher.NAME_KEY));
+    }
+
+    @Test
+    public void testNewSubscriberOfExistingFeedIsSentSnapshot() throws Exception
+    {
+        final RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        subscribe(subscriber1);
+        final Runnable feed = getFeed();
+        feed.run();
+
+        final RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        subscribe(subscriber2);
+        feed.run();
+
+        assertNull("Expected keep-alive for existing subscriber", subscriber1.getLastEventType());
+        assertEquals("Unexpected event for new subscriber",
+                     StatisticsPublisher.SNAPSHOT_EVENT,
+                     subscriber2.getLastEventType());
+        assertNotNull("Expected queue in snapshot", getEntry(subscriber2, _queue));
+    }
+
+    @Test
+    public void testClosingLastSubscriptionStopsFeed()
+    {
+        final RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        final RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        final StatisticsPublisher.Subscription subscription1 = subscribe(subscriber1);
+        final StatisticsPublisher.Subscription subscription2 = subscribe(subscriber2);
+
+        subscription1.close();
+        assertTrue("Expected subscriber to be closed", subscriber1.isClosed());
+        verify(_future, times(0)).cancel(false);
+
+        subscription2.close();
+        verify(_future).cancel(false);
+        assertEquals("Unexpected number of feeds", 0, _publisher.getFeedCount());
+    }
+
+    @Test
+    public void testFailingSubscriberIsUnsubscribed()
+    {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.setFailing(true);
+        subscribe(subscriber);
+
+        getFeed().run();
+
+        assertTrue("Expected failing subscriber to be closed", subscriber.isClosed());
+        verify(_future).cancel(false);
+        assertEquals("Unexpected number of feeds", 0, _publisher.getFeedCount());
+    }
+
+    @Test
+    public void testCloseClosesSubscribers()
+    {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscribe(subscriber);
+
+        _publisher.close();
+
+        assertTrue("Expected subscriber to be closed", subscriber.isClosed());
+        verify(_future).cancel(false);
+    }
+
+    @Test
+    public void testStatisticsReadUnderSubscriberSubject()
+    {
+        final Subject subject = new Subject();
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscribe(subject, subscriber);
+
+        getFeed().run();
+
+        assertSame("Unexpected subject", subject, subscriber.getLastSubject());
+    }
+
+    @Test
+    public void testSubscriptionsOfDifferentSubjectsDoNotShareFeed()
+    {
+        subscribe(new RecordingSubscriber());
+        subscribe(createSubject("other"), new RecordingSubscriber());
+
+        assertEquals("Unexpected number of feeds", 2, _publisher.getFeedCount());
+    }
+
+    @Test
+    public void testSubscriptionLimits()
+    {
+        subscribe(new RecordingSubscriber());
+        subscribe(createSubject("user"), new RecordingSubscriber());
+        try
+        {
+            subscribe(createSubject("other"), new RecordingSubscriber());
+            fail("Feed limit not enforced");
+        }
+        catch (StatisticsPublisher.SubscriptionLimitException e)
+        {
+            // pass
+        }
+
+        final StatisticsPublisher.Subscription subscription = subscribe(new RecordingSubscriber());
+        assertEquals("Unexpected number of subscriptions", MAX_SUBSCRIPTIONS, _publisher.getSubscriptionCount());
+        try
+        {
+            subscribe(new RecordingSubscriber());
+            fail("Subscription limit not enforced");
+        }
+        catch (StatisticsPublisher.SubscriptionLimitException e)
+        {
+            // pass
+        }
+
+        subscription.close();
+        subscribe(new RecordingSubscriber());
+        assertEquals("Unexpected number of subscriptions", MAX_SUBSCRIPTIONS, _publisher.getSubscriptionCount());
+    }
+
+    private StatisticsPublisher.Subscription subscribe(final StatisticsSubscriber subscriber)
+    {
+        return subscribe(null, subscriber);
+    }
+
+    private StatisticsPublisher.Subscription subscribe(final Subject subject, final StatisticsSubscriber subscriber)
+    {
+        return _publisher.subscribe(subject,
+                                    _virtualHost,
+                                    Queue.class,
+                                    Collections.emptyList(),
+                                    Collections.singletonList("queueDepthMessages"),
+                                    INTERVAL,
+                                    subscriber);
+    }
+
+    private Subject createSubject(final String name)
+    {
+        final Subject subject = new Subject();
+        subject.getPrincipals().add(() -> name);
+        return subject;
+    }
+
+    private Runnable getFeed()
+    {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(_executor).scheduleAtFixedRate(captor.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getEntry(final RecordingSubscriber subscriber, final Queue<?> queue) throws IOException
+    {
+        return (Map<String, Object>) subscriber.getLastEvent().get(queue.getId().toString());
+    }
+
+    private static class RecordingSubscriber implements StatisticsSubscriber
+    {
+        private final List<String> _eventTypes = new ArrayList<>();
+        private final List<byte[]> _data = new ArrayList<>();
+        private Subject _lastSubject;
+        private boolean _failing;
+        private boolean _closed;
+
+        @Override
+        public void send(final String eventType, final byte[] data) throws IOException
+        {
+            if (_failing)
+            {
+                throw new IOException("Test");
+            }
+            _eventTypes.add(eventType);
+            _data.add(data);
+            _lastSubject = Subject.getSubject(AccessController.getContext());
+        }
+
+        @Override
+        public void close()
+        {
+            _closed = true;
+        }
+
+        void setFailing(final boolean failing)
+        {
+            _failing = failing;
+        }
+
+        Subject getLastSubject()
+        {
+            return _lastSubject;
+        }
+
+        boolean isClosed()
+        {
+            return _closed;
+        }
+
+        String getLastEventType()
+        {
+            return _eventTypes.get(_eventTypes.size() - 1);
+        }
+
+        byte[] getLastData()
+        {
+            return _data.get(_data.size() - 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> getLastEvent() throws IOException
+        {
+            return new ObjectMapper().readValue(getLastData(), Map.class);
+        }
+    }
+}